@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2002-2008 LWJGL Project
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'LWJGL' nor the names of
+ *   its contributors may be used to endorse or promote products derived
+ *   from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.lwjgl;
+
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Measures the overhead that BufferChecks adds to a binding method. "unchecked" is
+ * the address computation every generated method performs, the other benchmarks add
+ * the checks that a method with a fixed-size buffer parameter (e.g. glGetFloat)
+ * performs when org.lwjgl.util.NoChecks is not set.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BufferChecksBenchmark {
+
+	private FloatBuffer floats;
+	private ByteBuffer  string;
+
+	@Setup
+	public void setup() {
+		floats = BufferUtils.createFloatBuffer(16);
+		string = BufferUtils.createByteBuffer(16);
+		string.put(15, (byte)0);
+	}
+
+	@Benchmark
+	public long unchecked() {
+		return MemoryUtil.getAddress(floats);
+	}
+
+	@Benchmark
+	public long checkBuffer() {
+		BufferChecks.checkBuffer(floats, 16);
+		return MemoryUtil.getAddress(floats);
+	}
+
+	@Benchmark
+	public long checkDirect() {
+		BufferChecks.checkDirect(floats);
+		return MemoryUtil.getAddress(floats);
+	}
+
+	@Benchmark
+	public long checkNullTerminated() {
+		BufferChecks.checkDirect(string);
+		BufferChecks.checkNullTerminated(string);
+		return MemoryUtil.getAddress(string);
+	}
+
+	@Benchmark
+	public long checkFunctionAddress() {
+		final long address = MemoryUtil.getAddress(floats);
+		BufferChecks.checkFunctionAddress(address);
+		return address;
+	}
+
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2002-2008 LWJGL Project
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'LWJGL' nor the names of
+ *   its contributors may be used to endorse or promote products derived
+ *   from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.lwjgl;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import org.lwjgl.util.mapped.CacheUtil;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Compares ByteBuffer.allocateDirect (what BufferUtils and CacheUtil.createByteBuffer use)
+ * with the explicit MemoryUtil allocation methods. Buffers allocated with allocateDirect
+ * are freed by the GC via Cleaners, so their real cost also shows up in GC time; run with
+ * -prof gc to see it.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MemoryAllocationBenchmark {
+
+	@Param({ "16", "4096" })
+	public int size;
+
+	@Benchmark
+	public ByteBuffer allocateDirect() {
+		return ByteBuffer.allocateDirect(size);
+	}
+
+	@Benchmark
+	public int memAlloc() {
+		final ByteBuffer buffer = MemoryUtil.memAlloc(size);
+		final int capacity = buffer.capacity();
+		MemoryUtil.memFree(buffer);
+		return capacity;
+	}
+
+	@Benchmark
+	public long nmemAlloc() {
+		final long address = MemoryUtil.nmemAlloc(size);
+		MemoryUtil.nmemFree(address);
+		return address;
+	}
+
+	@Benchmark
+	public ByteBuffer cacheCreateByteBuffer() {
+		return CacheUtil.createByteBuffer(size);
+	}
+
+	@Benchmark
+	public int cacheMemAlloc() {
+		final ByteBuffer buffer = CacheUtil.memAlloc(size);
+		final int capacity = buffer.capacity();
+		CacheUtil.memFree(buffer);
+		return capacity;
+	}
+
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2002-2008 LWJGL Project
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'LWJGL' nor the names of
+ *   its contributors may be used to endorse or promote products derived
+ *   from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.lwjgl;
+
+import java.nio.IntBuffer;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Compares the ways a binding (or user code) can get temporary memory for a call.
+ * "createBuffer" allocates a new direct buffer like BufferUtils users do, "fixedBuffer"
+ * reuses a per-context buffer like APIUtil.getBufferInt, "stackRaw" is what the
+ * generated single-value getters do now and "stackBuffer" allocates an IntBuffer view
+ * on the thread's stack. Run with -prof gc to see the allocation rates.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MemoryStackBenchmark {
+
+	@Param({ "1", "64" })
+	public int count;
+
+	private IntBuffer fixed;
+
+	@Setup
+	public void setup() {
+		fixed = BufferUtils.createIntBuffer(64);
+	}
+
+	@Benchmark
+	public int createBuffer() {
+		final IntBuffer buffer = BufferUtils.createIntBuffer(count);
+		buffer.put(0, count);
+		return buffer.get(0);
+	}
+
+	@Benchmark
+	public int fixedBuffer() {
+		fixed.put(0, count);
+		return fixed.get(0);
+	}
+
+	@Benchmark
+	public int stackRaw() {
+		final MemoryStack stack = MemoryStack.stackPush();
+		try {
+			final long memory = stack.nmalloc(4, count << 2);
+			stack.putInt(memory, count);
+			return stack.getInt(memory);
+		} finally {
+			stack.pop();
+		}
+	}
+
+	@Benchmark
+	public int stackBuffer() {
+		final MemoryStack stack = MemoryStack.stackPush();
+		try {
+			final IntBuffer buffer = stack.mallocInt(count);
+			buffer.put(0, count);
+			return buffer.get(0);
+		} finally {
+			stack.pop();
+		}
+	}
+
+}
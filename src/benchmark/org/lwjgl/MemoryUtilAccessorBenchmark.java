@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2002-2008 LWJGL Project
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'LWJGL' nor the names of
+ *   its contributors may be used to endorse or promote products derived
+ *   from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.lwjgl;
+
+import java.lang.reflect.Constructor;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Measures MemoryUtil.getAddress with each of the Accessor implementations that
+ * MemoryUtil may pick at startup. "memoryUtil" goes through MemoryUtil itself, with
+ * the Accessor it selected (see MemoryUtil.getAccessorType()). AccessorJNI requires the
+ * LWJGL natives and is not measured.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MemoryUtilAccessorBenchmark {
+
+	@Param({ "MemoryUtilSun$AccessorUnsafe", "MemoryUtilInvoke$AccessorMethodHandle", "MemoryUtilSun$AccessorReflectFast", "MemoryUtil$AccessorReflect" })
+	public String accessor;
+
+	private MemoryUtil.Accessor util;
+
+	private ByteBuffer  bytes;
+	private FloatBuffer floats;
+
+	@Setup
+	public void setup() throws Exception {
+		final Constructor<?> constructor = Class.forName("org.lwjgl." + accessor).getDeclaredConstructor();
+		constructor.setAccessible(true);
+		util = (MemoryUtil.Accessor)constructor.newInstance();
+
+		bytes = BufferUtils.createByteBuffer(64);
+		floats = BufferUtils.createFloatBuffer(16);
+		floats.position(4);
+	}
+
+	@Benchmark
+	public long getAddressByteBuffer() {
+		return util.getAddress(bytes);
+	}
+
+	@Benchmark
+	public long getAddressFloatBuffer() {
+		return util.getAddress(floats) + (floats.position() << 2);
+	}
+
+	@Benchmark
+	public long memoryUtil() {
+		return MemoryUtil.getAddress(floats);
+	}
+
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2002-2008 LWJGL Project
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'LWJGL' nor the names of
+ *   its contributors may be used to endorse or promote products derived
+ *   from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.lwjgl;
+
+import java.nio.LongBuffer;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Compares PointerBuffer get/put with the same operations on a direct LongBuffer.
+ * PointerBuffer picks its view from Sys.is64Bit(); without the LWJGL natives on the
+ * library path (-Dorg.lwjgl.librarypath) it falls back to 32-bit pointers.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PointerBufferBenchmark {
+
+	private static final int SIZE = 256;
+
+	private PointerBuffer pointers;
+	private LongBuffer    longs;
+
+	@Setup
+	public void setup() {
+		pointers = BufferUtils.createPointerBuffer(SIZE);
+		longs = BufferUtils.createLongBuffer(SIZE);
+	}
+
+	@Benchmark
+	public long pointerBufferAbsolute() {
+		long sum = 0L;
+		for ( int i = 0; i < SIZE; i++ )
+			pointers.put(i, i);
+		for ( int i = 0; i < SIZE; i++ )
+			sum += pointers.get(i);
+		return sum;
+	}
+
+	@Benchmark
+	public long longBufferAbsolute() {
+		long sum = 0L;
+		for ( int i = 0; i < SIZE; i++ )
+			longs.put(i, i);
+		for ( int i = 0; i < SIZE; i++ )
+			sum += longs.get(i);
+		return sum;
+	}
+
+	@Benchmark
+	public long pointerBufferRelative() {
+		long sum = 0L;
+		pointers.clear();
+		for ( int i = 0; i < SIZE; i++ )
+			pointers.put(i);
+		pointers.flip();
+		while ( pointers.hasRemaining() )
+			sum += pointers.get();
+		return sum;
+	}
+
+	@Benchmark
+	public long longBufferRelative() {
+		long sum = 0L;
+		longs.clear();
+		for ( int i = 0; i < SIZE; i++ )
+			longs.put(i);
+		longs.flip();
+		while ( longs.hasRemaining() )
+			sum += longs.get();
+		return sum;
+	}
+
+}
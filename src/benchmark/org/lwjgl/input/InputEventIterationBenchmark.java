@@ -0,0 +1,276 @@
+/*
+ * Copyright (c) 2002-2008 LWJGL Project
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'LWJGL' nor the names of
+ *   its contributors may be used to endorse or promote products derived
+ *   from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.lwjgl.input;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.util.concurrent.TimeUnit;
+
+import org.lwjgl.LWJGLException;
+import org.lwjgl.opengl.InputImplementation;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares reading a frame's worth of buffered input events with the next() loop,
+ * polling whenever the read buffer runs dry, against drainEvents(). Keyboard and Mouse
+ * are created with a fake InputImplementation that hands out pre-encoded events, so no
+ * display or native library is required.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InputEventIterationBenchmark {
+
+	@Param({ "1000" })
+	public int eventsPerFrame;
+
+	private FakeInput input;
+
+	private Blackhole blackhole;
+
+	private final KeyEventSink keySink = new KeyEventSink() {
+		public void keyEvent(int key, boolean state, char character, long nanos, boolean repeat) {
+			blackhole.consume(key);
+			blackhole.consume(state);
+			blackhole.consume(character);
+			blackhole.consume(nanos);
+		}
+	};
+
+	private final MouseEventSink mouseSink = new MouseEventSink() {
+		public void mouseEvent(int button, boolean state, int x, int y, int dx, int dy, int dwheel, long nanos) {
+			blackhole.consume(button);
+			blackhole.consume(state);
+			blackhole.consume(x);
+			blackhole.consume(y);
+			blackhole.consume(dx);
+			blackhole.consume(dy);
+			blackhole.consume(dwheel);
+			blackhole.consume(nanos);
+		}
+	};
+
+	@Setup
+	public void setup(Blackhole blackhole) throws Exception {
+		this.blackhole = blackhole;
+		input = new FakeInput(eventsPerFrame);
+
+		// Skip Sys.initialize() and the Display size lookups, they need the native library
+		Mouse.setClipMouseCoordinatesToWindow(false);
+		create(Keyboard.class);
+		create(Mouse.class);
+	}
+
+	private void create(Class<?> device) throws Exception {
+		Field initialized = device.getDeclaredField("initialized");
+		initialized.setAccessible(true);
+		initialized.setBoolean(null, true);
+
+		Method create = device.getDeclaredMethod("create", InputImplementation.class);
+		create.setAccessible(true);
+		create.invoke(null, input);
+	}
+
+	@TearDown
+	public void tearDown() {
+		Keyboard.destroy();
+		Mouse.destroy();
+	}
+
+	@Benchmark
+	public int keyboardNext() {
+		input.nextFrame();
+		int events = 0;
+		do {
+			Keyboard.poll();
+			while ( Keyboard.next() ) {
+				blackhole.consume(Keyboard.getEventKey());
+				blackhole.consume(Keyboard.getEventKeyState());
+				blackhole.consume(Keyboard.getEventCharacter());
+				blackhole.consume(Keyboard.getEventNanoseconds());
+				events++;
+			}
+		} while ( input.hasKeyEvents() );
+		return events;
+	}
+
+	@Benchmark
+	public int keyboardDrain() {
+		input.nextFrame();
+		return Keyboard.drainEvents(keySink);
+	}
+
+	@Benchmark
+	public int mouseNext() {
+		input.nextFrame();
+		int events = 0;
+		do {
+			Mouse.poll();
+			while ( Mouse.next() ) {
+				blackhole.consume(Mouse.getEventButton());
+				blackhole.consume(Mouse.getEventButtonState());
+				blackhole.consume(Mouse.getEventX());
+				blackhole.consume(Mouse.getEventY());
+				blackhole.consume(Mouse.getEventDX());
+				blackhole.consume(Mouse.getEventDY());
+				blackhole.consume(Mouse.getEventDWheel());
+				blackhole.consume(Mouse.getEventNanoseconds());
+				events++;
+			}
+		} while ( input.hasMouseEvents() );
+		return events;
+	}
+
+	@Benchmark
+	public int mouseDrain() {
+		input.nextFrame();
+		return Mouse.drainEvents(mouseSink);
+	}
+
+	/** Hands out the same pre-encoded frame of events over and over */
+	private static final class FakeInput implements InputImplementation {
+
+		private final ByteBuffer keyEvents;
+		private final ByteBuffer mouseEvents;
+
+		FakeInput(int eventsPerFrame) {
+			keyEvents = ByteBuffer.allocate(eventsPerFrame * Keyboard.EVENT_SIZE);
+			mouseEvents = ByteBuffer.allocate(eventsPerFrame * Mouse.EVENT_SIZE);
+			for ( int i = 0; i < eventsPerFrame; i++ ) {
+				keyEvents.putInt(Keyboard.KEY_A + (i & 15)).put((byte)(i & 1)).putInt('a' + (i & 15)).putLong(i * 1000L).put((byte)0);
+				mouseEvents.put((byte)((i & 31) == 0 ? 0 : -1)).put((byte)((i >> 5) & 1)).putInt(i & 1023).putInt(i >> 2).putInt(0).putLong(i * 1000L);
+			}
+		}
+
+		void nextFrame() {
+			keyEvents.clear();
+			mouseEvents.clear();
+		}
+
+		boolean hasKeyEvents() {
+			return keyEvents.hasRemaining();
+		}
+
+		boolean hasMouseEvents() {
+			return mouseEvents.hasRemaining();
+		}
+
+		private static void copy(ByteBuffer source, ByteBuffer dest, int eventSize) {
+			int count = Math.min(source.remaining(), dest.remaining()) / eventSize;
+			int limit = source.limit();
+			source.limit(source.position() + count * eventSize);
+			dest.put(source);
+			source.limit(limit);
+		}
+
+		public void readKeyboard(ByteBuffer buffer) {
+			copy(keyEvents, buffer, Keyboard.EVENT_SIZE);
+		}
+
+		public void readMouse(ByteBuffer buffer) {
+			copy(mouseEvents, buffer, Mouse.EVENT_SIZE);
+		}
+
+		public boolean hasWheel() {
+			return true;
+		}
+
+		public int getButtonCount() {
+			return 3;
+		}
+
+		public void createMouse() throws LWJGLException {
+		}
+
+		public void destroyMouse() {
+		}
+
+		public void pollMouse(IntBuffer coord_buffer, ByteBuffer buttons) {
+		}
+
+		public void grabMouse(boolean grab) {
+		}
+
+		public int getNativeCursorCapabilities() {
+			return 0;
+		}
+
+		public void setCursorPosition(int x, int y) {
+		}
+
+		public void setNativeCursor(Object handle) throws LWJGLException {
+		}
+
+		public int getMinCursorSize() {
+			return 1;
+		}
+
+		public int getMaxCursorSize() {
+			return 1;
+		}
+
+		public void createKeyboard() throws LWJGLException {
+		}
+
+		public void destroyKeyboard() {
+		}
+
+		public void pollKeyboard(ByteBuffer keyDownBuffer) {
+		}
+
+		public Object createCursor(int width, int height, int xHotspot, int yHotspot, int numImages, IntBuffer images, IntBuffer delays) throws LWJGLException {
+			return null;
+		}
+
+		public void destroyCursor(Object cursor_handle) {
+		}
+
+		public int getWidth() {
+			return 1024;
+		}
+
+		public int getHeight() {
+			return 768;
+		}
+
+		public boolean isInsideWindow() {
+			return true;
+		}
+	}
+
+}
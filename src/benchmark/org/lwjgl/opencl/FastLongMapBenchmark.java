@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2002-2008 LWJGL Project
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'LWJGL' nor the names of
+ *   its contributors may be used to endorse or promote products derived
+ *   from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.lwjgl.opencl;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Measures FastLongMap, which maps CL object pointers to their Java wrappers in the
+ * CL object registries, against the chained map it replaced and a HashMap with boxed
+ * keys. Keys look like heap pointers: 16-byte aligned and spread over a large range.
+ * <p/>
+ * The "concurrent" groups run three reader threads (e.g. event callbacks from driver
+ * threads) against a writer thread. FastLongMap reads are lock-free; the legacy map is
+ * not thread-safe and is guarded with a lock, as the registries would need to be.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FastLongMapBenchmark {
+
+	private static final long BASE = 0x7F3A_0000_0000L;
+
+	@State(Scope.Benchmark)
+	public static class Maps {
+
+		@Param({ "16", "1024" })
+		public int size;
+
+		FastLongMap<Object>       fastMap;
+		LegacyFastLongMap<Object> legacyMap;
+		Map<Long, Object>         hashMap;
+
+		long[] keys;
+
+		@Setup
+		public void setup() {
+			fastMap = new FastLongMap<Object>();
+			legacyMap = new LegacyFastLongMap<Object>();
+			hashMap = new HashMap<Long, Object>();
+
+			keys = new long[size];
+			for ( int i = 0; i < size; i++ ) {
+				keys[i] = BASE + i * 0x150L;
+
+				final Object value = new Object();
+				fastMap.put(keys[i], value);
+				legacyMap.put(keys[i], value);
+				hashMap.put(keys[i], value);
+			}
+		}
+
+	}
+
+	@State(Scope.Thread)
+	public static class Cursor {
+
+		int index;
+
+		long next(final Maps maps) {
+			index = index == maps.size - 1 ? 0 : index + 1;
+			return maps.keys[index];
+		}
+
+	}
+
+	@Benchmark
+	public Object fastGet(final Maps maps, final Cursor cursor) {
+		return maps.fastMap.get(cursor.next(maps));
+	}
+
+	@Benchmark
+	public Object legacyGet(final Maps maps, final Cursor cursor) {
+		return maps.legacyMap.get(cursor.next(maps));
+	}
+
+	@Benchmark
+	public Object hashGet(final Maps maps, final Cursor cursor) {
+		return maps.hashMap.get(cursor.next(maps));
+	}
+
+	@Benchmark
+	public Object fastGetMiss(final Maps maps, final Cursor cursor) {
+		return maps.fastMap.get(cursor.next(maps) + 8L);
+	}
+
+	@Benchmark
+	public Object legacyGetMiss(final Maps maps, final Cursor cursor) {
+		return maps.legacyMap.get(cursor.next(maps) + 8L);
+	}
+
+	@Benchmark
+	public Object hashGetMiss(final Maps maps, final Cursor cursor) {
+		return maps.hashMap.get(cursor.next(maps) + 8L);
+	}
+
+	@Benchmark
+	public Object fastRemovePut(final Maps maps, final Cursor cursor) {
+		final long key = cursor.next(maps);
+		return maps.fastMap.put(key, maps.fastMap.remove(key));
+	}
+
+	@Benchmark
+	public Object legacyRemovePut(final Maps maps, final Cursor cursor) {
+		final long key = cursor.next(maps);
+		return maps.legacyMap.put(key, maps.legacyMap.remove(key));
+	}
+
+	@Benchmark
+	public Object hashRemovePut(final Maps maps, final Cursor cursor) {
+		final long key = cursor.next(maps);
+		return maps.hashMap.put(key, maps.hashMap.remove(key));
+	}
+
+	@Benchmark
+	@Group("fastConcurrent")
+	@GroupThreads(3)
+	public Object fastConcurrentGet(final Maps maps, final Cursor cursor) {
+		return maps.fastMap.get(cursor.next(maps));
+	}
+
+	@Benchmark
+	@Group("fastConcurrent")
+	public Object fastConcurrentRemovePut(final Maps maps, final Cursor cursor) {
+		final long key = cursor.next(maps);
+		final Object value = maps.fastMap.get(key);
+		maps.fastMap.remove(key);
+		return maps.fastMap.put(key, value);
+	}
+
+	@Benchmark
+	@Group("legacyConcurrent")
+	@GroupThreads(3)
+	public Object legacyConcurrentGet(final Maps maps, final Cursor cursor) {
+		synchronized ( maps.legacyMap ) {
+			return maps.legacyMap.get(cursor.next(maps));
+		}
+	}
+
+	@Benchmark
+	@Group("legacyConcurrent")
+	public Object legacyConcurrentRemovePut(final Maps maps, final Cursor cursor) {
+		synchronized ( maps.legacyMap ) {
+			final long key = cursor.next(maps);
+			return maps.legacyMap.put(key, maps.legacyMap.remove(key));
+		}
+	}
+
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2002-2008 LWJGL Project
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'LWJGL' nor the names of
+ *   its contributors may be used to endorse or promote products derived
+ *   from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.lwjgl.opengl;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+
+import org.lwjgl.BufferChecks;
+import org.openjdk.jmh.annotations.*;
+
+import sun.misc.Unsafe;
+
+/**
+ * Measures the per-call overhead of capability dispatch, i.e. what every generated GL method
+ * does before the native call: look up the current ContextCapabilities, load the function
+ * pointer and check it. With "singleContext" the capabilities are published once, like
+ * Display does in single-context mode, otherwise each thread sets its own capabilities,
+ * like when every thread has its own context current.
+ * <p/>
+ * With one thread the default path hits the fast path cache. With four threads, only the
+ * thread that set its capabilities last owns the cache and the rest go through the ThreadLocal.
+ * <p/>
+ * GLContext itself loads the natives, so the lookup is done on CurrentCapabilities directly,
+ * with the same null check as GLContext.getCapabilities().
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CapabilitiesDispatchBenchmark {
+
+	@Param({ "false", "true" })
+	public boolean singleContext;
+
+	@Setup
+	public void setup() throws Exception {
+		if ( singleContext )
+			CurrentCapabilities.setSingleContext(newCapabilities());
+	}
+
+	@TearDown
+	public void tearDown() {
+		CurrentCapabilities.setSingleContext(null);
+	}
+
+	@State(Scope.Thread)
+	public static class ThreadContext {
+
+		@Setup
+		public void setup() throws Exception {
+			CurrentCapabilities.set(newCapabilities());
+		}
+
+		@TearDown
+		public void tearDown() {
+			CurrentCapabilities.set(null);
+		}
+	}
+
+	/** Creates a ContextCapabilities without running its constructor, which needs a current context. */
+	static ContextCapabilities newCapabilities() throws Exception {
+		final Field field = Unsafe.class.getDeclaredField("theUnsafe");
+		field.setAccessible(true);
+
+		final ContextCapabilities caps = (ContextCapabilities)((Unsafe)field.get(null)).allocateInstance(ContextCapabilities.class);
+		caps.glClear = 0x1000L;
+		return caps;
+	}
+
+	private static long dispatch() {
+		final ContextCapabilities caps = CurrentCapabilities.get();
+		if ( caps == null )
+			throw new RuntimeException("No OpenGL context found in the current thread.");
+
+		final long function_pointer = caps.glClear;
+		BufferChecks.checkFunctionAddress(function_pointer);
+		return function_pointer;
+	}
+
+	@Benchmark
+	@Threads(1)
+	public long oneThread(ThreadContext context) {
+		return dispatch();
+	}
+
+	@Benchmark
+	@Threads(4)
+	public long fourThreads(ThreadContext context) {
+		return dispatch();
+	}
+}
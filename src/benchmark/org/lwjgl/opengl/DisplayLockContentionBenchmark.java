@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2002-2008 LWJGL Project
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'LWJGL' nor the names of
+ *   its contributors may be used to endorse or promote products derived
+ *   from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.lwjgl.opengl;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures how long cheap window queries take while a render thread is busy
+ * in Display.update(). Display can't be loaded headless, since its static
+ * initializer loads the natives and creates the platform implementation, so the
+ * render thread repeats the locking of update(false) followed by processMessages()
+ * step by step, on the real GlobalLock locks: the paint decision, the swap under the
+ * context lock and the resize check under the display lock, and the message processing
+ * under the display and input locks. "legacy" holds the
+ * single global lock for all of it and the reader threads synchronize on it, like
+ * Display did before the locks were split; otherwise the readers read the published
+ * volatile snapshot like Display.isActive() does.
+ * <p/>
+ * The number of reader threads can be changed with JMH's -tg option, e.g. -tg 1,8.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DisplayLockContentionBenchmark {
+
+	@Param({ "true", "false" })
+	public boolean legacy;
+
+	/** Work done by the swap, in Blackhole tokens */
+	@Param({ "20000" })
+	public long swapTokens;
+
+	/** Work done for each of the other steps of update(), in Blackhole tokens */
+	@Param({ "100" })
+	public long stepTokens;
+
+	/** The implementation's window state */
+	private boolean impl_visible = true;
+	private boolean impl_dirty;
+	private boolean impl_active;
+
+	private volatile boolean published_active;
+
+	@Benchmark
+	@Group("contention")
+	@GroupThreads(1)
+	public void update() {
+		if ( legacy ) {
+			synchronized ( GlobalLock.lock ) {
+				if ( impl_visible || impl_dirty )
+					Blackhole.consumeCPU(swapTokens);
+				Blackhole.consumeCPU(stepTokens * 2);
+				impl_active = !impl_active;
+			}
+		} else {
+			synchronized ( GlobalLock.lock ) {
+				final boolean is_dirty = impl_dirty;
+				impl_dirty = false;
+				if ( impl_visible || is_dirty ) {
+					synchronized ( GlobalLock.context_lock ) {
+						Blackhole.consumeCPU(swapTokens);
+					}
+				}
+				Blackhole.consumeCPU(stepTokens);
+			}
+			synchronized ( GlobalLock.lock ) {
+				processMessages();
+				published_active = impl_active;
+			}
+		}
+	}
+
+	private void processMessages() {
+		synchronized ( GlobalLock.input_lock ) {
+			Blackhole.consumeCPU(stepTokens);
+			impl_active = !impl_active;
+		}
+	}
+
+	@Benchmark
+	@Group("contention")
+	@GroupThreads(3)
+	public boolean isActive() {
+		if ( legacy ) {
+			synchronized ( GlobalLock.lock ) {
+				return impl_active;
+			}
+		} else
+			return published_active;
+	}
+
+}
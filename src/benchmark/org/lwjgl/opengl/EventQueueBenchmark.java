@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2002-2008 LWJGL Project
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'LWJGL' nor the names of
+ *   its contributors may be used to endorse or promote products derived
+ *   from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.lwjgl.opengl;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import org.lwjgl.input.Keyboard;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Measures EventQueue throughput with keyboard-sized events. "batch" queues a number of
+ * events and drains them from the same thread, like a window system that is pumped from the
+ * game loop. "spsc" runs a producer thread against a consumer thread, like the input
+ * thread does; on a single-core machine the two threads time-slice and the result
+ * mostly reflects scheduling.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventQueueBenchmark {
+
+	@State(Scope.Thread)
+	public static class Batch {
+
+		@Param({ "1", "64" })
+		public int events;
+
+		EventQueue queue;
+
+		ByteBuffer event;
+		ByteBuffer dest;
+
+		@Setup
+		public void setup() {
+			queue = new EventQueue(Keyboard.EVENT_SIZE, 256, EventQueue.OVERFLOW_DROP_OLDEST);
+			event = ByteBuffer.allocate(Keyboard.EVENT_SIZE);
+			dest = ByteBuffer.allocate(Keyboard.EVENT_SIZE * 256);
+		}
+
+	}
+
+	@State(Scope.Group)
+	public static class Shared {
+
+		EventQueue queue;
+
+		@Setup
+		public void setup() {
+			queue = new EventQueue(Keyboard.EVENT_SIZE, 256, EventQueue.OVERFLOW_DROP_OLDEST);
+		}
+
+	}
+
+	@State(Scope.Thread)
+	public static class Producer {
+
+		ByteBuffer event;
+
+		@Setup
+		public void setup() {
+			event = ByteBuffer.allocate(Keyboard.EVENT_SIZE);
+		}
+
+	}
+
+	@State(Scope.Thread)
+	public static class Consumer {
+
+		ByteBuffer dest;
+
+		@Setup
+		public void setup() {
+			dest = ByteBuffer.allocate(Keyboard.EVENT_SIZE * 256);
+		}
+
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.AverageTime)
+	@OutputTimeUnit(TimeUnit.NANOSECONDS)
+	public int batch(final Batch state) {
+		final ByteBuffer event = state.event;
+		for ( int i = 0; i < state.events; i++ ) {
+			event.clear();
+			state.queue.putEvent(event);
+		}
+
+		state.dest.clear();
+		state.queue.copyEvents(state.dest);
+		return state.dest.position();
+	}
+
+	@Benchmark
+	@Group("spsc")
+	public boolean put(final Shared shared, final Producer producer) {
+		producer.event.clear();
+		return shared.queue.putEvent(producer.event);
+	}
+
+	@Benchmark
+	@Group("spsc")
+	public int copy(final Shared shared, final Consumer consumer) {
+		consumer.dest.clear();
+		shared.queue.copyEvents(consumer.dest);
+		return consumer.dest.position();
+	}
+
+}
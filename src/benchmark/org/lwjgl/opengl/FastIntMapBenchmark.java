@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2002-2008 LWJGL Project
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'LWJGL' nor the names of
+ *   its contributors may be used to endorse or promote products derived
+ *   from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.lwjgl.opengl;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Measures FastIntMap, which maps GL object names to objects (e.g. the per-context
+ * VAO state), against the chained map it replaced and a HashMap with boxed keys.
+ * Keys are small consecutive integers, like the names GL implementations hand out.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FastIntMapBenchmark {
+
+	@Param({ "16", "1024" })
+	public int size;
+
+	private FastIntMap<Object>       fastMap;
+	private LegacyFastIntMap<Object> legacyMap;
+	private Map<Integer, Object>     hashMap;
+
+	private int key;
+
+	@Setup
+	public void setup() {
+		fastMap = new FastIntMap<Object>();
+		legacyMap = new LegacyFastIntMap<Object>();
+		hashMap = new HashMap<Integer, Object>();
+		for ( int i = 1; i <= size; i++ ) {
+			final Object value = new Object();
+			fastMap.put(i, value);
+			legacyMap.put(i, value);
+			hashMap.put(i, value);
+		}
+	}
+
+	private int nextKey() {
+		key = key == size ? 1 : key + 1;
+		return key;
+	}
+
+	@Benchmark
+	public Object fastGet() {
+		return fastMap.get(nextKey());
+	}
+
+	@Benchmark
+	public Object legacyGet() {
+		return legacyMap.get(nextKey());
+	}
+
+	@Benchmark
+	public Object hashGet() {
+		return hashMap.get(nextKey());
+	}
+
+	@Benchmark
+	public Object fastGetMiss() {
+		return fastMap.get(size + nextKey());
+	}
+
+	@Benchmark
+	public Object legacyGetMiss() {
+		return legacyMap.get(size + nextKey());
+	}
+
+	@Benchmark
+	public Object hashGetMiss() {
+		return hashMap.get(size + nextKey());
+	}
+
+	@Benchmark
+	public Object fastRemovePut() {
+		final int key = nextKey();
+		return fastMap.put(key, fastMap.remove(key));
+	}
+
+	@Benchmark
+	public Object legacyRemovePut() {
+		final int key = nextKey();
+		return legacyMap.put(key, legacyMap.remove(key));
+	}
+
+	@Benchmark
+	public Object hashRemovePut() {
+		final int key = nextKey();
+		return hashMap.put(key, hashMap.remove(key));
+	}
+
+}
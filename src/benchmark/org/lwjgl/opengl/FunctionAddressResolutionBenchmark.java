@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2002-2008 LWJGL Project
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'LWJGL' nor the names of
+ *   its contributors may be used to endorse or promote products derived
+ *   from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.lwjgl.opengl;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import org.lwjgl.MemoryUtil;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the Java side of resolving every entry point of the GL template set
+ * (ContextCapabilities.FUNCTION_NAMES) at context creation. "perName" encodes
+ * each name to a new direct buffer, like GLContext.getFunctionAddress(String)
+ * does before each of its JNI calls. "bulk" packs all names into one buffer, then
+ * looks every name up in the resolved table, like the generated initializers do
+ * after GLContext.resolveFunctionAddresses. "cached" is the bulk path with a
+ * function cache that marks half of the names as missing.
+ * <p/>
+ * The native lookups themselves need a GL library and can't run headless; on top
+ * of these numbers the perName path pays one JNI transition per name, the bulk
+ * paths pay one in total and the cached path skips the driver lookup for every
+ * missing name.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FunctionAddressResolutionBenchmark {
+
+	private String[] names;
+	private FunctionTable table;
+	private long[] addresses;
+	private boolean[] present;
+
+	@Setup
+	public void setup() {
+		names = ContextCapabilities.FUNCTION_NAMES;
+
+		table = new FunctionTable(names);
+
+		addresses = new long[names.length];
+		present = new boolean[names.length];
+		for ( int i = 0; i < names.length; i++ )
+			present[i] = (i & 1) == 0;
+	}
+
+	@Benchmark
+	public void perName(final Blackhole bh) {
+		for ( String name : names ) {
+			final ByteBuffer buffer = MemoryUtil.encodeASCII(name);
+			bh.consume(MemoryUtil.getAddress(buffer));
+		}
+	}
+
+	@Benchmark
+	public void bulk(final Blackhole bh) {
+		bh.consume(FunctionTable.encode(names, null));
+		lookup(bh);
+	}
+
+	@Benchmark
+	public void cached(final Blackhole bh) {
+		bh.consume(FunctionTable.encode(names, present));
+		lookup(bh);
+	}
+
+	private void lookup(final Blackhole bh) {
+		for ( String name : names )
+			bh.consume(addresses[table.indexOf(name)]);
+	}
+
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2002-2008 LWJGL Project
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'LWJGL' nor the names of
+ *   its contributors may be used to endorse or promote products derived
+ *   from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.lwjgl.opengl;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import org.lwjgl.input.Mouse;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Simulates one frame of high-rate pointer input: a burst of motion events with
+ * a click in the middle is queued the way BoatMouse does it, then read back and
+ * decoded the way Mouse.next() does it. The events counter reports the number of
+ * events the game loop has to process per frame.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MouseCoalescingBenchmark {
+
+	@Param({ "false", "true" })
+	public boolean coalesce;
+
+	@Param({ "100", "1000" })
+	public int motionEventsPerFrame;
+
+	private MotionEventQueue queue;
+	private ByteBuffer event;
+	private ByteBuffer readBuffer;
+
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	@State(Scope.Thread)
+	public static class Counters {
+		public long events;
+		public long frames;
+	}
+
+	@Setup
+	public void setup() {
+		queue = new MotionEventQueue();
+		queue.setRelative(true);
+		queue.setCoalesceMotion(coalesce);
+		event = ByteBuffer.allocate(Mouse.EVENT_SIZE);
+		readBuffer = ByteBuffer.allocate(Mouse.EVENT_SIZE * 50);
+	}
+
+	private void putEvent(byte button, byte state, int dx, int dy, long nanos) {
+		event.clear();
+		event.put(button).put(state).putInt(dx).putInt(dy).putInt(0).putLong(nanos);
+		event.flip();
+		queue.putEvent(event);
+	}
+
+	@Benchmark
+	public long frame(Counters counters) {
+		int half = motionEventsPerFrame >> 1;
+		for ( int i = 0; i < motionEventsPerFrame; i++ ) {
+			if ( i == half )
+				putEvent((byte)0, (byte)1, 0, 0, i);
+			putEvent((byte)-1, (byte)0, 1, -1, i);
+		}
+		queue.flushPendingEvent();
+
+		long dx = 0;
+		int events = 0;
+		do {
+			readBuffer.clear();
+			queue.copyEvents(readBuffer);
+			readBuffer.flip();
+			while ( readBuffer.hasRemaining() ) {
+				readBuffer.get();
+				readBuffer.get();
+				dx += readBuffer.getInt();
+				readBuffer.getInt();
+				readBuffer.getInt();
+				readBuffer.getLong();
+				events++;
+			}
+		} while ( readBuffer.limit() != 0 );
+
+		counters.events += events;
+		counters.frames++;
+		return dx;
+	}
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2002-2008 LWJGL Project
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'LWJGL' nor the names of
+ *   its contributors may be used to endorse or promote products derived
+ *   from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.lwjgl.opengl;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.concurrent.TimeUnit;
+
+import org.lwjgl.BufferUtils;
+import org.lwjgl.MemoryUtil;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Compares APIUtil's string marshalling with the char-by-char path it replaced.
+ * The "legacy" benchmarks reproduce the old code: ByteBuffer.put per character for
+ * GL strings, a char[] copy and new String per getString and a CharsetEncoder plus
+ * a new direct buffer per MemoryUtil.encodeUTF8 call. Run with -prof gc to see the
+ * allocation rates; getBufferNT and getString should report zero bytes per op.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StringMarshallingBenchmark {
+
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+
+	@Param({ "16", "256" })
+	public int length;
+
+	private String        ascii;
+	private String        utf8;
+	private StringBuilder name;
+
+	private ByteBuffer buffer;
+	private char[]     array;
+	private ByteBuffer encoded;
+
+	@Setup
+	public void setup() {
+		final StringBuilder asciiBuilder = new StringBuilder(length);
+		final StringBuilder utf8Builder = new StringBuilder(length);
+		for ( int i = 0; i < length; i++ ) {
+			asciiBuilder.append((char)('a' + i % 26));
+			utf8Builder.append(i % 8 == 0 ? '\u00e9' : (char)('a' + i % 26));
+		}
+		ascii = asciiBuilder.toString();
+		utf8 = utf8Builder.toString();
+		name = new StringBuilder(ascii);
+
+		buffer = BufferUtils.createByteBuffer(length * 4 + 1);
+		array = new char[length];
+
+		encoded = BufferUtils.createByteBuffer(length);
+		MemoryUtil.encodeASCII(ascii, false, encoded, 0);
+	}
+
+	@Benchmark
+	public long legacyGetBuffer() {
+		buffer.clear();
+		for ( int i = 0; i < ascii.length(); i++ )
+			buffer.put((byte)ascii.charAt(i));
+		buffer.flip();
+		return MemoryUtil.getAddress0(buffer);
+	}
+
+	@Benchmark
+	public long getBuffer() {
+		return APIUtil.getBuffer(null, ascii);
+	}
+
+	@Benchmark
+	public long legacyGetBufferNT() {
+		buffer.clear();
+		for ( int i = 0; i < ascii.length(); i++ )
+			buffer.put((byte)ascii.charAt(i));
+		buffer.put((byte)0);
+		buffer.flip();
+		return MemoryUtil.getAddress0(buffer);
+	}
+
+	@Benchmark
+	public long getBufferNT() {
+		return APIUtil.getBufferNT(null, ascii);
+	}
+
+	@Benchmark
+	public long getBufferNTBuilder() {
+		return APIUtil.getBufferNT(null, name);
+	}
+
+	@Benchmark
+	public String legacyGetString() {
+		for ( int i = 0; i < length; i++ )
+			array[i] = (char)encoded.get(i);
+		return new String(array, 0, length);
+	}
+
+	@Benchmark
+	public String getString() {
+		return APIUtil.getString(null, encoded);
+	}
+
+	@Benchmark
+	public ByteBuffer legacyEncodeUTF8() {
+		final ByteBuffer bytes = UTF8.encode(utf8);
+		final ByteBuffer direct = BufferUtils.createByteBuffer(bytes.remaining() + 1);
+		direct.put(bytes).put((byte)0).flip();
+		return direct;
+	}
+
+	@Benchmark
+	public int encodeUTF8() {
+		return MemoryUtil.encodeUTF8(utf8, true, buffer, 0);
+	}
+
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2002-2008 LWJGL Project
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'LWJGL' nor the names of
+ *   its contributors may be used to endorse or promote products derived
+ *   from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.lwjgl.opengles;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.security.AccessController;
+import java.security.PrivilegedExceptionAction;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the cold, per-process cost of the stub initialization that
+ * ContextCapabilities performs at context creation, for every extension class
+ * of the GL ES template set. "eager" loads each class and looks its
+ * initNativeStubs method up through AccessController.doPrivileged and
+ * reflection, like GLContext.initNativeStubs does. "lazy" runs what the code
+ * generated with -Alazystubs does instead: it computes the extension flags from
+ * the extension string and only loads the core GLES20 class, whose
+ * stubs_initialized flag it reads. The extension classes register their stubs
+ * from their static initializer, on their first use by the application, so
+ * that cost moves out of context creation and is only paid for the extensions
+ * actually used.
+ * <p/>
+ * The native registration itself needs a GL ES library and can't run headless,
+ * so it isn't measured here. The eager mode pays it for every supported
+ * extension at context creation, the lazy mode only for the core class.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(20)
+public class StubInitializationBenchmark {
+
+	private List<String> extensions;
+	private List<String> class_names;
+
+	@Setup
+	public void setup() throws IOException {
+		extensions = new ArrayList<String>();
+		class_names = new ArrayList<String>();
+
+		for ( Field field : ContextCapabilities.class.getFields() ) {
+			final String extension = field.getName();
+			if ( field.getType() != boolean.class || !extension.startsWith("GL_") )
+				continue;
+
+			extensions.add(extension);
+
+			// GL_OES_EGL_image -> OESEGLImage
+			final StringBuilder class_name = new StringBuilder("org.lwjgl.opengles.");
+			for ( String part : extension.substring(3).split("_") )
+				class_name.append(Character.toUpperCase(part.charAt(0))).append(part.substring(1));
+
+			// Only classes with functions have stubs. Check the class file, loading the class here would warm it up.
+			if ( hasStubs(class_name.toString()) )
+				class_names.add(class_name.toString());
+		}
+	}
+
+	private boolean hasStubs(final String class_name) throws IOException {
+		final InputStream in = getClass().getClassLoader().getResourceAsStream(class_name.replace('.', '/') + ".class");
+		if ( in == null )
+			return false;
+
+		try {
+			final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			final byte[] buffer = new byte[4096];
+			for ( int n; (n = in.read(buffer)) != -1; )
+				bytes.write(buffer, 0, n);
+			return new String(bytes.toByteArray(), "ISO-8859-1").contains("initNativeStubs");
+		} finally {
+			in.close();
+		}
+	}
+
+	private Set<String> getSupportedExtensions() {
+		final Set<String> supported_extensions = new HashSet<String>(256);
+		for ( String extension : extensions )
+			supported_extensions.add(extension);
+		return supported_extensions;
+	}
+
+	@Benchmark
+	public void eager(final Blackhole bh) throws Exception {
+		final Set<String> supported_extensions = getSupportedExtensions();
+		for ( String class_name : class_names ) {
+			final Class<?> extension_class = Class.forName(class_name, false, getClass().getClassLoader());
+			bh.consume(AccessController.doPrivileged(new PrivilegedExceptionAction<Method>() {
+				public Method run() throws Exception {
+					return extension_class.getDeclaredMethod("initNativeStubs");
+				}
+			}));
+		}
+		bh.consume(supported_extensions);
+	}
+
+	@Benchmark
+	public void lazy(final Blackhole bh) throws Exception {
+		final Set<String> supported_extensions = getSupportedExtensions();
+		// Initializing GLES20 would call the native initNativeStubs, load it only. The extension classes aren't touched.
+		bh.consume(Class.forName("org.lwjgl.opengles.GLES20", false, getClass().getClassLoader()));
+		bh.consume(supported_extensions);
+	}
+
+}
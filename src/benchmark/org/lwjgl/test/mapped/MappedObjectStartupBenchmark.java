@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2002-2008 LWJGL Project
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'LWJGL' nor the names of
+ *   its contributors may be used to endorse or promote products derived
+ *   from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.lwjgl.test.mapped;
+
+import java.io.File;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.concurrent.TimeUnit;
+
+import org.lwjgl.util.mapped.MappedObjectClassLoader;
+import org.lwjgl.util.mapped.MappedObjectTransformer;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Measures the startup cost of a small mapped object workload, in a fresh JVM each time.
+ * "fork" registers the mapped type and goes through MappedObjectClassLoader.fork, which loads
+ * ASM and transforms every class the workload touches. "pretransformed" runs the same workload
+ * from classes transformed ahead of time by MappedObjectCompiler, during the build (see the
+ * -benchmark-mapped target), without a fork.
+ * <p/>
+ * The benchmark lives next to the mapped test types, because classes directly in
+ * org.lwjgl.util.mapped are never transformed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(10)
+public class MappedObjectStartupBenchmark {
+
+	private ClassLoader pretransformed;
+
+	@Setup
+	public void setup() throws Exception {
+		final URL classes = new File(System.getProperty("benchmark.mapped")).toURI().toURL();
+		pretransformed = new URLClassLoader(new URL[] { classes }, MappedObjectStartupBenchmark.class.getClassLoader()) {
+			protected synchronized Class<?> loadClass(final String name, final boolean resolve) throws ClassNotFoundException {
+				// Child-first, the parent has the same classes untransformed
+				Class<?> clazz = findLoadedClass(name);
+				if ( clazz == null && findResource(name.replace('.', '/').concat(".class")) != null )
+					clazz = findClass(name);
+				if ( clazz == null )
+					return super.loadClass(name, resolve);
+
+				if ( resolve )
+					resolveClass(clazz);
+				return clazz;
+			}
+		};
+	}
+
+	@Benchmark
+	public void fork() {
+		MappedObjectTransformer.register(MappedVec3.class);
+		if ( !MappedObjectClassLoader.fork(Workload.class, new String[0]) )
+			throw new IllegalStateException();
+	}
+
+	@Benchmark
+	public void pretransformed() throws Exception {
+		pretransformed.loadClass(Workload.class.getName()).getMethod("main", String[].class).invoke(null, new Object[] { new String[0] });
+	}
+
+	@SuppressWarnings("static-access")
+	public static class Workload {
+
+		public static void main(String[] args) {
+			final MappedVec3 vecs = MappedVec3.malloc(1024);
+			for ( int i = 0; i < 1024; i++ ) {
+				vecs.view = i;
+				vecs.x = i;
+				vecs.y = 2 * i;
+				vecs.z = vecs.x + vecs.y;
+			}
+
+			float sum = 0.0f;
+			for ( int i = 0; i < 1024; i++ ) {
+				vecs.view = i;
+				sum += vecs.z;
+			}
+
+			if ( sum != 3 * (1023 * 1024 / 2) )
+				throw new IllegalStateException("Invalid sum: " + sum);
+		}
+	}
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2002-2008 LWJGL Project
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'LWJGL' nor the names of
+ *   its contributors may be used to endorse or promote products derived
+ *   from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.lwjgl.util.glu;
+
+import java.util.concurrent.TimeUnit;
+
+import org.lwjgl.util.glu.tessellation.GLUtessellatorImpl;
+import org.openjdk.jmh.annotations.*;
+
+import static org.lwjgl.util.glu.GLU.*;
+
+/**
+ * Tessellates a concave star ("star") and a self-intersecting star polygon ("crossed"),
+ * which also exercises the combine callback. The callbacks only count the output
+ * vertices, so the results measure the tessellator itself.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TessellatorBenchmark {
+
+	@Param({ "11", "101" })
+	public int vertices;
+
+	@Param({ "star", "crossed" })
+	public String shape;
+
+	private GLUtessellator tessellator;
+	private Callback       callback;
+
+	private double[][] coords;
+
+	@Setup
+	public void setup() {
+		coords = new double[vertices][];
+		for ( int i = 0; i < vertices; i++ ) {
+			final double angle;
+			final double radius;
+			if ( "star".equals(shape) ) {
+				angle = 2.0 * Math.PI * i / vertices;
+				radius = (i & 1) == 0 ? 1.0 : 0.5;
+			} else {
+				// Connect every (vertices / 2)th point, the edges cross each other
+				angle = 2.0 * Math.PI * ((long)i * (vertices / 2) % vertices) / vertices;
+				radius = 1.0;
+			}
+			coords[i] = new double[] { Math.cos(angle) * radius, Math.sin(angle) * radius, 0.0 };
+		}
+
+		callback = new Callback();
+
+		tessellator = GLUtessellatorImpl.gluNewTess();
+		tessellator.gluTessProperty(GLU_TESS_WINDING_RULE, GLU_TESS_WINDING_NONZERO);
+		tessellator.gluTessNormal(0.0, 0.0, 1.0);
+		tessellator.gluTessCallback(GLU_TESS_BEGIN, callback);
+		tessellator.gluTessCallback(GLU_TESS_VERTEX, callback);
+		tessellator.gluTessCallback(GLU_TESS_END, callback);
+		tessellator.gluTessCallback(GLU_TESS_COMBINE, callback);
+	}
+
+	@TearDown
+	public void tearDown() {
+		tessellator.gluDeleteTess();
+	}
+
+	@Benchmark
+	public int tessellate() {
+		callback.count = 0;
+
+		tessellator.gluTessBeginPolygon(null);
+		tessellator.gluTessBeginContour();
+		for ( int i = 0; i < vertices; i++ )
+			tessellator.gluTessVertex(coords[i], 0, coords[i]);
+		tessellator.gluTessEndContour();
+		tessellator.gluTessEndPolygon();
+
+		return callback.count;
+	}
+
+	private static final class Callback extends GLUtessellatorCallbackAdapter {
+
+		int count;
+
+		public void vertex(final Object vertexData) {
+			count++;
+		}
+
+		public void combine(final double[] coords, final Object[] data, final float[] weight, final Object[] outData) {
+			outData[0] = new double[] { coords[0], coords[1], coords[2] };
+		}
+
+	}
+
+}
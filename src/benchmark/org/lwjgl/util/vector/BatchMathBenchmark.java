@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2002-2008 LWJGL Project
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'LWJGL' nor the names of
+ *   its contributors may be used to endorse or promote products derived
+ *   from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.lwjgl.util.vector;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Compares the {@link BatchMath} operations on packed float buffers with the equivalent per-object
+ * Matrix4f loops. Each invocation processes <code>count</code> elements. The *PerObjectStore variants
+ * also store the results to a float buffer, as needed before uploading them to GL.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BatchMathBenchmark {
+
+	@Param({ "1024" })
+	public int count;
+
+	private Matrix4f   matrix;
+	private Matrix4f[] matrices;
+	private Matrix4f[] results;
+	private Vector4f[] vectors;
+	private Vector4f[] transformed;
+	private float[]    angles;
+	private Vector3f[] axes;
+
+	private FloatBuffer matrixBuffer;
+	private FloatBuffer matricesBuffer;
+	private FloatBuffer resultsBuffer;
+	private FloatBuffer vectorsBuffer;
+	private FloatBuffer transformedBuffer;
+	private FloatBuffer quaternionsBuffer;
+
+	@Setup
+	public void setup() {
+		final Random random = new Random(42);
+
+		matrix = new Matrix4f();
+		matrix.rotate(0.5f, new Vector3f(0.0f, 1.0f, 0.0f));
+		matrix.translate(new Vector3f(1.0f, 2.0f, 3.0f));
+		matrixBuffer = createFloatBuffer(16);
+		matrix.store(matrixBuffer);
+		matrixBuffer.flip();
+
+		matrices = new Matrix4f[count];
+		results = new Matrix4f[count];
+		vectors = new Vector4f[count];
+		transformed = new Vector4f[count];
+		angles = new float[count];
+		axes = new Vector3f[count];
+
+		matricesBuffer = createFloatBuffer(count * 16);
+		resultsBuffer = createFloatBuffer(count * 16);
+		vectorsBuffer = createFloatBuffer(count * 4);
+		transformedBuffer = createFloatBuffer(count * 4);
+		quaternionsBuffer = createFloatBuffer(count * 4);
+
+		for ( int i = 0; i < count; i++ ) {
+			angles[i] = random.nextFloat() * 6.0f;
+			axes[i] = new Vector3f(random.nextFloat() - 0.5f, random.nextFloat() - 0.5f, random.nextFloat() - 0.5f);
+			axes[i].normalise();
+
+			matrices[i] = new Matrix4f();
+			matrices[i].rotate(angles[i], axes[i]);
+			matrices[i].store(matricesBuffer);
+			results[i] = new Matrix4f();
+
+			vectors[i] = new Vector4f(random.nextFloat(), random.nextFloat(), random.nextFloat(), 1.0f);
+			vectors[i].store(vectorsBuffer);
+			transformed[i] = new Vector4f();
+
+			final Quaternion q = new Quaternion();
+			q.setFromAxisAngle(new Vector4f(axes[i].x, axes[i].y, axes[i].z, angles[i]));
+			q.store(quaternionsBuffer);
+		}
+
+		matricesBuffer.flip();
+		vectorsBuffer.flip();
+		quaternionsBuffer.flip();
+	}
+
+	private static FloatBuffer createFloatBuffer(final int size) {
+		return ByteBuffer.allocateDirect(size * 4).order(ByteOrder.nativeOrder()).asFloatBuffer();
+	}
+
+	@Benchmark
+	public Vector4f[] transformPerObject() {
+		for ( int i = 0; i < count; i++ )
+			Matrix4f.transform(matrix, vectors[i], transformed[i]);
+		return transformed;
+	}
+
+	@Benchmark
+	public FloatBuffer transformPerObjectStore() {
+		for ( int i = 0; i < count; i++ )
+			Matrix4f.transform(matrix, vectors[i], transformed[i]).store(transformedBuffer);
+		transformedBuffer.clear();
+		return transformedBuffer;
+	}
+
+	@Benchmark
+	public FloatBuffer transformBatch() {
+		BatchMath.transform4(matrixBuffer, vectorsBuffer, transformedBuffer, count);
+		return transformedBuffer;
+	}
+
+	@Benchmark
+	public Matrix4f[] mulPerObject() {
+		for ( int i = 0; i < count; i++ )
+			Matrix4f.mul(matrix, matrices[i], results[i]);
+		return results;
+	}
+
+	@Benchmark
+	public FloatBuffer mulPerObjectStore() {
+		for ( int i = 0; i < count; i++ )
+			Matrix4f.mul(matrix, matrices[i], results[i]).store(resultsBuffer);
+		resultsBuffer.clear();
+		return resultsBuffer;
+	}
+
+	@Benchmark
+	public FloatBuffer mulBatch() {
+		BatchMath.mulLeft(matrixBuffer, matricesBuffer, resultsBuffer, count);
+		return resultsBuffer;
+	}
+
+	@Benchmark
+	public Matrix4f[] rotationPerObject() {
+		for ( int i = 0; i < count; i++ ) {
+			final Matrix4f m = results[i];
+			m.setIdentity();
+			m.rotate(angles[i], axes[i]);
+		}
+		return results;
+	}
+
+	@Benchmark
+	public FloatBuffer rotationBatch() {
+		BatchMath.toMatrix(quaternionsBuffer, resultsBuffer, count);
+		return resultsBuffer;
+	}
+
+}
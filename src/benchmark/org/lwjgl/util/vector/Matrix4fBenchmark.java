@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2002-2008 LWJGL Project
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'LWJGL' nor the names of
+ *   its contributors may be used to endorse or promote products derived
+ *   from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.lwjgl.util.vector;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Measures the Matrix4f operations that dominate typical scene graph updates.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class Matrix4fBenchmark {
+
+	private Matrix4f left;
+	private Matrix4f right;
+	private Matrix4f dest;
+
+	@Setup
+	public void setup() {
+		left = new Matrix4f();
+		left.rotate(0.5f, new Vector3f(0.0f, 1.0f, 0.0f));
+		left.translate(new Vector3f(1.0f, 2.0f, 3.0f));
+
+		right = new Matrix4f();
+		right.scale(new Vector3f(2.0f, 2.0f, 2.0f));
+		right.rotate(1.2f, new Vector3f(1.0f, 0.0f, 0.0f));
+
+		dest = new Matrix4f();
+	}
+
+	@Benchmark
+	public Matrix4f mul() {
+		return Matrix4f.mul(left, right, dest);
+	}
+
+	@Benchmark
+	public Matrix4f invert() {
+		return Matrix4f.invert(left, dest);
+	}
+
+	@Benchmark
+	public Vector4f transform() {
+		return Matrix4f.transform(left, new Vector4f(1.0f, 2.0f, 3.0f, 1.0f), null);
+	}
+
+}
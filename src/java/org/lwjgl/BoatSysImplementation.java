@@ -43,7 +43,7 @@ import java.lang.UnsatisfiedLinkError;
  * $Id$
  */
 final class BoatSysImplementation extends J2SESysImplementation {
-	private static final int JNI_VERSION = 19;
+	private static final int JNI_VERSION = 24;
 
 	public int getRequiredJNIVersion() {
 		return JNI_VERSION;
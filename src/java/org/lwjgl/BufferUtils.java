@@ -202,4 +202,16 @@ public final class BufferUtils {
 	 */
 	static native long getBufferAddress(Buffer buffer);
 
+	// Used by MemoryUtil when sun.misc.Unsafe is not available.
+
+	static native long nmalloc(long size);
+
+	static native long ncalloc(long num, long size);
+
+	static native long nrealloc(long address, long size);
+
+	static native void nfree(long address);
+
+	static native ByteBuffer newBuffer(long address, long capacity);
+
 }
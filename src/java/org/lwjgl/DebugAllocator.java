@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2002-2011 LWJGL Project
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'LWJGL' nor the names of
+ *   its contributors may be used to endorse or promote products derived
+ *   from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.lwjgl;
+
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Tracks the memory allocated with the MemoryUtil allocation methods, when the
+ * org.lwjgl.util.DebugAllocator system property is set. Memory that has not been
+ * freed when the JVM shuts down is reported to System.err, along with the stack
+ * trace of the allocation.
+ */
+final class DebugAllocator {
+
+	private static final Map<Long, Allocation> allocations = new HashMap<Long, Allocation>();
+
+	static {
+		AccessController.doPrivileged(new PrivilegedAction<Object>() {
+			public Object run() {
+				Runtime.getRuntime().addShutdownHook(new Thread("LWJGL DebugAllocator") {
+					public void run() {
+						report();
+					}
+				});
+				return null;
+			}
+		});
+	}
+
+	private DebugAllocator() {
+	}
+
+	static void track(final long address, final long size) {
+		final Allocation allocation = new Allocation(size);
+		synchronized ( allocations ) {
+			if ( allocations.put(address, allocation) != null )
+				System.err.println("[LWJGL] [DebugAllocator] Memory at address 0x" + Long.toHexString(address) + " was allocated twice.");
+		}
+	}
+
+	/** Returns true if the memory at the specified address is being tracked. */
+	static boolean isTracked(final long address) {
+		synchronized ( allocations ) {
+			return allocations.containsKey(address);
+		}
+	}
+
+	/**
+	 * Stops tracking the memory at the specified address.
+	 *
+	 * @return false if the memory was not tracked, in which case it must not be freed
+	 */
+	static boolean untrack(final long address) {
+		final Allocation allocation;
+		synchronized ( allocations ) {
+			allocation = allocations.remove(address);
+		}
+		if ( allocation == null ) {
+			System.err.println("[LWJGL] [DebugAllocator] Freeing memory at address 0x" + Long.toHexString(address) + " that was not allocated by MemoryUtil or was already freed.");
+			new Throwable().printStackTrace();
+			return false;
+		}
+		return true;
+	}
+
+	static void report() {
+		synchronized ( allocations ) {
+			for ( Map.Entry<Long, Allocation> entry : allocations.entrySet() ) {
+				final Allocation allocation = entry.getValue();
+				System.err.println("[LWJGL] [DebugAllocator] " + allocation.size + " bytes leaked at address 0x" + Long.toHexString(entry.getKey()) + ", allocated at:");
+				final StackTraceElement[] trace = allocation.getStackTrace();
+				// Skip the DebugAllocator and MemoryUtil frames
+				for ( int i = 0; i < trace.length; i++ ) {
+					final String className = trace[i].getClassName();
+					if ( className.equals(DebugAllocator.class.getName()) || className.equals(MemoryUtil.class.getName()) )
+						continue;
+					System.err.println("\tat " + trace[i]);
+				}
+			}
+		}
+	}
+
+	/** Captures the stack trace of the allocation. */
+	private static final class Allocation extends Throwable {
+
+		final long size;
+
+		Allocation(final long size) {
+			this.size = size;
+		}
+
+	}
+
+}
@@ -483,6 +483,17 @@ public class LWJGLUtil {
 		});
 	}
 
+	/**
+	 * Gets a string property as a privileged action.
+	 *
+	 * @param property_name the string property name
+	 *
+	 * @return the property value
+	 */
+	public static String getPrivilegedString(final String property_name) {
+		return getPrivilegedProperty(property_name);
+	}
+
 	/**
 	 * Gets an integer property as a privileged action.
 	 *
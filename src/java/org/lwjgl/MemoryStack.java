@@ -0,0 +1,355 @@
+/*
+ * Copyright (c) 2002-2008 LWJGL Project
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'LWJGL' nor the names of
+ *   its contributors may be used to endorse or promote products derived
+ *   from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.lwjgl;
+
+import java.nio.*;
+
+/**
+ * An off-heap stack for short-lived temporaries. Memory is bump-allocated from a fixed
+ * direct buffer and reclaimed in bulk by popping the enclosing frame, so allocations are
+ * cheap and do not put pressure on the garbage collector. Each thread has its own stack,
+ * see {@link #stackGet()}. Typical usage:
+ * <p/>
+ * <pre>
+ * MemoryStack stack = MemoryStack.stackPush();
+ * try {
+ *     IntBuffer ids = stack.mallocInt(16);
+ *     GL11.glGenTextures(ids);
+ *     ...
+ * } finally {
+ *     stack.pop();
+ * }
+ * </pre>
+ * <p/>
+ * Memory returned by a stack must not be used after the frame it was allocated in has
+ * been popped. The generated bindings use the thread's stack for their own temporaries,
+ * always inside a frame of their own.
+ * <p/>
+ * The default stack size is 64kb and can be changed with the org.lwjgl.MemoryStack.size
+ * system property (in kilobytes).
+ */
+public final class MemoryStack {
+
+	private static final int DEFAULT_STACK_SIZE = LWJGLUtil.getPrivilegedInteger("org.lwjgl.MemoryStack.size", 64) * 1024;
+
+	private static final int DEFAULT_STACK_FRAMES = 8;
+
+	private static final ThreadLocal<MemoryStack> stacks = new ThreadLocal<MemoryStack>() {
+		protected MemoryStack initialValue() {
+			return new MemoryStack(DEFAULT_STACK_SIZE, Thread.currentThread());
+		}
+	};
+
+	/**
+	 * The most recently used thread stack. Like GLContext's fast_path_cache, it is only used
+	 * if it is owned by the current thread, so no synchronization is necessary.
+	 */
+	private static MemoryStack fast_path_stack = new MemoryStack(0, null);
+
+	private final Thread owner;
+
+	private final ByteBuffer buffer;
+	private final long       address;
+	private final int        size;
+
+	/** The offset of the first free byte. */
+	private int pointer;
+
+	private int[] frames;
+	private int   frameIndex;
+
+	/**
+	 * Creates a new stack with the specified size. The stack is not bound to a thread and
+	 * must only be used by one thread at a time.
+	 *
+	 * @param size the stack size, in bytes
+	 */
+	public MemoryStack(final int size) {
+		this(size, null);
+	}
+
+	private MemoryStack(final int size, final Thread owner) {
+		this.owner = owner;
+
+		this.buffer = BufferUtils.createByteBuffer(size);
+		this.address = MemoryUtil.getAddress0(buffer);
+		this.size = size;
+
+		this.frames = new int[DEFAULT_STACK_FRAMES];
+	}
+
+	/**
+	 * Returns the stack of the current thread.
+	 *
+	 * @return the thread-local stack
+	 */
+	public static MemoryStack stackGet() {
+		final MemoryStack stack = fast_path_stack;
+		if ( stack.owner == Thread.currentThread() )
+			return stack;
+
+		return fast_path_stack = stacks.get();
+	}
+
+	/**
+	 * Pushes a new frame on the stack of the current thread.
+	 *
+	 * @return the thread-local stack
+	 */
+	public static MemoryStack stackPush() {
+		return stackGet().push();
+	}
+
+	/**
+	 * Pops the current frame of the stack of the current thread.
+	 *
+	 * @return the thread-local stack
+	 */
+	public static MemoryStack stackPop() {
+		return stackGet().pop();
+	}
+
+	/**
+	 * Stores the current stack pointer in a new frame. All memory allocated after this call
+	 * is reclaimed by the matching {@link #pop()}.
+	 *
+	 * @return this stack
+	 */
+	public MemoryStack push() {
+		if ( frameIndex == frames.length ) {
+			final int[] framesNew = new int[frames.length << 1];
+			System.arraycopy(frames, 0, framesNew, 0, frames.length);
+			frames = framesNew;
+		}
+
+		frames[frameIndex++] = pointer;
+		return this;
+	}
+
+	/**
+	 * Restores the stack pointer stored by the matching {@link #push()}.
+	 *
+	 * @return this stack
+	 */
+	public MemoryStack pop() {
+		if ( LWJGLUtil.CHECKS && frameIndex == 0 )
+			throw new IllegalStateException("Stack underflow.");
+
+		pointer = frames[--frameIndex];
+		return this;
+	}
+
+	/** Returns the number of frames currently pushed. */
+	public int getFrameIndex() {
+		return frameIndex;
+	}
+
+	/** Returns the address of the stack memory. */
+	public long getAddress() {
+		return address;
+	}
+
+	/** Returns the stack size, in bytes. */
+	public int getSize() {
+		return size;
+	}
+
+	/** Returns the current stack pointer, i.e. the number of bytes in use. */
+	public int getPointer() {
+		return pointer;
+	}
+
+	/**
+	 * Sets the stack pointer. Can be used instead of push/pop, with a value previously returned by {@link #getPointer()}.
+	 *
+	 * @param pointer the new stack pointer
+	 */
+	public void setPointer(final int pointer) {
+		if ( LWJGLUtil.CHECKS && (pointer < 0 || size < pointer) )
+			throw new IllegalArgumentException("Invalid stack pointer: " + pointer);
+
+		this.pointer = pointer;
+	}
+
+	// --- [ Raw allocation ] ---
+
+	/**
+	 * Allocates memory on the stack, aligned to the specified alignment.
+	 *
+	 * @param alignment the alignment, must be a power of two
+	 * @param size      the allocation size, in bytes
+	 *
+	 * @return the address of the allocated memory
+	 */
+	public long nmalloc(final int alignment, final int size) {
+		final int offset = (int)(((address + pointer + alignment - 1) & -alignment) - address);
+		if ( this.size - offset < size )
+			throw new OutOfMemoryError("Out of stack space.");
+
+		pointer = offset + size;
+		return address + offset;
+	}
+
+	/**
+	 * Allocates memory on the stack, aligned to 8 bytes.
+	 *
+	 * @param size the allocation size, in bytes
+	 *
+	 * @return the address of the allocated memory
+	 */
+	public long nmalloc(final int size) {
+		return nmalloc(8, size);
+	}
+
+	/**
+	 * Allocates zero-initialized memory on the stack.
+	 *
+	 * @param alignment the alignment, must be a power of two
+	 * @param num       the number of elements
+	 * @param size      the element size, in bytes
+	 *
+	 * @return the address of the allocated memory
+	 */
+	public long ncalloc(final int alignment, final int num, final int size) {
+		final int bytes = num * size;
+		final long memory = nmalloc(alignment, bytes);
+
+		final int offset = (int)(memory - address);
+		int i = 0;
+		for ( ; i <= bytes - 8; i += 8 )
+			buffer.putLong(offset + i, 0L);
+		for ( ; i < bytes; i++ )
+			buffer.put(offset + i, (byte)0);
+
+		return memory;
+	}
+
+	/**
+	 * Allocates an int on the stack and initializes it to the specified value.
+	 *
+	 * @param value the int value
+	 *
+	 * @return the address of the allocated memory
+	 */
+	public long nint(final int value) {
+		final long memory = nmalloc(4, 4);
+		putInt(memory, value);
+		return memory;
+	}
+
+	// --- [ Buffer allocation ] ---
+
+	private ByteBuffer view(final long memory, final int size) {
+		final int offset = (int)(memory - address);
+
+		final ByteBuffer view = buffer.duplicate();
+		view.position(offset);
+		view.limit(offset + size);
+		return view.slice().order(ByteOrder.nativeOrder());
+	}
+
+	/** Allocates a ByteBuffer on the stack. */
+	public ByteBuffer malloc(final int size) { return view(nmalloc(8, size), size); }
+
+	/** Allocates a zero-initialized ByteBuffer on the stack. */
+	public ByteBuffer calloc(final int size) { return view(ncalloc(8, size, 1), size); }
+
+	/** Allocates a ShortBuffer on the stack. */
+	public ShortBuffer mallocShort(final int size) { return view(nmalloc(2, size << 1), size << 1).asShortBuffer(); }
+
+	/** Allocates a zero-initialized ShortBuffer on the stack. */
+	public ShortBuffer callocShort(final int size) { return view(ncalloc(2, size, 2), size << 1).asShortBuffer(); }
+
+	/** Allocates an IntBuffer on the stack. */
+	public IntBuffer mallocInt(final int size) { return view(nmalloc(4, size << 2), size << 2).asIntBuffer(); }
+
+	/** Allocates a zero-initialized IntBuffer on the stack. */
+	public IntBuffer callocInt(final int size) { return view(ncalloc(4, size, 4), size << 2).asIntBuffer(); }
+
+	/** Allocates a LongBuffer on the stack. */
+	public LongBuffer mallocLong(final int size) { return view(nmalloc(8, size << 3), size << 3).asLongBuffer(); }
+
+	/** Allocates a zero-initialized LongBuffer on the stack. */
+	public LongBuffer callocLong(final int size) { return view(ncalloc(8, size, 8), size << 3).asLongBuffer(); }
+
+	/** Allocates a FloatBuffer on the stack. */
+	public FloatBuffer mallocFloat(final int size) { return view(nmalloc(4, size << 2), size << 2).asFloatBuffer(); }
+
+	/** Allocates a zero-initialized FloatBuffer on the stack. */
+	public FloatBuffer callocFloat(final int size) { return view(ncalloc(4, size, 4), size << 2).asFloatBuffer(); }
+
+	/** Allocates a DoubleBuffer on the stack. */
+	public DoubleBuffer mallocDouble(final int size) { return view(nmalloc(8, size << 3), size << 3).asDoubleBuffer(); }
+
+	/** Allocates a zero-initialized DoubleBuffer on the stack. */
+	public DoubleBuffer callocDouble(final int size) { return view(ncalloc(8, size, 8), size << 3).asDoubleBuffer(); }
+
+	/** Allocates a PointerBuffer on the stack. */
+	public PointerBuffer mallocPointer(final int size) {
+		final int bytes = size * PointerBuffer.getPointerSize();
+		return new PointerBuffer(view(nmalloc(PointerBuffer.getPointerSize(), bytes), bytes));
+	}
+
+	/** Allocates a zero-initialized PointerBuffer on the stack. */
+	public PointerBuffer callocPointer(final int size) {
+		final int bytes = size * PointerBuffer.getPointerSize();
+		return new PointerBuffer(view(ncalloc(PointerBuffer.getPointerSize(), size, PointerBuffer.getPointerSize()), bytes));
+	}
+
+	// --- [ Access to stack memory ] ---
+	// These go through the stack's own buffer, so they work on every JVM. The address must have been allocated on this stack.
+
+	public byte getByte(final long memory) { return buffer.get((int)(memory - address)); }
+
+	public short getShort(final long memory) { return buffer.getShort((int)(memory - address)); }
+
+	public int getInt(final long memory) { return buffer.getInt((int)(memory - address)); }
+
+	public long getLong(final long memory) { return buffer.getLong((int)(memory - address)); }
+
+	public float getFloat(final long memory) { return buffer.getFloat((int)(memory - address)); }
+
+	public double getDouble(final long memory) { return buffer.getDouble((int)(memory - address)); }
+
+	public void putByte(final long memory, final byte value) { buffer.put((int)(memory - address), value); }
+
+	public void putShort(final long memory, final short value) { buffer.putShort((int)(memory - address), value); }
+
+	public void putInt(final long memory, final int value) { buffer.putInt((int)(memory - address), value); }
+
+	public void putLong(final long memory, final long value) { buffer.putLong((int)(memory - address), value); }
+
+	public void putFloat(final long memory, final float value) { buffer.putFloat((int)(memory - address), value); }
+
+	public void putDouble(final long memory, final double value) { buffer.putDouble((int)(memory - address), value); }
+
+}
@@ -54,7 +54,11 @@ public final class MemoryUtil {
 		utf16 = Charset.forName("UTF-16LE");
 	}
 
-	private static final Accessor memUtil;
+	private static final Accessor    memUtil;
+	private static final RawAccessor memRaw;
+	private static final String      accessorType;
+
+	private static final boolean LITTLE_ENDIAN = ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN;
 
 	static {
 		Accessor util;
@@ -63,26 +67,34 @@ public final class MemoryUtil {
 			util = loadAccessor("org.lwjgl.MemoryUtilSun$AccessorUnsafe");
 		} catch (Exception e0) {
 			try {
-				// Depends on java.nio.Buffer#address and sun.reflect.FieldAccessor
-				util = loadAccessor("org.lwjgl.MemoryUtilSun$AccessorReflectFast");
+				// Depends on java.nio.Buffer#address and java.lang.invoke (Java 7)
+				util = loadAccessor("org.lwjgl.MemoryUtilInvoke$AccessorMethodHandle");
 			} catch (Exception e1) {
 				try {
-					// Depends on java.nio.Buffer#address
-					util = new AccessorReflect();
+					// Depends on java.nio.Buffer#address and sun.reflect.FieldAccessor
+					util = loadAccessor("org.lwjgl.MemoryUtilSun$AccessorReflectFast");
 				} catch (Exception e2) {
-					LWJGLUtil.log("Unsupported JVM detected, this will likely result in low performance. Please inform LWJGL developers.");
-					util = new AccessorJNI();
+					try {
+						// Depends on java.nio.Buffer#address
+						util = new AccessorReflect();
+					} catch (Exception e3) {
+						LWJGLUtil.log("Unsupported JVM detected, this will likely result in low performance. Please inform LWJGL developers.");
+						util = new AccessorJNI();
+					}
 				}
 			}
 		}
 
 		LWJGLUtil.log("MemoryUtil Accessor: " + util.getClass().getSimpleName());
 		memUtil = util;
+		accessorType = util.getClass().getSimpleName().substring("Accessor".length());
+		memRaw = util instanceof RawAccessor ? (RawAccessor)util : null;
 
 		/*
 		BENCHMARK RESULTS - Oracle Server VM:
 
 		Unsafe: 4ns
+		MethodHandle: 4ns
 		ReflectFast: 8ns
 		Reflect: 10ns
 		JNI: 82ns
@@ -103,6 +115,18 @@ public final class MemoryUtil {
 	private MemoryUtil() {
 	}
 
+	/**
+	 * Returns the name of the implementation used to retrieve buffer addresses. This is one of
+	 * "Unsafe", "MethodHandle", "ReflectFast", "Reflect" and "JNI", in order of preference.
+	 * Anything other than "Unsafe" or "MethodHandle" adds measurable overhead to each API call
+	 * that takes a buffer argument.
+	 *
+	 * @return the accessor type
+	 */
+	public static String getAccessorType() {
+		return accessorType;
+	}
+
 	/**
 	 * Returns the memory address of the specified buffer. [INTERNAL USE ONLY]
 	 *
@@ -186,6 +210,318 @@ public final class MemoryUtil {
 
 	public static long getAddressSafe(PointerBuffer buffer, int position) { return buffer == null ? 0L : getAddress(buffer, position); }
 
+	// --- [ Memory allocation ] ---
+
+	/*
+	Memory returned by these methods is not managed by the garbage collector and must be
+	freed explicitly. When sun.misc.Unsafe is available it is used directly, otherwise the
+	calls go through JNI to the C library. If the org.lwjgl.util.DebugAllocator system
+	property is set, every allocation is tracked and memory that has not been freed is
+	reported at shutdown, along with the stack trace of the allocation.
+	 */
+
+	private static final boolean DEBUG_ALLOCATOR = LWJGLUtil.getPrivilegedBoolean("org.lwjgl.util.DebugAllocator");
+
+	/** The size of the header that stores the original address of aligned allocations. */
+	private static final int ALIGNED_HEADER_SIZE = 8;
+
+	/**
+	 * Allocates size bytes of uninitialized memory.
+	 *
+	 * @param size the allocation size
+	 *
+	 * @return the address of the allocated memory, 0L if size is 0
+	 *
+	 * @throws OutOfMemoryError if the allocation failed
+	 */
+	public static long nmemAlloc(final long size) {
+		final long address = malloc(size);
+		if ( DEBUG_ALLOCATOR && address != 0L )
+			DebugAllocator.track(address, size);
+		return address;
+	}
+
+	/**
+	 * Allocates memory for an array of num elements of size bytes each and initializes it to zero.
+	 *
+	 * @param num  the number of elements
+	 * @param size the element size
+	 *
+	 * @return the address of the allocated memory, 0L if the total size is 0
+	 *
+	 * @throws OutOfMemoryError if the allocation failed or the total size overflows
+	 */
+	public static long nmemCalloc(final long num, final long size) {
+		if ( num < 0L || size < 0L || (num != 0L && Long.MAX_VALUE / num < size) )
+			throw new OutOfMemoryError("Failed to allocate " + num + " elements of " + size + " bytes.");
+		final long bytes = num * size;
+
+		final long address;
+		if ( memRaw == null ) {
+			address = bytes == 0L ? 0L : BufferUtils.ncalloc(num, size);
+			if ( bytes != 0L && address == 0L )
+				throw new OutOfMemoryError("Failed to allocate " + bytes + " bytes.");
+		} else {
+			address = memRaw.malloc(bytes);
+			if ( address != 0L )
+				memRaw.setMemory(address, bytes, (byte)0);
+		}
+
+		if ( DEBUG_ALLOCATOR && address != 0L )
+			DebugAllocator.track(address, bytes);
+		return address;
+	}
+
+	/**
+	 * Changes the size of the memory block at the specified address. The contents are preserved
+	 * up to the lesser of the old and new sizes. If address is 0L, this is equivalent to
+	 * {@link #nmemAlloc(long)}. If size is 0, the memory is freed.
+	 *
+	 * @param address the memory to resize, allocated with nmemAlloc, nmemCalloc or nmemRealloc
+	 * @param size    the new size
+	 *
+	 * @return the address of the resized memory
+	 *
+	 * @throws OutOfMemoryError         if the allocation failed, in which case the memory at address is left untouched
+	 * @throws IllegalArgumentException if the debug allocator is enabled and the memory at address is not tracked,
+	 *                                  in which case it is left untouched, like {@link #nmemFree(long)} does
+	 */
+	public static long nmemRealloc(final long address, final long size) {
+		if ( DEBUG_ALLOCATOR && address != 0L && !DebugAllocator.isTracked(address) ) {
+			DebugAllocator.untrack(address); // Reports the address
+			throw new IllegalArgumentException("Memory at address 0x" + Long.toHexString(address) + " was not allocated by MemoryUtil or was already freed.");
+		}
+
+		final long addressNew;
+		if ( memRaw == null ) {
+			addressNew = size == 0L ? 0L : BufferUtils.nrealloc(address, size);
+			if ( size == 0L )
+				BufferUtils.nfree(address);
+			else if ( addressNew == 0L )
+				throw new OutOfMemoryError("Failed to allocate " + size + " bytes.");
+		} else
+			addressNew = memRaw.realloc(address, size);
+
+		if ( DEBUG_ALLOCATOR ) {
+			if ( address != 0L )
+				DebugAllocator.untrack(address);
+			if ( addressNew != 0L )
+				DebugAllocator.track(addressNew, size);
+		}
+		return addressNew;
+	}
+
+	/**
+	 * Frees memory allocated with nmemAlloc, nmemCalloc or nmemRealloc. Does nothing if address is 0L.
+	 * If the debug allocator is enabled and the memory is not tracked, it is reported and left untouched.
+	 *
+	 * @param address the memory to free
+	 */
+	public static void nmemFree(final long address) {
+		if ( address == 0L )
+			return;
+
+		if ( DEBUG_ALLOCATOR && !DebugAllocator.untrack(address) )
+			return;
+		free(address);
+	}
+
+	/**
+	 * Allocates size bytes of uninitialized memory, aligned to the specified alignment.
+	 * The memory must be freed with {@link #nmemAlignedFree(long)}.
+	 *
+	 * @param alignment the alignment, must be a power of two
+	 * @param size      the allocation size
+	 *
+	 * @return the address of the allocated memory
+	 *
+	 * @throws OutOfMemoryError if the allocation failed
+	 */
+	public static long nmemAlignedAlloc(final int alignment, final long size) {
+		if ( LWJGLUtil.CHECKS && (alignment <= 0 || (alignment & (alignment - 1)) != 0) )
+			throw new IllegalArgumentException("Invalid alignment: " + alignment);
+
+		// Over-allocate and store the original address right before the aligned address.
+		final long address = malloc(size + ALIGNED_HEADER_SIZE + alignment - 1);
+		final long aligned = (address + ALIGNED_HEADER_SIZE + alignment - 1) & -(long)alignment;
+		putLong(aligned - ALIGNED_HEADER_SIZE, address);
+
+		if ( DEBUG_ALLOCATOR )
+			DebugAllocator.track(aligned, size);
+		return aligned;
+	}
+
+	/**
+	 * Frees memory allocated with {@link #nmemAlignedAlloc(int, long)}. Does nothing if address is 0L.
+	 *
+	 * @param address the memory to free
+	 */
+	public static void nmemAlignedFree(final long address) {
+		if ( address == 0L )
+			return;
+
+		if ( DEBUG_ALLOCATOR && !DebugAllocator.untrack(address) )
+			return;
+		free(getLong(address - ALIGNED_HEADER_SIZE));
+	}
+
+	/**
+	 * Returns a new direct ByteBuffer that points to the specified memory. The buffer does not own
+	 * the memory; it will not be freed when the buffer is garbage collected.
+	 *
+	 * @param address  the memory address
+	 * @param capacity the buffer capacity
+	 *
+	 * @return the buffer, in native byte order, or null if address is 0L
+	 */
+	public static ByteBuffer memByteBuffer(final long address, final int capacity) {
+		return address == 0L ? null : newBuffer(address, capacity);
+	}
+
+	private static ByteBuffer newBuffer(final long address, final int capacity) {
+		final ByteBuffer buffer = memRaw == null ? BufferUtils.newBuffer(address, capacity) : memRaw.newBuffer(address, capacity);
+		return buffer.order(ByteOrder.nativeOrder());
+	}
+
+	/**
+	 * Allocates a ByteBuffer of uninitialized memory. The buffer must be freed with {@link #memFree(Buffer)}.
+	 *
+	 * @param size the buffer capacity
+	 *
+	 * @return the buffer
+	 *
+	 * @see #nmemAlloc(long)
+	 */
+	public static ByteBuffer memAlloc(final int size) {
+		return wrap(nmemAlloc(size), size);
+	}
+
+	/**
+	 * Allocates a zero-initialized ByteBuffer. The buffer must be freed with {@link #memFree(Buffer)}.
+	 *
+	 * @param size the buffer capacity
+	 *
+	 * @return the buffer
+	 *
+	 * @see #nmemCalloc(long, long)
+	 */
+	public static ByteBuffer memCalloc(final int size) {
+		return wrap(nmemCalloc(1, size), size);
+	}
+
+	/**
+	 * Resizes a ByteBuffer allocated with memAlloc, memCalloc or memRealloc. The returned buffer
+	 * replaces the old one, which must not be used anymore. Its position is preserved (clamped to
+	 * the new capacity) and its limit is set to the new capacity.
+	 *
+	 * @param buffer the buffer to resize, may be null
+	 * @param size   the new capacity
+	 *
+	 * @return the resized buffer
+	 *
+	 * @see #nmemRealloc(long, long)
+	 */
+	public static ByteBuffer memRealloc(final ByteBuffer buffer, final int size) {
+		final ByteBuffer bufferNew = wrap(nmemRealloc(buffer == null ? 0L : getAddress0(buffer), size), size);
+		if ( buffer != null )
+			bufferNew.position(Math.min(buffer.position(), size));
+		return bufferNew;
+	}
+
+	/**
+	 * Frees a buffer allocated with memAlloc, memCalloc or memRealloc. Does nothing if buffer is null.
+	 * A view of such a buffer may be passed instead only if it starts at the address of the allocation, i.e. a
+	 * duplicate, or a view created with slice() or asIntBuffer() etc. while the position was 0.
+	 *
+	 * @param buffer the buffer to free
+	 */
+	public static void memFree(final Buffer buffer) {
+		if ( buffer != null )
+			nmemFree(getAddress0(buffer));
+	}
+
+	/**
+	 * Allocates a ByteBuffer of uninitialized memory, aligned to the specified alignment.
+	 * The buffer must be freed with {@link #memAlignedFree(Buffer)}.
+	 *
+	 * @param alignment the alignment, must be a power of two
+	 * @param size      the buffer capacity
+	 *
+	 * @return the buffer
+	 *
+	 * @see #nmemAlignedAlloc(int, long)
+	 */
+	public static ByteBuffer memAlignedAlloc(final int alignment, final int size) {
+		return wrap(nmemAlignedAlloc(alignment, size), size);
+	}
+
+	/**
+	 * Allocates a zero-initialized ByteBuffer, aligned to the specified alignment.
+	 * The buffer must be freed with {@link #memAlignedFree(Buffer)}.
+	 *
+	 * @param alignment the alignment, must be a power of two
+	 * @param size      the buffer capacity
+	 *
+	 * @return the buffer
+	 */
+	public static ByteBuffer memAlignedCalloc(final int alignment, final int size) {
+		final ByteBuffer buffer = memAlignedAlloc(alignment, size);
+		if ( memRaw == null )
+			BufferUtils.zeroBuffer(buffer);
+		else
+			memRaw.setMemory(getAddress0(buffer), size, (byte)0);
+		return buffer;
+	}
+
+	/**
+	 * Frees a buffer allocated with {@link #memAlignedAlloc(int, int)} or {@link #memAlignedCalloc(int, int)}. Does nothing if buffer is null.
+	 *
+	 * @param buffer the buffer to free
+	 */
+	public static void memAlignedFree(final Buffer buffer) {
+		if ( buffer != null )
+			nmemAlignedFree(getAddress0(buffer));
+	}
+
+	/**
+	 * Like memByteBuffer, but for a 0-sized allocation returns an empty buffer instead of null. The empty buffer
+	 * points to address 0L and does not own any memory, so memFree ignores it.
+	 */
+	private static ByteBuffer wrap(final long address, final int size) {
+		return newBuffer(address, address == 0L ? 0 : size);
+	}
+
+	private static long malloc(final long size) {
+		if ( memRaw != null )
+			return memRaw.malloc(size);
+
+		if ( size == 0L )
+			return 0L;
+
+		final long address = BufferUtils.nmalloc(size);
+		if ( address == 0L )
+			throw new OutOfMemoryError("Failed to allocate " + size + " bytes.");
+		return address;
+	}
+
+	private static void free(final long address) {
+		if ( memRaw == null )
+			BufferUtils.nfree(address);
+		else
+			memRaw.free(address);
+	}
+
+	private static void putLong(final long address, final long value) {
+		if ( memRaw == null )
+			memByteBuffer(address, 8).putLong(0, value);
+		else
+			memRaw.putLong(address, value);
+	}
+
+	private static long getLong(final long address) {
+		return memRaw == null ? memByteBuffer(address, 8).getLong(0) : memRaw.getLong(address);
+	}
+
 	// --- [ String utilities ] ---
 
 	/**
@@ -199,7 +535,12 @@ public final class MemoryUtil {
 	 * @see String#getBytes()
 	 */
 	public static ByteBuffer encodeASCII(final CharSequence text) {
-		return encode(text, ascii);
+		if ( text == null )
+			return null;
+
+		final ByteBuffer buffer = BufferUtils.createByteBuffer(text.length() + 1);
+		encodeASCII(text, true, buffer, 0);
+		return buffer;
 	}
 
 	/**
@@ -213,7 +554,169 @@ public final class MemoryUtil {
 	 * @see String#getBytes()
 	 */
 	public static ByteBuffer encodeUTF8(final CharSequence text) {
-		return encode(text, utf8);
+		if ( text == null )
+			return null;
+
+		final ByteBuffer buffer = BufferUtils.createByteBuffer(getLengthUTF8(text) + 1);
+		encodeUTF8(text, true, buffer, 0);
+		return buffer;
+	}
+
+	/**
+	 * Encodes the specified text in the target buffer, starting at the specified position, without
+	 * allocating. Characters outside the ISO-8859-1 range are replaced with '?'. The buffer position
+	 * and limit are not modified.
+	 * <p/>
+	 * When sun.misc.Unsafe is available and target is a direct buffer, the bulk of the text is written
+	 * 8 characters at a time.
+	 *
+	 * @param text           the text to encode
+	 * @param nullTerminated if true, a null-terminator is appended
+	 * @param target         the target buffer
+	 * @param position       the position in target at which to start writing
+	 *
+	 * @return the number of bytes written
+	 */
+	public static int encodeASCII(final CharSequence text, final boolean nullTerminated, final ByteBuffer target, final int position) {
+		final int length = text.length();
+		final int bytes = nullTerminated ? length + 1 : length;
+		if ( LWJGLUtil.CHECKS && target.capacity() - position < bytes )
+			throw new BufferOverflowException();
+
+		final long address = getRawAddress(target, position);
+
+		int i = 0;
+		if ( address != 0L ) {
+			// Align the target address, then pack 8 characters per store.
+			final int head = Math.min(length, (int)(-address & 7L));
+			for ( ; i < head; i++ )
+				memRaw.putByte(address + i, latin1(text.charAt(i)));
+
+			for ( ; i <= length - 8; i += 8 ) {
+				long chars = 0L;
+				for ( int j = 0; j < 8; j++ )
+					chars |= (latin1(text.charAt(i + j)) & 0xFFL) << (j << 3);
+				memRaw.putLong(address + i, LITTLE_ENDIAN ? chars : Long.reverseBytes(chars));
+			}
+		}
+
+		for ( ; i < length; i++ )
+			putByte(target, address, position, i, latin1(text.charAt(i)));
+
+		if ( nullTerminated )
+			putByte(target, address, position, length, (byte)0);
+
+		return bytes;
+	}
+
+	/**
+	 * Returns the number of bytes required to encode the specified text in UTF-8, excluding
+	 * null-termination. Unpaired surrogates count as one byte, see {@link #encodeUTF8(CharSequence, boolean, ByteBuffer, int)}.
+	 *
+	 * @param text the text
+	 *
+	 * @return the encoded length
+	 */
+	public static int getLengthUTF8(final CharSequence text) {
+		final int length = text.length();
+
+		int bytes = length;
+		for ( int i = 0; i < length; i++ ) {
+			final char c = text.charAt(i);
+			if ( c < 0x80 )
+				continue;
+
+			if ( c < 0x800 )
+				bytes += 1;
+			else if ( Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(text.charAt(i + 1)) ) {
+				bytes += 2; // 4 bytes for 2 chars
+				i++;
+			} else if ( !isSurrogate(c) )
+				bytes += 2;
+		}
+
+		return bytes;
+	}
+
+	/**
+	 * Encodes the specified text in UTF-8 in the target buffer, starting at the specified position, without
+	 * allocating. Unpaired surrogates are replaced with '?'. The buffer position and limit are not modified.
+	 *
+	 * @param text           the text to encode
+	 * @param nullTerminated if true, a null-terminator is appended
+	 * @param target         the target buffer
+	 * @param position       the position in target at which to start writing
+	 *
+	 * @return the number of bytes written
+	 *
+	 * @see #getLengthUTF8(CharSequence)
+	 */
+	public static int encodeUTF8(final CharSequence text, final boolean nullTerminated, final ByteBuffer target, final int position) {
+		final int length = text.length();
+		if ( LWJGLUtil.CHECKS && target.capacity() - position < length * 3 + 1 ) { // Only measure if the worst case does not fit
+			if ( target.capacity() - position < getLengthUTF8(text) + (nullTerminated ? 1 : 0) )
+				throw new BufferOverflowException();
+		}
+
+		final long address = getRawAddress(target, position);
+
+		int i = 0;
+		int p = 0;
+
+		// ASCII prefix
+		for ( ; i < length; i++ ) {
+			final char c = text.charAt(i);
+			if ( 0x80 <= c )
+				break;
+			putByte(target, address, position, p++, (byte)c);
+		}
+
+		for ( ; i < length; i++ ) {
+			final char c = text.charAt(i);
+			if ( c < 0x80 )
+				putByte(target, address, position, p++, (byte)c);
+			else if ( c < 0x800 ) {
+				putByte(target, address, position, p++, (byte)(0xC0 | (c >> 6)));
+				putByte(target, address, position, p++, (byte)(0x80 | (c & 0x3F)));
+			} else if ( !isSurrogate(c) ) {
+				putByte(target, address, position, p++, (byte)(0xE0 | (c >> 12)));
+				putByte(target, address, position, p++, (byte)(0x80 | ((c >> 6) & 0x3F)));
+				putByte(target, address, position, p++, (byte)(0x80 | (c & 0x3F)));
+			} else if ( Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(text.charAt(i + 1)) ) {
+				final int cp = Character.toCodePoint(c, text.charAt(++i));
+				putByte(target, address, position, p++, (byte)(0xF0 | (cp >> 18)));
+				putByte(target, address, position, p++, (byte)(0x80 | ((cp >> 12) & 0x3F)));
+				putByte(target, address, position, p++, (byte)(0x80 | ((cp >> 6) & 0x3F)));
+				putByte(target, address, position, p++, (byte)(0x80 | (cp & 0x3F)));
+			} else
+				putByte(target, address, position, p++, (byte)'?');
+		}
+
+		if ( nullTerminated )
+			putByte(target, address, position, p++, (byte)0);
+
+		return p;
+	}
+
+	private static byte latin1(final char c) {
+		return c <= 0xFF ? (byte)c : (byte)'?';
+	}
+
+	private static boolean isSurrogate(final char c) {
+		return Character.MIN_SURROGATE <= c && c <= Character.MAX_SURROGATE;
+	}
+
+	/** Returns the address at which to write through Unsafe, or 0L if target must be written through its put methods. */
+	private static long getRawAddress(final ByteBuffer target, final int position) {
+		return memRaw == null || !target.isDirect() || target.isReadOnly() ? 0L : getAddress0(target) + position;
+	}
+
+	/** Writes through Unsafe if address is not 0L, through the buffer otherwise. */
+	private static void putByte(final ByteBuffer target, final long address, final int position, final int index, final byte value) {
+		if ( address != 0L )
+			memRaw.putByte(address + index, value);
+		else
+			target.put(position + index, value);
 	}
 
 	/**
@@ -371,8 +874,36 @@ public final class MemoryUtil {
 
 	}
 
+	/** Implemented by Accessors that can also access and allocate raw memory. */
+	interface RawAccessor {
+
+		void putByte(long address, byte value);
+
+		void putLong(long address, long value);
+
+		long getLong(long address);
+
+		long malloc(long size);
+
+		long realloc(long address, long size);
+
+		void free(long address);
+
+		void setMemory(long address, long size, byte value);
+
+		/** Returns a new direct ByteBuffer instance that points to the specified memory. */
+		ByteBuffer newBuffer(long address, int capacity);
+
+	}
+
 	private static Accessor loadAccessor(final String className) throws Exception {
-		return (Accessor)Class.forName(className).newInstance();
+		try {
+			return (Accessor)Class.forName(className).newInstance();
+		} catch (LinkageError e) {
+			// A dependency is missing (e.g. sun.misc.Unsafe without the jdk.unsupported module),
+			// failed to initialize or the class requires a newer JVM.
+			throw new UnsupportedOperationException(e);
+		}
 	}
 
 	/** Default implementation. */
@@ -413,6 +944,10 @@ public final class MemoryUtil {
 		return getDeclaredFieldRecursive(ByteBuffer.class, "address");
 	}
 
+	static Field getCapacityField() throws NoSuchFieldException {
+		return getDeclaredFieldRecursive(ByteBuffer.class, "capacity");
+	}
+
 	private static Field getDeclaredFieldRecursive(final Class<?> root, final String fieldName) throws NoSuchFieldException {
 		Class<?> type = root;
 
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2002-2011 LWJGL Project
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'LWJGL' nor the names of
+ *   its contributors may be used to endorse or promote products derived
+ *   from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.lwjgl;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Field;
+import java.nio.Buffer;
+
+/**
+ * MemoryUtil.Accessor implementations that depend on java.lang.invoke.
+ * This class is compiled separately with -source 1.7 and loaded with
+ * reflection, so that LWJGL still runs on older JVMs.
+ */
+final class MemoryUtilInvoke {
+
+	private MemoryUtilInvoke() {
+	}
+
+	/**
+	 * Implementation using a MethodHandle getter for java.nio.Buffer#address. Used when
+	 * sun.misc.Unsafe is not available (e.g. on runtimes without the jdk.unsupported module).
+	 * The handle is stored in a static final field, so that the JIT can inline it to a plain
+	 * field load.
+	 */
+	private static class AccessorMethodHandle implements MemoryUtil.Accessor {
+
+		private static final MethodHandle address;
+
+		static {
+			try {
+				final Field field = MemoryUtil.getAddressField();
+				field.setAccessible(true);
+				address = MethodHandles.lookup().unreflectGetter(field);
+			} catch (Exception e) {
+				throw new UnsupportedOperationException(e);
+			}
+		}
+
+		AccessorMethodHandle() {
+		}
+
+		public long getAddress(final Buffer buffer) {
+			try {
+				return (long)address.invokeExact(buffer);
+			} catch (Throwable t) {
+				// cannot happen
+				throw new IllegalStateException(t);
+			}
+		}
+
+	}
+
+}
@@ -35,6 +35,7 @@ import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.nio.Buffer;
+import java.nio.ByteBuffer;
 
 import sun.misc.Unsafe;
 import sun.reflect.FieldAccessor;
@@ -52,15 +53,21 @@ final class MemoryUtilSun {
 	}
 
 	/** Implementation using sun.misc.Unsafe. */
-	private static class AccessorUnsafe implements MemoryUtil.Accessor {
+	private static class AccessorUnsafe implements MemoryUtil.Accessor, MemoryUtil.RawAccessor {
 
 		private final Unsafe unsafe;
 		private final long   address;
+		private final long   capacity;
+
+		/** New buffers are duplicates of this one, with a different address and capacity. */
+		private final ByteBuffer template;
 
 		AccessorUnsafe() {
 			try {
 				unsafe = getUnsafeInstance();
 				address = unsafe.objectFieldOffset(MemoryUtil.getAddressField());
+				capacity = unsafe.objectFieldOffset(MemoryUtil.getCapacityField());
+				template = ByteBuffer.allocateDirect(0);
 			} catch (Exception e) {
 				throw new UnsupportedOperationException(e);
 			}
@@ -70,6 +77,42 @@ final class MemoryUtilSun {
 			return unsafe.getLong(buffer, address);
 		}
 
+		public void putByte(final long address, final byte value) {
+			unsafe.putByte(address, value);
+		}
+
+		public void putLong(final long address, final long value) {
+			unsafe.putLong(address, value);
+		}
+
+		public long getLong(final long address) {
+			return unsafe.getLong(address);
+		}
+
+		public long malloc(final long size) {
+			return unsafe.allocateMemory(size);
+		}
+
+		public long realloc(final long address, final long size) {
+			return unsafe.reallocateMemory(address, size);
+		}
+
+		public void free(final long address) {
+			unsafe.freeMemory(address);
+		}
+
+		public void setMemory(final long address, final long size, final byte value) {
+			unsafe.setMemory(address, size, value);
+		}
+
+		public ByteBuffer newBuffer(final long address, final int capacity) {
+			final ByteBuffer buffer = template.duplicate();
+			unsafe.putLong(buffer, this.address, address);
+			unsafe.putInt(buffer, this.capacity, capacity);
+			buffer.clear();
+			return buffer;
+		}
+
 		private static Unsafe getUnsafeInstance() {
 			final Field[] fields = Unsafe.class.getDeclaredFields();
 
@@ -83,7 +83,7 @@ public class Cursor {
 	 * @throws LWJGLException if the cursor could not be created for any reason
 	 */
 	public Cursor(int width, int height, int xHotspot, int yHotspot, int numImages, IntBuffer images, IntBuffer delays) throws LWJGLException {
-		synchronized (OpenGLPackageAccess.global_lock) {
+		synchronized (OpenGLPackageAccess.input_lock) {
 			if ((getCapabilities() & CURSOR_ONE_BIT_TRANSPARENCY) == 0)
 				throw new LWJGLException("Native cursors not supported");
 			BufferChecks.checkBufferSize(images, width*height*numImages);
@@ -116,7 +116,7 @@ public class Cursor {
 	 * @return the maximum size of a native cursor
 	 */
 	public static int getMinCursorSize() {
-		synchronized (OpenGLPackageAccess.global_lock) {
+		synchronized (OpenGLPackageAccess.input_lock) {
 			if (!Mouse.isCreated())
 				throw new IllegalStateException("Mouse must be created.");
 			return Mouse.getImplementation().getMinCursorSize();
@@ -131,7 +131,7 @@ public class Cursor {
 	 * @return the maximum size of a native cursor
 	 */
 	public static int getMaxCursorSize() {
-		synchronized (OpenGLPackageAccess.global_lock) {
+		synchronized (OpenGLPackageAccess.input_lock) {
 			if (!Mouse.isCreated())
 				throw new IllegalStateException("Mouse must be created.");
 			return Mouse.getImplementation().getMaxCursorSize();
@@ -147,7 +147,7 @@ public class Cursor {
 	 * @return A bit mask with native cursor capabilities.
 	 */
 	public static int getCapabilities() {
-		synchronized (OpenGLPackageAccess.global_lock) {
+		synchronized (OpenGLPackageAccess.input_lock) {
 			if (Mouse.getImplementation() != null)
 				return Mouse.getImplementation().getNativeCursorCapabilities();
 			else
@@ -302,7 +302,7 @@ public class Cursor {
 	 * OS cursor)
 	 */
 	public void destroy() {
-		synchronized (OpenGLPackageAccess.global_lock) {
+		synchronized (OpenGLPackageAccess.input_lock) {
 			if (destroyed)
 				return;
 			if (Mouse.getNativeCursor() == this) {
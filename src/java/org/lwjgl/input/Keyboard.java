@@ -31,8 +31,6 @@
  */
 package org.lwjgl.input;
 
-import java.lang.reflect.Field;
-import java.lang.reflect.Modifier;
 import java.nio.ByteBuffer;
 import java.util.HashMap;
 import java.util.Map;
@@ -228,28 +226,144 @@ public class Keyboard {
 	private static int counter;
 
 	static {
-		// Use reflection to find out key names
-		Field[] fields = Keyboard.class.getFields();
-		try {
-			for ( Field field : fields ) {
-				if ( Modifier.isStatic(field.getModifiers())
-				     && Modifier.isPublic(field.getModifiers())
-				     && Modifier.isFinal(field.getModifiers())
-				     && field.getType().equals(int.class)
-				     && field.getName().startsWith("KEY_")
-				     && !field.getName().endsWith("WIN") ) { /* Don't use deprecated names */
-
-					int key = field.getInt(null);
-					String name = field.getName().substring(4);
-					keyName[key] = name;
-					keyMap.put(name, key);
-					counter++;
-				}
-
-			}
-		} catch (Exception e) {
-		}
+		// The names of all KEY_ constants, except the deprecated *WIN aliases
+		addKeyName(KEY_NONE, "NONE");
+		addKeyName(KEY_ESCAPE, "ESCAPE");
+		addKeyName(KEY_1, "1");
+		addKeyName(KEY_2, "2");
+		addKeyName(KEY_3, "3");
+		addKeyName(KEY_4, "4");
+		addKeyName(KEY_5, "5");
+		addKeyName(KEY_6, "6");
+		addKeyName(KEY_7, "7");
+		addKeyName(KEY_8, "8");
+		addKeyName(KEY_9, "9");
+		addKeyName(KEY_0, "0");
+		addKeyName(KEY_MINUS, "MINUS");
+		addKeyName(KEY_EQUALS, "EQUALS");
+		addKeyName(KEY_BACK, "BACK");
+		addKeyName(KEY_TAB, "TAB");
+		addKeyName(KEY_Q, "Q");
+		addKeyName(KEY_W, "W");
+		addKeyName(KEY_E, "E");
+		addKeyName(KEY_R, "R");
+		addKeyName(KEY_T, "T");
+		addKeyName(KEY_Y, "Y");
+		addKeyName(KEY_U, "U");
+		addKeyName(KEY_I, "I");
+		addKeyName(KEY_O, "O");
+		addKeyName(KEY_P, "P");
+		addKeyName(KEY_LBRACKET, "LBRACKET");
+		addKeyName(KEY_RBRACKET, "RBRACKET");
+		addKeyName(KEY_RETURN, "RETURN");
+		addKeyName(KEY_LCONTROL, "LCONTROL");
+		addKeyName(KEY_A, "A");
+		addKeyName(KEY_S, "S");
+		addKeyName(KEY_D, "D");
+		addKeyName(KEY_F, "F");
+		addKeyName(KEY_G, "G");
+		addKeyName(KEY_H, "H");
+		addKeyName(KEY_J, "J");
+		addKeyName(KEY_K, "K");
+		addKeyName(KEY_L, "L");
+		addKeyName(KEY_SEMICOLON, "SEMICOLON");
+		addKeyName(KEY_APOSTROPHE, "APOSTROPHE");
+		addKeyName(KEY_GRAVE, "GRAVE");
+		addKeyName(KEY_LSHIFT, "LSHIFT");
+		addKeyName(KEY_BACKSLASH, "BACKSLASH");
+		addKeyName(KEY_Z, "Z");
+		addKeyName(KEY_X, "X");
+		addKeyName(KEY_C, "C");
+		addKeyName(KEY_V, "V");
+		addKeyName(KEY_B, "B");
+		addKeyName(KEY_N, "N");
+		addKeyName(KEY_M, "M");
+		addKeyName(KEY_COMMA, "COMMA");
+		addKeyName(KEY_PERIOD, "PERIOD");
+		addKeyName(KEY_SLASH, "SLASH");
+		addKeyName(KEY_RSHIFT, "RSHIFT");
+		addKeyName(KEY_MULTIPLY, "MULTIPLY");
+		addKeyName(KEY_LMENU, "LMENU");
+		addKeyName(KEY_SPACE, "SPACE");
+		addKeyName(KEY_CAPITAL, "CAPITAL");
+		addKeyName(KEY_F1, "F1");
+		addKeyName(KEY_F2, "F2");
+		addKeyName(KEY_F3, "F3");
+		addKeyName(KEY_F4, "F4");
+		addKeyName(KEY_F5, "F5");
+		addKeyName(KEY_F6, "F6");
+		addKeyName(KEY_F7, "F7");
+		addKeyName(KEY_F8, "F8");
+		addKeyName(KEY_F9, "F9");
+		addKeyName(KEY_F10, "F10");
+		addKeyName(KEY_NUMLOCK, "NUMLOCK");
+		addKeyName(KEY_SCROLL, "SCROLL");
+		addKeyName(KEY_NUMPAD7, "NUMPAD7");
+		addKeyName(KEY_NUMPAD8, "NUMPAD8");
+		addKeyName(KEY_NUMPAD9, "NUMPAD9");
+		addKeyName(KEY_SUBTRACT, "SUBTRACT");
+		addKeyName(KEY_NUMPAD4, "NUMPAD4");
+		addKeyName(KEY_NUMPAD5, "NUMPAD5");
+		addKeyName(KEY_NUMPAD6, "NUMPAD6");
+		addKeyName(KEY_ADD, "ADD");
+		addKeyName(KEY_NUMPAD1, "NUMPAD1");
+		addKeyName(KEY_NUMPAD2, "NUMPAD2");
+		addKeyName(KEY_NUMPAD3, "NUMPAD3");
+		addKeyName(KEY_NUMPAD0, "NUMPAD0");
+		addKeyName(KEY_DECIMAL, "DECIMAL");
+		addKeyName(KEY_F11, "F11");
+		addKeyName(KEY_F12, "F12");
+		addKeyName(KEY_F13, "F13");
+		addKeyName(KEY_F14, "F14");
+		addKeyName(KEY_F15, "F15");
+		addKeyName(KEY_F16, "F16");
+		addKeyName(KEY_F17, "F17");
+		addKeyName(KEY_F18, "F18");
+		addKeyName(KEY_KANA, "KANA");
+		addKeyName(KEY_F19, "F19");
+		addKeyName(KEY_CONVERT, "CONVERT");
+		addKeyName(KEY_NOCONVERT, "NOCONVERT");
+		addKeyName(KEY_YEN, "YEN");
+		addKeyName(KEY_NUMPADEQUALS, "NUMPADEQUALS");
+		addKeyName(KEY_CIRCUMFLEX, "CIRCUMFLEX");
+		addKeyName(KEY_AT, "AT");
+		addKeyName(KEY_COLON, "COLON");
+		addKeyName(KEY_UNDERLINE, "UNDERLINE");
+		addKeyName(KEY_KANJI, "KANJI");
+		addKeyName(KEY_STOP, "STOP");
+		addKeyName(KEY_AX, "AX");
+		addKeyName(KEY_UNLABELED, "UNLABELED");
+		addKeyName(KEY_NUMPADENTER, "NUMPADENTER");
+		addKeyName(KEY_RCONTROL, "RCONTROL");
+		addKeyName(KEY_SECTION, "SECTION");
+		addKeyName(KEY_NUMPADCOMMA, "NUMPADCOMMA");
+		addKeyName(KEY_DIVIDE, "DIVIDE");
+		addKeyName(KEY_SYSRQ, "SYSRQ");
+		addKeyName(KEY_RMENU, "RMENU");
+		addKeyName(KEY_FUNCTION, "FUNCTION");
+		addKeyName(KEY_PAUSE, "PAUSE");
+		addKeyName(KEY_HOME, "HOME");
+		addKeyName(KEY_UP, "UP");
+		addKeyName(KEY_PRIOR, "PRIOR");
+		addKeyName(KEY_LEFT, "LEFT");
+		addKeyName(KEY_RIGHT, "RIGHT");
+		addKeyName(KEY_END, "END");
+		addKeyName(KEY_DOWN, "DOWN");
+		addKeyName(KEY_NEXT, "NEXT");
+		addKeyName(KEY_INSERT, "INSERT");
+		addKeyName(KEY_DELETE, "DELETE");
+		addKeyName(KEY_CLEAR, "CLEAR");
+		addKeyName(KEY_LMETA, "LMETA");
+		addKeyName(KEY_RMETA, "RMETA");
+		addKeyName(KEY_APPS, "APPS");
+		addKeyName(KEY_POWER, "POWER");
+		addKeyName(KEY_SLEEP, "SLEEP");
+	}
 
+	private static void addKeyName(int key, String name) {
+		keyName[key] = name;
+		keyMap.put(name, key);
+		counter++;
 	}
 
 	/** The number of keys supported */
@@ -324,9 +438,11 @@ public class Keyboard {
 	 */
 	public static void create() throws LWJGLException {
 		synchronized (OpenGLPackageAccess.global_lock) {
-			if (!Display.isCreated()) throw new IllegalStateException("Display must be created.");
+			synchronized (OpenGLPackageAccess.input_lock) {
+				if (!Display.isCreated()) throw new IllegalStateException("Display must be created.");
 
-			create(OpenGLPackageAccess.createImplementation());
+				create(OpenGLPackageAccess.createImplementation());
+			}
 		}
 	}
 
@@ -341,7 +457,7 @@ public class Keyboard {
 	 * @return true if the keyboard has been created
 	 */
 	public static boolean isCreated() {
-		synchronized (OpenGLPackageAccess.global_lock) {
+		synchronized (OpenGLPackageAccess.input_lock) {
 			return created;
 		}
 	}
@@ -350,7 +466,7 @@ public class Keyboard {
 	 * "Destroy" the keyboard
 	 */
 	public static void destroy() {
-		synchronized (OpenGLPackageAccess.global_lock) {
+		synchronized (OpenGLPackageAccess.input_lock) {
 			if (!created)
 				return;
 			created = false;
@@ -381,7 +497,7 @@ public class Keyboard {
 	 * @see org.lwjgl.input.Keyboard#getEventCharacter()
 	 */
 	public static void poll() {
-		synchronized (OpenGLPackageAccess.global_lock) {
+		synchronized (OpenGLPackageAccess.input_lock) {
 			if (!created)
 				throw new IllegalStateException("Keyboard must be created before you can poll the device");
 			implementation.pollKeyboard(keyDownBuffer);
@@ -401,7 +517,7 @@ public class Keyboard {
 	 * @return true if the key is down according to the last poll()
 	 */
 	public static boolean isKeyDown(int key) {
-		synchronized (OpenGLPackageAccess.global_lock) {
+		synchronized (OpenGLPackageAccess.input_lock) {
 			if (!created)
 				throw new IllegalStateException("Keyboard must be created before you can query key state");
 			return keyDownBuffer.get(key) != 0;
@@ -425,7 +541,7 @@ public class Keyboard {
 	 * @param key The key
 	 * @return a String with the key's human readable name in it or null if the key is unnamed
 	 */
-	public static synchronized String getKeyName(int key) {
+	public static String getKeyName(int key) {
 		return keyName[key];
 	}
 
@@ -433,7 +549,7 @@ public class Keyboard {
 	 * Get's a key's index. If the key is unrecognised then KEY_NONE is returned.
 	 * @param keyName The key name
 	 */
-	public static synchronized int getKeyIndex(String keyName) {
+	public static int getKeyIndex(String keyName) {
 		Integer ret = keyMap.get(keyName);
 		if (ret == null)
 			return KEY_NONE;
@@ -446,7 +562,7 @@ public class Keyboard {
 	 * @return the number of keyboard events
 	 */
 	public static int getNumKeyboardEvents() {
-		synchronized (OpenGLPackageAccess.global_lock) {
+		synchronized (OpenGLPackageAccess.input_lock) {
 			if (!created)
 				throw new IllegalStateException("Keyboard must be created before you can read events");
 			int old_position = readBuffer.position();
@@ -470,7 +586,7 @@ public class Keyboard {
 	 * @return true if a keyboard event was read, false otherwise
 	 */
 	public static boolean next() {
-		synchronized (OpenGLPackageAccess.global_lock) {
+		synchronized (OpenGLPackageAccess.input_lock) {
 			if (!created)
 				throw new IllegalStateException("Keyboard must be created before you can read events");
 
@@ -481,6 +597,42 @@ public class Keyboard {
 		}
 	}
 
+	/**
+	 * Delivers all buffered keyboard events to the given sink, in order. This is equivalent
+	 * to calling next() until it returns false, and then reading the events pending in the
+	 * implementation until none are left, but the events are decoded straight from the
+	 * event buffer and passed as primitives, without updating the getEvent* state.
+	 * Repeat events are skipped unless repeat events are enabled.
+	 * <p/>
+	 * NOTE: This method does not query the operating system for new events. To do that,
+	 * Display.processMessages() (or Display.update()) must be called first.
+	 *
+	 * @param sink the sink receiving the events
+	 * @return the number of events delivered
+	 */
+	public static int drainEvents(KeyEventSink sink) {
+		synchronized (OpenGLPackageAccess.input_lock) {
+			if (!created)
+				throw new IllegalStateException("Keyboard must be created before you can read events");
+
+			int num_events = 0;
+			do {
+				final ByteBuffer buffer = readBuffer;
+				final int limit = buffer.limit();
+				for (int offset = buffer.position(); offset < limit; offset += EVENT_SIZE) {
+					boolean repeat = buffer.get(offset + 17) == 1;
+					if (repeat && !repeat_enabled)
+						continue;
+					sink.keyEvent(buffer.getInt(offset) & 0xFF, buffer.get(offset + 4) != 0, (char)buffer.getInt(offset + 5), buffer.getLong(offset + 9), repeat);
+					num_events++;
+				}
+				buffer.position(limit);
+				read();
+			} while (readBuffer.hasRemaining());
+			return num_events;
+		}
+	}
+
 	/**
      * Controls whether repeat events are reported or not. If repeat events
 	 * are enabled, key down events are reported when a key is pressed and held for
@@ -490,7 +642,7 @@ public class Keyboard {
 	 * @see org.lwjgl.input.Keyboard#getEventKey()
 	 */
 	public static void enableRepeatEvents(boolean enable) {
-		synchronized (OpenGLPackageAccess.global_lock) {
+		synchronized (OpenGLPackageAccess.input_lock) {
 			repeat_enabled = enable;
 		}
 	}
@@ -502,7 +654,7 @@ public class Keyboard {
 	 * @see org.lwjgl.input.Keyboard#getEventKey()
 	 */
 	public static boolean areRepeatEventsEnabled() {
-		synchronized (OpenGLPackageAccess.global_lock) {
+		synchronized (OpenGLPackageAccess.input_lock) {
 			return repeat_enabled;
 		}
 	}
@@ -530,7 +682,7 @@ public class Keyboard {
 	 * @return The character from the current event
 	 */
 	public static char getEventCharacter() {
-		synchronized (OpenGLPackageAccess.global_lock) {
+		synchronized (OpenGLPackageAccess.input_lock) {
 			return (char)current_event.character;
 		}
 	}
@@ -543,7 +695,7 @@ public class Keyboard {
 	 * @return The key from the current event
 	 */
 	public static int getEventKey() {
-		synchronized (OpenGLPackageAccess.global_lock) {
+		synchronized (OpenGLPackageAccess.input_lock) {
 			return current_event.key;
 		}
 	}
@@ -555,7 +707,7 @@ public class Keyboard {
 	 * @return True if key was down, or false if released
 	 */
 	public static boolean getEventKeyState() {
-		synchronized (OpenGLPackageAccess.global_lock) {
+		synchronized (OpenGLPackageAccess.input_lock) {
 			return current_event.state;
 		}
 	}
@@ -568,7 +720,7 @@ public class Keyboard {
 	 * @return The time in nanoseconds of the current event
 	 */
 	public static long getEventNanoseconds() {
-		synchronized (OpenGLPackageAccess.global_lock) {
+		synchronized (OpenGLPackageAccess.input_lock) {
 			return current_event.nanos;
 		}
 	}
@@ -579,7 +731,7 @@ public class Keyboard {
 	 * the current event is not a repeat even or if repeat events are disabled.
 	 */
 	public static boolean isRepeatEvent() {
-		synchronized (OpenGLPackageAccess.global_lock) {
+		synchronized (OpenGLPackageAccess.input_lock) {
 			return current_event.repeat;
 		}
 	}
@@ -163,7 +163,7 @@ public class Mouse {
 	 * @return the currently bound native cursor, if any.
 	 */
 	public static Cursor getNativeCursor() {
-		synchronized (OpenGLPackageAccess.global_lock) {
+		synchronized (OpenGLPackageAccess.input_lock) {
 			return currentCursor;
 		}
 	}
@@ -181,7 +181,7 @@ public class Mouse {
 	 * @throws LWJGLException if the cursor could not be set for any reason
 	 */
 	public static Cursor setNativeCursor(Cursor cursor) throws LWJGLException {
-		synchronized (OpenGLPackageAccess.global_lock) {
+		synchronized (OpenGLPackageAccess.input_lock) {
 			if ((Cursor.getCapabilities() & Cursor.CURSOR_ONE_BIT_TRANSPARENCY) == 0)
 				throw new IllegalStateException("Mouse doesn't support native cursors");
 			Cursor oldCursor = currentCursor;
@@ -216,7 +216,7 @@ public class Mouse {
 	 *			to the window origin.
 	 */
 	public static void setCursorPosition(int new_x, int new_y) {
-		synchronized (OpenGLPackageAccess.global_lock) {
+		synchronized (OpenGLPackageAccess.input_lock) {
 			if (!isCreated())
 				throw new IllegalStateException("Mouse is not created");
 			x = event_x = new_x;
@@ -292,9 +292,11 @@ public class Mouse {
 	 */
 	public static void create() throws LWJGLException {
 		synchronized (OpenGLPackageAccess.global_lock) {
-			if (!Display.isCreated()) throw new IllegalStateException("Display must be created.");
+			synchronized (OpenGLPackageAccess.input_lock) {
+				if (!Display.isCreated()) throw new IllegalStateException("Display must be created.");
 
-			create(OpenGLPackageAccess.createImplementation());
+				create(OpenGLPackageAccess.createImplementation());
+			}
 		}
 	}
 
@@ -302,7 +304,7 @@ public class Mouse {
 	 * @return true if the mouse has been created
 	 */
 	public static boolean isCreated() {
-		synchronized (OpenGLPackageAccess.global_lock) {
+		synchronized (OpenGLPackageAccess.input_lock) {
 			return created;
 		}
 	}
@@ -311,7 +313,7 @@ public class Mouse {
 	 * "Destroy" the mouse.
 	 */
 	public static void destroy() {
-		synchronized (OpenGLPackageAccess.global_lock) {
+		synchronized (OpenGLPackageAccess.input_lock) {
 			if (!created) return;
 			created = false;
 			buttons = null;
@@ -346,7 +348,7 @@ public class Mouse {
 	 * @see org.lwjgl.input.Mouse#getDWheel()
 	 */
 	public static void poll() {
-		synchronized (OpenGLPackageAccess.global_lock) {
+		synchronized (OpenGLPackageAccess.input_lock) {
 			if (!created) throw new IllegalStateException("Mouse must be created before you can poll it");
 			implementation.pollMouse(coord_buffer, buttons);
 
@@ -393,7 +395,7 @@ public class Mouse {
 	 * @return true if the specified button is down
 	 */
 	public static boolean isButtonDown(int button) {
-		synchronized (OpenGLPackageAccess.global_lock) {
+		synchronized (OpenGLPackageAccess.input_lock) {
 			if (!created) throw new IllegalStateException("Mouse must be created before you can poll the button state");
 			if (button >= buttonCount || button < 0)
 				return false;
@@ -408,7 +410,7 @@ public class Mouse {
 	 * @return a String with the button's human readable name in it or null if the button is unnamed
 	 */
 	public static String getButtonName(int button) {
-		synchronized (OpenGLPackageAccess.global_lock) {
+		synchronized (OpenGLPackageAccess.input_lock) {
 			if (button >= buttonName.length || button < 0)
 				return null;
 			else
@@ -421,7 +423,7 @@ public class Mouse {
 	 * @param buttonName The button name
 	 */
 	public static int getButtonIndex(String buttonName) {
-		synchronized (OpenGLPackageAccess.global_lock) {
+		synchronized (OpenGLPackageAccess.input_lock) {
 			Integer ret = buttonMap.get(buttonName);
 			if (ret == null)
 				return -1;
@@ -440,7 +442,7 @@ public class Mouse {
 	 * @return true if a mouse event was read, false otherwise
 	 */
 	public static boolean next() {
-		synchronized (OpenGLPackageAccess.global_lock) {
+		synchronized (OpenGLPackageAccess.input_lock) {
 			if (!created) throw new IllegalStateException("Mouse must be created before you can read events");
 			if (readBuffer.hasRemaining()) {
 				eventButton = readBuffer.get();
@@ -474,11 +476,72 @@ public class Mouse {
 		}
 	}
 
+	/**
+	 * Delivers all buffered mouse events to the given sink, in order. This is equivalent
+	 * to calling next() until it returns false, and then reading the events pending in the
+	 * implementation until none are left, but the events are decoded straight from the
+	 * event buffer and passed as primitives. After the call, the getEvent* methods return
+	 * the values of the last delivered event.
+	 * <p/>
+	 * NOTE: This method does not query the operating system for new events. To do that,
+	 * Display.processMessages() (or Display.update()) must be called first.
+	 *
+	 * @param sink the sink receiving the events
+	 * @return the number of events delivered
+	 */
+	public static int drainEvents(MouseEventSink sink) {
+		synchronized (OpenGLPackageAccess.input_lock) {
+			if (!created) throw new IllegalStateException("Mouse must be created before you can read events");
+
+			final boolean grabbed = isGrabbed();
+			final boolean clip = clipMouseCoordinatesToWindow;
+			final int max_x = clip ? Display.getWidth() - 1 : 0;
+			final int max_y = clip ? Display.getHeight() - 1 : 0;
+			int num_events = 0;
+			do {
+				final ByteBuffer buffer = readBuffer;
+				final int limit = buffer.limit();
+				for (int offset = buffer.position(); offset < limit; offset += EVENT_SIZE) {
+					eventButton = buffer.get(offset);
+					eventState = buffer.get(offset + 1) != 0;
+					if (grabbed) {
+						event_dx = buffer.getInt(offset + 2);
+						event_dy = buffer.getInt(offset + 6);
+						event_x += event_dx;
+						event_y += event_dy;
+						last_event_raw_x = event_x;
+						last_event_raw_y = event_y;
+					} else {
+						int new_event_x = buffer.getInt(offset + 2);
+						int new_event_y = buffer.getInt(offset + 6);
+						event_dx = new_event_x - last_event_raw_x;
+						event_dy = new_event_y - last_event_raw_y;
+						event_x = new_event_x;
+						event_y = new_event_y;
+						last_event_raw_x = new_event_x;
+						last_event_raw_y = new_event_y;
+					}
+					if (clip) {
+						event_x = Math.min(max_x, Math.max(0, event_x));
+						event_y = Math.min(max_y, Math.max(0, event_y));
+					}
+					event_dwheel = buffer.getInt(offset + 10);
+					event_nanos = buffer.getLong(offset + 14);
+					sink.mouseEvent(eventButton, eventState, event_x, event_y, event_dx, event_dy, event_dwheel, event_nanos);
+					num_events++;
+				}
+				buffer.position(limit);
+				read();
+			} while (readBuffer.hasRemaining());
+			return num_events;
+		}
+	}
+
 	/**
 	 * @return Current events button. Returns -1 if no button state was changed
 	 */
 	public static int getEventButton() {
-		synchronized (OpenGLPackageAccess.global_lock) {
+		synchronized (OpenGLPackageAccess.input_lock) {
 			return eventButton;
 		}
 	}
@@ -488,7 +551,7 @@ public class Mouse {
 	 * @return Current events button state.
 	 */
 	public static boolean getEventButtonState() {
-		synchronized (OpenGLPackageAccess.global_lock) {
+		synchronized (OpenGLPackageAccess.input_lock) {
 			return eventState;
 		}
 	}
@@ -497,7 +560,7 @@ public class Mouse {
 	 * @return Current events delta x.
 	 */
 	public static int getEventDX() {
-		synchronized (OpenGLPackageAccess.global_lock) {
+		synchronized (OpenGLPackageAccess.input_lock) {
 			return event_dx;
 		}
 	}
@@ -506,7 +569,7 @@ public class Mouse {
 	 * @return Current events delta y.
 	 */
 	public static int getEventDY() {
-		synchronized (OpenGLPackageAccess.global_lock) {
+		synchronized (OpenGLPackageAccess.input_lock) {
 			return event_dy;
 		}
 	}
@@ -515,7 +578,7 @@ public class Mouse {
 	 * @return Current events absolute x.
 	 */
 	public static int getEventX() {
-		synchronized (OpenGLPackageAccess.global_lock) {
+		synchronized (OpenGLPackageAccess.input_lock) {
 			return event_x;
 		}
 	}
@@ -524,7 +587,7 @@ public class Mouse {
 	 * @return Current events absolute y.
 	 */
 	public static int getEventY() {
-		synchronized (OpenGLPackageAccess.global_lock) {
+		synchronized (OpenGLPackageAccess.input_lock) {
 			return event_y;
 		}
 	}
@@ -533,7 +596,7 @@ public class Mouse {
 	 * @return Current events delta z
 	 */
 	public static int getEventDWheel() {
-		synchronized (OpenGLPackageAccess.global_lock) {
+		synchronized (OpenGLPackageAccess.input_lock) {
 			return event_dwheel;
 		}
 	}
@@ -547,7 +610,7 @@ public class Mouse {
 	 * @return The time in nanoseconds of the current event
 	 */
 	public static long getEventNanoseconds() {
-		synchronized (OpenGLPackageAccess.global_lock) {
+		synchronized (OpenGLPackageAccess.input_lock) {
 			return event_nanos;
 		}
 	}
@@ -559,7 +622,7 @@ public class Mouse {
 	 * @return Absolute x axis position of mouse
 	 */
 	public static int getX() {
-		synchronized (OpenGLPackageAccess.global_lock) {
+		synchronized (OpenGLPackageAccess.input_lock) {
 			return x;
 		}
 	}
@@ -571,7 +634,7 @@ public class Mouse {
 	 * @return Absolute y axis position of mouse
 	 */
 	public static int getY() {
-		synchronized (OpenGLPackageAccess.global_lock) {
+		synchronized (OpenGLPackageAccess.input_lock) {
 			return y;
 		}
 	}
@@ -580,7 +643,7 @@ public class Mouse {
 	 * @return Movement on the x axis since last time getDX() was called.
 	 */
 	public static int getDX() {
-		synchronized (OpenGLPackageAccess.global_lock) {
+		synchronized (OpenGLPackageAccess.input_lock) {
 			int result = dx;
 			dx = 0;
 			return result;
@@ -591,7 +654,7 @@ public class Mouse {
 	 * @return Movement on the y axis since last time getDY() was called.
 	 */
 	public static int getDY() {
-		synchronized (OpenGLPackageAccess.global_lock) {
+		synchronized (OpenGLPackageAccess.input_lock) {
 			int result = dy;
 			dy = 0;
 			return result;
@@ -602,7 +665,7 @@ public class Mouse {
 	 * @return Movement of the wheel since last time getDWheel() was called
 	 */
 	public static int getDWheel() {
-		synchronized (OpenGLPackageAccess.global_lock) {
+		synchronized (OpenGLPackageAccess.input_lock) {
 			int result = dwheel;
 			dwheel = 0;
 			return result;
@@ -613,7 +676,7 @@ public class Mouse {
 	 * @return Number of buttons on this mouse
 	 */
 	public static int getButtonCount() {
-		synchronized (OpenGLPackageAccess.global_lock) {
+		synchronized (OpenGLPackageAccess.input_lock) {
 			return buttonCount;
 		}
 	}
@@ -622,7 +685,7 @@ public class Mouse {
 	 * @return Whether or not this mouse has wheel support
 	 */
 	public static boolean hasWheel() {
-		synchronized (OpenGLPackageAccess.global_lock) {
+		synchronized (OpenGLPackageAccess.input_lock) {
 			return hasWheel;
 		}
 	}
@@ -631,7 +694,7 @@ public class Mouse {
 	 * @return whether or not the mouse has grabbed the cursor
 	 */
 	public static boolean isGrabbed() {
-		synchronized (OpenGLPackageAccess.global_lock) {
+		synchronized (OpenGLPackageAccess.input_lock) {
 			return isGrabbed;
 		}
 	}
@@ -645,7 +708,7 @@ public class Mouse {
 	 * @param grab whether the mouse should be grabbed
 	 */
 	public static void setGrabbed(boolean grab) {
-		synchronized (OpenGLPackageAccess.global_lock) {
+		synchronized (OpenGLPackageAccess.input_lock) {
 			boolean grabbed = isGrabbed;
 			isGrabbed = grab;
 			if (isCreated()) {
@@ -678,7 +741,7 @@ public class Mouse {
 	 * shouldn't be called otherwise
 	 */
 	public static void updateCursor() {
-		synchronized (OpenGLPackageAccess.global_lock) {
+		synchronized (OpenGLPackageAccess.input_lock) {
 			if (emulateCursorAnimation && currentCursor != null && currentCursor.hasTimedOut() && Mouse.isInsideWindow()) {
 				currentCursor.nextCursor();
 				try {
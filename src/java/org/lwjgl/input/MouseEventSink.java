@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2002-2008 LWJGL Project
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'LWJGL' nor the names of
+ *   its contributors may be used to endorse or promote products derived
+ *   from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.lwjgl.input;
+
+/**
+ * Receives mouse events from Mouse.drainEvents(MouseEventSink). The event
+ * data is passed as primitives, so draining events allocates nothing.
+ *
+ * @see org.lwjgl.input.Mouse#drainEvents(MouseEventSink)
+ */
+public interface MouseEventSink {
+
+	/**
+	 * Called once for every mouse event, in the order the events were generated.
+	 * The sink must not call Mouse.next() or Mouse.poll().
+	 *
+	 * @param button the button that generated the event, or -1 for movement and wheel events
+	 * @param state  true if the button was pressed, false if it was released
+	 * @param x      the absolute x coordinate of the event, see getEventX()
+	 * @param y      the absolute y coordinate of the event, see getEventY()
+	 * @param dx     the x movement of the event, see getEventDX()
+	 * @param dy     the y movement of the event, see getEventDY()
+	 * @param dwheel the wheel movement of the event, see getEventDWheel()
+	 * @param nanos  the time of the event in nanoseconds, see getEventNanoseconds()
+	 */
+	void mouseEvent(int button, boolean state, int x, int y, int dx, int dy, int dwheel, long nanos);
+
+}
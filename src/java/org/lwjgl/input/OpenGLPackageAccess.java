@@ -46,12 +46,18 @@ import java.security.PrivilegedActionException;
  */
 final class OpenGLPackageAccess {
 	static final Object global_lock;
+	static final Object input_lock;
 
 	static {
+		global_lock = getLock("lock");
+		input_lock = getLock("input_lock");
+	}
+
+	private static Object getLock(final String name) {
 		try {
-			global_lock = AccessController.doPrivileged(new PrivilegedExceptionAction<Object>() {
+			return AccessController.doPrivileged(new PrivilegedExceptionAction<Object>() {
 				public Object run() throws Exception {
-					Field lock_field = Class.forName("org.lwjgl.opengl.GlobalLock").getDeclaredField("lock");
+					Field lock_field = Class.forName("org.lwjgl.opengl.GlobalLock").getDeclaredField(name);
 					lock_field.setAccessible(true);
 					return lock_field.get(null);
 				}
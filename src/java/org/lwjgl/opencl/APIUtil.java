@@ -32,7 +32,6 @@
 package org.lwjgl.opencl;
 
 import org.lwjgl.*;
-import org.lwjgl.opencl.FastLongMap.Entry;
 
 import java.nio.*;
 import java.util.HashSet;
@@ -512,8 +511,7 @@ final class APIUtil {
 		if ( registry.isEmpty() )
 			return;
 
-		for ( Entry<T> entry : registry.getAll() ) {
-			final T object = entry.value;
+		for ( T object : registry.getAll() ) {
 			while ( object.isValid() )
 				destructor.release(object);
 		}
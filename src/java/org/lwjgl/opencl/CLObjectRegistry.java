@@ -9,35 +9,38 @@ import org.lwjgl.LWJGLUtil;
  */
 class CLObjectRegistry<T extends CLObjectChild> {
 
-	private FastLongMap<T> registry;
+	private volatile FastLongMap<T> registry;
 
 	CLObjectRegistry() {
 	}
 
 	final boolean isEmpty() {
-		return registry == null || registry.isEmpty();
+		final FastLongMap<T> map = registry;
+		return map == null || map.isEmpty();
 	}
 
 	final T getObject(final long id) {
-		return registry == null ? null : registry.get(id);
+		final FastLongMap<T> map = registry;
+		return map == null ? null : map.get(id);
 	}
 
 	final boolean hasObject(final long id) {
-		return registry != null && registry.containsKey(id);
+		final FastLongMap<T> map = registry;
+		return map != null && map.containsKey(id);
 	}
 
-	final Iterable<FastLongMap.Entry<T>> getAll() {
+	final Iterable<T> getAll() {
 		return registry;
 	}
 
 	void registerObject(final T object) {
 		final FastLongMap<T> map = getMap();
-		final Long key = object.getPointer();
+		final long key = object.getPointer();
 
 		if ( LWJGLUtil.DEBUG && map.containsKey(key) )
 			throw new IllegalStateException("Duplicate object found: " + object.getClass() + " - " + key);
 
-		getMap().put(object.getPointer(), object);
+		map.put(key, object);
 	}
 
 	void unregisterObject(final T object) {
@@ -45,10 +48,16 @@ class CLObjectRegistry<T extends CLObjectChild> {
 	}
 
 	private FastLongMap<T> getMap() {
-		if ( registry == null )
-			registry = new FastLongMap<T>();
-
-		return registry;
+		FastLongMap<T> map = registry;
+		if ( map == null ) {
+			synchronized ( this ) {
+				map = registry;
+				if ( map == null )
+					registry = map = new FastLongMap<T>();
+			}
+		}
+
+		return map;
 	}
 
 }
\ No newline at end of file
@@ -1,148 +1,168 @@
 /*
- * Copyright 2002-2004 The Apache Software Foundation.
+ * Copyright (c) 2002-2011 LWJGL Project
+ * All rights reserved.
  *
- * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
- * License. You may obtain a copy of the License at
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
  *
- * http://www.apache.org/licenses/LICENSE-2.0
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
  *
- * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS"
- * BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
- * governing permissions and limitations under the License.
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'LWJGL' nor the names of
+ *   its contributors may be used to endorse or promote products derived
+ *   from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
  */
 package org.lwjgl.opencl;
 
 import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
- * A hash map using primitive longs as keys rather than objects.
- *
- * @author Justin Couch
- * @author Alex Chaffee (alex@apache.org)
- * @author Stephen Colebourne
- * @author Nathan Sweet
+ * A hash map using primitive longs as keys rather than objects. It uses open addressing
+ * with linear probing, so unlike a HashMap it does not allocate an entry object per
+ * mapping.
+ * <p/>
+ * This map is thread-safe: reads are lock-free, writes are serialized. OpenCL callbacks
+ * look up objects from driver threads while the application creates and releases objects,
+ * without blocking on each other. Null values and the 0L key are not supported; OpenCL
+ * object pointers are never 0L.
  */
-final class FastLongMap<V> implements Iterable<FastLongMap.Entry<V>> {
+final class FastLongMap<V> implements Iterable<V> {
 
-	private Entry[] table;
-	private int size, mask, capacity, threshold;
+	private volatile Table table;
 
-	/** Same as: FastLongMap(16, 0.75f); */
+	/** The number of mappings. Only written while holding the map lock. */
+	private volatile int size;
+	/** The number of used slots, including removed mappings. Guarded by the map lock. */
+	private int used;
+
+	/** Same as: FastLongMap(16); */
 	FastLongMap() {
-		this(16, 0.75f);
+		this(16);
 	}
 
-	/** Same as: FastLongMap(initialCapacity, 0.75f); */
 	FastLongMap(int initialCapacity) {
-		this(initialCapacity, 0.75f);
+		if ( initialCapacity > 1 << 29 ) throw new IllegalArgumentException("initialCapacity is too large.");
+		if ( initialCapacity < 0 ) throw new IllegalArgumentException("initialCapacity must be greater than zero.");
+
+		table = new Table(capacityFor(initialCapacity));
 	}
 
-	FastLongMap(int initialCapacity, float loadFactor) {
-		if ( initialCapacity > 1 << 30 ) throw new IllegalArgumentException("initialCapacity is too large.");
-		if ( initialCapacity < 0 ) throw new IllegalArgumentException("initialCapacity must be greater than zero.");
-		if ( loadFactor <= 0 ) throw new IllegalArgumentException("initialCapacity must be greater than zero.");
-		capacity = 1;
-		while ( capacity < initialCapacity )
+	/** Keeps the load factor at or below 0.5, probe sequences stay short. */
+	private static int capacityFor(final int size) {
+		int capacity = 2;
+		while ( capacity < size << 1 )
 			capacity <<= 1;
-		this.threshold = (int)(capacity * loadFactor);
-		this.table = new Entry[capacity];
-		this.mask = capacity - 1;
+		return capacity;
 	}
 
-	private int index(final long key) {
-		return index(key, mask);
+	private static int index(final long key, final int mask) {
+		final int hash = (int)(key ^ (key >>> 32)) * 0x9E3779B9;
+		return (hash ^ (hash >>> 16)) & mask;
 	}
 
-	private static int index(final long key, final int mask) {
-		final int hash = (int)(key ^ (key >>> 32));
-		return hash & mask;
+	public V get(final long key) {
+		final Table table = this.table;
+		final int mask = table.mask;
+
+		long k;
+		for ( int index = index(key, mask); (k = table.keys.get(index)) != 0L; index = (index + 1) & mask ) {
+			if ( k == key )
+				return (V)table.values.get(index);
+		}
+		return null;
 	}
 
-	public V put(long key, V value) {
-		final Entry<V>[] table = this.table;
-		int index = index(key);
+	public boolean containsKey(final long key) {
+		return get(key) != null;
+	}
 
-		// Check if key already exists.
-		for ( Entry<V> e = table[index]; e != null; e = e.next ) {
-			if ( e.key != key ) continue;
-			V oldValue = e.value;
-			e.value = value;
-			return oldValue;
+	public synchronized V put(final long key, final V value) {
+		if ( key == 0L ) throw new IllegalArgumentException("Invalid key: 0L");
+		if ( value == null ) throw new NullPointerException();
+
+		final Table table = this.table;
+		final int mask = table.mask;
+
+		long k;
+		int index = index(key, mask);
+		for ( ; (k = table.keys.get(index)) != 0L; index = (index + 1) & mask ) {
+			if ( k == key ) {
+				// The slot may hold a removed mapping for the same key
+				final V old = (V)table.values.getAndSet(index, value);
+				if ( old == null )
+					size++;
+				return old;
+			}
 		}
 
-		table[index] = new Entry<V>(key, value, table[index]);
+		// Publish the value before the key, readers that see the key will see the value.
+		table.values.set(index, value);
+		table.keys.set(index, key);
+		size++;
 
-		if ( size++ >= threshold )
+		if ( ++used > table.threshold )
 			rehash(table);
 
 		return null;
 	}
 
-	private void rehash(final Entry<V>[] table) {
-		final int newCapacity = 2 * capacity;
-		final int newMask = newCapacity - 1;
-
-		final Entry<V>[] newTable = new Entry[newCapacity];
-
-		for ( int i = 0, index; i < table.length; i++ ) {
-			Entry<V> e = table[i];
-			if ( e == null ) continue;
-			do {
-				final Entry<V> next = e.next;
-				index = index(e.key, newMask);
-				e.next = newTable[index];
-				newTable[index] = e;
-				e = next;
-			} while ( e != null );
+	public synchronized V remove(final long key) {
+		final Table table = this.table;
+		final int mask = table.mask;
+
+		long k;
+		for ( int index = index(key, mask); (k = table.keys.get(index)) != 0L; index = (index + 1) & mask ) {
+			if ( k == key ) {
+				// The key stays in the table, so that concurrent probes are not cut short.
+				final V old = (V)table.values.getAndSet(index, null);
+				if ( old != null )
+					size--;
+				return old;
+			}
 		}
-
-		this.table = newTable;
-		capacity = newCapacity;
-		mask = newMask;
-		threshold *= 2;
-	}
-
-	public V get(long key) {
-		final int index = index(key);
-		for ( Entry<V> e = table[index]; e != null; e = e.next )
-			if ( e.key == key ) return e.value;
 		return null;
 	}
 
-	public boolean containsValue(Object value) {
-		final Entry<V>[] table = this.table;
-		for ( int i = table.length - 1; i >= 0; i-- )
-			for ( Entry<V> e = table[i]; e != null; e = e.next )
-				if ( e.value.equals(value) ) return true;
-		return false;
-	}
-
-	public boolean containsKey(long key) {
-		final int index = index(key);
-		for ( Entry<V> e = table[index]; e != null; e = e.next )
-			if ( e.key == key ) return true;
-		return false;
-	}
-
-	public V remove(long key) {
-		final int index = index(key);
-
-		Entry<V> prev = table[index];
-		Entry<V> e = prev;
-		while ( e != null ) {
-			Entry<V> next = e.next;
-			if ( e.key == key ) {
-				size--;
-				if ( prev == e )
-					table[index] = next;
-				else
-					prev.next = next;
-				return e.value;
-			}
-			prev = e;
-			e = next;
+	/** Copies the live mappings to a new table, dropping removed mappings. Readers keep using the old table until it is published. */
+	private void rehash(final Table table) {
+		final Table newTable = new Table(capacityFor(size << 1));
+		final int mask = newTable.mask;
+
+		for ( int i = 0; i < table.keys.length(); i++ ) {
+			final Object value = table.values.get(i);
+			if ( value == null )
+				continue;
+
+			final long key = table.keys.get(i);
+			int index = index(key, mask);
+			while ( newTable.keys.get(index) != 0L )
+				index = (index + 1) & mask;
+			newTable.values.set(index, value);
+			newTable.keys.set(index, key);
 		}
-		return null;
+
+		used = size;
+		this.table = newTable;
 	}
 
 	public int size() {
@@ -153,87 +173,91 @@ final class FastLongMap<V> implements Iterable<FastLongMap.Entry<V>> {
 		return size == 0;
 	}
 
-	public void clear() {
-		final Entry<V>[] table = this.table;
-		for ( int index = table.length - 1; index >= 0; index-- )
-			table[index] = null;
+	public synchronized void clear() {
+		table = new Table(table.keys.length());
 		size = 0;
+		used = 0;
 	}
 
-	public EntryIterator iterator() {
-		return new EntryIterator();
+	/**
+	 * Returns an iterator over the values of this map. The iterator is weakly consistent: it never
+	 * throws ConcurrentModificationException and the map may be modified while iterating. Mappings
+	 * added after the iterator was created may or may not be returned. Iterator.remove() removes the
+	 * key of the last returned value, like remove(long) does.
+	 */
+	public Iterator<V> iterator() {
+		return new ValueIterator(table);
 	}
 
-	public class EntryIterator implements Iterator<Entry<V>> {
+	private static final class Table {
 
-		private int nextIndex;
-		private Entry<V> current;
+		final AtomicLongArray            keys;
+		final AtomicReferenceArray<Object> values;
 
-		EntryIterator() {
-			reset();
-		}
+		final int mask;
+		final int threshold;
 
-		public void reset() {
-			current = null;
-			// Find first bucket.
-			final Entry<V>[] table = FastLongMap.this.table;
-			int i;
-			for ( i = table.length - 1; i >= 0; i-- )
-				if ( table[i] != null ) break;
-			nextIndex = i;
+		Table(final int capacity) {
+			keys = new AtomicLongArray(capacity);
+			values = new AtomicReferenceArray<Object>(capacity);
+			mask = capacity - 1;
+			threshold = capacity >> 1;
 		}
 
-		public boolean hasNext() {
-			if ( nextIndex >= 0 ) return true;
-			Entry e = current;
-			return e != null && e.next != null;
-		}
+	}
 
-		public Entry<V> next() {
-			// Next entry in current bucket.
-			Entry<V> e = current;
-			if ( e != null ) {
-				e = e.next;
-				if ( e != null ) {
-					current = e;
-					return e;
-				}
-			}
-			// Use the bucket at nextIndex and find the next nextIndex.
-			final Entry<V>[] table = FastLongMap.this.table;
-			int i = nextIndex;
-			e = current = table[i];
-			while ( --i >= 0 )
-				if ( table[i] != null ) break;
-			nextIndex = i;
-			return e;
-		}
+	private final class ValueIterator implements Iterator<V> {
 
-		public void remove() {
-			FastLongMap.this.remove(current.key);
-		}
-	}
+		private final Table table;
 
-	static final class Entry<T> {
+		private int index = -1;
+		private V   next;
+		private long nextKey;
 
-		final long key;
-		T value;
-		Entry<T> next;
+		/** The key of the value last returned by next(), or 0L if there is none or it was removed. */
+		private long lastKey;
 
-		Entry(long key, T value, Entry<T> next) {
-			this.key = key;
-			this.value = value;
-			this.next = next;
+		ValueIterator(final Table table) {
+			this.table = table;
+			advance();
 		}
 
-		public long getKey() {
-			return key;
+		private void advance() {
+			next = null;
+			while ( ++index < table.values.length() ) {
+				// Read the key first, put() publishes the value before it.
+				nextKey = table.keys.get(index);
+				if ( nextKey == 0L )
+					continue;
+
+				next = (V)table.values.get(index);
+				if ( next != null )
+					break;
+			}
 		}
 
-		public T getValue() {
+		public boolean hasNext() {
+			return next != null;
+		}
+
+		public V next() {
+			final V value = next;
+			if ( value == null )
+				throw new NoSuchElementException();
+			lastKey = nextKey;
+			advance();
 			return value;
 		}
 
+		public void remove() {
+			if ( lastKey == 0L )
+				throw new IllegalStateException();
+
+			// Removed keys stay in their slots and a rehash replaces the table, so the iteration is not affected.
+			FastLongMap.this.remove(lastKey);
+			lastKey = 0L;
+		}
+
 	}
 
-}
\ No newline at end of file
+}
@@ -36,10 +36,19 @@ import org.lwjgl.LWJGLUtil;
 import org.lwjgl.MemoryUtil;
 
 import java.nio.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 /**
  * Utility class for OpenGL API calls. Instances of APIUtil are created in ContextCapabilities,
  * so we have an instance per OpenGL context.
+ * <p/>
+ * Resizable scratch memory (used for string marshalling and variable-size output) lives in a
+ * thread-local Arena instead, since it is only ever used for the duration of a single call.
+ * Short null-terminated strings (e.g. uniform and attribute names) are encoded once per thread
+ * and reused, and short strings returned by GL are interned, so repeated lookups do not allocate.
+ * Both tables are bounded and start over when they fill up.
  *
  * @author spasi
  */
@@ -50,9 +59,20 @@ final class APIUtil {
 
 	private static final int BUFFERS_SIZE = 32;
 
-	private char[]     array;
-	private ByteBuffer buffer;
-	private IntBuffer  lengths;
+	/** Strings longer than this are never interned. */
+	private static final int MAX_INTERN_LENGTH = 128;
+
+	private static final ThreadLocal<Arena> arenas = new ThreadLocal<Arena>() {
+		protected Arena initialValue() {
+			return new Arena(Thread.currentThread());
+		}
+	};
+
+	/**
+	 * The most recently used Arena. Like GLContext's fast_path_cache, it is only used if it is owned
+	 * by the current thread, so no synchronization is necessary.
+	 */
+	private static Arena fast_path_arena = new Arena(null);
 
 	private final IntBuffer    ints;
 	private final LongBuffer   longs;
@@ -60,10 +80,6 @@ final class APIUtil {
 	private final DoubleBuffer doubles;
 
 	APIUtil() {
-		array = new char[INITIAL_BUFFER_SIZE];
-		buffer = BufferUtils.createByteBuffer(INITIAL_BUFFER_SIZE);
-		lengths = BufferUtils.createIntBuffer(INITIAL_LENGTHS_SIZE);
-
 		ints = BufferUtils.createIntBuffer(BUFFERS_SIZE);
 		longs = BufferUtils.createLongBuffer(BUFFERS_SIZE);
 
@@ -71,48 +87,55 @@ final class APIUtil {
 		doubles = BufferUtils.createDoubleBuffer(BUFFERS_SIZE);
 	}
 
-	private static char[] getArray(final ContextCapabilities caps, final int size) {
-		char[] array = caps.util.array;
+	private static Arena getArena() {
+		final Arena arena = fast_path_arena;
+		if ( arena.owner == Thread.currentThread() )
+			return arena;
 
-		if ( array.length < size ) {
-			int sizeNew = array.length << 1;
-			while ( sizeNew < size )
-				sizeNew <<= 1;
+		return fast_path_arena = arenas.get();
+	}
+
+	private static int getSize(final int capacity, final int size) {
+		int sizeNew = capacity << 1;
+		while ( sizeNew < size )
+			sizeNew <<= 1;
+		return sizeNew;
+	}
 
-			array = new char[size];
-			caps.util.array = array;
+	private static char[] getArray(final Arena arena, final int size) {
+		char[] array = arena.array;
+
+		if ( array.length < size ) {
+			array = new char[getSize(array.length, size)];
+			arena.array = array;
 		}
 
 		return array;
 	}
 
 	static ByteBuffer getBufferByte(final ContextCapabilities caps, final int size) {
-		ByteBuffer buffer = caps.util.buffer;
+		return getBufferByte(getArena(), size);
+	}
 
-		if ( buffer.capacity() < size ) {
-			int sizeNew = buffer.capacity() << 1;
-			while ( sizeNew < size )
-				sizeNew <<= 1;
+	private static ByteBuffer getBufferByte(final Arena arena, final int size) {
+		ByteBuffer buffer = arena.buffer;
 
-			buffer = BufferUtils.createByteBuffer(size);
-			caps.util.buffer = buffer;
+		if ( buffer.capacity() < size ) {
+			buffer = BufferUtils.createByteBuffer(getSize(buffer.capacity(), size));
+			arena.buffer = buffer;
 		} else
 			buffer.clear();
 
 		return buffer;
 	}
 
-	private static ByteBuffer getBufferByteOffset(final ContextCapabilities caps, final int size) {
-		ByteBuffer buffer = caps.util.buffer;
+	private static ByteBuffer getBufferByteOffset(final Arena arena, final int size) {
+		ByteBuffer buffer = arena.buffer;
 
 		if ( buffer.capacity() < size ) {
-			int sizeNew = buffer.capacity() << 1;
-			while ( sizeNew < size )
-				sizeNew <<= 1;
-
-			final ByteBuffer bufferNew = BufferUtils.createByteBuffer(size);
+			final ByteBuffer bufferNew = BufferUtils.createByteBuffer(getSize(buffer.capacity(), size));
 			bufferNew.put(buffer);
-			caps.util.buffer = (buffer = bufferNew);
+			arena.buffer = (buffer = bufferNew);
 		} else {
 			buffer.position(buffer.limit());
 			buffer.limit(buffer.capacity());
@@ -134,15 +157,15 @@ final class APIUtil {
 	}
 
 	static IntBuffer getLengths(final ContextCapabilities caps, final int size) {
-		IntBuffer lengths = caps.util.lengths;
+		return getLengths(getArena(), size);
+	}
 
-		if ( lengths.capacity() < size ) {
-			int sizeNew = lengths.capacity();
-			while ( sizeNew < size )
-				sizeNew <<= 1;
+	private static IntBuffer getLengths(final Arena arena, final int size) {
+		IntBuffer lengths = arena.lengths;
 
-			lengths = BufferUtils.createIntBuffer(size);
-			caps.util.lengths = lengths;
+		if ( lengths.capacity() < size ) {
+			lengths = BufferUtils.createIntBuffer(getSize(lengths.capacity(), size));
+			arena.lengths = lengths;
 		} else
 			lengths.clear();
 
@@ -150,23 +173,27 @@ final class APIUtil {
 	}
 
 	/**
-	 * Simple ASCII encoding.
+	 * Simple ASCII encoding, see {@link MemoryUtil#encodeASCII(CharSequence, boolean, ByteBuffer, int)}.
 	 *
-	 * @param buffer The target buffer
-	 * @param string The source string
+	 * @param buffer the target buffer, its position is advanced past the encoded string
+	 * @param string the source string
 	 */
-	private static ByteBuffer encode(final ByteBuffer buffer, final CharSequence string) {
-		for ( int i = 0; i < string.length(); i++ ) {
-			final char c = string.charAt(i);
-			if ( LWJGLUtil.DEBUG && 0x80 <= c ) // Silently ignore and map to 0x1A.
-				buffer.put((byte)0x1A);
-			else
-				buffer.put((byte)c);
-		}
-
+	private static ByteBuffer encode(final ByteBuffer buffer, final CharSequence string, final boolean nullTerminated) {
+		buffer.position(buffer.position() + MemoryUtil.encodeASCII(string, nullTerminated, buffer, buffer.position()));
 		return buffer;
 	}
 
+	/** Returns the String.hashCode() of the specified text, without allocating. */
+	private static int hash(final CharSequence text) {
+		if ( text instanceof String )
+			return text.hashCode();
+
+		int hash = 0;
+		for ( int i = 0; i < text.length(); i++ )
+			hash = 31 * hash + text.charAt(i);
+		return hash;
+	}
+
 	/**
 	 * Reads a byte string from the specified buffer.
 	 *
@@ -175,13 +202,36 @@ final class APIUtil {
 	 * @return the buffer as a String.
 	 */
 	static String getString(final ContextCapabilities caps, final ByteBuffer buffer) {
+		final Arena arena = getArena();
+
+		final int position = buffer.position();
 		final int length = buffer.remaining();
-		final char[] charArray = getArray(caps, length);
 
-		for ( int i = buffer.position(); i < buffer.limit(); i++ )
-			charArray[i - buffer.position()] = (char)buffer.get(i);
+		final char[] charArray = getArray(arena, length);
+
+		int hash = 0;
+		for ( int i = 0; i < length; i++ ) {
+			final char c = (char)(buffer.get(position + i) & 0xFF);
+			charArray[i] = c;
+			hash = 31 * hash + c;
+		}
+
+		if ( MAX_INTERN_LENGTH < length )
+			return new String(charArray, 0, length);
+
+		final StringTable strings = arena.strings;
+
+		final int slot = strings.find(charArray, length, hash);
+		if ( 0 <= slot )
+			return strings.keys[slot];
 
-		return new String(charArray, 0, length);
+		final String string = new String(charArray, 0, length);
+		if ( strings.isFull() ) {
+			strings.clear();
+			strings.put(-strings.find(string, hash) - 1, string, 0L);
+		} else
+			strings.put(-slot - 1, string, 0L);
+		return string;
 	}
 
 	/**
@@ -192,7 +242,7 @@ final class APIUtil {
 	 * @return the String as a ByteBuffer
 	 */
 	static long getBuffer(final ContextCapabilities caps, final CharSequence string) {
-		final ByteBuffer buffer = encode(getBufferByte(caps, string.length()), string);
+		final ByteBuffer buffer = encode(getBufferByte(getArena(), string.length()), string, false);
 		buffer.flip();
 		return MemoryUtil.getAddress0(buffer);
 	}
@@ -205,21 +255,41 @@ final class APIUtil {
 	 * @return the String as a ByteBuffer
 	 */
 	static long getBuffer(final ContextCapabilities caps, final CharSequence string, final int offset) {
-		final ByteBuffer buffer = encode(getBufferByteOffset(caps, offset + string.length()), string);
+		final ByteBuffer buffer = encode(getBufferByteOffset(getArena(), offset + string.length()), string, false);
 		buffer.flip();
 		return MemoryUtil.getAddress(buffer);
 	}
 
 	/**
 	 * Returns a buffer containing the specified string as bytes, including null-termination.
+	 * Short strings are interned per thread, so that repeated calls with the same name
+	 * (e.g. glGetUniformLocation) do not encode again. The returned address is valid
+	 * until the next call on the same thread.
 	 *
 	 * @param string
 	 *
 	 * @return the String as a ByteBuffer
 	 */
 	static long getBufferNT(final ContextCapabilities caps, final CharSequence string) {
-		final ByteBuffer buffer = encode(getBufferByte(caps, string.length() + 1), string);
-		buffer.put((byte)0);
+		final Arena arena = getArena();
+
+		if ( string.length() <= MAX_INTERN_LENGTH ) {
+			final StringTable names = arena.names;
+
+			final int hash = hash(string);
+			final int slot = names.find(string, hash);
+			if ( 0 <= slot )
+				return names.values[slot];
+
+			if ( !names.isFull() )
+				return arena.intern(-slot - 1, string);
+
+			// Start over instead of growing, the addresses handed out are not in use anymore.
+			arena.clearNames();
+			return arena.intern(-names.find(string, hash) - 1, string);
+		}
+
+		final ByteBuffer buffer = encode(getBufferByte(arena, string.length() + 1), string, true);
 		buffer.flip();
 		return MemoryUtil.getAddress0(buffer);
 	}
@@ -240,10 +310,10 @@ final class APIUtil {
 	 * @return the Strings as a ByteBuffer
 	 */
 	static long getBuffer(final ContextCapabilities caps, final CharSequence[] strings) {
-		final ByteBuffer buffer = getBufferByte(caps, getTotalLength(strings));
+		final ByteBuffer buffer = getBufferByte(getArena(), getTotalLength(strings));
 
 		for ( CharSequence string : strings )
-			encode(buffer, string);
+			encode(buffer, string, false);
 
 		buffer.flip();
 		return MemoryUtil.getAddress0(buffer);
@@ -257,12 +327,10 @@ final class APIUtil {
 	 * @return the Strings as a ByteBuffer
 	 */
 	static long getBufferNT(final ContextCapabilities caps, final CharSequence[] strings) {
-		final ByteBuffer buffer = getBufferByte(caps, getTotalLength(strings) + strings.length);
+		final ByteBuffer buffer = getBufferByte(getArena(), getTotalLength(strings) + strings.length);
 
-		for ( CharSequence string : strings ) {
-			encode(buffer, string);
-			buffer.put((byte)0);
-		}
+		for ( CharSequence string : strings )
+			encode(buffer, string, true);
 
 		buffer.flip();
 		return MemoryUtil.getAddress0(buffer);
@@ -276,7 +344,7 @@ final class APIUtil {
 	 * @return the String lengths in an IntBuffer
 	 */
 	static long getLengths(final ContextCapabilities caps, final CharSequence[] strings) {
-		IntBuffer buffer = getLengths(caps, strings.length);
+		IntBuffer buffer = getLengths(getArena(), strings.length);
 
 		for ( CharSequence string : strings )
 			buffer.put(string.length());
@@ -290,7 +358,135 @@ final class APIUtil {
 	}
 
 	static long getBufferByte0(final ContextCapabilities caps) {
-		return MemoryUtil.getAddress0(getBufferByte(caps, 0));
+		return MemoryUtil.getAddress0(getBufferByte(getArena(), 0));
+	}
+
+	/** Per-thread scratch memory. */
+	private static final class Arena {
+
+		private static final int PAGE_SIZE = 4096;
+
+		final Thread owner;
+
+		char[]     array;
+		ByteBuffer buffer;
+		IntBuffer  lengths;
+
+		/** Null-terminated names, encoded in pages. */
+		final StringTable names   = new StringTable();
+		/** Strings returned by GL. */
+		final StringTable strings = new StringTable();
+
+		/** Keeps the pages reachable, they are reused when the names are cleared. */
+		private final List<ByteBuffer> pages = new ArrayList<ByteBuffer>();
+
+		private ByteBuffer page;
+		private int        pageIndex;
+
+		Arena(final Thread owner) {
+			this.owner = owner;
+
+			if ( owner != null ) {
+				array = new char[INITIAL_BUFFER_SIZE];
+				buffer = BufferUtils.createByteBuffer(INITIAL_BUFFER_SIZE);
+				lengths = BufferUtils.createIntBuffer(INITIAL_LENGTHS_SIZE);
+			}
+		}
+
+		long intern(final int slot, final CharSequence name) {
+			final int size = name.length() + 1;
+			if ( page == null || page.remaining() < size ) {
+				if ( pageIndex < pages.size() ) {
+					page = pages.get(pageIndex);
+					page.clear();
+				} else {
+					page = BufferUtils.createByteBuffer(PAGE_SIZE);
+					pages.add(page);
+				}
+				pageIndex++;
+			}
+
+			final long address = MemoryUtil.getAddress(page);
+			encode(page, name, true);
+
+			names.put(slot, name.toString(), address);
+			return address;
+		}
+
+		void clearNames() {
+			names.clear();
+			page = null;
+			pageIndex = 0;
+		}
+
+	}
+
+	/** A fixed-size, open-addressing String table with linear probing. Keys are compared by content. */
+	private static final class StringTable {
+
+		private static final int CAPACITY = 2048; // Must be a power of two
+		private static final int MAX_SIZE = CAPACITY >> 1;
+
+		final String[] keys   = new String[CAPACITY];
+		final long[]   values = new long[CAPACITY];
+
+		private int size;
+
+		private static int index(final int hash) {
+			return (hash ^ (hash >>> 16)) & (CAPACITY - 1);
+		}
+
+		boolean isFull() {
+			return size == MAX_SIZE;
+		}
+
+		void clear() {
+			Arrays.fill(keys, null);
+			size = 0;
+		}
+
+		/** Returns the slot of the specified text or, if it is not present, -(insertion slot + 1). */
+		int find(final CharSequence text, final int hash) {
+			for ( int i = index(hash); ; i = (i + 1) & (CAPACITY - 1) ) {
+				final String key = keys[i];
+				if ( key == null )
+					return -i - 1;
+
+				if ( key.hashCode() == hash && (text instanceof String ? key.equals(text) : key.contentEquals(text)) )
+					return i;
+			}
+		}
+
+		/** Like find(CharSequence, int), for the first length characters of array. */
+		int find(final char[] array, final int length, final int hash) {
+			for ( int i = index(hash); ; i = (i + 1) & (CAPACITY - 1) ) {
+				final String key = keys[i];
+				if ( key == null )
+					return -i - 1;
+
+				if ( key.hashCode() == hash && equals(key, array, length) )
+					return i;
+			}
+		}
+
+		private static boolean equals(final String key, final char[] array, final int length) {
+			if ( key.length() != length )
+				return false;
+
+			for ( int i = 0; i < length; i++ ) {
+				if ( key.charAt(i) != array[i] )
+					return false;
+			}
+
+			return true;
+		}
+
+		void put(final int slot, final String key, final long value) {
+			keys[slot] = key;
+			values[slot] = value;
+			size++;
+		}
+
 	}
 
 }
\ No newline at end of file
@@ -59,6 +59,7 @@ import java.security.AccessController;
 import java.security.PrivilegedAction;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 final class BoatDisplay implements DisplayImplementation {
 	/* Boat constants */
@@ -77,6 +78,12 @@ final class BoatDisplay implements DisplayImplementation {
 
 	private static int display_connection_usage_count;
 
+	/** Process events on a dedicated thread instead of in update() */
+	private static final boolean INPUT_THREAD = LWJGLUtil.getPrivilegedBoolean("org.lwjgl.opengl.Display.inputThread");
+
+	/** Maximum time the input thread waits for events, in milliseconds. Bounds the time destroyWindow() waits for the thread to exit. */
+	private static final int INPUT_THREAD_TIMEOUT = 10;
+
 	/** Event buffer */
 	private final BoatEvent event_buffer = new BoatEvent();
 
@@ -87,23 +94,25 @@ final class BoatDisplay implements DisplayImplementation {
 	private DisplayMode current_mode;
 
 
-	private boolean pointer_grabbed;
-	private boolean input_released;
-	private boolean grab;
+	private volatile boolean pointer_grabbed;
+	private volatile boolean input_released;
+	private volatile boolean grab;
 	private boolean minimized;
 	private boolean dirty;
-	private boolean close_requested;
+	private final AtomicBoolean close_requested = new AtomicBoolean();
 	private boolean mouseInside = true;
 	private boolean resizable;
-	private boolean resized;
-	
-	private int window_x;
-	private int window_y;
-	private int window_width;
-	private int window_height;
+	private final AtomicBoolean resized = new AtomicBoolean();
+
+	/** Window geometry, shared with the mouse */
+	private final BoatWindowGeometry geometry = new BoatWindowGeometry();
+	private final IntBuffer geometry_buffer = BufferUtils.createIntBuffer(4);
+
+	private volatile BoatKeyboard keyboard;
+	private volatile BoatMouse mouse;
 
-	private BoatKeyboard keyboard;
-	private BoatMouse mouse;
+	/** The thread processing events, if enabled */
+	private InputThread input_thread;
 
 	/**
 	 * increment and decrement display usage.
@@ -214,23 +223,25 @@ final class BoatDisplay implements DisplayImplementation {
 				current_window_mode = getWindowMode(Display.isFullscreen());
 
 				resizable = Display.isResizable();
-				resized = false;
-				window_x = x;
-				window_y = y;
-				window_width = mode.getWidth();
-				window_height = mode.getHeight();
+				resized.set(false);
 
 				current_window = nCreateWindow(getDisplay(), handle, mode, current_window_mode, x, y, resizable);
+				updateGeometry();
 
 				input_released = false;
 				pointer_grabbed = false;
-				close_requested = false;
+				close_requested.set(false);
 				grab = false;
 				minimized = false;
 				dirty = true;
 
 				if ( drawable instanceof DrawableGLES )
 					((DrawableGLES)drawable).initialize(current_window, getDisplay(), EGL.EGL_WINDOW_BIT, (org.lwjgl.opengles.PixelFormat)drawable.getPixelFormat());
+
+				if ( INPUT_THREAD ) {
+					input_thread = new InputThread();
+					input_thread.start();
+				}
 			} finally {
 				peer_info.unlock();
 			}
@@ -240,16 +251,27 @@ final class BoatDisplay implements DisplayImplementation {
 		}
 	}
 	private static native long nCreateWindow(long display, ByteBuffer peer_info_handle, DisplayMode mode, int window_mode, int x, int y, boolean resizable) throws LWJGLException;
-	private static native int nGetX(long window);
-	private static native int nGetY(long window);
-	private static native int nGetWidth(long window);
-	private static native int nGetHeight(long window);
+
+	/**
+	 * Refreshes the window geometry snapshot with a single native call.
+	 *
+	 * @return true if the window size changed
+	 */
+	private boolean updateGeometry() {
+		nGetGeometry(getWindow(), geometry_buffer);
+		return geometry.set(geometry_buffer.get(0), geometry_buffer.get(1), geometry_buffer.get(2), geometry_buffer.get(3));
+	}
+	private static native void nGetGeometry(long window, IntBuffer geometry);
 
 	private void updateInputGrab() {
 		updatePointerGrab();
 	}
 
 	public void destroyWindow() {
+		if ( input_thread != null ) {
+			input_thread.shutdown();
+			input_thread = null;
+		}
 		nDestroyWindow(getDisplay(), getWindow());
 		decDisplay();
 	}
@@ -297,9 +319,7 @@ final class BoatDisplay implements DisplayImplementation {
 	}
 
 	public boolean isCloseRequested() {
-		boolean result = close_requested;
-		close_requested = false;
-		return result;
+		return close_requested.getAndSet(false);
 	}
 
 	public boolean isVisible() {
@@ -321,44 +341,75 @@ final class BoatDisplay implements DisplayImplementation {
 		return peer_info;
 	}
 
-	private void processEvents() {
-		while (BoatEvent.getPending() > 0) {
-			if (event_buffer.nextEvent() == 0) {
-				break;
-			}
+	/**
+	 * Processes the pending events, waiting up to timeout milliseconds for the first one,
+	 * and publishes the resulting input state.
+	 */
+	private void processEvents(int timeout) {
+		final BoatMouse mouse = this.mouse;
+		final BoatKeyboard keyboard = this.keyboard;
+		for (boolean more = event_buffer.nextEvent(timeout); more; more = event_buffer.nextEvent(0)) {
+			// A continuous stream of events can keep the batch going, don't hold a key release back
+			if (keyboard != null)
+				keyboard.flushExpiredDeferredEvent();
 			if ((mouse != null && mouse.filterEvent(grab, shouldWarpPointer(), event_buffer)) ||
 			    (keyboard != null && keyboard.filterEvent(event_buffer)))
 				continue;
 			switch (event_buffer.getType()) {
 				case BoatEvent.BoatMessage:
 					if (event_buffer.getBoatMessageMessage() == BoatEvent.CloseRequest)
-						close_requested = true;
+						close_requested.set(true);
 					break;
 				case BoatEvent.ConfigureNotify:
-					int x = nGetX(getWindow());
-					int y = nGetY(getWindow());
-					
-					int width = nGetWidth(getWindow());
-					int height = nGetHeight(getWindow());
-					
-					window_x = x;
-					window_y = y;
-					
-					if (window_width != width || window_height != height) {
-						resized = true;
-						window_width = width;
-						window_height = height;
-					}
-					
+					if (updateGeometry())
+						resized.set(true);
 					break;
 				default:
 					break;
 			}
 		}
+		if (mouse != null)
+			mouse.publish();
+		if (keyboard != null)
+			keyboard.publish();
 	}
 
 	public void update() {
-		processEvents();
+		if (input_thread == null)
+			processEvents(0);
+	}
+
+	/**
+	 * Processes events as soon as they arrive, so that input latency doesn't depend on the
+	 * frame rate. The mouse and keyboard events go through lock-free queues and the polled
+	 * state is published as snapshots, so Display.update() only has to read them.
+	 */
+	private final class InputThread extends Thread {
+		private volatile boolean running = true;
+
+		InputThread() {
+			super("LWJGL Boat input");
+			setDaemon(true);
+		}
+
+		public void run() {
+			while (running)
+				processEvents(INPUT_THREAD_TIMEOUT);
+		}
+
+		void shutdown() {
+			running = false;
+			boolean interrupted = false;
+			while (isAlive()) {
+				try {
+					join();
+				} catch (InterruptedException e) {
+					interrupted = true;
+				}
+			}
+			if (interrupted)
+				Thread.currentThread().interrupt();
+		}
 	}
 
 	public void reshape(int x, int y, int width, int height) {
@@ -385,7 +436,7 @@ final class BoatDisplay implements DisplayImplementation {
 	}
 
 	public void createMouse() throws LWJGLException {
-		mouse = new BoatMouse(getWindow());
+		mouse = new BoatMouse(geometry);
 	}
 
 	public void destroyMouse() {
@@ -435,7 +486,7 @@ final class BoatDisplay implements DisplayImplementation {
 
 	/* Keyboard */
 	public void createKeyboard() throws LWJGLException {
-		keyboard = new BoatKeyboard();
+		keyboard = new BoatKeyboard(input_thread != null);
 	}
 
 	public void destroyKeyboard() {
@@ -513,19 +564,19 @@ final class BoatDisplay implements DisplayImplementation {
 	}
 
 	public int getX() {
-		return window_x;
+		return geometry.getX();
 	}
 
 	public int getY() {
-		return window_y;
+		return geometry.getY();
 	}
-	
+
 	public int getWidth() {
-		return window_width;
+		return geometry.getWidth();
 	}
 
 	public int getHeight() {
-		return window_height;
+		return geometry.getHeight();
 	}
 
 	public boolean isInsideWindow() {
@@ -541,12 +592,7 @@ final class BoatDisplay implements DisplayImplementation {
 	}
 
 	public boolean wasResized() {
-		if (resized) {
-			resized = false;
-			return true;
-		}
-		
-		return false;
+		return resized.getAndSet(false);
 	}
 
 	public float getPixelScaleFactor() {
@@ -33,8 +33,15 @@ package org.lwjgl.opengl;
 
 import java.nio.ByteBuffer;
 
+import org.lwjgl.BufferUtils;
+
 /**
  * Wrapper class for Boat events.
+ * <p/>
+ * Pending events are drained from native code in batches: a single call to
+ * nDrainEvents copies up to EVENT_BATCH events into a direct buffer, using the
+ * fixed record layout below. The event accessors then decode the current record
+ * with plain buffer reads, without going back to native code.
  *
  * @author cosine
  */
@@ -49,88 +56,119 @@ final class BoatEvent {
 
 	public static final int CloseRequest    = 0;
 
+	/** Event record layout, must match BoatEventRecord in org_lwjgl_opengl_BoatEvent.c */
+	private static final int TYPE_OFFSET    = 0;
+	private static final int MESSAGE_OFFSET = 4;
+	private static final int TIME_OFFSET    = 8;
+	private static final int STATE_OFFSET   = 16;
+	private static final int BUTTON_OFFSET  = 20;
+	private static final int X_OFFSET       = 24;
+	private static final int Y_OFFSET       = 28;
+	private static final int KEYCODE_OFFSET = 32;
+	private static final int KEYCHAR_OFFSET = 36;
+
+	static final int EVENT_SIZE = 40;
+
+	/** Maximum number of events copied by a single native call */
+	static final int EVENT_BATCH = 64;
+
 	private final ByteBuffer event_buffer;
 
+	/** Number of events in the current batch */
+	private int event_count;
+	/** Index of the current event in the batch */
+	private int event_index;
+	/** Byte offset of the current event record */
+	private int event_offset;
+
 	BoatEvent() {
-		this.event_buffer = createEventBuffer();
+		this.event_buffer = BufferUtils.createByteBuffer(EVENT_SIZE * EVENT_BATCH);
 	}
-	private static native ByteBuffer createEventBuffer();
 
-	public static native int getPending();
+	/**
+	 * Advances to the next pending event, draining a new batch from native code
+	 * when the current one has been consumed.
+	 *
+	 * @return false if there are no more pending events
+	 */
+	public boolean nextEvent() {
+		return nextEvent(0);
+	}
 
-	public int nextEvent() {
-		return nNextEvent(event_buffer);
+	/**
+	 * Advances to the next pending event, draining a new batch from native code
+	 * when the current one has been consumed. If no event is pending, waits up to
+	 * timeout milliseconds for one to arrive.
+	 *
+	 * @return false if there are no more pending events
+	 */
+	public boolean nextEvent(int timeout) {
+		if ( ++event_index < event_count ) {
+			event_offset += EVENT_SIZE;
+			return true;
+		}
+		event_count = nDrainEvents(event_buffer, EVENT_BATCH, timeout);
+		event_index = 0;
+		event_offset = 0;
+		return event_count > 0;
 	}
-	private static native int nNextEvent(ByteBuffer event_buffer);
+	private static native int nDrainEvents(ByteBuffer event_buffer, int max_events, int timeout);
 
 	public int getType() {
-		return nGetType(event_buffer);
+		return event_buffer.getInt(event_offset + TYPE_OFFSET);
 	}
-	private static native int nGetType(ByteBuffer event_buffer);
 
 	/* BoatMessage methods */
 
 	public int getBoatMessageMessage() {
-		return nGetBoatMessageMessage(event_buffer);
+		return event_buffer.getInt(event_offset + MESSAGE_OFFSET);
 	}
-	private static native int nGetBoatMessageMessage(ByteBuffer event_buffer);
 
 	/* Button methods */
 
 	public long getButtonTime() {
-		return nGetButtonTime(event_buffer);
+		return event_buffer.getLong(event_offset + TIME_OFFSET);
 	}
-	private static native long nGetButtonTime(ByteBuffer event_buffer);
 
 	public int getButtonState() {
-		return nGetButtonState(event_buffer);
+		return event_buffer.getInt(event_offset + STATE_OFFSET);
 	}
-	private static native int nGetButtonState(ByteBuffer event_buffer);
 
 	public int getButtonType() {
-		return nGetButtonType(event_buffer);
+		return getType();
 	}
-	private static native int nGetButtonType(ByteBuffer event_buffer);
 
 	public int getButtonButton() {
-		return nGetButtonButton(event_buffer);
+		return event_buffer.getInt(event_offset + BUTTON_OFFSET);
 	}
-	private static native int nGetButtonButton(ByteBuffer event_buffer);
 
 	public int getButtonX() {
-		return nGetButtonX(event_buffer);
+		return event_buffer.getInt(event_offset + X_OFFSET);
 	}
-	private static native int nGetButtonX(ByteBuffer event_buffer);
 
 	public int getButtonY() {
-		return nGetButtonY(event_buffer);
+		return event_buffer.getInt(event_offset + Y_OFFSET);
 	}
-	private static native int nGetButtonY(ByteBuffer event_buffer);
 
 	/* Key methods */
 
 	public long getKeyTime() {
-		return nGetKeyTime(event_buffer);
+		return event_buffer.getLong(event_offset + TIME_OFFSET);
 	}
-	private static native int nGetKeyTime(ByteBuffer event_buffer);
 
 	public int getKeyType() {
-		return nGetKeyType(event_buffer);
+		return getType();
 	}
-	private static native int nGetKeyType(ByteBuffer event_buffer);
 
 	public int getKeyKeyCode() {
-		return nGetKeyKeyCode(event_buffer);
+		return event_buffer.getInt(event_offset + KEYCODE_OFFSET);
 	}
-	private static native int nGetKeyKeyCode(ByteBuffer event_buffer);
 
 	public int getKeyState() {
-		return nGetKeyState(event_buffer);
+		return event_buffer.getInt(event_offset + STATE_OFFSET);
 	}
-	private static native int nGetKeyState(ByteBuffer event_buffer);
 
 	public int getKeyKeyChar() {
-		return nGetKeyKeyChar(event_buffer);
+		return event_buffer.getInt(event_offset + KEYCHAR_OFFSET);
 	}
-	private static native int nGetKeyKeyChar(ByteBuffer event_buffer);
 }
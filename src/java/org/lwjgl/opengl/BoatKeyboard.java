@@ -44,41 +44,80 @@ import org.lwjgl.input.Keyboard;
 final class BoatKeyboard {
 	private static final int KEYBOARD_BUFFER_SIZE = 50;
 
+	/** How long a deferred key release event may wait for a repeated press, in nanoseconds */
+	private static final long DEFERRED_EVENT_TIMEOUT = 5L * 1000 * 1000;
+
+	/** Key state, owned by the thread processing events */
 	private final byte[] key_down_buffer = new byte[Keyboard.KEYBOARD_SIZE];
+	private boolean keys_changed;
+	/** Key state published for poll() */
+	private final TripleBuffer<byte[]> key_state = new TripleBuffer<byte[]>(new byte[Keyboard.KEYBOARD_SIZE], new byte[Keyboard.KEYBOARD_SIZE], new byte[Keyboard.KEYBOARD_SIZE]);
 	private final EventQueue event_queue = new EventQueue(Keyboard.EVENT_SIZE);
 
 	private final ByteBuffer tmp_event = ByteBuffer.allocate(Keyboard.EVENT_SIZE);
 
+	/** true if the events are processed by another thread than the one calling read() and poll() */
+	private final boolean threaded;
+
 	// Deferred key released event, to detect key repeat
 	private boolean has_deferred_event;
 	private int deferred_keycode;
 	private int deferred_event_keycode;
 	private long deferred_nanos;
 	private byte deferred_key_state;
+	/** System.nanoTime() when the event was deferred */
+	private long deferred_time;
+	/** true if the deferred event has been kept across a whole batch */
+	private boolean deferred_since_last_batch;
 
-	BoatKeyboard() {
+	BoatKeyboard(boolean threaded) {
+		this.threaded = threaded;
 	}
 
 	public void destroy() {
 	}
 
 	public void read(ByteBuffer buffer) {
-		flushDeferredEvent();
+		if ( !threaded )
+			flushDeferredEvent();
 		event_queue.copyEvents(buffer);
 	}
 
 	public void poll(ByteBuffer keyDownBuffer) {
-		flushDeferredEvent();
+		if ( !threaded )
+			flushDeferredEvent();
 		int old_position = keyDownBuffer.position();
-		keyDownBuffer.put(key_down_buffer);
+		keyDownBuffer.put(key_state.getFront());
 		keyDownBuffer.position(old_position);
 	}
 
+	/**
+	 * Publishes the key state for poll(). Called by the thread processing events, after each batch.
+	 * The deferred key release event is kept until the next batch, so that a release and press pair
+	 * split between two batches is still detected as a repeat. It is queued by read() and poll() or,
+	 * when another thread processes the events, after the next batch or once it is older than
+	 * DEFERRED_EVENT_TIMEOUT, whichever comes first, whatever other input arrives meanwhile.
+	 */
+	void publish() {
+		if ( threaded ) {
+			if ( deferred_since_last_batch )
+				flushDeferredEvent();
+			else
+				flushExpiredDeferredEvent();
+			deferred_since_last_batch = has_deferred_event;
+		}
+		if ( !keys_changed )
+			return;
+		System.arraycopy(key_down_buffer, 0, key_state.getBack(), 0, key_down_buffer.length);
+		key_state.publish();
+		keys_changed = false;
+	}
+
 	private void putKeyboardEvent(int keycode, byte state, int ch, long nanos, boolean repeat) {
-		tmp_event.clear();
-		tmp_event.putInt(keycode).put(state).putInt(ch).putLong(nanos).put(repeat ? (byte)1 : (byte)0);
-		tmp_event.flip();
+		// Absolute puts, the queue consumes the event so only the position needs resetting
+		tmp_event.putInt(0, keycode).put(4, state).putInt(5, ch).putLong(9, nanos).put(17, repeat ? (byte)1 : (byte)0);
 		event_queue.putEvent(tmp_event);
+		tmp_event.rewind();
 	}
 
 	private void translateEvent(int keycode, byte key_state, int keychar, long nanos, boolean repeat) {
@@ -108,6 +147,7 @@ final class BoatKeyboard {
 		for ( int i = 0; i < key_down_buffer.length; i++ ) {
 			if ( key_down_buffer[i] != 0 ) {
 				key_down_buffer[i] = 0;
+				keys_changed = true;
 				putKeyboardEvent(i, (byte)0, 0, 0L, false);
 			}
 		}
@@ -120,6 +160,7 @@ final class BoatKeyboard {
 		if ( repeat && event_type == BoatEvent.KeyRelease ) // This can happen for modifier keys after losing and regaining focus.
 			return;
 		key_down_buffer[keycode] = key_state;
+		keys_changed = true;
 		if (event_type == BoatEvent.KeyPress) {
 			if (has_deferred_event) {
 				if (nanos == deferred_nanos && event_keycode == deferred_event_keycode) {
@@ -136,13 +177,22 @@ final class BoatKeyboard {
 			deferred_event_keycode = event_keycode;
 			deferred_nanos = nanos;
 			deferred_key_state = key_state;
+			deferred_time = System.nanoTime();
+			deferred_since_last_batch = false;
 		}
 	}
 
+	/** Queues the deferred key release event if it is older than DEFERRED_EVENT_TIMEOUT. Called by the thread processing events. */
+	void flushExpiredDeferredEvent() {
+		if ( has_deferred_event && DEFERRED_EVENT_TIMEOUT <= System.nanoTime() - deferred_time )
+			flushDeferredEvent();
+	}
+
 	private void flushDeferredEvent() {
 		if (has_deferred_event) {
 			putKeyboardEvent(deferred_keycode, deferred_key_state, 0, deferred_nanos, false);
 			has_deferred_event = false;
+			deferred_since_last_batch = false;
 		}
 	}
 
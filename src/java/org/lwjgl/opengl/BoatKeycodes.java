@@ -170,251 +170,165 @@ final class BoatKeycodes {
 
 	public static final int  KEY_UNKNOWN         = 240;
 
+	/** LWJGL key codes, indexed by Boat key code */
+	private static final short[] boat_to_lwjgl = new short[256];
+	/** Boat key codes, indexed by LWJGL key code */
+	private static final short[] lwjgl_to_boat = new short[Keyboard.KEYBOARD_SIZE];
+
+	static {
+		map(KEY_BACKSPACE, Keyboard.KEY_BACK);
+		map(KEY_TAB, Keyboard.KEY_TAB);
+		map(KEY_ENTER, Keyboard.KEY_RETURN);
+		map(KEY_PAUSE, Keyboard.KEY_PAUSE);
+		map(KEY_SCROLLLOCK, Keyboard.KEY_SCROLL);
+		map(KEY_SYSRQ, Keyboard.KEY_SYSRQ);
+		map(KEY_ESC, Keyboard.KEY_ESCAPE);
+		map(KEY_DELETE, Keyboard.KEY_DELETE);
+
+		/* Cursor control & motion */
+
+		map(KEY_HOME, Keyboard.KEY_HOME);
+		map(KEY_LEFT, Keyboard.KEY_LEFT);
+		map(KEY_UP, Keyboard.KEY_UP);
+		map(KEY_RIGHT, Keyboard.KEY_RIGHT);
+		map(KEY_DOWN, Keyboard.KEY_DOWN);
+		map(KEY_PAGEUP, Keyboard.KEY_PRIOR);
+		map(KEY_PAGEDOWN, Keyboard.KEY_NEXT);
+		map(KEY_END, Keyboard.KEY_END);
+
+		/* Misc Functions */
+
+		map(KEY_INSERT, Keyboard.KEY_INSERT);
+		map(KEY_NUMLOCK, Keyboard.KEY_NUMLOCK);
+
+		/* Keypad Functions, keypad numbers cleverly chosen to map to ascii */
+
+		map(KEY_KPENTER, Keyboard.KEY_NUMPADENTER);
+		map(KEY_KPEQUAL, Keyboard.KEY_NUMPADEQUALS);
+		map(KEY_KPASTERISK, Keyboard.KEY_MULTIPLY);
+		map(KEY_KPPLUS, Keyboard.KEY_ADD);
+		map(KEY_KPMINUS, Keyboard.KEY_SUBTRACT);
+		map(KEY_KPDOT, Keyboard.KEY_DECIMAL);
+		map(KEY_KPSLASH, Keyboard.KEY_DIVIDE);
+
+		map(KEY_KP0, Keyboard.KEY_NUMPAD0);
+		map(KEY_KP1, Keyboard.KEY_NUMPAD1);
+		map(KEY_KP2, Keyboard.KEY_NUMPAD2);
+		map(KEY_KP3, Keyboard.KEY_NUMPAD3);
+		map(KEY_KP4, Keyboard.KEY_NUMPAD4);
+		map(KEY_KP5, Keyboard.KEY_NUMPAD5);
+		map(KEY_KP6, Keyboard.KEY_NUMPAD6);
+		map(KEY_KP7, Keyboard.KEY_NUMPAD7);
+		map(KEY_KP8, Keyboard.KEY_NUMPAD8);
+		map(KEY_KP9, Keyboard.KEY_NUMPAD9);
+
+		/*
+		 * Auxilliary Functions; note the duplicate definitions for left and right
+		 * function keys;  Sun keyboards and a few other manufactures have such
+		 * function key groups on the left and/or right sides of the keyboard.
+		 * We've not found a keyboard with more than 35 function keys total.
+		 */
+
+		map(KEY_F1, Keyboard.KEY_F1);
+		map(KEY_F2, Keyboard.KEY_F2);
+		map(KEY_F3, Keyboard.KEY_F3);
+		map(KEY_F4, Keyboard.KEY_F4);
+		map(KEY_F5, Keyboard.KEY_F5);
+		map(KEY_F6, Keyboard.KEY_F6);
+		map(KEY_F7, Keyboard.KEY_F7);
+		map(KEY_F8, Keyboard.KEY_F8);
+		map(KEY_F9, Keyboard.KEY_F9);
+		map(KEY_F10, Keyboard.KEY_F10);
+		map(KEY_F11, Keyboard.KEY_F11);
+		map(KEY_F12, Keyboard.KEY_F12);
+		map(KEY_F13, Keyboard.KEY_F13);
+		map(KEY_F14, Keyboard.KEY_F14);
+		map(KEY_F15, Keyboard.KEY_F15);
+
+		/* Modifiers */
+
+		map(KEY_LEFTSHIFT, Keyboard.KEY_LSHIFT);
+		map(KEY_RIGHTSHIFT, Keyboard.KEY_RSHIFT);
+		map(KEY_LEFTCTRL, Keyboard.KEY_LCONTROL);
+		map(KEY_RIGHTCTRL, Keyboard.KEY_RCONTROL);
+		map(KEY_CAPSLOCK, Keyboard.KEY_CAPITAL);
+
+		map(KEY_LEFTMETA, Keyboard.KEY_LMENU);
+		map(KEY_RIGHTMETA, Keyboard.KEY_RMENU);
+		map(KEY_LEFTALT, Keyboard.KEY_LMENU);
+		map(KEY_RIGHTALT, Keyboard.KEY_RMENU);
+
+		/*
+		 *  Latin 1
+		 *  Byte 3 = 0
+		 */
+		map(KEY_SPACE, Keyboard.KEY_SPACE);
+		map(KEY_APOSTROPHE, Keyboard.KEY_APOSTROPHE);
+		map(KEY_COMMA, Keyboard.KEY_COMMA);
+		map(KEY_MINUS, Keyboard.KEY_MINUS);
+		map(KEY_DOT, Keyboard.KEY_PERIOD);
+		map(KEY_SLASH, Keyboard.KEY_SLASH);
+		map(KEY_0, Keyboard.KEY_0);
+		map(KEY_1, Keyboard.KEY_1);
+		map(KEY_2, Keyboard.KEY_2);
+		map(KEY_3, Keyboard.KEY_3);
+		map(KEY_4, Keyboard.KEY_4);
+		map(KEY_5, Keyboard.KEY_5);
+		map(KEY_6, Keyboard.KEY_6);
+		map(KEY_7, Keyboard.KEY_7);
+		map(KEY_8, Keyboard.KEY_8);
+		map(KEY_9, Keyboard.KEY_9);
+		map(KEY_SEMICOLON, Keyboard.KEY_SEMICOLON);
+		map(KEY_EQUAL, Keyboard.KEY_EQUALS);
+		map(KEY_LEFTBRACE, Keyboard.KEY_LBRACKET);
+		map(KEY_RIGHTBRACE, Keyboard.KEY_RBRACKET);
+		map(KEY_GRAVE, Keyboard.KEY_GRAVE);
+		map(KEY_A, Keyboard.KEY_A);
+		map(KEY_B, Keyboard.KEY_B);
+		map(KEY_C, Keyboard.KEY_C);
+		map(KEY_D, Keyboard.KEY_D);
+		map(KEY_E, Keyboard.KEY_E);
+		map(KEY_F, Keyboard.KEY_F);
+		map(KEY_G, Keyboard.KEY_G);
+		map(KEY_H, Keyboard.KEY_H);
+		map(KEY_I, Keyboard.KEY_I);
+		map(KEY_J, Keyboard.KEY_J);
+		map(KEY_K, Keyboard.KEY_K);
+		map(KEY_L, Keyboard.KEY_L);
+		map(KEY_M, Keyboard.KEY_M);
+		map(KEY_N, Keyboard.KEY_N);
+		map(KEY_O, Keyboard.KEY_O);
+		map(KEY_P, Keyboard.KEY_P);
+		map(KEY_Q, Keyboard.KEY_Q);
+		map(KEY_R, Keyboard.KEY_R);
+		map(KEY_S, Keyboard.KEY_S);
+		map(KEY_T, Keyboard.KEY_T);
+		map(KEY_U, Keyboard.KEY_U);
+		map(KEY_V, Keyboard.KEY_V);
+		map(KEY_W, Keyboard.KEY_W);
+		map(KEY_X, Keyboard.KEY_X);
+		map(KEY_Y, Keyboard.KEY_Y);
+		map(KEY_Z, Keyboard.KEY_Z);
+	}
+
+	/** Adds a mapping to both tables. The reverse table keeps the first Boat key code mapped to a key. */
+	private static void map(int keycode, int lwjgl_keycode) {
+		boat_to_lwjgl[keycode] = (short)lwjgl_keycode;
+		if ( lwjgl_to_boat[lwjgl_keycode] == KEY_RESERVED )
+			lwjgl_to_boat[lwjgl_keycode] = (short)keycode;
+	}
+
 	public static int mapBoatKeyCodeToLWJGLKeyCode(int keycode) {
-		switch (keycode) {
-			case KEY_BACKSPACE:
-				return Keyboard.KEY_BACK;
-			case KEY_TAB:
-				return Keyboard.KEY_TAB;
-			case KEY_ENTER:
-				return Keyboard.KEY_RETURN;
-			case KEY_PAUSE:
-				return Keyboard.KEY_PAUSE;
-			case KEY_SCROLLLOCK:
-				return Keyboard.KEY_SCROLL;
-			case KEY_SYSRQ:
-				return Keyboard.KEY_SYSRQ;
-			case KEY_ESC:
-				return Keyboard.KEY_ESCAPE;
-			case KEY_DELETE:
-				return Keyboard.KEY_DELETE;
-
-				/* Cursor control & motion */
-
-			case KEY_HOME:
-				return Keyboard.KEY_HOME;
-			case KEY_LEFT:
-				return Keyboard.KEY_LEFT;
-			case KEY_UP:
-				return Keyboard.KEY_UP;
-			case KEY_RIGHT:
-				return Keyboard.KEY_RIGHT;
-			case KEY_DOWN:
-				return Keyboard.KEY_DOWN;
-			case KEY_PAGEUP:
-				return Keyboard.KEY_PRIOR;
-			case KEY_PAGEDOWN:
-				return Keyboard.KEY_NEXT;
-			case KEY_END:
-				return Keyboard.KEY_END;
-
-
-				/* Misc Functions */
-
-			case KEY_INSERT:
-				return Keyboard.KEY_INSERT;
-			case KEY_NUMLOCK:
-				return Keyboard.KEY_NUMLOCK;
-
-				/* Keypad Functions, keypad numbers cleverly chosen to map to ascii */
-
-			case KEY_KPENTER:
-				return Keyboard.KEY_NUMPADENTER;
-			case KEY_KPEQUAL:
-				return Keyboard.KEY_NUMPADEQUALS;
-			case KEY_KPASTERISK:
-				return Keyboard.KEY_MULTIPLY;
-			case KEY_KPPLUS:
-				return Keyboard.KEY_ADD;
-			case KEY_KPMINUS:
-				return Keyboard.KEY_SUBTRACT;
-			case KEY_KPDOT:
-				return Keyboard.KEY_DECIMAL;
-			case KEY_KPSLASH:
-				return Keyboard.KEY_DIVIDE;
-
-			case KEY_KP0:
-				return Keyboard.KEY_NUMPAD0;
-			case KEY_KP1:
-				return Keyboard.KEY_NUMPAD1;
-			case KEY_KP2:
-				return Keyboard.KEY_NUMPAD2;
-			case KEY_KP3:
-				return Keyboard.KEY_NUMPAD3;
-			case KEY_KP4:
-				return Keyboard.KEY_NUMPAD4;
-			case KEY_KP5:
-				return Keyboard.KEY_NUMPAD5;
-			case KEY_KP6:
-				return Keyboard.KEY_NUMPAD6;
-			case KEY_KP7:
-				return Keyboard.KEY_NUMPAD7;
-			case KEY_KP8:
-				return Keyboard.KEY_NUMPAD8;
-			case KEY_KP9:
-				return Keyboard.KEY_NUMPAD9;
-
-				/*
-				 * Auxilliary Functions; note the duplicate definitions for left and right
-				 * function keys;  Sun keyboards and a few other manufactures have such
-				 * function key groups on the left and/or right sides of the keyboard.
-				 * We've not found a keyboard with more than 35 function keys total.
-				 */
-
-			case KEY_F1:
-				return Keyboard.KEY_F1;
-			case KEY_F2:
-				return Keyboard.KEY_F2;
-			case KEY_F3:
-				return Keyboard.KEY_F3;
-			case KEY_F4:
-				return Keyboard.KEY_F4;
-			case KEY_F5:
-				return Keyboard.KEY_F5;
-			case KEY_F6:
-				return Keyboard.KEY_F6;
-			case KEY_F7:
-				return Keyboard.KEY_F7;
-			case KEY_F8:
-				return Keyboard.KEY_F8;
-			case KEY_F9:
-				return Keyboard.KEY_F9;
-			case KEY_F10:
-				return Keyboard.KEY_F10;
-			case KEY_F11:
-				return Keyboard.KEY_F11;
-			case KEY_F12:
-				return Keyboard.KEY_F12;
-			case KEY_F13:
-				return Keyboard.KEY_F13;
-			case KEY_F14:
-				return Keyboard.KEY_F14;
-			case KEY_F15:
-				return Keyboard.KEY_F15;
-
-				/* Modifiers */
-
-			case KEY_LEFTSHIFT:
-				return Keyboard.KEY_LSHIFT;
-			case KEY_RIGHTSHIFT:
-				return Keyboard.KEY_RSHIFT;
-			case KEY_LEFTCTRL:
-				return Keyboard.KEY_LCONTROL;
-			case KEY_RIGHTCTRL:
-				return Keyboard.KEY_RCONTROL;
-			case KEY_CAPSLOCK:
-				return Keyboard.KEY_CAPITAL;
-
-			case KEY_LEFTMETA:
-				return Keyboard.KEY_LMENU;
-			case KEY_RIGHTMETA:
-				return Keyboard.KEY_RMENU;
-			case KEY_LEFTALT:
-				return Keyboard.KEY_LMENU;
-			case KEY_RIGHTALT:
-				return Keyboard.KEY_RMENU;
-
-				/*
-				 *  Latin 1
-				 *  Byte 3 = 0
-				 */
-			case KEY_SPACE:
-				return Keyboard.KEY_SPACE;
-			case KEY_APOSTROPHE:
-				return Keyboard.KEY_APOSTROPHE;
-			case KEY_COMMA:
-				return Keyboard.KEY_COMMA;
-			case KEY_MINUS:
-				return Keyboard.KEY_MINUS;
-			case KEY_DOT:
-				return Keyboard.KEY_PERIOD;
-			case KEY_SLASH:
-				return Keyboard.KEY_SLASH;
-			case KEY_0:
-				return Keyboard.KEY_0;
-			case KEY_1:
-				return Keyboard.KEY_1;
-			case KEY_2:
-				return Keyboard.KEY_2;
-			case KEY_3:
-				return Keyboard.KEY_3;
-			case KEY_4:
-				return Keyboard.KEY_4;
-			case KEY_5:
-				return Keyboard.KEY_5;
-			case KEY_6:
-				return Keyboard.KEY_6;
-			case KEY_7:
-				return Keyboard.KEY_7;
-			case KEY_8:
-				return Keyboard.KEY_8;
-			case KEY_9:
-				return Keyboard.KEY_9;
-			case KEY_SEMICOLON:
-				return Keyboard.KEY_SEMICOLON;
-			case KEY_EQUAL:
-				return Keyboard.KEY_EQUALS;
-			case KEY_LEFTBRACE:
-				return Keyboard.KEY_LBRACKET;
-			case KEY_RIGHTBRACE:
-				return Keyboard.KEY_RBRACKET;
-			case KEY_GRAVE:
-				return Keyboard.KEY_GRAVE;
-			case KEY_A:
-				return Keyboard.KEY_A;
-			case KEY_B:
-				return Keyboard.KEY_B;
-			case KEY_C:
-				return Keyboard.KEY_C;
-			case KEY_D:
-				return Keyboard.KEY_D;
-			case KEY_E:
-				return Keyboard.KEY_E;
-			case KEY_F:
-				return Keyboard.KEY_F;
-			case KEY_G:
-				return Keyboard.KEY_G;
-			case KEY_H:
-				return Keyboard.KEY_H;
-			case KEY_I:
-				return Keyboard.KEY_I;
-			case KEY_J:
-				return Keyboard.KEY_J;
-			case KEY_K:
-				return Keyboard.KEY_K;
-			case KEY_L:
-				return Keyboard.KEY_L;
-			case KEY_M:
-				return Keyboard.KEY_M;
-			case KEY_N:
-				return Keyboard.KEY_N;
-			case KEY_O:
-				return Keyboard.KEY_O;
-			case KEY_P:
-				return Keyboard.KEY_P;
-			case KEY_Q:
-				return Keyboard.KEY_Q;
-			case KEY_R:
-				return Keyboard.KEY_R;
-			case KEY_S:
-				return Keyboard.KEY_S;
-			case KEY_T:
-				return Keyboard.KEY_T;
-			case KEY_U:
-				return Keyboard.KEY_U;
-			case KEY_V:
-				return Keyboard.KEY_V;
-			case KEY_W:
-				return Keyboard.KEY_W;
-			case KEY_X:
-				return Keyboard.KEY_X;
-			case KEY_Y:
-				return Keyboard.KEY_Y;
-			case KEY_Z:
-				return Keyboard.KEY_Z;
-			default:
-				return Keyboard.KEY_NONE;
-		}
+		if ( keycode < 0 || keycode >= boat_to_lwjgl.length )
+			return Keyboard.KEY_NONE;
+		return boat_to_lwjgl[keycode];
+	}
+
+	/** @return the Boat key code of the given LWJGL key code, or KEY_RESERVED if there is none */
+	public static int mapLWJGLKeyCodeToBoatKeyCode(int lwjgl_keycode) {
+		if ( lwjgl_keycode < 0 || lwjgl_keycode >= lwjgl_to_boat.length )
+			return KEY_RESERVED;
+		return lwjgl_to_boat[lwjgl_keycode];
 	}
 
 }
@@ -37,9 +37,11 @@ package org.lwjgl.opengl;
 
 import java.nio.ByteBuffer;
 import java.nio.IntBuffer;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.lwjgl.BufferUtils;
 import org.lwjgl.LWJGLException;
+import org.lwjgl.LWJGLUtil;
 import org.lwjgl.input.Mouse;
 
 final class BoatMouse {
@@ -63,28 +65,58 @@ final class BoatMouse {
 	private static final int ButtonPress = 4;
 	private static final int ButtonRelease = 5;
 
-	private final long window;
+	/** Merge consecutive motion events between button and wheel events into a single event */
+	private static final boolean COALESCE_MOTION = LWJGLUtil.getPrivilegedBoolean("org.lwjgl.opengl.Display.coalesceMouseMotion");
+
+	private final BoatWindowGeometry geometry;
 	private final ByteBuffer event_buffer = ByteBuffer.allocate(Mouse.EVENT_SIZE);
 
+	/*
+	 * Mouse state, owned by the thread processing events. The deltas are running
+	 * totals, so that the polling thread can compute its deltas without writing
+	 * to them.
+	 */
 	private int last_x;
 	private int last_y;
-	private int accum_dx;
-	private int accum_dy;
-	private int accum_dz;
+	private long total_dx;
+	private long total_dy;
+	private long total_dz;
 	private byte[] buttons;
-	private EventQueue event_queue;
+	private boolean state_changed;
+	private final MotionEventQueue event_queue = new MotionEventQueue();
 	private long last_event_nanos;
 
-	BoatMouse(long window) throws LWJGLException {
-		this.window = window;
+	/*
+	 * Grab mode changes requested by changeGrabbed(). The event queue has a single
+	 * producer, so the thread processing events applies them itself.
+	 */
+	private static final int GRAB_UNCHANGED = -1;
+	private static final int GRAB_OFF = 0;
+	private static final int GRAB_ON = 1;
+	private final AtomicInteger grab_request = new AtomicInteger(GRAB_UNCHANGED);
+
+	/** Mouse state published for poll() */
+	private final TripleBuffer<State> state;
+
+	/* Running totals seen by the last poll(), owned by the polling thread */
+	private long polled_dx;
+	private long polled_dy;
+	private long polled_dz;
+
+	BoatMouse(BoatWindowGeometry geometry) throws LWJGLException {
+		this.geometry = geometry;
 		button_count = nGetButtonCount();
 		buttons = new byte[button_count];
+		state = new TripleBuffer<State>(new State(button_count), new State(button_count), new State(button_count));
+		event_queue.setCoalesceMotion(COALESCE_MOTION);
 		reset(false, false);
 	}
 
 	private void reset(boolean grab, boolean warp_pointer) {
-		event_queue = new EventQueue(event_buffer.capacity());
-		accum_dx = accum_dy = 0;
+		grab_request.set(grab ? GRAB_ON : GRAB_OFF);
+		State current = state.getFront();
+		polled_dx = current.total_dx;
+		polled_dy = current.total_dy;
 
 		// Pretend that the cursor never moved
 		// last_x = win_x;
@@ -97,24 +129,60 @@ final class BoatMouse {
 	}
 
 	public void poll(boolean grab, IntBuffer coord_buffer, ByteBuffer buttons_buffer) {
+		State current = state.getFront();
 		if (grab) {
-			coord_buffer.put(0, accum_dx);
-			coord_buffer.put(1, accum_dy);
+			coord_buffer.put(0, (int)(current.total_dx - polled_dx));
+			coord_buffer.put(1, (int)(current.total_dy - polled_dy));
 		} else {
-			coord_buffer.put(0, last_x);
-			coord_buffer.put(1, last_y);
+			coord_buffer.put(0, current.x);
+			coord_buffer.put(1, current.y);
 		}
-		coord_buffer.put(2, accum_dz);
-		accum_dx = accum_dy = accum_dz = 0;
-		for (int i = 0; i < buttons.length; i++)
-			buttons_buffer.put(i, buttons[i]);
+		coord_buffer.put(2, (int)(current.total_dz - polled_dz));
+		polled_dx = current.total_dx;
+		polled_dy = current.total_dy;
+		polled_dz = current.total_dz;
+		for (int i = 0; i < current.buttons.length; i++)
+			buttons_buffer.put(i, current.buttons[i]);
+	}
+
+	/**
+	 * Discards the queued events and switches the coordinates of the motion events,
+	 * if the grab mode changed. Called by the thread processing events.
+	 */
+	private void applyGrabRequest() {
+		if ( grab_request.get() == GRAB_UNCHANGED )
+			return;
+
+		int request = grab_request.getAndSet(GRAB_UNCHANGED);
+		event_queue.clearEvents();
+		event_queue.setRelative(request == GRAB_ON);
+	}
+
+	/**
+	 * Queues the pending coalesced motion event and publishes the mouse state
+	 * for poll(). Called by the thread processing events, after each batch.
+	 */
+	void publish() {
+		applyGrabRequest();
+		event_queue.flushPendingEvent();
+		if (!state_changed)
+			return;
+		State back = state.getBack();
+		back.x = last_x;
+		back.y = last_y;
+		back.total_dx = total_dx;
+		back.total_dy = total_dy;
+		back.total_dz = total_dz;
+		System.arraycopy(buttons, 0, back.buttons, 0, buttons.length);
+		state.publish();
+		state_changed = false;
 	}
 
 	private void putMouseEventWithCoords(byte button, byte state, int coord1, int coord2, int dz, long nanos) {
-		event_buffer.clear();
-		event_buffer.put(button).put(state).putInt(coord1).putInt(coord2).putInt(dz).putLong(nanos);
-		event_buffer.flip();
+		// Absolute puts, the queue consumes the event so only the position needs resetting
+		event_buffer.put(0, button).put(1, state).putInt(2, coord1).putInt(6, coord2).putInt(10, dz).putLong(14, nanos);
 		event_queue.putEvent(event_buffer);
+		event_buffer.rewind();
 		last_event_nanos = nanos;
 	}
 
@@ -123,10 +191,11 @@ final class BoatMouse {
 		int dx = x - last_x;
 		int dy = y - last_y;
 		if (dx != 0 || dy != 0) {
-			accum_dx += dx;
-			accum_dy += dy;
+			total_dx += dx;
+			total_dy += dy;
 			last_x = x;
 			last_y = y;
+			state_changed = true;
 			if (grab) {
 				putMouseEventWithCoords((byte)-1, (byte)0, dx, dy, 0, nanos);
 			} else {
@@ -148,11 +217,9 @@ final class BoatMouse {
 	}
 
 	private int transformY(int y) {
-		return nGetWindowHeight(window) - 1 - y;
+		return geometry.getHeight() - 1 - y;
 	}
-	private static native int nGetWindowHeight(long window);
-	private static native int nGetWindowWidth(long window);
-	
+
 	private static native int nGetButtonCount();
 
 	public void setCursorPosition(int x, int y) {
@@ -194,6 +261,7 @@ final class BoatMouse {
 				return;
 		}
 		buttons[button_num] = state;
+		state_changed = true;
 		putMouseEvent(grab, button_num, state, 0, nanos);
 	}
 
@@ -210,12 +278,14 @@ final class BoatMouse {
 			case Button4:
 				delta = WHEEL_SCALE;
 				putMouseEvent(grab, (byte)-1, (byte)0, delta, nanos);
-				accum_dz += delta;
+				total_dz += delta;
+				state_changed = true;
 				break;
 			case Button5:
 				delta = -WHEEL_SCALE;
 				putMouseEvent(grab, (byte)-1, (byte)0, delta, nanos);
-				accum_dz += delta;
+				total_dz += delta;
+				state_changed = true;
 				break;
 			default:
 				handleButton(grab, button, (byte)1, nanos);
@@ -237,7 +307,22 @@ final class BoatMouse {
 		}
 	}
 
+	/** Snapshot of the polled mouse state */
+	private static final class State {
+		int x;
+		int y;
+		long total_dx;
+		long total_dy;
+		long total_dz;
+		final byte[] buttons;
+
+		State(int button_count) {
+			this.buttons = new byte[button_count];
+		}
+	}
+
 	public boolean filterEvent(boolean grab, boolean warp_pointer, BoatEvent event) {
+		applyGrabRequest();
 		switch (event.getType()) {
 			case BoatEvent.ButtonPress: /* Fall through */
 			case BoatEvent.ButtonRelease:
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2002-2008 LWJGL Project
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'LWJGL' nor the names of
+ *   its contributors may be used to endorse or promote products derived
+ *   from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.lwjgl.opengl;
+
+/**
+ * Java-side snapshot of the Boat window geometry. It is refreshed by BoatDisplay
+ * when the window is created and on ConfigureNotify, and read by BoatDisplay and
+ * BoatMouse without any native round-trip. The geometry may be refreshed by the
+ * input thread while other threads read it, so each refresh publishes a new
+ * immutable Bounds instance through a single volatile field. A reader never
+ * sees a mix of two refreshes.
+ */
+final class BoatWindowGeometry {
+	private volatile Bounds bounds = new Bounds(0, 0, 0, 0);
+
+	/**
+	 * Updates the snapshot. Must only be called by one thread at a time.
+	 *
+	 * @return true if the window size changed
+	 */
+	boolean set(int x, int y, int width, int height) {
+		Bounds old_bounds = bounds;
+		bounds = new Bounds(x, y, width, height);
+		return old_bounds.width != width || old_bounds.height != height;
+	}
+
+	int getX() {
+		return bounds.x;
+	}
+
+	int getY() {
+		return bounds.y;
+	}
+
+	int getWidth() {
+		return bounds.width;
+	}
+
+	int getHeight() {
+		return bounds.height;
+	}
+
+	private static final class Bounds {
+		final int x;
+		final int y;
+		final int width;
+		final int height;
+
+		Bounds(int x, int y, int width, int height) {
+			this.x = x;
+			this.y = y;
+			this.width = width;
+			this.height = height;
+		}
+	}
+}
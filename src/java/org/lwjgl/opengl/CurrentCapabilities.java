@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2002-2008 LWJGL Project
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'LWJGL' nor the names of
+ *   its contributors may be used to endorse or promote products derived
+ *   from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.lwjgl.opengl;
+
+/**
+ * Tracks the ContextCapabilities instance that is current in each thread. This is the lookup
+ * performed by every generated GL method, through GLContext.getCapabilities().
+ * <p/>
+ * By default, a context may be current in any number of threads and the lookup goes through
+ * the single-entry fast path cache below, falling back to a ThreadLocal. In single-context mode
+ * (see Display.setSingleContextMode), the capabilities of the one and only context are published
+ * once and the lookup is reduced to a single static field load.
+ */
+final class CurrentCapabilities {
+
+	/** Maps threads to their current context's ContextCapabilities, if any */
+	private static final ThreadLocal<ContextCapabilities> current_capabilities = new ThreadLocal<ContextCapabilities>();
+
+	/**
+	 * The getCapabilities() method is a potential hot spot in any LWJGL application, since
+	 * it is needed for context capability discovery (e.g. is OpenGL 2.0 supported?), and
+	 * for the function pointers of gl functions. However, the 'current_capabilities' ThreadLocal
+	 * is (relatively) expensive to look up, and since most OpenGL applications use are single threaded
+	 * rendering, the following two is an optimization for this case.
+	 * <p/>
+	 * ThreadLocals can be thought of as a mapping between threads and values, so the idea
+	 * is to use a lock-less cache of mappings between threads and the current ContextCapabilities. The cache
+	 * could be any size, but in our case, we want a single sized cache for optimal performance
+	 * in the single threaded case.
+	 * <p/>
+	 * 'fast_path_cache' is the most recent ContextCapabilities (potentially null) and its owner. By
+	 * recent I mean the last thread setting the value in set(). When get()
+	 * is called, a check to see if the current is the owner of the ContextCapabilities instance in
+	 * fast_path_cache. If so, the instance is returned, if not, some thread has since taken ownership
+	 * of the cache entry and the slower current_capabilities ThreadLocal is queried instead.
+	 * <p/>
+	 * No locks are needed in get/set, because even though fast_path_cache can be accessed
+	 * from multiple threads at once, we are guaranteed by the JVM spec that its value is always valid.
+	 * Furthermore, if the ownership test in get() succeeds, the cache entry can only contain
+	 * the correct ContextCapabilites (that is, the one from current_capabilities),
+	 * since no other thread can set the owner to anyone else than itself.
+	 */
+	private static CapabilitiesCacheEntry fast_path_cache = new CapabilitiesCacheEntry();
+
+	/**
+	 * Simple lock-free cache of CapabilitesEntryCache to avoid allocating more than one
+	 * cache entry per thread
+	 */
+	private static final ThreadLocal<CapabilitiesCacheEntry> thread_cache_entries = new ThreadLocal<CapabilitiesCacheEntry>();
+
+	/**
+	 * The capabilities of the single context, if single-context mode is active. This is written
+	 * exactly twice, when the context is created and when it is destroyed, and is never changed
+	 * by context switches. It is volatile so that the clear at destroy is seen by every thread
+	 * and the capabilities are safely published at create. A volatile read is as cheap as a
+	 * plain one on the common platforms, it only prevents the JIT from hoisting it out of loops.
+	 */
+	private static volatile ContextCapabilities single_context;
+
+	private CurrentCapabilities() {
+	}
+
+	/** Returns the current capabilities instance, or null if no context is current in this thread. */
+	static ContextCapabilities get() {
+		final ContextCapabilities single = single_context;
+		if ( single != null )
+			return single;
+
+		CapabilitiesCacheEntry recent_cache_entry = fast_path_cache;
+		// Check owner of cache entry
+		if ( recent_cache_entry.owner == Thread.currentThread() ) {
+			/* The owner ship test succeeded, so the cache must contain the current ContextCapabilities instance
+			 * assert recent_cache_entry.capabilities == current_capabilities.get();
+			 */
+			return recent_cache_entry.capabilities;
+		} else // Some other thread has written to the cache since, and we fall back to the slower path
+			return current_capabilities.get();
+	}
+
+	/** Sets the current capabilities instance of this thread. */
+	static void set(ContextCapabilities capabilities) {
+		current_capabilities.set(capabilities);
+
+		CapabilitiesCacheEntry thread_cache_entry = thread_cache_entries.get();
+		if ( thread_cache_entry == null ) {
+			thread_cache_entry = new CapabilitiesCacheEntry();
+			thread_cache_entries.set(thread_cache_entry);
+		}
+		thread_cache_entry.owner = Thread.currentThread();
+		thread_cache_entry.capabilities = capabilities;
+
+		fast_path_cache = thread_cache_entry;
+	}
+
+	/**
+	 * Publishes the capabilities of the single context, or clears them if null. While set,
+	 * get() returns this instance in every thread, regardless of the per-thread state.
+	 */
+	static void setSingleContext(ContextCapabilities capabilities) {
+		single_context = capabilities;
+	}
+
+	private static final class CapabilitiesCacheEntry {
+
+		Thread owner;
+		ContextCapabilities capabilities;
+	}
+}
@@ -61,6 +61,7 @@ import java.security.AccessController;
 import java.security.PrivilegedAction;
 import java.util.Arrays;
 import java.util.HashSet;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public final class Display {
 
@@ -77,10 +78,10 @@ public final class Display {
 	private static final DisplayMode initial_mode;
 
 	/** The parent, if any */
-	private static Canvas parent;
+	private static volatile Canvas parent;
 
 	/** The current display mode, if created */
-	private static DisplayMode current_mode;
+	private static volatile DisplayMode current_mode;
 
 	/** X coordinate of the window */
 	private static int x = -1;
@@ -95,31 +96,43 @@ public final class Display {
 	private static int y = -1;
 
 	/** the width of the Display window */
-	private static int width = 0;
+	private static volatile int width = 0;
 
 	/** the height of the Display window */
-	private static int height = 0;
+	private static volatile int height = 0;
 
 	/** Title of the window (never null) */
-	private static String title = "Game";
+	private static volatile String title = "Game";
 
 	/** Fullscreen */
-	private static boolean fullscreen;
+	private static volatile boolean fullscreen;
 
 	/** Swap interval */
 	private static int swap_interval;
 
 	/** The Drawable instance that tracks the current Display context */
-	private static DrawableLWJGL drawable;
+	private static volatile DrawableLWJGL drawable;
 
-	private static boolean window_created;
+	/** The FramePacer used by sync */
+	private static volatile FramePacer frame_pacer = new HybridFramePacer();
+
+	private static volatile boolean window_created;
 
 	private static boolean parent_resized;
 
-	private static boolean window_resized;
+	private static volatile boolean window_resized;
+
+	/** Window state published by processMessages(), read by the queries without locking */
+	private static volatile boolean visible;
+	private static volatile boolean active;
+	private static final AtomicBoolean close_requested = new AtomicBoolean();
+	private static final AtomicBoolean dirty = new AtomicBoolean();
 
 	private static boolean window_resizable;
 
+	/** If true, the OpenGL Display context is created in single-context mode */
+	private static boolean single_context_mode;
+
 	/** Initial Background Color of Display */
 	private static float r, g, b;
 
@@ -307,6 +320,7 @@ public final class Display {
 		DisplayMode mode = getEffectiveMode();
 		display_impl.createWindow(drawable, mode, tmp_parent, getWindowX(), getWindowY());
 		window_created = true;
+		publishWindowState();
 
 		width = Display.getDisplayMode().getWidth();
 		height = Display.getDisplayMode().getHeight();
@@ -341,17 +355,19 @@ public final class Display {
 		if ( parent != null ) {
 			parent.removeComponentListener(component_listener);
 		}
-		releaseDrawable();
+		synchronized ( GlobalLock.context_lock ) {
+			releaseDrawable();
 
-		// Automatically destroy keyboard & mouse
-		if ( Mouse.isCreated() ) {
-			Mouse.destroy();
-		}
-		if ( Keyboard.isCreated() ) {
-			Keyboard.destroy();
+			// Automatically destroy keyboard & mouse
+			if ( Mouse.isCreated() ) {
+				Mouse.destroy();
+			}
+			if ( Keyboard.isCreated() ) {
+				Keyboard.destroy();
+			}
+			display_impl.destroyWindow();
+			window_created = false;
 		}
-		display_impl.destroyWindow();
-		window_created = false;
 	}
 
 	private static void switchDisplayMode() throws LWJGLException {
@@ -408,23 +424,37 @@ public final class Display {
 	 * It should be called once every frame.
 	 *
 	 * @param fps - the desired frame rate, in frames per second
+	 *
+	 * @see #setFramePacer(FramePacer)
 	 */
 	public static void sync(int fps) {
-		Sync.sync(fps);
+		frame_pacer.sync(fps);
+	}
+
+	/**
+	 * Sets the FramePacer used by sync(int). The default is a HybridFramePacer.
+	 *
+	 * @param pacer the new FramePacer
+	 */
+	public static void setFramePacer(FramePacer pacer) {
+		if ( pacer == null )
+			throw new NullPointerException("pacer");
+		frame_pacer = pacer;
+	}
+
+	/** @return the FramePacer used by sync(int) */
+	public static FramePacer getFramePacer() {
+		return frame_pacer;
 	}
 
 	/** @return the title of the window */
 	public static String getTitle() {
-		synchronized ( GlobalLock.lock ) {
-			return title;
-		}
+		return title;
 	}
 
 	/** Return the last parent set with setParent(). */
 	public static Canvas getParent() {
-		synchronized ( GlobalLock.lock ) {
-			return parent;
-		}
+		return parent;
 	}
 
 	/**
@@ -523,9 +553,7 @@ public final class Display {
 
 	/** @return whether the Display is in fullscreen mode */
 	public static boolean isFullscreen() {
-		synchronized ( GlobalLock.lock ) {
-			return fullscreen && current_mode.isFullscreenCapable();
-		}
+		return fullscreen && current_mode.isFullscreenCapable();
 	}
 
 	/**
@@ -546,29 +574,23 @@ public final class Display {
 
 	/** @return true if the user or operating system has asked the window to close */
 	public static boolean isCloseRequested() {
-		synchronized ( GlobalLock.lock ) {
-			if ( !isCreated() )
-				throw new IllegalStateException("Cannot determine close requested state of uncreated window");
-			return display_impl.isCloseRequested();
-		}
+		if ( !isCreated() )
+			throw new IllegalStateException("Cannot determine close requested state of uncreated window");
+		return close_requested.getAndSet(false);
 	}
 
 	/** @return true if the window is visible, false if not */
 	public static boolean isVisible() {
-		synchronized ( GlobalLock.lock ) {
-			if ( !isCreated() )
-				throw new IllegalStateException("Cannot determine minimized state of uncreated window");
-			return display_impl.isVisible();
-		}
+		if ( !isCreated() )
+			throw new IllegalStateException("Cannot determine minimized state of uncreated window");
+		return visible;
 	}
 
 	/** @return true if window is active, that is, the foreground display of the operating system. */
 	public static boolean isActive() {
-		synchronized ( GlobalLock.lock ) {
-			if ( !isCreated() )
-				throw new IllegalStateException("Cannot determine focused state of uncreated window");
-			return display_impl.isActive();
-		}
+		if ( !isCreated() )
+			throw new IllegalStateException("Cannot determine focused state of uncreated window");
+		return active;
 	}
 
 	/**
@@ -582,11 +604,9 @@ public final class Display {
 	 *         and needs to repaint itself
 	 */
 	public static boolean isDirty() {
-		synchronized ( GlobalLock.lock ) {
-			if ( !isCreated() )
-				throw new IllegalStateException("Cannot determine dirty state of uncreated window");
-			return display_impl.isDirty();
-		}
+		if ( !isCreated() )
+			throw new IllegalStateException("Cannot determine dirty state of uncreated window");
+		return dirty.getAndSet(false);
 	}
 
 	/**
@@ -599,11 +619,28 @@ public final class Display {
 			if ( !isCreated() )
 				throw new IllegalStateException("Display not created");
 
-			display_impl.update();
+			// The implementation feeds the input devices while processing messages
+			synchronized ( GlobalLock.input_lock ) {
+				display_impl.update();
+			}
+			publishWindowState();
 		}
 		pollDevices();
 	}
 
+	/**
+	 * Publishes the implementation's window state for isVisible(), isActive(), isCloseRequested()
+	 * and isDirty(), so they don't have to wait for the display lock.
+	 */
+	private static void publishWindowState() {
+		visible = display_impl.isVisible();
+		active = display_impl.isActive();
+		if ( display_impl.isCloseRequested() )
+			close_requested.set(true);
+		if ( display_impl.isDirty() )
+			dirty.set(true);
+	}
+
 	/**
 	 * Swap the display buffers. This method is called from update(), and should normally not be called by
 	 * the application.
@@ -611,7 +648,7 @@ public final class Display {
 	 * @throws OpenGLException if an OpenGL error has occured since the last call to glGetError()
 	 */
 	public static void swapBuffers() throws LWJGLException {
-		synchronized ( GlobalLock.lock ) {
+		synchronized ( GlobalLock.context_lock ) {
 			if ( !isCreated() )
 				throw new IllegalStateException("Display not created");
 
@@ -622,18 +659,18 @@ public final class Display {
 	}
 
 	/**
-	 * Update the window. If the window is visible clears
-	 * the dirty flag and calls swapBuffers() and finally
-	 * polls the input devices.
+	 * Update the window. Clears the dirty flag, calls
+	 * swapBuffers() if the window is visible or was dirty
+	 * and finally polls the input devices.
 	 */
 	public static void update() {
 		update(true);
 	}
 
 	/**
-	 * Update the window. If the window is visible clears
-	 * the dirty flag and calls swapBuffers() and finally
-	 * polls the input devices if processMessages is true.
+	 * Update the window. Clears the dirty flag, calls
+	 * swapBuffers() if the window is visible or was dirty
+	 * and finally polls the input devices if processMessages is true.
 	 *
 	 * @param processMessages Poll input devices if true
 	 */
@@ -642,8 +679,11 @@ public final class Display {
 			if ( !isCreated() )
 				throw new IllegalStateException("Display not created");
 
-			// We paint only when the window is visible or dirty
-			if ( display_impl.isVisible() || display_impl.isDirty() ) {
+			// We paint only when the window is visible or dirty. Painting clears the dirty flag,
+			// so it is cleared even when the window is visible. The swap is done under the display
+			// lock, so the window can't be destroyed between the check and the swap.
+			final boolean is_dirty = display_impl.isDirty() | dirty.getAndSet(false);
+			if ( display_impl.isVisible() || is_dirty ) {
 				try {
 					swapBuffers();
 				} catch (LWJGLException e) {
@@ -663,10 +703,10 @@ public final class Display {
 				parent_resized = false;
 				window_resized = true;
 			}
-
-			if ( processMessages )
-				processMessages();
 		}
+
+		if ( processMessages )
+			processMessages();
 	}
 
 	static void pollDevices() {
@@ -821,6 +861,8 @@ public final class Display {
 				throw new IllegalStateException("Only one LWJGL context may be instantiated at any one time.");
 			if ( pixel_format == null )
 				throw new NullPointerException("pixel_format cannot be null");
+			if ( single_context_mode && shared_drawable != null )
+				throw new IllegalArgumentException("A shared drawable cannot be used in single-context mode.");
 			removeShutdownHook();
 			registerShutdownHook();
 			if ( isFullscreen() )
@@ -829,16 +871,20 @@ public final class Display {
 			final DrawableGL drawable = new DrawableGL() {
 				public void destroy() {
 					synchronized ( GlobalLock.lock ) {
-						if ( !isCreated() )
-							return;
-
-						releaseDrawable();
-						super.destroy();
-						destroyWindow();
-						x = y = -1;
-						cached_icons = null;
-						reset();
-						removeShutdownHook();
+						synchronized ( GlobalLock.context_lock ) {
+							if ( !isCreated() )
+								return;
+
+							if ( single_context_mode )
+								GLContext.setSingleContext(null);
+							releaseDrawable();
+							super.destroy();
+							destroyWindow();
+							x = y = -1;
+							cached_icons = null;
+							reset();
+							removeShutdownHook();
+						}
 					}
 				}
 			};
@@ -853,6 +899,8 @@ public final class Display {
 						try {
 							makeCurrentAndSetSwapInterval();
 							initContext();
+							if ( single_context_mode )
+								GLContext.setSingleContext(drawable.context);
 						} catch (LWJGLException e) {
 							drawable.destroy();
 							throw e;
@@ -966,16 +1014,18 @@ public final class Display {
 
 				public void destroy() {
 					synchronized ( GlobalLock.lock ) {
-						if ( !isCreated() )
-							return;
-
-						releaseDrawable();
-						super.destroy();
-						destroyWindow();
-						x = y = -1;
-						cached_icons = null;
-						reset();
-						removeShutdownHook();
+						synchronized ( GlobalLock.context_lock ) {
+							if ( !isCreated() )
+								return;
+
+							releaseDrawable();
+							super.destroy();
+							destroyWindow();
+							x = y = -1;
+							cached_icons = null;
+							reset();
+							removeShutdownHook();
+						}
 					}
 				}
 			};
@@ -1023,6 +1073,40 @@ public final class Display {
 		b = blue;
 	}
 
+	/**
+	 * Enables or disables single-context mode. This method must be called before the Display is created
+	 * and only applies to OpenGL Displays.
+	 * <p/>
+	 * In single-context mode, the capabilities of the Display context are published once, when the Display
+	 * is created, and every GL method uses them without looking up the context current in the calling thread.
+	 * This removes the per-call thread check from GL methods. In exchange, no other context (Pbuffer,
+	 * SharedDrawable, AWTGLCanvas) can be made current while the Display exists and the Display cannot be
+	 * created with a shared drawable. Calling GL methods from a thread where the Display context is not
+	 * current results in undefined behavior, instead of an exception.
+	 *
+	 * @param enabled true to enable single-context mode
+	 */
+	public static void setSingleContextMode(boolean enabled) {
+		synchronized ( GlobalLock.lock ) {
+			if ( isCreated() )
+				throw new IllegalStateException("Single-context mode cannot be changed while the Display is created.");
+			single_context_mode = enabled;
+		}
+	}
+
+	/**
+	 * Returns true if single-context mode is enabled.
+	 *
+	 * @return true if single-context mode is enabled
+	 *
+	 * @see #setSingleContextMode(boolean)
+	 */
+	public static boolean isSingleContextMode() {
+		synchronized ( GlobalLock.lock ) {
+			return single_context_mode;
+		}
+	}
+
 	private static void makeCurrentAndSetSwapInterval() throws LWJGLException {
 		makeCurrent();
 		try {
@@ -1110,9 +1194,7 @@ public final class Display {
 
 	/** @return true if the window's native peer has been created */
 	public static boolean isCreated() {
-		synchronized ( GlobalLock.lock ) {
-			return window_created;
-		}
+		return window_created;
 	}
 
 	/**
@@ -1127,9 +1209,11 @@ public final class Display {
 	public static void setSwapInterval(int value) {
 		synchronized ( GlobalLock.lock ) {
 			swap_interval = value;
-			if ( isCreated() )
-				drawable.setSwapInterval(swap_interval);
-
+			if ( isCreated() ) {
+				synchronized ( GlobalLock.context_lock ) {
+					drawable.setSwapInterval(swap_interval);
+				}
+			}
 		}
 	}
 
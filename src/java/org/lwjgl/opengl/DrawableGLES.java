@@ -178,21 +178,21 @@ abstract class DrawableGLES implements DrawableLWJGL {
 	}
 
 	public boolean isCurrent() throws LWJGLException {
-		synchronized ( GlobalLock.lock ) {
+		synchronized ( GlobalLock.context_lock ) {
 			checkDestroyed();
 			return context.isCurrent();
 		}
 	}
 
 	public void makeCurrent() throws LWJGLException, PowerManagementEventException {
-		synchronized ( GlobalLock.lock ) {
+		synchronized ( GlobalLock.context_lock ) {
 			checkDestroyed();
 			context.makeCurrent();
 		}
 	}
 
 	public void releaseContext() throws LWJGLException, PowerManagementEventException {
-		synchronized ( GlobalLock.lock ) {
+		synchronized ( GlobalLock.context_lock ) {
 			checkDestroyed();
 			if ( context.isCurrent() )
 				context.releaseCurrent();
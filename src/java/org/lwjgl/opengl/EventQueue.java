@@ -33,51 +33,289 @@ package org.lwjgl.opengl;
 
 /**
  * A java implementation of a LWJGL compatible event queue.
+ * <p/>
+ * Events are stored off-heap in a lock-free single-producer/single-consumer
+ * ring buffer. One thread may call putEvent while another thread calls
+ * copyEvents, without any locking. The capacity is rounded up to a power of two
+ * and the behaviour when the queue is full is selected by an overflow policy.
+ * The defaults can be changed with the org.lwjgl.opengl.EventQueue.capacity and
+ * org.lwjgl.opengl.EventQueue.overflowPolicy system properties.
  * @author elias_naur
  */
 
 import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.lwjgl.BufferUtils;
+import org.lwjgl.LWJGLUtil;
 
 class EventQueue {
-	private static final int QUEUE_SIZE = 200;
+	/** Discard the oldest queued event to make room for the new one. */
+	static final int OVERFLOW_DROP_OLDEST = 0;
+	/**
+	 * Merge motion events into a single pending event until there is room
+	 * again. Other events discard the oldest queued event. Only applies to
+	 * queues that override isMotionEvent, these must also queue the pending
+	 * event when the consumer reads, see flushPendingEvent.
+	 */
+	static final int OVERFLOW_COALESCE_MOTION = 1;
+	/** Double the queue capacity. No events are ever discarded. */
+	static final int OVERFLOW_GROW = 2;
+
+	private static final int DEFAULT_CAPACITY = LWJGLUtil.getPrivilegedInteger("org.lwjgl.opengl.EventQueue.capacity", 256);
+	private static final int DEFAULT_OVERFLOW_POLICY = LWJGLUtil.getPrivilegedInteger("org.lwjgl.opengl.EventQueue.overflowPolicy", OVERFLOW_COALESCE_MOTION);
 
 	private final int event_size;
+	private final int overflow_policy;
 
-	private final ByteBuffer queue;
+	/** The ring written by the producer. */
+	private Ring producer_ring;
+	/** The ring read by the consumer. Differs from producer_ring only after an OVERFLOW_GROW. */
+	private volatile Ring consumer_ring;
+
+	/** The motion event being coalesced while the queue is full. Owned by the producer. */
+	private final ByteBuffer pending;
+	private boolean has_pending;
+	private boolean coalesce_motion;
+
+	/** Only updated by the producer. */
+	private volatile long dropped_events;
+	private volatile long coalesced_events;
 
 	protected EventQueue(int event_size) {
+		this(event_size, DEFAULT_CAPACITY, DEFAULT_OVERFLOW_POLICY);
+	}
+
+	protected EventQueue(int event_size, int capacity, int overflow_policy) {
+		if ( capacity <= 0 )
+			throw new IllegalArgumentException("Invalid event queue capacity: " + capacity);
+		if ( overflow_policy < OVERFLOW_DROP_OLDEST || OVERFLOW_GROW < overflow_policy )
+			throw new IllegalArgumentException("Invalid event queue overflow policy: " + overflow_policy);
 		this.event_size = event_size;
-		this.queue = ByteBuffer.allocate(QUEUE_SIZE*event_size);
+		this.overflow_policy = overflow_policy;
+		this.producer_ring = new Ring(capacity, event_size);
+		this.consumer_ring = producer_ring;
+		this.pending = ByteBuffer.allocate(event_size);
 	}
 
-	protected synchronized void clearEvents() {
-		queue.clear();
+	/**
+	 * Discard all queued events. Must not be called concurrently with putEvent.
+	 */
+	protected void clearEvents() {
+		has_pending = false;
+		for ( Ring ring = consumer_ring; ring != null; ring = ring.next ) {
+			long tail = ring.tail;
+			long head;
+			do {
+				head = ring.head.get();
+			} while ( head < tail && !ring.head.compareAndSet(head, tail) );
+		}
 	}
 
 	/**
-	 * Copy available events into the specified buffer.
+	 * Copy available events into the specified buffer. Only whole events are copied.
 	 */
-	public synchronized void copyEvents(ByteBuffer dest) {
-		queue.flip();
-		int old_limit = queue.limit();
-		if (dest.remaining() < queue.remaining())
-			queue.limit(dest.remaining() + queue.position());
-		dest.put(queue);
-		queue.limit(old_limit);
-		queue.compact();
+	public void copyEvents(ByteBuffer dest) {
+		Ring ring = consumer_ring;
+		while ( true ) {
+			// Read next before tail, so that tail is final if next is set
+			Ring next = ring.next;
+			long head = ring.head.get();
+			long tail = ring.tail;
+
+			int position = dest.position();
+			// The producer may have discarded events since head was read, clamp to the ring capacity
+			int count = (int)Math.min(Math.min(tail - head, ring.capacity), dest.remaining() / event_size);
+			copyEvents(ring, head, count, dest);
+			if ( !ring.head.compareAndSet(head, head + count) ) {
+				// The producer discarded the oldest event while we were copying, try again
+				dest.position(position);
+				continue;
+			}
+
+			if ( next == null || head + count != tail )
+				break;
+			consumer_ring = ring = next;
+		}
+	}
+
+	private void copyEvents(Ring ring, long head, int count, ByteBuffer dest) {
+		if ( count == 0 )
+			return;
+
+		ByteBuffer events = ring.consumer_view;
+		int start = (int)(head & ring.mask);
+		int first = Math.min(count, ring.capacity - start);
+
+		events.clear();
+		events.position(start * event_size);
+		events.limit((start + first) * event_size);
+		dest.put(events);
+		if ( first < count ) {
+			events.clear();
+			events.limit((count - first) * event_size);
+			dest.put(events);
+		}
 	}
 
 	/**
 	 * Put an event into the queue.
-	 * @return true if the event fitted into the queue, false otherwise
+	 * @return true if the event fitted into the queue without discarding any event, false otherwise
 	 */
-	public synchronized boolean putEvent(ByteBuffer event) {
+	public boolean putEvent(ByteBuffer event) {
 		if (event.remaining() != event_size)
 			throw new IllegalArgumentException("Internal error: event size " + event_size + " does not equal the given event size " + event.remaining());
-		if (queue.remaining() >= event.remaining()) {
-			queue.put(event);
+
+		if ( isMotionEvent(event) && (coalesce_motion || (overflow_policy == OVERFLOW_COALESCE_MOTION && isFull(producer_ring))) ) {
+			if ( has_pending ) {
+				coalesceEvent(pending, event);
+				coalesced_events++;
+			} else {
+				pending.clear();
+				pending.put(event);
+				has_pending = true;
+			}
+			return true;
+		}
+
+		// Queue the pending event first, to preserve the event order
+		boolean fitted = flushPendingEvent();
+		return queueEvent(event) && fitted;
+	}
+
+	/**
+	 * Queues the pending coalesced motion event, if any. Must be called by the producer,
+	 * or by the consumer while holding the lock the producer holds while putting events.
+	 * Otherwise the last motion before a pause stays pending until the next event arrives.
+	 * @return false if an event was discarded to make room for it
+	 */
+	boolean flushPendingEvent() {
+		if ( !has_pending )
 			return true;
-		} else
-			return false;
+
+		has_pending = false;
+		pending.clear();
+		return queueEvent(pending);
+	}
+
+	/**
+	 * Enables or disables eager motion coalescing. When enabled, consecutive motion events
+	 * are always merged into a single event, that is queued when a different kind of event
+	 * arrives or when flushPendingEvent is called. Must be called by the producer.
+	 */
+	void setCoalesceMotion(boolean coalesce_motion) {
+		if ( !coalesce_motion )
+			flushPendingEvent();
+		this.coalesce_motion = coalesce_motion;
+	}
+
+	private boolean queueEvent(ByteBuffer event) {
+		Ring ring = producer_ring;
+		boolean fitted = true;
+		if ( isFull(ring) ) {
+			if ( overflow_policy == OVERFLOW_GROW )
+				ring = grow(ring);
+			else
+				fitted = makeRoom(ring);
+		}
+		write(ring, event);
+		return fitted;
+	}
+
+	/**
+	 * Returns true if the specified event may be merged with other motion events
+	 * when the queue overflows. Always false by default.
+	 *
+	 * @param event the event, starting at the buffer position
+	 */
+	protected boolean isMotionEvent(ByteBuffer event) {
+		return false;
+	}
+
+	/**
+	 * Merges a motion event into the pending motion event. The positions of both buffers must not be modified.
+	 * By default, the newer event replaces the pending one.
+	 *
+	 * @param pending the pending motion event, starting at position 0
+	 * @param event   the newer motion event, starting at the buffer position
+	 */
+	protected void coalesceEvent(ByteBuffer pending, ByteBuffer event) {
+		int position = event.position();
+		for ( int i = 0; i < event_size; i++ )
+			pending.put(i, event.get(position + i));
+	}
+
+	/** Returns the number of events that have been discarded because the queue was full. */
+	long getDroppedEvents() {
+		return dropped_events;
+	}
+
+	/** Returns the number of motion events that have been merged into earlier ones. */
+	long getCoalescedEvents() {
+		return coalesced_events;
+	}
+
+	/** Returns the current queue capacity, in events. */
+	int getCapacity() {
+		return producer_ring.capacity;
+	}
+
+	private static boolean isFull(Ring ring) {
+		return ring.tail - ring.head.get() >= ring.capacity;
+	}
+
+	/** Discards the oldest event if the queue is full. Returns false if an event was discarded. */
+	private boolean makeRoom(Ring ring) {
+		long head = ring.head.get();
+		if ( ring.tail - head < ring.capacity || !ring.head.compareAndSet(head, head + 1) )
+			return true; // The consumer made room for us
+
+		if ( dropped_events++ == 0 )
+			LWJGLUtil.log("Event queue overflow, discarding events");
+		return false;
+	}
+
+	private Ring grow(Ring ring) {
+		Ring next = new Ring(ring.capacity << 1, event_size);
+		ring.next = next;
+		producer_ring = next;
+		return next;
+	}
+
+	private void write(Ring ring, ByteBuffer event) {
+		long tail = ring.tail;
+		ByteBuffer events = ring.producer_view;
+		events.clear();
+		events.position((int)(tail & ring.mask) * event_size);
+		events.put(event);
+		ring.tail = tail + 1;
+	}
+
+	private static final class Ring {
+		final int capacity;
+		final int mask;
+
+		/** Producer and consumer views of the same off-heap event storage. */
+		final ByteBuffer producer_view;
+		final ByteBuffer consumer_view;
+
+		/**
+		 * The index of the next event to read. Advanced by the consumer and,
+		 * when discarding the oldest event, by the producer.
+		 */
+		final AtomicLong head = new AtomicLong();
+		/** The index of the next event to write. Only advanced by the producer. */
+		volatile long tail;
+
+		/** The ring that replaced this one after an OVERFLOW_GROW. */
+		volatile Ring next;
+
+		Ring(int capacity, int event_size) {
+			this.capacity = capacity <= 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+			this.mask = this.capacity - 1;
+
+			this.producer_view = BufferUtils.createByteBuffer(this.capacity * event_size);
+			this.consumer_view = producer_view.duplicate();
+		}
 	}
 }
@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2002-2008 LWJGL Project
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'LWJGL' nor the names of
+ *   its contributors may be used to endorse or promote products derived
+ *   from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.lwjgl.opengl;
+
+import org.lwjgl.BufferUtils;
+import org.lwjgl.LWJGLUtil;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The set of function names that GLContext resolves in bulk when a context is
+ * created. It maps names to indices in the resolved address array and reads and
+ * writes the optional on-disk cache of function presence.
+ */
+final class FunctionTable {
+
+	private static final int CACHE_MAGIC = 0x4C57464E; // LWFN
+
+	private final String[] names;
+	private final Map<String, Integer> indices;
+
+	FunctionTable(final String[] names) {
+		this.names = names;
+
+		indices = new HashMap<String, Integer>(names.length * 2);
+		for ( int i = 0; i < names.length; i++ )
+			indices.put(names[i], i);
+	}
+
+	boolean is(final String[] names) {
+		return this.names == names;
+	}
+
+	/**
+	 * Returns the index of the specified function name.
+	 *
+	 * @param name the function name
+	 *
+	 * @return the index, or -1 if the name is not in this table
+	 */
+	int indexOf(final String name) {
+		final Integer index = indices.get(name);
+		return index == null ? -1 : index;
+	}
+
+	/**
+	 * Packs the specified function names into a single buffer of null-terminated ASCII strings.
+	 * Names that are known to be missing are packed as empty strings.
+	 *
+	 * @param names   the function names
+	 * @param present the function presence flags, or null if unknown
+	 *
+	 * @return the packed names
+	 */
+	static ByteBuffer encode(final String[] names, final boolean[] present) {
+		int length = 0;
+		for ( int i = 0; i < names.length; i++ ) {
+			if ( present == null || present[i] )
+				length += names[i].length();
+		}
+
+		final ByteBuffer buffer = BufferUtils.createByteBuffer(length + names.length);
+		for ( int i = 0; i < names.length; i++ ) {
+			if ( present == null || present[i] ) {
+				final String name = names[i];
+				for ( int j = 0; j < name.length(); j++ )
+					buffer.put((byte)name.charAt(j));
+			}
+			buffer.put((byte)0);
+		}
+		buffer.flip();
+
+		return buffer;
+	}
+
+	/**
+	 * Reads the function presence flags from the specified cache file.
+	 *
+	 * @param cache the cache file
+	 * @param key   the cache key
+	 *
+	 * @return the presence flags, or null if the file does not exist or was written for a different key or function set
+	 */
+	boolean[] readCache(final File cache, final String key) {
+		return AccessController.doPrivileged(new PrivilegedAction<boolean[]>() {
+			public boolean[] run() {
+				if ( !cache.isFile() )
+					return null;
+
+				try {
+					final DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(cache)));
+					try {
+						if ( in.readInt() != CACHE_MAGIC || !key.equals(in.readUTF()) || in.readInt() != names.length || in.readInt() != Arrays.hashCode(names) )
+							return null;
+
+						final boolean[] present = new boolean[names.length];
+						for ( int i = 0; i < present.length; i++ )
+							present[i] = in.readBoolean();
+						return present;
+					} finally {
+						in.close();
+					}
+				} catch (IOException e) {
+					LWJGLUtil.log("Failed to read the function cache: " + e);
+					return null;
+				}
+			}
+		});
+	}
+
+	/**
+	 * Writes the presence of the resolved functions to the specified cache file.
+	 *
+	 * @param cache     the cache file
+	 * @param key       the cache key
+	 * @param addresses the resolved function addresses
+	 */
+	void writeCache(final File cache, final String key, final long[] addresses) {
+		AccessController.doPrivileged(new PrivilegedAction<Object>() {
+			public Object run() {
+				try {
+					final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(cache)));
+					try {
+						out.writeInt(CACHE_MAGIC);
+						out.writeUTF(key);
+						out.writeInt(names.length);
+						out.writeInt(Arrays.hashCode(names));
+						for ( long address : addresses )
+							out.writeBoolean(address != 0);
+					} finally {
+						out.close();
+					}
+				} catch (IOException e) {
+					LWJGLUtil.log("Failed to write the function cache: " + e);
+				}
+				return null;
+			}
+		});
+	}
+
+}
@@ -31,13 +31,16 @@
  */
 package org.lwjgl.opengl;
 
+import org.lwjgl.BufferUtils;
 import org.lwjgl.LWJGLException;
 import org.lwjgl.LWJGLUtil;
 import org.lwjgl.MemoryUtil;
 import org.lwjgl.Sys;
 
+import java.io.File;
 import java.lang.reflect.Method;
 import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
 import java.security.PrivilegedExceptionAction;
@@ -63,46 +66,32 @@ import static org.lwjgl.opengl.GL32.*;
  */
 public final class GLContext {
 
-	/** Maps threads to their current context's ContextCapabilities, if any */
-	private static final ThreadLocal<ContextCapabilities> current_capabilities = new ThreadLocal<ContextCapabilities>();
-
 	/**
-	 * The getCapabilities() method is a potential hot spot in any LWJGL application, since
-	 * it is needed for context capability discovery (e.g. is OpenGL 2.0 supported?), and
-	 * for the function pointers of gl functions. However, the 'current_capabilities' ThreadLocal
-	 * is (relatively) expensive to look up, and since most OpenGL applications use are single threaded
-	 * rendering, the following two is an optimization for this case.
-	 * <p/>
-	 * ThreadLocals can be thought of as a mapping between threads and values, so the idea
-	 * is to use a lock-less cache of mappings between threads and the current ContextCapabilities. The cache
-	 * could be any size, but in our case, we want a single sized cache for optimal performance
-	 * in the single threaded case.
-	 * <p/>
-	 * 'fast_path_cache' is the most recent ContextCapabilities (potentially null) and its owner. By
-	 * recent I mean the last thread setting the value in setCapabilities(). When getCapabilities()
-	 * is called, a check to see if the current is the owner of the ContextCapabilities instance in
-	 * fast_path_cache. If so, the instance is returned, if not, some thread has since taken ownership
-	 * of the cache entry and the slower current_capabilities ThreadLocal is queried instead.
-	 * <p/>
-	 * No locks are needed in get/setCapabilities, because even though fast_path_cache can be accessed
-	 * from multiple threads at once, we are guaranteed by the JVM spec that its value is always valid.
-	 * Furthermore, if the ownership test in getCapabilities() succeeds, the cache entry can only contain
-	 * the correct ContextCapabilites (that is, the one from getThreadLocalCapabilites()),
-	 * since no other thread can set the owner to anyone else than itself.
+	 * The weak mapping from context Object instances to ContextCapabilities. Used
+	 * to avoid recreating a ContextCapabilities every time a context is made current.
 	 */
-	private static CapabilitiesCacheEntry fast_path_cache = new CapabilitiesCacheEntry();
+	private static final Map<Object, ContextCapabilities> capability_cache = new WeakHashMap<Object, ContextCapabilities>();
 
 	/**
-	 * Simple lock-free cache of CapabilitesEntryCache to avoid allocating more than one
-	 * cache entry per thread
+	 * If set, the presence of every entry point is cached in this file, keyed by the GL_VERSION
+	 * and GL_RENDERER strings. Entry points known to be missing are not looked up on later runs.
 	 */
-	private static final ThreadLocal<CapabilitiesCacheEntry> thread_cache_entries = new ThreadLocal<CapabilitiesCacheEntry>();
+	private static final String FUNCTION_CACHE = LWJGLUtil.getPrivilegedString("org.lwjgl.opengl.GLContext.functionCache");
+
+	/** The function names of the last bulk resolution. */
+	private static FunctionTable function_table;
 
 	/**
-	 * The weak mapping from context Object instances to ContextCapabilities. Used
-	 * to avoid recreating a ContextCapabilities every time a context is made current.
+	 * Function addresses resolved in bulk, while a ContextCapabilities instance is being constructed, or null.
+	 * Written inside useContext, which is synchronized. getFunctionAddress may be called from any thread, so
+	 * the array is published through a volatile field and is only used by the thread that resolved it.
 	 */
-	private static final Map<Object, ContextCapabilities> capability_cache = new WeakHashMap<Object, ContextCapabilities>();
+	private static volatile long[] function_addresses;
+	/** The thread that resolved function_addresses. Written before it. */
+	private static Thread function_addresses_owner;
+
+	/** The context published in single-context mode, or null. Only accessed while holding the GLContext lock. */
+	private static Object single_context;
 
 	/** Reference count of the native opengl implementation library */
 	private static int gl_ref_count;
@@ -119,25 +108,13 @@ public final class GLContext {
 	 * @return The current capabilities instance.
 	 */
 	public static ContextCapabilities getCapabilities() {
-		ContextCapabilities caps = getCapabilitiesImpl();
+		ContextCapabilities caps = CurrentCapabilities.get();
 		if ( caps == null )
 			throw new RuntimeException("No OpenGL context found in the current thread.");
 
 		return caps;
 	}
 
-	private static ContextCapabilities getCapabilitiesImpl() {
-		CapabilitiesCacheEntry recent_cache_entry = fast_path_cache;
-		// Check owner of cache entry
-		if ( recent_cache_entry.owner == Thread.currentThread() ) {
-			/* The owner ship test succeeded, so the cache must contain the current ContextCapabilities instance
-			 * assert recent_cache_entry.capabilities == getThreadLocalCapabilities();
-			 */
-			return recent_cache_entry.capabilities;
-		} else // Some other thread has written to the cache since, and we fall back to the slower path
-			return getThreadLocalCapabilities();
-	}
-
 	/**
 	 * Returns the capabilities instance associated with the specified context object.
 	 *
@@ -149,10 +126,6 @@ public final class GLContext {
 		return capability_cache.get(context);
 	}
 
-	private static ContextCapabilities getThreadLocalCapabilities() {
-		return current_capabilities.get();
-	}
-
 	/**
 	 * Set the current capabilities instance. It contains the flags used
 	 * to test for support of a particular extension.
@@ -160,17 +133,19 @@ public final class GLContext {
 	 * @return The current capabilities instance.
 	 */
 	static void setCapabilities(ContextCapabilities capabilities) {
-		current_capabilities.set(capabilities);
-
-		CapabilitiesCacheEntry thread_cache_entry = thread_cache_entries.get();
-		if ( thread_cache_entry == null ) {
-			thread_cache_entry = new CapabilitiesCacheEntry();
-			thread_cache_entries.set(thread_cache_entry);
-		}
-		thread_cache_entry.owner = Thread.currentThread();
-		thread_cache_entry.capabilities = capabilities;
+		CurrentCapabilities.set(capabilities);
+	}
 
-		fast_path_cache = thread_cache_entry;
+	/**
+	 * Enters or leaves single-context mode. While a single context is set, its capabilities are
+	 * returned by getCapabilities() in every thread and no other context can be made current.
+	 * The context must have been made current with useContext() before.
+	 *
+	 * @param context the single context, or null to leave single-context mode
+	 */
+	static synchronized void setSingleContext(Object context) {
+		single_context = context;
+		CurrentCapabilities.setSingleContext(context == null ? null : capability_cache.get(context));
 	}
 
 	/**
@@ -210,11 +185,54 @@ public final class GLContext {
 
 	/** Helper method to get a pointer to a named function in the OpenGL library. */
 	static long getFunctionAddress(String name) {
+		final long[] addresses = function_addresses;
+		if ( addresses != null && function_addresses_owner == Thread.currentThread() ) {
+			final int index = function_table.indexOf(name);
+			if ( index != -1 )
+				return addresses[index];
+		}
+
 		ByteBuffer buffer = MemoryUtil.encodeASCII(name);
 		return ngetFunctionAddress(MemoryUtil.getAddress(buffer));
 	}
 	private static native long ngetFunctionAddress(long name);
 
+	/**
+	 * Resolves the specified functions with a single native call. Subsequent calls to
+	 * getFunctionAddress with any of these names will return the resolved addresses,
+	 * until the ContextCapabilities instance under construction has been initialized.
+	 * Helper method to ContextCapabilities.
+	 *
+	 * @param names the function names
+	 */
+	static void resolveFunctionAddresses(final String[] names) {
+		if ( function_table == null || !function_table.is(names) )
+			function_table = new FunctionTable(names);
+
+		File cache = null;
+		String key = null;
+		boolean[] present = null;
+		if ( FUNCTION_CACHE != null ) {
+			cache = new File(FUNCTION_CACHE);
+			key = glGetString(GL_VERSION) + '\n' + glGetString(GL_RENDERER);
+			present = function_table.readCache(cache, key);
+		}
+
+		final ByteBuffer packed = FunctionTable.encode(names, present);
+		final LongBuffer addresses = BufferUtils.createLongBuffer(names.length);
+		ngetFunctionAddresses(MemoryUtil.getAddress(packed), names.length, MemoryUtil.getAddress(addresses));
+
+		final long[] resolved = new long[names.length];
+		addresses.get(resolved);
+
+		function_addresses_owner = Thread.currentThread();
+		function_addresses = resolved;
+
+		if ( cache != null && present == null )
+			function_table.writeCache(cache, key, resolved);
+	}
+	private static native void ngetFunctionAddresses(long names, int count, long addresses);
+
 	/**
 	 * Determine which extensions are available and returns the context profile mask. Helper method to ContextCapabilities.
 	 *
@@ -358,6 +376,8 @@ public final class GLContext {
 				unloadOpenGLLibrary();
 			return;
 		}
+		if ( single_context != null && context != single_context )
+			throw new LWJGLException("Single-context mode is active, only the Display context can be made current.");
 		if ( gl_ref_count == 0 ) {
 			loadOpenGLLibrary();
 			did_auto_load = true;
@@ -371,7 +391,11 @@ public final class GLContext {
 				 * as part of its capability discovery, but GL functions cannot be called before
 				 * a capabilities object has been set.
 				 */
-				new ContextCapabilities(forwardCompatible);
+				try {
+					new ContextCapabilities(forwardCompatible);
+				} finally {
+					function_addresses = null;
+				}
 				capability_cache.put(context, getCapabilities());
 			} else
 				setCapabilities(capabilities);
@@ -406,10 +430,4 @@ public final class GLContext {
 
 	/** Native method to clear native stub bindings */
 	static native void resetNativeStubs(Class clazz);
-
-	private static final class CapabilitiesCacheEntry {
-
-		Thread owner;
-		ContextCapabilities capabilities;
-	}
 }
\ No newline at end of file
@@ -32,9 +32,19 @@
 package org.lwjgl.opengl;
 
 /**
- * This class contains the global lock that LWJGL will use to
+ * This class contains the locks that LWJGL will use to
  * synchronize access to Display.
+ * <p/>
+ * The locks must always be acquired in the order they are declared, so a thread
+ * holding context_lock or input_lock never tries to acquire lock. Cheap queries
+ * like Display.isActive() or Display.isCloseRequested() read published snapshots
+ * and don't take any of them.
  */
 final class GlobalLock {
+	/** Guards the window and the display mode: creation, destruction, mode switches and message processing. */
 	static final Object lock = new Object();
+	/** Guards the Display context: buffer swaps and making it current or non-current. */
+	static final Object context_lock = new Object();
+	/** Guards Mouse, Keyboard and Cursor state, and the input implementation they poll. */
+	static final Object input_lock = new Object();
 }
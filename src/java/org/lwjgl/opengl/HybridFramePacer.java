@@ -0,0 +1,277 @@
+/*
+ * Copyright (c) 2002-2012 LWJGL Project
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'LWJGL' nor the names of
+ *   its contributors may be used to endorse or promote products derived
+ *   from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.lwjgl.opengl;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.LockSupport;
+
+import org.lwjgl.LWJGLUtil;
+
+/**
+ * The default FramePacer. It parks the thread with LockSupport.parkNanos until
+ * shortly before the frame deadline and then spins on System.nanoTime for the
+ * remainder. The spin window adapts to the park overshoot observed on the
+ * system it runs on, so that little CPU time is spent spinning.
+ * <p/>
+ * The pacer also records the duration of the most recent frames, which is
+ * available as percentiles through getFrameTimePercentile(double). Optionally,
+ * a wake-up margin makes sync return slightly before the frame deadline,
+ * e.g. a few hundred microseconds before vblank, to leave time for input
+ * handling and command submission.
+ */
+public class HybridFramePacer implements FramePacer {
+
+	/** number of nano seconds in a second */
+	private static final long NANOS_IN_SECOND = 1000L * 1000L * 1000L;
+
+	/** The number of frame times used for the percentiles */
+	private static final int FRAME_HISTORY = 256;
+
+	/** The initial park overshoot estimate, before any parking has been observed */
+	private static final long INITIAL_OVERSHOOT = 1000L * 1000L;
+
+	/** The longest time spent spinning, in case of huge park overshoots (e.g. low resolution timers) */
+	private static final long MAX_SPIN = 2L * 1000L * 1000L;
+
+	private static boolean timerAccuracyFix;
+
+	private final Clock clock;
+
+	/** The time to wait for, before the wake-up margin is applied */
+	private long nextFrame;
+	private long lastFrame;
+	private boolean initialised;
+
+	/** A decaying maximum of the observed park overshoot */
+	private long parkOvershoot = INITIAL_OVERSHOOT;
+
+	private long wakeupMargin;
+
+	/** The frame time ring buffer */
+	private final long[] frameTimes = new long[FRAME_HISTORY];
+	private final long[] sortedFrameTimes = new long[FRAME_HISTORY];
+	private int frameCount;
+	private boolean sorted;
+
+	/** Creates a HybridFramePacer that uses the system clock. */
+	public HybridFramePacer() {
+		this(SystemClock.INSTANCE);
+	}
+
+	/**
+	 * Creates a HybridFramePacer that uses the specified clock. This is mostly useful
+	 * to measure the pacer against a simulated clock.
+	 *
+	 * @param clock the clock
+	 */
+	public HybridFramePacer(Clock clock) {
+		if ( clock == null )
+			throw new NullPointerException("clock");
+		this.clock = clock;
+	}
+
+	/**
+	 * Sets the wake-up margin. When non-zero, sync returns this many nanoseconds before
+	 * the frame deadline instead of at the deadline. The frame schedule itself is not affected.
+	 *
+	 * @param nanos the wake-up margin, in nanoseconds
+	 */
+	public void setWakeupMargin(long nanos) {
+		if ( nanos < 0 )
+			throw new IllegalArgumentException("Invalid wake-up margin: " + nanos);
+		this.wakeupMargin = nanos;
+	}
+
+	/** @return the wake-up margin, in nanoseconds */
+	public long getWakeupMargin() {
+		return wakeupMargin;
+	}
+
+	public void sync(int fps) {
+		if ( fps <= 0 )
+			return;
+		if ( !initialised )
+			initialise();
+
+		long deadline = nextFrame - wakeupMargin;
+
+		// park until the park overshoot estimate is greater than the time remaining till the deadline
+		for ( long t0 = clock.nanoTime(), t1; deadline - t0 > parkOvershoot; t0 = t1 ) {
+			long requested = deadline - t0 - parkOvershoot;
+			clock.park(requested);
+			updateParkOvershoot((t1 = clock.nanoTime()) - t0 - requested);
+		}
+
+		// spin until the deadline
+		while ( deadline - clock.nanoTime() > 0 )
+			clock.spin();
+
+		long time = clock.nanoTime();
+		if ( lastFrame != 0 )
+			addFrameTime(time - lastFrame);
+		lastFrame = time;
+
+		// schedule next frame, drop frame(s) if already too late for next frame
+		nextFrame = Math.max(nextFrame + NANOS_IN_SECOND / fps, time + wakeupMargin);
+	}
+
+	/**
+	 * Returns a percentile of the recent frame times. Frame times are measured
+	 * between consecutive sync returns.
+	 *
+	 * @param percentile the percentile, between 0.0 and 100.0
+	 *
+	 * @return the frame time, in nanoseconds, or 0 if no frame time has been recorded yet
+	 */
+	public long getFrameTimePercentile(double percentile) {
+		if ( percentile < 0.0 || 100.0 < percentile )
+			throw new IllegalArgumentException("Invalid percentile: " + percentile);
+
+		int count = Math.min(frameCount, FRAME_HISTORY);
+		if ( count == 0 )
+			return 0;
+
+		if ( !sorted ) {
+			System.arraycopy(frameTimes, 0, sortedFrameTimes, 0, count);
+			Arrays.sort(sortedFrameTimes, 0, count);
+			sorted = true;
+		}
+		int index = (int)Math.ceil(percentile / 100.0 * count) - 1;
+		return sortedFrameTimes[Math.max(index, 0)];
+	}
+
+	/** @return the median frame time, in nanoseconds */
+	public long getFrameTimeP50() {
+		return getFrameTimePercentile(50.0);
+	}
+
+	/** @return the 95th percentile frame time, in nanoseconds */
+	public long getFrameTimeP95() {
+		return getFrameTimePercentile(95.0);
+	}
+
+	/** @return the 99th percentile frame time, in nanoseconds */
+	public long getFrameTimeP99() {
+		return getFrameTimePercentile(99.0);
+	}
+
+	/** Discards the recorded frame times. */
+	public void resetFrameTimes() {
+		frameCount = 0;
+		sorted = false;
+		lastFrame = 0;
+	}
+
+	private void addFrameTime(long frameTime) {
+		frameTimes[frameCount++ % FRAME_HISTORY] = frameTime;
+		if ( frameCount == 2 * FRAME_HISTORY )
+			frameCount = FRAME_HISTORY; // avoid overflow, the index stays the same
+		sorted = false;
+	}
+
+	private void updateParkOvershoot(long overshoot) {
+		// rise fast, decay slowly
+		if ( overshoot > parkOvershoot )
+			parkOvershoot = Math.min(overshoot, MAX_SPIN);
+		else
+			parkOvershoot -= (parkOvershoot - Math.max(overshoot, 0)) >> 4;
+	}
+
+	private void initialise() {
+		initialised = true;
+		nextFrame = clock.nanoTime();
+
+		if ( clock == SystemClock.INSTANCE && LWJGLUtil.getPlatform() == LWJGLUtil.PLATFORM_WINDOWS )
+			startTimerAccuracyThread();
+	}
+
+	/**
+	 * On windows the sleep functions can be highly inaccurate by
+	 * over 10ms making in unusable. However it can be forced to
+	 * be a bit more accurate by running a separate sleeping daemon
+	 * thread.
+	 */
+	private static synchronized void startTimerAccuracyThread() {
+		if ( timerAccuracyFix )
+			return;
+		timerAccuracyFix = true;
+
+		Thread timerAccuracyThread = new Thread(new Runnable() {
+			public void run() {
+				try {
+					Thread.sleep(Long.MAX_VALUE);
+				} catch (Exception e) {}
+			}
+		});
+
+		timerAccuracyThread.setName("LWJGL Timer");
+		timerAccuracyThread.setDaemon(true);
+		timerAccuracyThread.start();
+	}
+
+	/** The time source used by HybridFramePacer. */
+	public interface Clock {
+
+		/** @return the current time, in nanoseconds */
+		long nanoTime();
+
+		/**
+		 * Blocks the current thread for up to the specified time. It may return early
+		 * or late.
+		 *
+		 * @param nanos the time to block, in nanoseconds
+		 */
+		void park(long nanos);
+
+		/** Called repeatedly while busy-waiting for the deadline. */
+		void spin();
+
+	}
+
+	private static final class SystemClock implements Clock {
+
+		static final Clock INSTANCE = new SystemClock();
+
+		public long nanoTime() {
+			return System.nanoTime();
+		}
+
+		public void park(long nanos) {
+			LockSupport.parkNanos(nanos);
+		}
+
+		public void spin() {
+		}
+
+	}
+
+}
@@ -433,331 +433,236 @@ final class LinuxKeycodes {
 
 	public static final int XK_ISO_Level3_Shift              = 0xfe03;
 
+	/*
+	 * The mapped keysyms fall in two blocks: Latin 1 (0x0000 - 0x00ff) and the
+	 * function keys and modifiers (0xfe00 - 0xffff), so two small tables are used.
+	 */
+	private static final int FUNCTION_BASE = 0xfe00;
+
+	/** LWJGL key codes, indexed by Latin 1 keysym */
+	private static final short[] latin1_to_lwjgl = new short[0x100];
+	/** LWJGL key codes, indexed by keysym - FUNCTION_BASE */
+	private static final short[] function_to_lwjgl = new short[0x10000 - FUNCTION_BASE];
+	/** Keysyms, indexed by LWJGL key code. Stored as unsigned shorts. */
+	private static final short[] lwjgl_to_keysym = new short[Keyboard.KEYBOARD_SIZE];
+
+	static {
+		map(XK_BackSpace, Keyboard.KEY_BACK);
+		map(XK_ISO_Left_Tab, Keyboard.KEY_TAB);
+		map(XK_Tab, Keyboard.KEY_TAB);
+		map(XK_Return, Keyboard.KEY_RETURN);
+		map(XK_Pause, Keyboard.KEY_PAUSE);
+		map(XK_Scroll_Lock, Keyboard.KEY_SCROLL);
+		map(XK_Sys_Req, Keyboard.KEY_SYSRQ);
+		map(XK_Escape, Keyboard.KEY_ESCAPE);
+		map(XK_Delete, Keyboard.KEY_DELETE);
+
+		/* Japanese keyboard support */
+
+		map(XK_Kanji, Keyboard.KEY_KANJI);
+
+		/* Cursor control & motion */
+
+		map(XK_Home, Keyboard.KEY_HOME);
+		map(XK_Left, Keyboard.KEY_LEFT);
+		map(XK_Up, Keyboard.KEY_UP);
+		map(XK_Right, Keyboard.KEY_RIGHT);
+		map(XK_Down, Keyboard.KEY_DOWN);
+		map(XK_Page_Up, Keyboard.KEY_PRIOR);
+		map(XK_Page_Down, Keyboard.KEY_NEXT);
+		map(XK_End, Keyboard.KEY_END);
+
+		/* Misc Functions */
+
+		map(XK_Break, Keyboard.KEY_PAUSE);
+		map(XK_Insert, Keyboard.KEY_INSERT);
+		map(XK_Num_Lock, Keyboard.KEY_NUMLOCK);
+
+		/* Keypad Functions, keypad numbers cleverly chosen to map to ascii */
+
+		map(XK_KP_Space, Keyboard.KEY_SPACE);
+		map(XK_KP_Tab, Keyboard.KEY_TAB);
+		map(XK_KP_Enter, Keyboard.KEY_NUMPADENTER);
+		map(XK_KP_F1, Keyboard.KEY_F1);
+		map(XK_KP_F2, Keyboard.KEY_F2);
+		map(XK_KP_F3, Keyboard.KEY_F3);
+		map(XK_KP_F4, Keyboard.KEY_F4);
+		map(XK_KP_Home, Keyboard.KEY_HOME);
+		map(XK_KP_Left, Keyboard.KEY_LEFT);
+		map(XK_KP_Up, Keyboard.KEY_UP);
+		map(XK_KP_Right, Keyboard.KEY_RIGHT);
+		map(XK_KP_Down, Keyboard.KEY_DOWN);
+		map(XK_KP_Page_Up, Keyboard.KEY_PRIOR);
+		map(XK_KP_Page_Down, Keyboard.KEY_NEXT);
+		map(XK_KP_End, Keyboard.KEY_END);
+		map(XK_KP_Insert, Keyboard.KEY_INSERT);
+		map(XK_KP_Delete, Keyboard.KEY_DELETE);
+		map(XK_KP_Equal, Keyboard.KEY_NUMPADEQUALS);
+		map(XK_KP_Multiply, Keyboard.KEY_MULTIPLY);
+		map(XK_KP_Add, Keyboard.KEY_ADD);
+		map(XK_KP_Subtract, Keyboard.KEY_SUBTRACT);
+		map(XK_KP_Decimal, Keyboard.KEY_DECIMAL);
+		map(XK_KP_Divide, Keyboard.KEY_DIVIDE);
+
+		map(XK_KP_0, Keyboard.KEY_NUMPAD0);
+		map(XK_KP_1, Keyboard.KEY_NUMPAD1);
+		map(XK_KP_2, Keyboard.KEY_NUMPAD2);
+		map(XK_KP_3, Keyboard.KEY_NUMPAD3);
+		map(XK_KP_4, Keyboard.KEY_NUMPAD4);
+		map(XK_KP_5, Keyboard.KEY_NUMPAD5);
+		map(XK_KP_6, Keyboard.KEY_NUMPAD6);
+		map(XK_KP_7, Keyboard.KEY_NUMPAD7);
+		map(XK_KP_8, Keyboard.KEY_NUMPAD8);
+		map(XK_KP_9, Keyboard.KEY_NUMPAD9);
+
+		/*
+		 * Auxilliary Functions; note the duplicate definitions for left and right
+		 * function keys;  Sun keyboards and a few other manufactures have such
+		 * function key groups on the left and/or right sides of the keyboard.
+		 * We've not found a keyboard with more than 35 function keys total.
+		 */
+
+		map(XK_F1, Keyboard.KEY_F1);
+		map(XK_F2, Keyboard.KEY_F2);
+		map(XK_F3, Keyboard.KEY_F3);
+		map(XK_F4, Keyboard.KEY_F4);
+		map(XK_F5, Keyboard.KEY_F5);
+		map(XK_F6, Keyboard.KEY_F6);
+		map(XK_F7, Keyboard.KEY_F7);
+		map(XK_F8, Keyboard.KEY_F8);
+		map(XK_F9, Keyboard.KEY_F9);
+		map(XK_F10, Keyboard.KEY_F10);
+		map(XK_F11, Keyboard.KEY_F11);
+		map(XK_F12, Keyboard.KEY_F12);
+		map(XK_F13, Keyboard.KEY_F13);
+		map(XK_F14, Keyboard.KEY_F14);
+		map(XK_F15, Keyboard.KEY_F15);
+
+		/* Modifiers */
+
+		map(XK_Shift_L, Keyboard.KEY_LSHIFT);
+		map(XK_Shift_R, Keyboard.KEY_RSHIFT);
+		map(XK_Control_L, Keyboard.KEY_LCONTROL);
+		map(XK_Control_R, Keyboard.KEY_RCONTROL);
+		map(XK_Caps_Lock, Keyboard.KEY_CAPITAL);
+
+		map(XK_Meta_L, Keyboard.KEY_LMENU);
+		map(XK_ISO_Level3_Shift, Keyboard.KEY_RMENU);
+		map(XK_Meta_R, Keyboard.KEY_RMENU);
+		map(XK_Alt_L, Keyboard.KEY_LMENU);
+		map(XK_Alt_R, Keyboard.KEY_RMENU);
+
+		map(XK_dead_grave, Keyboard.KEY_GRAVE);
+		map(XK_dead_circumflex, Keyboard.KEY_CIRCUMFLEX);
+
+		/*
+		 *  Latin 1
+		 *  Byte 3 = 0
+		 */
+		map(XK_space, Keyboard.KEY_SPACE);
+		map(XK_apostrophe, Keyboard.KEY_APOSTROPHE);
+		map(XK_comma, Keyboard.KEY_COMMA);
+		map(XK_minus, Keyboard.KEY_MINUS);
+		map(XK_period, Keyboard.KEY_PERIOD);
+		map(XK_slash, Keyboard.KEY_SLASH);
+		map(XK_0, Keyboard.KEY_0);
+		map(XK_1, Keyboard.KEY_1);
+		map(XK_2, Keyboard.KEY_2);
+		map(XK_3, Keyboard.KEY_3);
+		map(XK_4, Keyboard.KEY_4);
+		map(XK_5, Keyboard.KEY_5);
+		map(XK_6, Keyboard.KEY_6);
+		map(XK_7, Keyboard.KEY_7);
+		map(XK_8, Keyboard.KEY_8);
+		map(XK_9, Keyboard.KEY_9);
+		map(XK_colon, Keyboard.KEY_COLON);
+		map(XK_semicolon, Keyboard.KEY_SEMICOLON);
+		map(XK_equal, Keyboard.KEY_EQUALS);
+		map(XK_at, Keyboard.KEY_AT);
+		map(XK_bracketleft, Keyboard.KEY_LBRACKET);
+		map(XK_bracketright, Keyboard.KEY_RBRACKET);
+		map(XK_asciicircum, Keyboard.KEY_CIRCUMFLEX);
+		map(XK_underscore, Keyboard.KEY_UNDERLINE);
+		map(XK_grave, Keyboard.KEY_GRAVE);
+		map(XK_a, Keyboard.KEY_A);
+		map(XK_A, Keyboard.KEY_A);
+		map(XK_b, Keyboard.KEY_B);
+		map(XK_B, Keyboard.KEY_B);
+		map(XK_c, Keyboard.KEY_C);
+		map(XK_C, Keyboard.KEY_C);
+		map(XK_d, Keyboard.KEY_D);
+		map(XK_D, Keyboard.KEY_D);
+		map(XK_e, Keyboard.KEY_E);
+		map(XK_E, Keyboard.KEY_E);
+		map(XK_f, Keyboard.KEY_F);
+		map(XK_F, Keyboard.KEY_F);
+		map(XK_g, Keyboard.KEY_G);
+		map(XK_G, Keyboard.KEY_G);
+		map(XK_h, Keyboard.KEY_H);
+		map(XK_H, Keyboard.KEY_H);
+		map(XK_i, Keyboard.KEY_I);
+		map(XK_I, Keyboard.KEY_I);
+		map(XK_j, Keyboard.KEY_J);
+		map(XK_J, Keyboard.KEY_J);
+		map(XK_k, Keyboard.KEY_K);
+		map(XK_K, Keyboard.KEY_K);
+		map(XK_l, Keyboard.KEY_L);
+		map(XK_L, Keyboard.KEY_L);
+		map(XK_m, Keyboard.KEY_M);
+		map(XK_M, Keyboard.KEY_M);
+		map(XK_n, Keyboard.KEY_N);
+		map(XK_N, Keyboard.KEY_N);
+		map(XK_o, Keyboard.KEY_O);
+		map(XK_O, Keyboard.KEY_O);
+		map(XK_p, Keyboard.KEY_P);
+		map(XK_P, Keyboard.KEY_P);
+		map(XK_q, Keyboard.KEY_Q);
+		map(XK_Q, Keyboard.KEY_Q);
+		map(XK_r, Keyboard.KEY_R);
+		map(XK_R, Keyboard.KEY_R);
+		map(XK_s, Keyboard.KEY_S);
+		map(XK_S, Keyboard.KEY_S);
+		map(XK_t, Keyboard.KEY_T);
+		map(XK_T, Keyboard.KEY_T);
+		map(XK_u, Keyboard.KEY_U);
+		map(XK_U, Keyboard.KEY_U);
+		map(XK_v, Keyboard.KEY_V);
+		map(XK_V, Keyboard.KEY_V);
+		map(XK_w, Keyboard.KEY_W);
+		map(XK_W, Keyboard.KEY_W);
+		map(XK_x, Keyboard.KEY_X);
+		map(XK_X, Keyboard.KEY_X);
+		map(XK_y, Keyboard.KEY_Y);
+		map(XK_Y, Keyboard.KEY_Y);
+		map(XK_z, Keyboard.KEY_Z);
+		map(XK_Z, Keyboard.KEY_Z);
+	}
+
+	/** Adds a mapping to the tables. The reverse table keeps the first keysym mapped to a key. */
+	private static void map(int keysym, int lwjgl_keycode) {
+		if ( keysym < latin1_to_lwjgl.length )
+			latin1_to_lwjgl[keysym] = (short)lwjgl_keycode;
+		else
+			function_to_lwjgl[keysym - FUNCTION_BASE] = (short)lwjgl_keycode;
+		if ( lwjgl_to_keysym[lwjgl_keycode] == 0 )
+			lwjgl_to_keysym[lwjgl_keycode] = (short)keysym;
+	}
+
 	public static int mapKeySymToLWJGLKeyCode(long keysym) {
-		switch ((int)keysym) {
-			case XK_BackSpace:
-				return Keyboard.KEY_BACK;
-			case XK_ISO_Left_Tab:
-			case XK_Tab:
-				return Keyboard.KEY_TAB;
-			case XK_Return:
-				return Keyboard.KEY_RETURN;
-			case XK_Pause:
-				return Keyboard.KEY_PAUSE;
-			case XK_Scroll_Lock:
-				return Keyboard.KEY_SCROLL;
-			case XK_Sys_Req:
-				return Keyboard.KEY_SYSRQ;
-			case XK_Escape:
-				return Keyboard.KEY_ESCAPE;
-			case XK_Delete:
-				return Keyboard.KEY_DELETE;
-
-				/* Japanese keyboard support */
-
-			case XK_Kanji:
-				return Keyboard.KEY_KANJI;
-
-				/* Cursor control & motion */
-
-			case XK_Home:
-				return Keyboard.KEY_HOME;
-			case XK_Left:
-				return Keyboard.KEY_LEFT;
-			case XK_Up:
-				return Keyboard.KEY_UP;
-			case XK_Right:
-				return Keyboard.KEY_RIGHT;
-			case XK_Down:
-				return Keyboard.KEY_DOWN;
-			case XK_Page_Up:
-				return Keyboard.KEY_PRIOR;
-			case XK_Page_Down:
-				return Keyboard.KEY_NEXT;
-			case XK_End:
-				return Keyboard.KEY_END;
-
-
-				/* Misc Functions */
-
-			case XK_Break:
-				return Keyboard.KEY_PAUSE;
-			case XK_Insert:
-				return Keyboard.KEY_INSERT;
-			case XK_Num_Lock:
-				return Keyboard.KEY_NUMLOCK;
-
-				/* Keypad Functions, keypad numbers cleverly chosen to map to ascii */
-
-			case XK_KP_Space:
-				return Keyboard.KEY_SPACE;
-			case XK_KP_Tab:
-				return Keyboard.KEY_TAB;
-			case XK_KP_Enter:
-				return Keyboard.KEY_NUMPADENTER;
-			case XK_KP_F1:
-				return Keyboard.KEY_F1;
-			case XK_KP_F2:
-				return Keyboard.KEY_F2;
-			case XK_KP_F3:
-				return Keyboard.KEY_F3;
-			case XK_KP_F4:
-				return Keyboard.KEY_F4;
-			case XK_KP_Home:
-				return Keyboard.KEY_HOME;
-			case XK_KP_Left:
-				return Keyboard.KEY_LEFT;
-			case XK_KP_Up:
-				return Keyboard.KEY_UP;
-			case XK_KP_Right:
-				return Keyboard.KEY_RIGHT;
-			case XK_KP_Down:
-				return Keyboard.KEY_DOWN;
-			case XK_KP_Page_Up:
-				return Keyboard.KEY_PRIOR;
-			case XK_KP_Page_Down:
-				return Keyboard.KEY_NEXT;
-			case XK_KP_End:
-				return Keyboard.KEY_END;
-			case XK_KP_Insert:
-				return Keyboard.KEY_INSERT;
-			case XK_KP_Delete:
-				return Keyboard.KEY_DELETE;
-			case XK_KP_Equal:
-				return Keyboard.KEY_NUMPADEQUALS;
-			case XK_KP_Multiply:
-				return Keyboard.KEY_MULTIPLY;
-			case XK_KP_Add:
-				return Keyboard.KEY_ADD;
-			case XK_KP_Subtract:
-				return Keyboard.KEY_SUBTRACT;
-			case XK_KP_Decimal:
-				return Keyboard.KEY_DECIMAL;
-			case XK_KP_Divide:
-				return Keyboard.KEY_DIVIDE;
-
-			case XK_KP_0:
-				return Keyboard.KEY_NUMPAD0;
-			case XK_KP_1:
-				return Keyboard.KEY_NUMPAD1;
-			case XK_KP_2:
-				return Keyboard.KEY_NUMPAD2;
-			case XK_KP_3:
-				return Keyboard.KEY_NUMPAD3;
-			case XK_KP_4:
-				return Keyboard.KEY_NUMPAD4;
-			case XK_KP_5:
-				return Keyboard.KEY_NUMPAD5;
-			case XK_KP_6:
-				return Keyboard.KEY_NUMPAD6;
-			case XK_KP_7:
-				return Keyboard.KEY_NUMPAD7;
-			case XK_KP_8:
-				return Keyboard.KEY_NUMPAD8;
-			case XK_KP_9:
-				return Keyboard.KEY_NUMPAD9;
-
-				/*
-				 * Auxilliary Functions; note the duplicate definitions for left and right
-				 * function keys;  Sun keyboards and a few other manufactures have such
-				 * function key groups on the left and/or right sides of the keyboard.
-				 * We've not found a keyboard with more than 35 function keys total.
-				 */
-
-			case XK_F1:
-				return Keyboard.KEY_F1;
-			case XK_F2:
-				return Keyboard.KEY_F2;
-			case XK_F3:
-				return Keyboard.KEY_F3;
-			case XK_F4:
-				return Keyboard.KEY_F4;
-			case XK_F5:
-				return Keyboard.KEY_F5;
-			case XK_F6:
-				return Keyboard.KEY_F6;
-			case XK_F7:
-				return Keyboard.KEY_F7;
-			case XK_F8:
-				return Keyboard.KEY_F8;
-			case XK_F9:
-				return Keyboard.KEY_F9;
-			case XK_F10:
-				return Keyboard.KEY_F10;
-			case XK_F11:
-				return Keyboard.KEY_F11;
-			case XK_F12:
-				return Keyboard.KEY_F12;
-			case XK_F13:
-				return Keyboard.KEY_F13;
-			case XK_F14:
-				return Keyboard.KEY_F14;
-			case XK_F15:
-				return Keyboard.KEY_F15;
-
-				/* Modifiers */
-
-			case XK_Shift_L:
-				return Keyboard.KEY_LSHIFT;
-			case XK_Shift_R:
-				return Keyboard.KEY_RSHIFT;
-			case XK_Control_L:
-				return Keyboard.KEY_LCONTROL;
-			case XK_Control_R:
-				return Keyboard.KEY_RCONTROL;
-			case XK_Caps_Lock:
-				return Keyboard.KEY_CAPITAL;
-
-			case XK_Meta_L:
-				return Keyboard.KEY_LMENU;
-			case XK_ISO_Level3_Shift:
-			case XK_Meta_R:
-				return Keyboard.KEY_RMENU;
-			case XK_Alt_L:
-				return Keyboard.KEY_LMENU;
-			case XK_Alt_R:
-				return Keyboard.KEY_RMENU;
-
-			case XK_dead_grave:
-				return Keyboard.KEY_GRAVE;
-			case XK_dead_circumflex:
-				return Keyboard.KEY_CIRCUMFLEX;
-
-				/*
-				 *  Latin 1
-				 *  Byte 3 = 0
-				 */
-			case XK_space:
-				return Keyboard.KEY_SPACE;
-			case XK_apostrophe:
-				return Keyboard.KEY_APOSTROPHE;
-			case XK_comma:
-				return Keyboard.KEY_COMMA;
-			case XK_minus:
-				return Keyboard.KEY_MINUS;
-			case XK_period:
-				return Keyboard.KEY_PERIOD;
-			case XK_slash:
-				return Keyboard.KEY_SLASH;
-			case XK_0:
-				return Keyboard.KEY_0;
-			case XK_1:
-				return Keyboard.KEY_1;
-			case XK_2:
-				return Keyboard.KEY_2;
-			case XK_3:
-				return Keyboard.KEY_3;
-			case XK_4:
-				return Keyboard.KEY_4;
-			case XK_5:
-				return Keyboard.KEY_5;
-			case XK_6:
-				return Keyboard.KEY_6;
-			case XK_7:
-				return Keyboard.KEY_7;
-			case XK_8:
-				return Keyboard.KEY_8;
-			case XK_9:
-				return Keyboard.KEY_9;
-			case XK_colon:
-				return Keyboard.KEY_COLON;
-			case XK_semicolon:
-				return Keyboard.KEY_SEMICOLON;
-			case XK_equal:
-				return Keyboard.KEY_EQUALS;
-			case XK_at:
-				return Keyboard.KEY_AT;
-			case XK_bracketleft:
-				return Keyboard.KEY_LBRACKET;
-			case XK_bracketright:
-				return Keyboard.KEY_RBRACKET;
-			case XK_asciicircum:
-				return Keyboard.KEY_CIRCUMFLEX;
-			case XK_underscore:
-				return Keyboard.KEY_UNDERLINE;
-			case XK_grave:
-				return Keyboard.KEY_GRAVE;
-			case XK_a:
-			case XK_A:
-				return Keyboard.KEY_A;
-			case XK_b:
-			case XK_B:
-				return Keyboard.KEY_B;
-			case XK_c:
-			case XK_C:
-				return Keyboard.KEY_C;
-			case XK_d:
-			case XK_D:
-				return Keyboard.KEY_D;
-			case XK_e:
-			case XK_E:
-				return Keyboard.KEY_E;
-			case XK_f:
-			case XK_F:
-				return Keyboard.KEY_F;
-			case XK_g:
-			case XK_G:
-				return Keyboard.KEY_G;
-			case XK_h:
-			case XK_H:
-				return Keyboard.KEY_H;
-			case XK_i:
-			case XK_I:
-				return Keyboard.KEY_I;
-			case XK_j:
-			case XK_J:
-				return Keyboard.KEY_J;
-			case XK_k:
-			case XK_K:
-				return Keyboard.KEY_K;
-			case XK_l:
-			case XK_L:
-				return Keyboard.KEY_L;
-			case XK_m:
-			case XK_M:
-				return Keyboard.KEY_M;
-			case XK_n:
-			case XK_N:
-				return Keyboard.KEY_N;
-			case XK_o:
-			case XK_O:
-				return Keyboard.KEY_O;
-			case XK_p:
-			case XK_P:
-				return Keyboard.KEY_P;
-			case XK_q:
-			case XK_Q:
-				return Keyboard.KEY_Q;
-			case XK_r:
-			case XK_R:
-				return Keyboard.KEY_R;
-			case XK_s:
-			case XK_S:
-				return Keyboard.KEY_S;
-			case XK_t:
-			case XK_T:
-				return Keyboard.KEY_T;
-			case XK_u:
-			case XK_U:
-				return Keyboard.KEY_U;
-			case XK_v:
-			case XK_V:
-				return Keyboard.KEY_V;
-			case XK_w:
-			case XK_W:
-				return Keyboard.KEY_W;
-			case XK_x:
-			case XK_X:
-				return Keyboard.KEY_X;
-			case XK_y:
-			case XK_Y:
-				return Keyboard.KEY_Y;
-			case XK_z:
-			case XK_Z:
-				return Keyboard.KEY_Z;
-			default:
-				return Keyboard.KEY_NONE;
-		}
+		int index = (int)keysym;
+		if ( index >= 0 && index < latin1_to_lwjgl.length )
+			return latin1_to_lwjgl[index];
+		index -= FUNCTION_BASE;
+		if ( index >= 0 && index < function_to_lwjgl.length )
+			return function_to_lwjgl[index];
+		return Keyboard.KEY_NONE;
+	}
+
+	/** @return the keysym of the given LWJGL key code, or 0 if there is none */
+	public static int mapLWJGLKeyCodeToKeySym(int lwjgl_keycode) {
+		if ( lwjgl_keycode < 0 || lwjgl_keycode >= lwjgl_to_keysym.length )
+			return 0;
+		return lwjgl_to_keysym[lwjgl_keycode] & 0xFFFF;
 	}
 
 }
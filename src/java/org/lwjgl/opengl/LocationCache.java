@@ -0,0 +1,258 @@
+/*
+ * Copyright (c) 2002-2008 LWJGL Project
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'LWJGL' nor the names of
+ *   its contributors may be used to endorse or promote products derived
+ *   from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.lwjgl.opengl;
+
+import org.lwjgl.LWJGLUtil;
+
+/**
+ * Caches the results of glGetUniformLocation and glGetAttribLocation (and their ARB
+ * equivalents) per program object, so that repeated lookups by name do not encode the
+ * name or reach the driver. Only the CharSequence versions of these functions use the
+ * cache. Entries are keyed by program name and name content, so a StringBuilder that
+ * is reused for different names is safe.
+ * <p/>
+ * A program's entries are discarded when it is linked (glLinkProgram, glLinkProgramARB,
+ * glProgramBinary) or deleted (glDeleteProgram, glDeleteObjectARB). The cache is per
+ * context and is disabled by default; it can be enabled for every new context with the
+ * org.lwjgl.opengl.LocationCache system property, or per context with {@link #setEnabled(boolean)}.
+ * When program objects are shared between contexts, a program deleted or relinked in
+ * one context must be invalidated in the others with {@link #invalidate(int)}.
+ */
+public final class LocationCache {
+
+	private static final boolean DEFAULT_ENABLED = LWJGLUtil.getPrivilegedBoolean("org.lwjgl.opengl.LocationCache");
+
+	/** Returned by the lookup methods when the location is not cached. */
+	static final int MISS = Integer.MIN_VALUE;
+
+	private final FastIntMap<Program> programs = new FastIntMap<Program>();
+
+	private boolean enabled = DEFAULT_ENABLED;
+
+	private long hits;
+	private long misses;
+
+	LocationCache() {
+	}
+
+	private static LocationCache getCache() {
+		return GLContext.getCapabilities().tracker.locations;
+	}
+
+	/**
+	 * Returns true if location caching is enabled for the current context.
+	 *
+	 * @return true if the location cache is enabled
+	 */
+	public static boolean isEnabled() {
+		return getCache().enabled;
+	}
+
+	/**
+	 * Enables or disables location caching for the current context. The cached locations are discarded either way.
+	 *
+	 * @param enabled the new state
+	 */
+	public static void setEnabled(final boolean enabled) {
+		final LocationCache cache = getCache();
+		cache.enabled = enabled;
+		cache.programs.clear();
+	}
+
+	/** Discards all cached locations of the current context. */
+	public static void invalidate() {
+		getCache().programs.clear();
+	}
+
+	/**
+	 * Discards the cached locations of the specified program in the current context.
+	 *
+	 * @param program the program object
+	 */
+	public static void invalidate(final int program) {
+		getCache().programs.remove(program);
+	}
+
+	/**
+	 * Returns the number of lookups in the current context that were served from the cache.
+	 *
+	 * @return the hit count
+	 */
+	public static long getHitCount() {
+		return getCache().hits;
+	}
+
+	/**
+	 * Returns the number of lookups in the current context that had to reach the driver.
+	 *
+	 * @return the miss count
+	 */
+	public static long getMissCount() {
+		return getCache().misses;
+	}
+
+	/** Resets the hit and miss counters of the current context. */
+	public static void resetCounts() {
+		final LocationCache cache = getCache();
+		cache.hits = 0;
+		cache.misses = 0;
+	}
+
+	int getUniformLocation(final int program, final CharSequence name) {
+		if ( !enabled )
+			return MISS;
+
+		final Program p = programs.get(program);
+		return count(p == null ? MISS : p.uniforms.get(name));
+	}
+
+	int getAttribLocation(final int program, final CharSequence name) {
+		if ( !enabled )
+			return MISS;
+
+		final Program p = programs.get(program);
+		return count(p == null ? MISS : p.attribs.get(name));
+	}
+
+	private int count(final int location) {
+		if ( location == MISS )
+			misses++;
+		else
+			hits++;
+		return location;
+	}
+
+	void putUniformLocation(final int program, final CharSequence name, final int location) {
+		if ( enabled )
+			getProgram(program).uniforms.put(name, location);
+	}
+
+	void putAttribLocation(final int program, final CharSequence name, final int location) {
+		if ( enabled )
+			getProgram(program).attribs.put(name, location);
+	}
+
+	private Program getProgram(final int program) {
+		Program p = programs.get(program);
+		if ( p == null )
+			programs.put(program, p = new Program());
+		return p;
+	}
+
+	void invalidateProgram(final int program) {
+		if ( !programs.isEmpty() )
+			programs.remove(program);
+	}
+
+	private static final class Program {
+
+		final NameMap uniforms = new NameMap();
+		final NameMap attribs  = new NameMap();
+
+	}
+
+	/** An open-addressing map from name content to location, with linear probing. */
+	private static final class NameMap {
+
+		private String[] keys   = new String[16];
+		private int[]    values = new int[16];
+
+		private int size;
+
+		/** Returns the String.hashCode() of the specified name, without allocating. */
+		private static int hash(final CharSequence name) {
+			if ( name instanceof String )
+				return name.hashCode();
+
+			int hash = 0;
+			for ( int i = 0; i < name.length(); i++ )
+				hash = 31 * hash + name.charAt(i);
+			return hash;
+		}
+
+		private static int index(final int hash, final int mask) {
+			return (hash ^ (hash >>> 16)) & mask;
+		}
+
+		int get(final CharSequence name) {
+			final int slot = find(keys, name, hash(name));
+			return 0 <= slot ? values[slot] : MISS;
+		}
+
+		void put(final CharSequence name, final int location) {
+			final int slot = find(keys, name, hash(name));
+			if ( 0 <= slot ) {
+				values[slot] = location;
+				return;
+			}
+
+			keys[-slot - 1] = name.toString();
+			values[-slot - 1] = location;
+
+			if ( keys.length < ++size * 2 )
+				rehash();
+		}
+
+		/** Returns the slot of the specified name or, if it is not present, -(insertion slot + 1). */
+		private static int find(final String[] keys, final CharSequence name, final int hash) {
+			final int mask = keys.length - 1;
+			for ( int i = index(hash, mask); ; i = (i + 1) & mask ) {
+				final String key = keys[i];
+				if ( key == null )
+					return -i - 1;
+
+				if ( key.hashCode() == hash && (name instanceof String ? key.equals(name) : key.contentEquals(name)) )
+					return i;
+			}
+		}
+
+		private void rehash() {
+			final String[] keysOld = keys;
+			final int[] valuesOld = values;
+
+			keys = new String[keysOld.length << 1];
+			values = new int[keysOld.length << 1];
+
+			for ( int i = 0; i < keysOld.length; i++ ) {
+				final String key = keysOld[i];
+				if ( key == null )
+					continue;
+
+				final int slot = -find(keys, key, key.hashCode()) - 1;
+				keys[slot] = key;
+				values[slot] = valuesOld[i];
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2002-2008 LWJGL Project
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'LWJGL' nor the names of
+ *   its contributors may be used to endorse or promote products derived
+ *   from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.lwjgl.opengl;
+
+/**
+ * An event queue for Mouse events, that coalesces motion events when it overflows.
+ * Motion events are merged by summing their deltas in relative mode, or by keeping
+ * the latest position in absolute mode.
+ */
+
+import java.nio.ByteBuffer;
+
+import org.lwjgl.input.Mouse;
+
+class MotionEventQueue extends EventQueue {
+	/** Mouse event layout */
+	private static final int BUTTON_OFFSET = 0;
+	private static final int X_OFFSET = 2;
+	private static final int Y_OFFSET = 6;
+	private static final int DZ_OFFSET = 10;
+	private static final int NANOS_OFFSET = 14;
+
+	/** true if the event coordinates are deltas, i.e. the mouse is grabbed. Owned by the producer. */
+	private boolean relative;
+
+	MotionEventQueue() {
+		super(Mouse.EVENT_SIZE);
+	}
+
+	/**
+	 * Selects how motion events are merged. Must be called by the producer, or while holding
+	 * the lock the producer holds while putting events.
+	 */
+	void setRelative(boolean relative) {
+		this.relative = relative;
+	}
+
+	protected boolean isMotionEvent(ByteBuffer event) {
+		int position = event.position();
+		return event.get(position + BUTTON_OFFSET) == -1 && event.getInt(position + DZ_OFFSET) == 0;
+	}
+
+	protected void coalesceEvent(ByteBuffer pending, ByteBuffer event) {
+		int position = event.position();
+		int x = event.getInt(position + X_OFFSET);
+		int y = event.getInt(position + Y_OFFSET);
+		if ( relative ) {
+			x += pending.getInt(X_OFFSET);
+			y += pending.getInt(Y_OFFSET);
+		}
+		pending.putInt(X_OFFSET, x);
+		pending.putInt(Y_OFFSET, y);
+		pending.putLong(NANOS_OFFSET, event.getLong(position + NANOS_OFFSET));
+	}
+}
@@ -48,7 +48,7 @@ import java.nio.IntBuffer;
 
 import org.lwjgl.input.Mouse;
 
-class MouseEventQueue extends EventQueue implements MouseListener, MouseMotionListener, MouseWheelListener {
+class MouseEventQueue extends MotionEventQueue implements MouseListener, MouseMotionListener, MouseWheelListener {
 	private static final int WHEEL_SCALE = 120;
 	public static final int NUM_BUTTONS = 3;
 
@@ -75,7 +75,6 @@ class MouseEventQueue extends EventQueue implements MouseListener, MouseMotionLi
 	private final byte[] buttons = new byte[NUM_BUTTONS];
 
 	MouseEventQueue(Component component) {
-		super(Mouse.EVENT_SIZE);
 		this.component = component;
 	}
 
@@ -102,6 +101,7 @@ class MouseEventQueue extends EventQueue implements MouseListener, MouseMotionLi
 
 	public synchronized void setGrabbed(boolean grabbed) {
 		this.grabbed = grabbed;
+		setRelative(grabbed);
 		resetCursorToCenter();
 	}
 
@@ -109,6 +109,12 @@ class MouseEventQueue extends EventQueue implements MouseListener, MouseMotionLi
 		return grabbed;
 	}
 
+	/** Also queues the pending coalesced motion event. The listeners put events while holding the same lock. */
+	public synchronized void copyEvents(ByteBuffer dest) {
+		flushPendingEvent();
+		super.copyEvents(dest);
+	}
+
 	protected int transformY(int y) {
         if (component != null) {
             return component.getHeight() - 1 - y;
@@ -47,6 +47,12 @@ final class StateTracker {
 	// VAOs are not shareable between contexts, no need to sync or make this static.
 	private final FastIntMap<VAOState> vaoMap = new FastIntMap<VAOState>();
 
+	/** Shadow state used to elide redundant calls, see {@link StateCache}. */
+	final StateCache cache = new StateCache();
+
+	/** Cached uniform and attribute locations, see {@link LocationCache}. */
+	final LocationCache locations = new LocationCache();
+
 	StateTracker() {
 		attrib_stack = new StateStack(0);
 	}
@@ -148,6 +154,98 @@ final class StateTracker {
 			return caps.tracker.vaoMap.get(references.vertexArrayObject).elementArrayBuffer;
 	}
 
+	// -- StateCache hooks. The elide* methods return true if the call is redundant and can be skipped. --
+
+	static boolean elideBindTexture(final ContextCapabilities caps, final int target, final int texture) {
+		return caps.tracker.cache.bindTexture(target, texture);
+	}
+
+	static boolean elideActiveTexture(final ContextCapabilities caps, final int texture) {
+		return caps.tracker.cache.activeTexture(texture);
+	}
+
+	static boolean elideUseProgram(final ContextCapabilities caps, final int program) {
+		return caps.tracker.cache.useProgram(program);
+	}
+
+	static boolean elideEnable(final ContextCapabilities caps, final int cap) {
+		return caps.tracker.cache.setCap(cap, true);
+	}
+
+	static boolean elideDisable(final ContextCapabilities caps, final int cap) {
+		return caps.tracker.cache.setCap(cap, false);
+	}
+
+	static boolean elideViewport(final ContextCapabilities caps, final int x, final int y, final int width, final int height) {
+		return caps.tracker.cache.viewport(x, y, width, height);
+	}
+
+	static boolean elideBindFramebuffer(final ContextCapabilities caps, final int target, final int framebuffer) {
+		return caps.tracker.cache.bindFramebuffer(target, framebuffer);
+	}
+
+	static void deleteTextures(final ContextCapabilities caps, final IntBuffer textures) {
+		caps.tracker.cache.deleteTextures(textures);
+	}
+
+	static void deleteTexture(final ContextCapabilities caps, final int texture) {
+		caps.tracker.cache.deleteTexture(texture);
+	}
+
+	static void deleteFramebuffers(final ContextCapabilities caps, final IntBuffer framebuffers) {
+		caps.tracker.cache.deleteFramebuffers(framebuffers);
+	}
+
+	static void deleteFramebuffer(final ContextCapabilities caps, final int framebuffer) {
+		caps.tracker.cache.deleteFramebuffer(framebuffer);
+	}
+
+	static void beginList(final ContextCapabilities caps) {
+		caps.tracker.cache.beginList();
+	}
+
+	static void endList(final ContextCapabilities caps) {
+		caps.tracker.cache.endList();
+	}
+
+	/** Called after calls that may modify any cached state (e.g. glPopAttrib, glCallList). */
+	static void invalidateCache(final ContextCapabilities caps) {
+		caps.tracker.cache.reset();
+	}
+
+	static void invalidateTextures(final ContextCapabilities caps) {
+		caps.tracker.cache.invalidateTextures();
+	}
+
+	static void invalidateCap(final ContextCapabilities caps, final int cap) {
+		caps.tracker.cache.invalidateCap(cap);
+	}
+
+	static void invalidateViewport(final ContextCapabilities caps) {
+		caps.tracker.cache.invalidateViewport();
+	}
+
+	static int getUniformLocation(final ContextCapabilities caps, final int program, final CharSequence name) {
+		return caps.tracker.locations.getUniformLocation(program, name);
+	}
+
+	static void putUniformLocation(final ContextCapabilities caps, final int program, final CharSequence name, final int location) {
+		caps.tracker.locations.putUniformLocation(program, name, location);
+	}
+
+	static int getAttribLocation(final ContextCapabilities caps, final int program, final CharSequence name) {
+		return caps.tracker.locations.getAttribLocation(program, name);
+	}
+
+	static void putAttribLocation(final ContextCapabilities caps, final int program, final CharSequence name, final int location) {
+		caps.tracker.locations.putAttribLocation(program, name, location);
+	}
+
+	/** Called when a program is linked or deleted. */
+	static void invalidateLocations(final ContextCapabilities caps, final int program) {
+		caps.tracker.locations.invalidateProgram(program);
+	}
+
 	/**
 	 * Simple class to help us track VAO state. Currently
 	 * only ELEMENT_ARRAY_BUFFER_BINDING is tracked, since
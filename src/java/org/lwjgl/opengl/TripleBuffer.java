@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2002-2008 LWJGL Project
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'LWJGL' nor the names of
+ *   its contributors may be used to endorse or promote products derived
+ *   from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.lwjgl.opengl;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Wait-free exchange of a state snapshot between a single producer and a single
+ * consumer thread. The producer fills the back buffer and publishes it; the consumer
+ * picks up the latest published buffer. Neither side ever blocks or allocates, and the
+ * consumer never sees a partially written snapshot.
+ * <p/>
+ * A buffer handed back to the producer holds an older snapshot, so the producer must
+ * write the complete state before each publish().
+ */
+final class TripleBuffer<T> {
+
+	/** Flag set in middle when it holds a snapshot the consumer has not picked up yet */
+	private static final int FRESH = 4;
+	private static final int INDEX_MASK = 3;
+
+	private final Object[] buffers;
+	/** Index of the buffer in transit, or'ed with FRESH */
+	private final AtomicInteger middle = new AtomicInteger(1);
+
+	/** Owned by the producer */
+	private int back;
+	/** Owned by the consumer */
+	private int front = 2;
+
+	TripleBuffer(T first, T second, T third) {
+		this.buffers = new Object[] { first, second, third };
+	}
+
+	/** @return the buffer the producer writes the next snapshot to */
+	@SuppressWarnings("unchecked")
+	T getBack() {
+		return (T)buffers[back];
+	}
+
+	/** Publishes the back buffer. Must be called by the producer. */
+	void publish() {
+		back = middle.getAndSet(back | FRESH) & INDEX_MASK;
+	}
+
+	/** @return the most recently published snapshot. Must be called by the consumer. */
+	@SuppressWarnings("unchecked")
+	T getFront() {
+		if ( (middle.get() & FRESH) != 0 )
+			front = middle.getAndSet(front) & INDEX_MASK;
+		return (T)buffers[front];
+	}
+
+}
@@ -1,149 +1,168 @@
 /*
- * Copyright 2002-2004 The Apache Software Foundation.
+ * Copyright (c) 2002-2011 LWJGL Project
+ * All rights reserved.
  *
- * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
- * License. You may obtain a copy of the License at
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
  *
- * http://www.apache.org/licenses/LICENSE-2.0
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
  *
- * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS"
- * BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
- * governing permissions and limitations under the License.
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'LWJGL' nor the names of
+ *   its contributors may be used to endorse or promote products derived
+ *   from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
  */
 package org.lwjgl.opengles;
 
-import java.util.Iterator;
-
 /**
- * A hash map using primitive ints as keys rather than objects.
- *
- * @author Justin Couch
- * @author Alex Chaffee (alex@apache.org)
- * @author Stephen Colebourne
- * @author Nathan Sweet
+ * A hash map using primitive ints as keys rather than objects. It uses open addressing
+ * with linear probing, so unlike a HashMap it does not allocate an entry object per
+ * mapping. Null values are not supported. This class is not thread-safe.
  */
-final class FastIntMap<V> implements Iterable<FastIntMap.Entry<V>> {
+final class FastIntMap<V> {
 
-	private Entry[] table;
-	private int size, mask, capacity, threshold;
+	private int[]    keys;
+	private Object[] values;
 
-	/** Same as: FastIntMap(16, 0.75f); */
+	private int size, mask, threshold;
+
+	/** Same as: FastIntMap(16); */
 	FastIntMap() {
-		this(16, 0.75f);
+		this(16);
 	}
 
-	/** Same as: FastIntMap(initialCapacity, 0.75f); */
 	FastIntMap(int initialCapacity) {
-		this(initialCapacity, 0.75f);
-	}
-
-	FastIntMap(int initialCapacity, float loadFactor) {
-		if ( initialCapacity > 1 << 30 ) throw new IllegalArgumentException("initialCapacity is too large.");
+		if ( initialCapacity > 1 << 29 ) throw new IllegalArgumentException("initialCapacity is too large.");
 		if ( initialCapacity < 0 ) throw new IllegalArgumentException("initialCapacity must be greater than zero.");
-		if ( loadFactor <= 0 ) throw new IllegalArgumentException("initialCapacity must be greater than zero.");
-		capacity = 1;
-		while ( capacity < initialCapacity )
+
+		// Keep the load factor at or below 0.5, probe sequences stay short.
+		int capacity = 2;
+		while ( capacity < initialCapacity << 1 )
 			capacity <<= 1;
-		this.threshold = (int)(capacity * loadFactor);
-		this.table = new Entry[capacity];
-		this.mask = capacity - 1;
+		allocate(capacity);
 	}
 
-	private int index(final int key) {
-		return index(key, mask);
+	private void allocate(final int capacity) {
+		keys = new int[capacity];
+		values = new Object[capacity];
+		mask = capacity - 1;
+		threshold = capacity >> 1;
 	}
 
 	private static int index(final int key, final int mask) {
-		return key & mask;
+		final int hash = key * 0x9E3779B9;
+		return (hash ^ (hash >>> 16)) & mask;
 	}
 
-	public V put(int key, V value) {
-		final Entry<V>[] table = this.table;
-		int index = index(key);
+	public V put(final int key, final V value) {
+		if ( value == null ) throw new NullPointerException();
 
-		// Check if key already exists.
-		for ( Entry<V> e = table[index]; e != null; e = e.next ) {
-			if ( e.key != key ) continue;
-			V oldValue = e.value;
-			e.value = value;
-			return oldValue;
-		}
+		final int[] keys = this.keys;
+		final Object[] values = this.values;
 
-		table[index] = new Entry<V>(key, value, table[index]);
+		int index = index(key, mask);
+		for ( Object v; (v = values[index]) != null; index = (index + 1) & mask ) {
+			if ( keys[index] == key ) {
+				values[index] = value;
+				return (V)v;
+			}
+		}
 
-		if ( size++ >= threshold )
-			rehash(table);
+		keys[index] = key;
+		values[index] = value;
+		if ( ++size > threshold )
+			rehash();
 
 		return null;
 	}
 
-	private void rehash(final Entry<V>[] table) {
-		final int newCapacity = 2 * capacity;
-		final int newMask = newCapacity - 1;
-
-		final Entry<V>[] newTable = new Entry[newCapacity];
-
-		for ( int i = 0, index; i < table.length; i++ ) {
-			Entry<V> e = table[i];
-			if ( e == null ) continue;
-			do {
-				final Entry<V> next = e.next;
-				index = index(e.key, newMask);
-				e.next = newTable[index];
-				newTable[index] = e;
-				e = next;
-			} while ( e != null );
-		}
+	private void rehash() {
+		final int[] oldKeys = keys;
+		final Object[] oldValues = values;
 
-		this.table = newTable;
-		capacity = newCapacity;
-		mask = newMask;
-		threshold *= 2;
-	}
+		allocate(oldKeys.length << 1);
+		for ( int i = 0; i < oldKeys.length; i++ ) {
+			final Object value = oldValues[i];
+			if ( value == null )
+				continue;
 
-	public V get(int key) {
-		final int index = index(key);
-		for ( Entry<V> e = table[index]; e != null; e = e.next )
-			if ( e.key == key ) return e.value;
-		return null;
+			int index = index(oldKeys[i], mask);
+			while ( values[index] != null )
+				index = (index + 1) & mask;
+			keys[index] = oldKeys[i];
+			values[index] = value;
+		}
 	}
 
-	public boolean containsValue(Object value) {
-		final Entry<V>[] table = this.table;
-		for ( int i = table.length - 1; i >= 0; i-- )
-			for ( Entry<V> e = table[i]; e != null; e = e.next )
-				if ( e.value.equals(value) ) return true;
-		return false;
+	public V get(final int key) {
+		final int[] keys = this.keys;
+		final Object[] values = this.values;
+
+		int index = index(key, mask);
+		for ( Object v; (v = values[index]) != null; index = (index + 1) & mask ) {
+			if ( keys[index] == key )
+				return (V)v;
+		}
+		return null;
 	}
 
-	public boolean containsKey(int key) {
-		final int index = index(key);
-		for ( Entry<V> e = table[index]; e != null; e = e.next )
-			if ( e.key == key ) return true;
-		return false;
+	public boolean containsKey(final int key) {
+		return get(key) != null;
 	}
 
-	public V remove(int key) {
-		final int index = index(key);
+	public V remove(final int key) {
+		final int[] keys = this.keys;
+		final Object[] values = this.values;
 
-		Entry<V> prev = table[index];
-		Entry<V> e = prev;
-		while ( e != null ) {
-			Entry<V> next = e.next;
-			if ( e.key == key ) {
+		int index = index(key, mask);
+		for ( Object v; (v = values[index]) != null; index = (index + 1) & mask ) {
+			if ( keys[index] == key ) {
 				size--;
-				if ( prev == e )
-					table[index] = next;
-				else
-					prev.next = next;
-				return e.value;
+				shift(index);
+				return (V)v;
 			}
-			prev = e;
-			e = next;
 		}
 		return null;
 	}
 
+	/** Closes the gap left by a removed mapping, so that get does not need tombstones. */
+	private void shift(int gap) {
+		final int[] keys = this.keys;
+		final Object[] values = this.values;
+
+		for ( int index = (gap + 1) & mask; ; index = (index + 1) & mask ) {
+			final Object value = values[index];
+			if ( value == null )
+				break;
+
+			// Move the mapping to the gap, unless its probe sequence starts after the gap
+			final int distance = (index - index(keys[index], mask)) & mask;
+			if ( ((index - gap) & mask) <= distance ) {
+				keys[gap] = keys[index];
+				values[gap] = value;
+				gap = index;
+			}
+		}
+		values[gap] = null;
+	}
+
 	public int size() {
 		return size;
 	}
@@ -153,86 +172,10 @@ final class FastIntMap<V> implements Iterable<FastIntMap.Entry<V>> {
 	}
 
 	public void clear() {
-		final Entry<V>[] table = this.table;
-		for ( int index = table.length - 1; index >= 0; index-- )
-			table[index] = null;
+		final Object[] values = this.values;
+		for ( int i = 0; i < values.length; i++ )
+			values[i] = null;
 		size = 0;
 	}
 
-	public EntryIterator iterator() {
-		return new EntryIterator();
-	}
-
-	public class EntryIterator implements Iterator<Entry<V>> {
-
-		private int nextIndex;
-		private Entry<V> current;
-
-		EntryIterator() {
-			reset();
-		}
-
-		public void reset() {
-			current = null;
-			// Find first bucket.
-			final Entry<V>[] table = FastIntMap.this.table;
-			int i;
-			for ( i = table.length - 1; i >= 0; i-- )
-				if ( table[i] != null ) break;
-			nextIndex = i;
-		}
-
-		public boolean hasNext() {
-			if ( nextIndex >= 0 ) return true;
-			Entry e = current;
-			return e != null && e.next != null;
-		}
-
-		public Entry<V> next() {
-			// Next entry in current bucket.
-			Entry<V> e = current;
-			if ( e != null ) {
-				e = e.next;
-				if ( e != null ) {
-					current = e;
-					return e;
-				}
-			}
-			// Use the bucket at nextIndex and find the next nextIndex.
-			final Entry<V>[] table = FastIntMap.this.table;
-			int i = nextIndex;
-			e = current = table[i];
-			while ( --i >= 0 )
-				if ( table[i] != null ) break;
-			nextIndex = i;
-			return e;
-		}
-
-		public void remove() {
-			FastIntMap.this.remove(current.key);
-		}
-	}
-
-	static final class Entry<T> {
-
-		final int key;
-		T value;
-		Entry<T> next;
-
-		Entry(int key, T value, Entry<T> next) {
-			this.key = key;
-			this.value = value;
-			this.next = next;
-		}
-
-		public int getKey() {
-			return key;
-		}
-
-		public T getValue() {
-			return value;
-		}
-
-	}
-
-}
\ No newline at end of file
+}
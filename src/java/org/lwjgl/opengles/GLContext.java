@@ -258,6 +258,9 @@ public final class GLContext {
 			did_auto_load = true;
 		}
 
+		// The cached state belongs to the previous context
+		StateTracker.getTracker().cache.reset();
+
 		try {
 			ContextCapabilities capabilities = capability_cache.get(context);
 			if ( capabilities == null ) {
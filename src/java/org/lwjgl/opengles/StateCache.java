@@ -0,0 +1,411 @@
+/*
+ * Copyright (c) 2002-2008 LWJGL Project
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'LWJGL' nor the names of
+ *   its contributors may be used to endorse or promote products derived
+ *   from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.lwjgl.opengles;
+
+import org.lwjgl.LWJGLUtil;
+
+import java.nio.IntBuffer;
+
+import static org.lwjgl.opengles.GLES20.*;
+import static org.lwjgl.opengles.GLES30.*;
+
+/**
+ * Shadows a small set of frequently changed OpenGL ES state and lets the generated
+ * bindings skip calls that would not change it. Every skipped call saves a driver
+ * round-trip, which is significant on EGL implementations. The cache is disabled
+ * by default; it can be enabled with the org.lwjgl.opengles.StateCache system
+ * property or with {@link #setEnabled(boolean)}. It is discarded when the current
+ * context changes.
+ * <p/>
+ * The following calls are elided when redundant: glBindTexture (per unit and target),
+ * glActiveTexture, glUseProgram, glEnable/glDisable of GL_BLEND, GL_DEPTH_TEST and
+ * GL_CULL_FACE, glViewport and glBindFramebuffer. The cache only sees state changed
+ * through LWJGL. If the state is modified in any other way (e.g. by a native library
+ * sharing the context), or a tracked call fails with a GL error, {@link #invalidate()}
+ * must be called before the next tracked call.
+ * <p/>
+ * Deleting a texture only updates the cache of the context it is deleted in. When
+ * texture objects are shared between contexts, a texture deleted in one context
+ * must be invalidated in the others with {@link #invalidateTexture(int)}, before
+ * its name can be reused there.
+ */
+public final class StateCache {
+
+	/** Function indices, for use with {@link #getSkipCount(int)}. */
+	public static final int
+		BIND_TEXTURE = 0,
+		ACTIVE_TEXTURE = 1,
+		USE_PROGRAM = 2,
+		ENABLE = 3,
+		DISABLE = 4,
+		VIEWPORT = 5,
+		BIND_FRAMEBUFFER = 6;
+
+	private static final String[] FUNCTION_NAMES = {
+		"glBindTexture",
+		"glActiveTexture",
+		"glUseProgram",
+		"glEnable",
+		"glDisable",
+		"glViewport",
+		"glBindFramebuffer"
+	};
+
+	private static final boolean DEFAULT_ENABLED = LWJGLUtil.getPrivilegedBoolean("org.lwjgl.opengles.StateCache");
+
+	/** Marks a cached object name as unknown. */
+	private static final int UNKNOWN = -1;
+
+	/** Texture targets tracked per unit. */
+	private static final int TEXTURE_TARGETS = 5;
+
+	/** Units above this limit are never cached. */
+	private static final int MAX_TEXTURE_UNITS = 256;
+
+	private static final int
+		CAP_BLEND = 0,
+		CAP_DEPTH_TEST = 1,
+		CAP_CULL_FACE = 2;
+
+	private final long[] skips = new long[FUNCTION_NAMES.length];
+
+	private boolean enabled = DEFAULT_ENABLED;
+
+	private int activeTexture;
+	private int[] textures = new int[8 * TEXTURE_TARGETS];
+
+	private int program;
+
+	/** -1: unknown, 0: disabled, 1: enabled. */
+	private final byte[] caps = new byte[3];
+
+	private boolean viewportValid;
+	private int viewportX;
+	private int viewportY;
+	private int viewportWidth;
+	private int viewportHeight;
+
+	private int drawFramebuffer;
+	private int readFramebuffer;
+
+	StateCache() {
+		reset();
+	}
+
+	private static StateCache getCache() {
+		return StateTracker.getTracker().cache;
+	}
+
+	/**
+	 * Returns true if redundant state elimination is enabled.
+	 *
+	 * @return true if the state cache is enabled
+	 */
+	public static boolean isEnabled() {
+		return getCache().enabled;
+	}
+
+	/**
+	 * Enables or disables redundant state elimination. When disabled,
+	 * every call is passed through to the driver. The cached state is discarded either way.
+	 *
+	 * @param enabled the new state
+	 */
+	public static void setEnabled(final boolean enabled) {
+		final StateCache cache = getCache();
+		cache.enabled = enabled;
+		cache.reset();
+	}
+
+	/** Discards the cached state. The next call to each tracked function will reach the driver. */
+	public static void invalidate() {
+		getCache().reset();
+	}
+
+	/**
+	 * Discards the cached bindings of the specified texture in the current context, in every unit.
+	 * The next glBindTexture of any texture to a target it was bound to will reach the driver.
+	 *
+	 * @param texture the texture object
+	 */
+	public static void invalidateTexture(final int texture) {
+		getCache().replaceTexture(texture, UNKNOWN);
+	}
+
+	/**
+	 * Returns the number of calls skipped since the last reset.
+	 *
+	 * @param function the function index, one of the constants in this class
+	 *
+	 * @return the skip count
+	 */
+	public static long getSkipCount(final int function) {
+		return getCache().skips[function];
+	}
+
+	/**
+	 * Returns the total number of calls skipped since the last reset.
+	 *
+	 * @return the skip count
+	 */
+	public static long getSkipCount() {
+		long count = 0;
+		for ( long skip : getCache().skips )
+			count += skip;
+		return count;
+	}
+
+	/**
+	 * Returns the name of the specified function index.
+	 *
+	 * @param function the function index, one of the constants in this class
+	 *
+	 * @return the function name
+	 */
+	public static String getFunctionName(final int function) {
+		return FUNCTION_NAMES[function];
+	}
+
+	/** Returns the number of function indices. */
+	public static int getFunctionCount() {
+		return FUNCTION_NAMES.length;
+	}
+
+	/** Resets the skip counters. */
+	public static void resetSkipCounts() {
+		final long[] skips = getCache().skips;
+		for ( int i = 0; i < skips.length; i++ )
+			skips[i] = 0;
+	}
+
+	void reset() {
+		activeTexture = UNKNOWN;
+		for ( int i = 0; i < textures.length; i++ )
+			textures[i] = UNKNOWN;
+
+		program = UNKNOWN;
+
+		for ( int i = 0; i < caps.length; i++ )
+			caps[i] = -1;
+
+		viewportValid = false;
+
+		drawFramebuffer = UNKNOWN;
+		readFramebuffer = UNKNOWN;
+	}
+
+	private boolean isActive() {
+		return enabled;
+	}
+
+	private boolean skip(final int function) {
+		skips[function]++;
+		return true;
+	}
+
+	private static int getTextureTargetIndex(final int target) {
+		switch ( target ) {
+			case GL_TEXTURE_2D:
+				return 0;
+			case GL_TEXTURE_CUBE_MAP:
+				return 1;
+			case GL_TEXTURE_3D:
+				return 2;
+			case GL_TEXTURE_2D_ARRAY:
+				return 3;
+			case OESEGLImageExternal.GL_TEXTURE_EXTERNAL_OES:
+				return 4;
+			default:
+				return -1;
+		}
+	}
+
+	private static int getCapIndex(final int cap) {
+		switch ( cap ) {
+			case GL_BLEND:
+				return CAP_BLEND;
+			case GL_DEPTH_TEST:
+				return CAP_DEPTH_TEST;
+			case GL_CULL_FACE:
+				return CAP_CULL_FACE;
+			default:
+				return -1;
+		}
+	}
+
+	boolean bindTexture(final int target, final int texture) {
+		if ( !isActive() )
+			return false;
+
+		final int unit = activeTexture;
+		final int targetIndex = getTextureTargetIndex(target);
+		if ( unit == UNKNOWN || targetIndex == -1 )
+			return false;
+
+		final int index = unit * TEXTURE_TARGETS + targetIndex;
+		if ( textures.length <= index ) {
+			final int[] newTextures = new int[(unit + 1) * 2 * TEXTURE_TARGETS];
+			System.arraycopy(textures, 0, newTextures, 0, textures.length);
+			for ( int i = textures.length; i < newTextures.length; i++ )
+				newTextures[i] = UNKNOWN;
+			textures = newTextures;
+		}
+
+		if ( textures[index] == texture && texture != UNKNOWN )
+			return skip(BIND_TEXTURE);
+
+		textures[index] = texture;
+		return false;
+	}
+
+	boolean activeTexture(final int texture) {
+		if ( !isActive() )
+			return false;
+
+		final int unit = texture - GL_TEXTURE0;
+		if ( unit < 0 || MAX_TEXTURE_UNITS <= unit ) {
+			activeTexture = UNKNOWN;
+			return false;
+		}
+
+		if ( activeTexture == unit )
+			return skip(ACTIVE_TEXTURE);
+
+		activeTexture = unit;
+		return false;
+	}
+
+	boolean useProgram(final int program) {
+		if ( !isActive() )
+			return false;
+
+		if ( this.program == program && program != UNKNOWN )
+			return skip(USE_PROGRAM);
+
+		this.program = program;
+		return false;
+	}
+
+	boolean setCap(final int cap, final boolean state) {
+		if ( !isActive() )
+			return false;
+
+		final int index = getCapIndex(cap);
+		if ( index == -1 )
+			return false;
+
+		final byte value = state ? (byte)1 : (byte)0;
+		if ( caps[index] == value )
+			return skip(state ? ENABLE : DISABLE);
+
+		caps[index] = value;
+		return false;
+	}
+
+	boolean viewport(final int x, final int y, final int width, final int height) {
+		if ( !isActive() )
+			return false;
+
+		if ( viewportValid && viewportX == x && viewportY == y && viewportWidth == width && viewportHeight == height )
+			return skip(VIEWPORT);
+
+		viewportValid = true;
+		viewportX = x;
+		viewportY = y;
+		viewportWidth = width;
+		viewportHeight = height;
+		return false;
+	}
+
+	boolean bindFramebuffer(final int target, final int framebuffer) {
+		if ( !isActive() )
+			return false;
+
+		switch ( target ) {
+			case GL_FRAMEBUFFER:
+				if ( drawFramebuffer == framebuffer && readFramebuffer == framebuffer && framebuffer != UNKNOWN )
+					return skip(BIND_FRAMEBUFFER);
+				drawFramebuffer = framebuffer;
+				readFramebuffer = framebuffer;
+				return false;
+			case GL_DRAW_FRAMEBUFFER:
+				if ( drawFramebuffer == framebuffer && framebuffer != UNKNOWN )
+					return skip(BIND_FRAMEBUFFER);
+				drawFramebuffer = framebuffer;
+				return false;
+			case GL_READ_FRAMEBUFFER:
+				if ( readFramebuffer == framebuffer && framebuffer != UNKNOWN )
+					return skip(BIND_FRAMEBUFFER);
+				readFramebuffer = framebuffer;
+				return false;
+			default:
+				return false;
+		}
+	}
+
+	/** Deleting a bound texture reverts the binding to zero, in every unit. */
+	void deleteTexture(final int texture) {
+		replaceTexture(texture, 0);
+	}
+
+	private void replaceTexture(final int texture, final int replacement) {
+		if ( texture == 0 || texture == UNKNOWN )
+			return;
+
+		for ( int i = 0; i < textures.length; i++ ) {
+			if ( textures[i] == texture )
+				textures[i] = replacement;
+		}
+	}
+
+	void deleteTextures(final IntBuffer textures) {
+		for ( int i = textures.position(); i < textures.limit(); i++ )
+			deleteTexture(textures.get(i));
+	}
+
+	/** Deleting a bound framebuffer reverts the binding to zero. */
+	void deleteFramebuffer(final int framebuffer) {
+		if ( framebuffer == 0 || framebuffer == UNKNOWN )
+			return;
+
+		if ( drawFramebuffer == framebuffer )
+			drawFramebuffer = 0;
+		if ( readFramebuffer == framebuffer )
+			readFramebuffer = 0;
+	}
+
+	void deleteFramebuffers(final IntBuffer framebuffers) {
+		for ( int i = framebuffers.position(); i < framebuffers.limit(); i++ )
+			deleteFramebuffer(framebuffers.get(i));
+	}
+
+}
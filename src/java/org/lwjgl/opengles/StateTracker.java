@@ -52,6 +52,9 @@ final class StateTracker {
 
 	int vertexArrayObject;
 
+	/** Shadow state used to elide redundant calls, see {@link StateCache}. */
+	final StateCache cache = new StateCache();
+
 	StateTracker() {
 	}
 
@@ -102,6 +105,52 @@ final class StateTracker {
 			tracker.vertexArrayObject = 0;
 	}
 
+	// -- StateCache hooks. The elide* methods return true if the call is redundant and can be skipped. --
+
+	static boolean elideBindTexture(final int target, final int texture) {
+		return tracker.cache.bindTexture(target, texture);
+	}
+
+	static boolean elideActiveTexture(final int texture) {
+		return tracker.cache.activeTexture(texture);
+	}
+
+	static boolean elideUseProgram(final int program) {
+		return tracker.cache.useProgram(program);
+	}
+
+	static boolean elideEnable(final int cap) {
+		return tracker.cache.setCap(cap, true);
+	}
+
+	static boolean elideDisable(final int cap) {
+		return tracker.cache.setCap(cap, false);
+	}
+
+	static boolean elideViewport(final int x, final int y, final int width, final int height) {
+		return tracker.cache.viewport(x, y, width, height);
+	}
+
+	static boolean elideBindFramebuffer(final int target, final int framebuffer) {
+		return tracker.cache.bindFramebuffer(target, framebuffer);
+	}
+
+	static void deleteTextures(final IntBuffer textures) {
+		tracker.cache.deleteTextures(textures);
+	}
+
+	static void deleteTexture(final int texture) {
+		tracker.cache.deleteTexture(texture);
+	}
+
+	static void deleteFramebuffers(final IntBuffer framebuffers) {
+		tracker.cache.deleteFramebuffers(framebuffers);
+	}
+
+	static void deleteFramebuffer(final int framebuffer) {
+		tracker.cache.deleteFramebuffer(framebuffer);
+	}
+
 	/**
 	 * Simple class to help us track VAO state. Currently
 	 * only ELEMENT_ARRAY_BUFFER_BINDING is tracked, since
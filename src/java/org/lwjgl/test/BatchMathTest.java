@@ -0,0 +1,208 @@
+/*
+ * Copyright (c) 2002-2008 LWJGL Project
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'LWJGL' nor the names of
+ *   its contributors may be used to endorse or promote products derived
+ *   from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.lwjgl.test;
+
+import java.nio.FloatBuffer;
+import java.util.Random;
+
+import org.lwjgl.BufferUtils;
+import org.lwjgl.util.vector.BatchMath;
+import org.lwjgl.util.vector.Matrix4f;
+import org.lwjgl.util.vector.Quaternion;
+import org.lwjgl.util.vector.Vector3f;
+import org.lwjgl.util.vector.Vector4f;
+
+/**
+ * Headless test checking the BatchMath operations against Matrix4f.mul, Matrix4f.transform and
+ * Matrix4f.rotate, with separate and in-place destination buffers. The element count spans
+ * several chunks and the buffers start at a non-zero position.
+ */
+public class BatchMathTest {
+
+	private static final int COUNT = 1000;
+	private static final int OFFSET = 3;
+	private static final float EPSILON = 1e-4f;
+
+	private static final Random random = new Random(1234);
+
+	private static int failures;
+
+	public static void main(String[] args) {
+		final Matrix4f matrix = randomMatrix();
+		final FloatBuffer matrixBuffer = BufferUtils.createFloatBuffer(16);
+		matrix.store(matrixBuffer);
+		matrixBuffer.flip();
+
+		final Matrix4f[] left = new Matrix4f[COUNT];
+		final Matrix4f[] right = new Matrix4f[COUNT];
+		final Vector4f[] vectors = new Vector4f[COUNT];
+		final float[] angles = new float[COUNT];
+		final Vector3f[] axes = new Vector3f[COUNT];
+		final Quaternion[] quaternions = new Quaternion[COUNT];
+		for ( int i = 0; i < COUNT; i++ ) {
+			left[i] = randomMatrix();
+			right[i] = randomMatrix();
+			vectors[i] = new Vector4f(randomFloat(), randomFloat(), randomFloat(), randomFloat());
+
+			angles[i] = random.nextFloat() * 2.0f * (float)Math.PI;
+			axes[i] = new Vector3f(randomFloat(), randomFloat(), randomFloat());
+			axes[i].normalise();
+			quaternions[i] = new Quaternion();
+			quaternions[i].setFromAxisAngle(new Vector4f(axes[i].x, axes[i].y, axes[i].z, angles[i]));
+		}
+
+		for ( int pass = 0; pass < 2; pass++ ) {
+			final boolean inPlace = pass == 1;
+			final String mode = inPlace ? " (in place)" : "";
+
+			// transform4
+			FloatBuffer src = createBuffer(4);
+			for ( Vector4f v : vectors )
+				v.store(src);
+			src.position(OFFSET);
+			FloatBuffer dest = inPlace ? src : createBuffer(4);
+			BatchMath.transform4(matrixBuffer, src, dest, COUNT);
+			checkPositions("transform4" + mode, src, dest);
+			for ( int i = 0; i < COUNT; i++ ) {
+				final Vector4f expected = Matrix4f.transform(matrix, vectors[i], null);
+				check("transform4" + mode, i, new float[] { expected.x, expected.y, expected.z, expected.w }, dest, 4);
+			}
+
+			// transform3
+			src = createBuffer(3);
+			for ( Vector4f v : vectors )
+				src.put(v.x).put(v.y).put(v.z);
+			src.position(OFFSET);
+			dest = inPlace ? src : createBuffer(3);
+			BatchMath.transform3(matrixBuffer, src, dest, COUNT);
+			checkPositions("transform3" + mode, src, dest);
+			for ( int i = 0; i < COUNT; i++ ) {
+				final Vector4f expected = Matrix4f.transform(matrix, new Vector4f(vectors[i].x, vectors[i].y, vectors[i].z, 1.0f), null);
+				check("transform3" + mode, i, new float[] { expected.x, expected.y, expected.z }, dest, 3);
+			}
+
+			// mul
+			final FloatBuffer leftBuffer = createBuffer(16);
+			final FloatBuffer rightBuffer = createBuffer(16);
+			for ( int i = 0; i < COUNT; i++ ) {
+				left[i].store(leftBuffer);
+				right[i].store(rightBuffer);
+			}
+			leftBuffer.position(OFFSET);
+			rightBuffer.position(OFFSET);
+			dest = inPlace ? rightBuffer : createBuffer(16);
+			BatchMath.mul(leftBuffer, rightBuffer, dest, COUNT);
+			checkPositions("mul" + mode, rightBuffer, dest);
+			for ( int i = 0; i < COUNT; i++ )
+				check("mul" + mode, i, toArray(Matrix4f.mul(left[i], right[i], null)), dest, 16);
+
+			// mulLeft
+			src = createBuffer(16);
+			for ( Matrix4f m : right )
+				m.store(src);
+			src.position(OFFSET);
+			dest = inPlace ? src : createBuffer(16);
+			BatchMath.mulLeft(matrixBuffer, src, dest, COUNT);
+			checkPositions("mulLeft" + mode, src, dest);
+			for ( int i = 0; i < COUNT; i++ )
+				check("mulLeft" + mode, i, toArray(Matrix4f.mul(matrix, right[i], null)), dest, 16);
+
+			// toMatrix, the destination is 4 times larger than the source
+			src = createBuffer(16);
+			for ( Quaternion q : quaternions )
+				q.store(src);
+			src.position(OFFSET);
+			dest = inPlace ? src : createBuffer(16);
+			BatchMath.toMatrix(src, dest, COUNT);
+			checkPositions("toMatrix" + mode, src, dest);
+			for ( int i = 0; i < COUNT; i++ )
+				check("toMatrix" + mode, i, toArray(new Matrix4f().rotate(angles[i], axes[i])), dest, 16);
+		}
+
+		if ( failures != 0 ) {
+			System.err.println(failures + " failures");
+			System.exit(1);
+		}
+		System.out.println("All batch operations match");
+	}
+
+	private static float randomFloat() {
+		return random.nextFloat() * 2.0f - 1.0f;
+	}
+
+	private static Matrix4f randomMatrix() {
+		final FloatBuffer buffer = BufferUtils.createFloatBuffer(16);
+		for ( int i = 0; i < 16; i++ )
+			buffer.put(randomFloat());
+		buffer.flip();
+
+		final Matrix4f matrix = new Matrix4f();
+		matrix.load(buffer);
+		return matrix;
+	}
+
+	/** Returns a buffer for COUNT elements of the specified stride, positioned at OFFSET. */
+	private static FloatBuffer createBuffer(final int stride) {
+		final FloatBuffer buffer = BufferUtils.createFloatBuffer(OFFSET + COUNT * stride);
+		buffer.position(OFFSET);
+		return buffer;
+	}
+
+	private static float[] toArray(final Matrix4f matrix) {
+		final FloatBuffer buffer = BufferUtils.createFloatBuffer(16);
+		matrix.store(buffer);
+
+		final float[] array = new float[16];
+		buffer.flip();
+		buffer.get(array);
+		return array;
+	}
+
+	private static void checkPositions(final String operation, final FloatBuffer src, final FloatBuffer dest) {
+		if ( src.position() != OFFSET || dest.position() != OFFSET ) {
+			System.err.println(operation + ": buffer positions modified");
+			failures++;
+		}
+	}
+
+	private static void check(final String operation, final int index, final float[] expected, final FloatBuffer dest, final int stride) {
+		for ( int i = 0; i < expected.length; i++ ) {
+			final float actual = dest.get(OFFSET + index * stride + i);
+			if ( EPSILON < Math.abs(expected[i] - actual) ) {
+				System.err.println(operation + " #" + index + "[" + i + "]: expected " + expected[i] + ", got " + actual);
+				failures++;
+				return;
+			}
+		}
+	}
+
+}
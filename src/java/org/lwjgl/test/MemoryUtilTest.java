@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2002-2008 LWJGL Project
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'LWJGL' nor the names of
+ *   its contributors may be used to endorse or promote products derived
+ *   from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.lwjgl.test;
+
+import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
+
+import org.lwjgl.BufferUtils;
+import org.lwjgl.MemoryUtil;
+
+/**
+ * Headless test checking MemoryUtil.encodeASCII and MemoryUtil.encodeUTF8 against
+ * String.getBytes, for direct and heap target buffers, at aligned and unaligned positions.
+ * Also checks that empty allocations can be freed.
+ */
+public class MemoryUtilTest {
+
+	private static final String[] TEXTS = {
+		"",
+		"a",
+		"hello world",
+		"glGetUniformLocation_with_a_longer_name",
+		"caf\u00E9 \u00FCber",
+		"\u0394\u03B5\u03BB\u03C4\u03B1 \u20AC \u65E5\u672C",
+		"\uD83D\uDE00 surrogate pair",
+	};
+
+	private static int failures;
+
+	public static void main(String[] args) throws UnsupportedEncodingException {
+		int count = 0;
+		for ( String text : TEXTS ) {
+			for ( int position = 0; position < 9; position++ ) {
+				final byte[] ascii = getBytesLatin1(text);
+				final byte[] utf8 = (text + '\0').getBytes("UTF-8");
+
+				checkASCII(text, BufferUtils.createByteBuffer(position + ascii.length), position, ascii);
+				checkASCII(text, ByteBuffer.allocate(position + ascii.length), position, ascii);
+				checkUTF8(text, BufferUtils.createByteBuffer(position + utf8.length), position, utf8);
+				checkUTF8(text, ByteBuffer.allocate(position + utf8.length), position, utf8);
+				count += 4;
+			}
+		}
+
+		// Unencodable characters are replaced, not rejected
+		check("ASCII replacement", "a?b\0", MemoryUtil.encodeASCII("a\u20ACb"));
+		check("UTF-8 replacement", "a?b\0", MemoryUtil.encodeUTF8("a\uD800b"));
+
+		// Empty allocations own no memory, so freeing them must not free memory owned by the JVM
+		for ( int i = 0; i < 1000; i++ ) {
+			checkEmpty("memAlloc(0)", MemoryUtil.memAlloc(0));
+			checkEmpty("memCalloc(0)", MemoryUtil.memCalloc(0));
+			checkEmpty("memRealloc(null, 0)", MemoryUtil.memRealloc(null, 0));
+			checkEmpty("memRealloc(buffer, 0)", MemoryUtil.memRealloc(MemoryUtil.memAlloc(16), 0));
+		}
+
+		if ( failures != 0 ) {
+			System.err.println(failures + " failures");
+			System.exit(1);
+		}
+		System.out.println("All " + count + " encodings match");
+	}
+
+	/** Like String.getBytes("ISO-8859-1"), but replaces each unmappable char, not each code point, and null-terminates. */
+	private static byte[] getBytesLatin1(final String text) {
+		final byte[] bytes = new byte[text.length() + 1];
+		for ( int i = 0; i < text.length(); i++ ) {
+			final char c = text.charAt(i);
+			bytes[i] = c <= 0xFF ? (byte)c : (byte)'?';
+		}
+		return bytes;
+	}
+
+	private static void checkEmpty(final String what, final ByteBuffer buffer) {
+		if ( buffer == null || buffer.capacity() != 0 || MemoryUtil.getAddress0(buffer) != 0L ) {
+			System.err.println(what + ": expected an empty buffer at address 0, got " + buffer + (buffer == null ? "" : " at 0x" + Long.toHexString(MemoryUtil.getAddress0(buffer))));
+			failures++;
+			return;
+		}
+		MemoryUtil.memFree(buffer);
+	}
+
+	private static void checkASCII(final String text, final ByteBuffer target, final int position, final byte[] expected) {
+		final int bytes = MemoryUtil.encodeASCII(text, true, target, position);
+		check("ASCII", text, target, position, bytes, expected);
+	}
+
+	private static void checkUTF8(final String text, final ByteBuffer target, final int position, final byte[] expected) {
+		if ( MemoryUtil.getLengthUTF8(text) != expected.length - 1 ) {
+			System.err.println("UTF-8 length of \"" + text + "\": expected " + (expected.length - 1) + ", got " + MemoryUtil.getLengthUTF8(text));
+			failures++;
+		}
+		final int bytes = MemoryUtil.encodeUTF8(text, true, target, position);
+		check("UTF-8", text, target, position, bytes, expected);
+	}
+
+	private static void check(final String encoding, final String text, final ByteBuffer target, final int position, final int bytes, final byte[] expected) {
+		final String kind = target.isDirect() ? "direct" : "heap";
+		if ( target.position() != 0 || target.limit() != target.capacity() ) {
+			System.err.println(encoding + " \"" + text + "\" (" + kind + ", " + position + "): buffer position or limit modified");
+			failures++;
+		}
+		if ( bytes != expected.length ) {
+			System.err.println(encoding + " \"" + text + "\" (" + kind + ", " + position + "): expected " + expected.length + " bytes, got " + bytes);
+			failures++;
+			return;
+		}
+		for ( int i = 0; i < expected.length; i++ ) {
+			if ( target.get(position + i) != expected[i] ) {
+				System.err.println(encoding + " \"" + text + "\" (" + kind + ", " + position + "): mismatch at byte " + i);
+				failures++;
+				return;
+			}
+		}
+	}
+
+	private static void check(final String encoding, final String expected, final ByteBuffer buffer) {
+		for ( int i = 0; i < expected.length(); i++ ) {
+			if ( buffer.get(i) != (byte)expected.charAt(i) ) {
+				System.err.println(encoding + ": mismatch at byte " + i);
+				failures++;
+				return;
+			}
+		}
+	}
+
+}
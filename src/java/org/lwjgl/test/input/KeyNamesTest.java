@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2002-2008 LWJGL Project
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'LWJGL' nor the names of
+ *   its contributors may be used to endorse or promote products derived
+ *   from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.lwjgl.test.input;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+
+import org.lwjgl.input.Keyboard;
+
+/**
+ * Headless test checking Keyboard.getKeyName() and Keyboard.getKeyIndex() against the
+ * public KEY_ constants found by reflection, for every key code.
+ */
+public class KeyNamesTest {
+
+	public static void main(String[] args) {
+		String[] names = new String[Keyboard.KEYBOARD_SIZE];
+		int count = 0;
+		try {
+			for ( Field field : Keyboard.class.getFields() ) {
+				int modifiers = field.getModifiers();
+				if ( Modifier.isStatic(modifiers) && Modifier.isFinal(modifiers)
+				     && field.getType() == int.class
+				     && field.getName().startsWith("KEY_")
+				     && !field.getName().endsWith("WIN") ) {
+					names[field.getInt(null)] = field.getName().substring(4);
+					count++;
+				}
+			}
+		} catch (IllegalAccessException e) {
+			throw new RuntimeException(e);
+		}
+
+		int failures = 0;
+		for ( int key = 0; key < Keyboard.KEYBOARD_SIZE; key++ ) {
+			String name = Keyboard.getKeyName(key);
+			if ( names[key] == null ? name != null : !names[key].equals(name) ) {
+				System.err.println("Key " + key + ": expected name " + names[key] + ", got " + name);
+				failures++;
+			}
+			if ( names[key] != null && Keyboard.getKeyIndex(names[key]) != key ) {
+				System.err.println("Key " + names[key] + ": expected index " + key + ", got " + Keyboard.getKeyIndex(names[key]));
+				failures++;
+			}
+		}
+		if ( Keyboard.getKeyIndex("NOT_A_KEY") != Keyboard.KEY_NONE ) {
+			System.err.println("Unknown key name not mapped to KEY_NONE");
+			failures++;
+		}
+		if ( Keyboard.getKeyCount() != count ) {
+			System.err.println("Expected " + count + " keys, got " + Keyboard.getKeyCount());
+			failures++;
+		}
+
+		if ( failures != 0 ) {
+			System.err.println(failures + " failures");
+			System.exit(1);
+		}
+		System.out.println("All " + count + " key names match");
+	}
+
+}
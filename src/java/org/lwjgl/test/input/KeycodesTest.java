@@ -0,0 +1,204 @@
+/*
+ * Copyright (c) 2002-2008 LWJGL Project
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'LWJGL' nor the names of
+ *   its contributors may be used to endorse or promote products derived
+ *   from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.lwjgl.test.input;
+
+import java.lang.reflect.Method;
+
+import org.lwjgl.input.Keyboard;
+
+/**
+ * Headless test checking the keycode lookup tables of BoatKeycodes and LinuxKeycodes against
+ * the expected mappings below. Every other code up to past the end of the tables, and a few
+ * out of range codes, must map to KEY_NONE. The reverse mappings are checked against the
+ * forward mappings. Both classes are package private in org.lwjgl.opengl, so they are
+ * accessed by reflection.
+ */
+public class KeycodesTest {
+
+	/** Boat key code, LWJGL key code pairs. */
+	private static final int[] BOAT = {
+		1, Keyboard.KEY_ESCAPE, 2, Keyboard.KEY_1, 3, Keyboard.KEY_2, 4, Keyboard.KEY_3, 5, Keyboard.KEY_4,
+		6, Keyboard.KEY_5, 7, Keyboard.KEY_6, 8, Keyboard.KEY_7, 9, Keyboard.KEY_8, 10, Keyboard.KEY_9,
+		11, Keyboard.KEY_0, 12, Keyboard.KEY_MINUS, 13, Keyboard.KEY_EQUALS, 14, Keyboard.KEY_BACK,
+		15, Keyboard.KEY_TAB, 16, Keyboard.KEY_Q, 17, Keyboard.KEY_W, 18, Keyboard.KEY_E, 19, Keyboard.KEY_R,
+		20, Keyboard.KEY_T, 21, Keyboard.KEY_Y, 22, Keyboard.KEY_U, 23, Keyboard.KEY_I, 24, Keyboard.KEY_O,
+		25, Keyboard.KEY_P, 26, Keyboard.KEY_LBRACKET, 27, Keyboard.KEY_RBRACKET, 28, Keyboard.KEY_RETURN,
+		29, Keyboard.KEY_LCONTROL, 30, Keyboard.KEY_A, 31, Keyboard.KEY_S, 32, Keyboard.KEY_D, 33, Keyboard.KEY_F,
+		34, Keyboard.KEY_G, 35, Keyboard.KEY_H, 36, Keyboard.KEY_J, 37, Keyboard.KEY_K, 38, Keyboard.KEY_L,
+		39, Keyboard.KEY_SEMICOLON, 40, Keyboard.KEY_APOSTROPHE, 41, Keyboard.KEY_GRAVE, 42, Keyboard.KEY_LSHIFT,
+		44, Keyboard.KEY_Z, 45, Keyboard.KEY_X, 46, Keyboard.KEY_C, 47, Keyboard.KEY_V, 48, Keyboard.KEY_B,
+		49, Keyboard.KEY_N, 50, Keyboard.KEY_M, 51, Keyboard.KEY_COMMA, 52, Keyboard.KEY_PERIOD,
+		53, Keyboard.KEY_SLASH, 54, Keyboard.KEY_RSHIFT, 55, Keyboard.KEY_MULTIPLY, 56, Keyboard.KEY_LMENU,
+		57, Keyboard.KEY_SPACE, 58, Keyboard.KEY_CAPITAL, 59, Keyboard.KEY_F1, 60, Keyboard.KEY_F2,
+		61, Keyboard.KEY_F3, 62, Keyboard.KEY_F4, 63, Keyboard.KEY_F5, 64, Keyboard.KEY_F6, 65, Keyboard.KEY_F7,
+		66, Keyboard.KEY_F8, 67, Keyboard.KEY_F9, 68, Keyboard.KEY_F10, 69, Keyboard.KEY_NUMLOCK,
+		70, Keyboard.KEY_SCROLL, 71, Keyboard.KEY_NUMPAD7, 72, Keyboard.KEY_NUMPAD8, 73, Keyboard.KEY_NUMPAD9,
+		74, Keyboard.KEY_SUBTRACT, 75, Keyboard.KEY_NUMPAD4, 76, Keyboard.KEY_NUMPAD5, 77, Keyboard.KEY_NUMPAD6,
+		78, Keyboard.KEY_ADD, 79, Keyboard.KEY_NUMPAD1, 80, Keyboard.KEY_NUMPAD2, 81, Keyboard.KEY_NUMPAD3,
+		82, Keyboard.KEY_NUMPAD0, 83, Keyboard.KEY_DECIMAL, 87, Keyboard.KEY_F11, 88, Keyboard.KEY_F12,
+		96, Keyboard.KEY_NUMPADENTER, 97, Keyboard.KEY_RCONTROL, 98, Keyboard.KEY_DIVIDE, 99, Keyboard.KEY_SYSRQ,
+		100, Keyboard.KEY_RMENU, 102, Keyboard.KEY_HOME, 103, Keyboard.KEY_UP, 104, Keyboard.KEY_PRIOR,
+		105, Keyboard.KEY_LEFT, 106, Keyboard.KEY_RIGHT, 107, Keyboard.KEY_END, 108, Keyboard.KEY_DOWN,
+		109, Keyboard.KEY_NEXT, 110, Keyboard.KEY_INSERT, 111, Keyboard.KEY_DELETE, 117, Keyboard.KEY_NUMPADEQUALS,
+		119, Keyboard.KEY_PAUSE, 125, Keyboard.KEY_LMENU, 126, Keyboard.KEY_RMENU, 183, Keyboard.KEY_F13,
+		184, Keyboard.KEY_F14, 185, Keyboard.KEY_F15
+	};
+
+	/** X keysym, LWJGL key code pairs. */
+	private static final int[] LINUX = {
+		0x20, Keyboard.KEY_SPACE, 0x27, Keyboard.KEY_APOSTROPHE, 0x2c, Keyboard.KEY_COMMA,
+		0x2d, Keyboard.KEY_MINUS, 0x2e, Keyboard.KEY_PERIOD, 0x2f, Keyboard.KEY_SLASH, 0x30, Keyboard.KEY_0,
+		0x31, Keyboard.KEY_1, 0x32, Keyboard.KEY_2, 0x33, Keyboard.KEY_3, 0x34, Keyboard.KEY_4,
+		0x35, Keyboard.KEY_5, 0x36, Keyboard.KEY_6, 0x37, Keyboard.KEY_7, 0x38, Keyboard.KEY_8,
+		0x39, Keyboard.KEY_9, 0x3a, Keyboard.KEY_COLON, 0x3b, Keyboard.KEY_SEMICOLON, 0x3d, Keyboard.KEY_EQUALS,
+		0x40, Keyboard.KEY_AT, 0x41, Keyboard.KEY_A, 0x42, Keyboard.KEY_B, 0x43, Keyboard.KEY_C,
+		0x44, Keyboard.KEY_D, 0x45, Keyboard.KEY_E, 0x46, Keyboard.KEY_F, 0x47, Keyboard.KEY_G,
+		0x48, Keyboard.KEY_H, 0x49, Keyboard.KEY_I, 0x4a, Keyboard.KEY_J, 0x4b, Keyboard.KEY_K,
+		0x4c, Keyboard.KEY_L, 0x4d, Keyboard.KEY_M, 0x4e, Keyboard.KEY_N, 0x4f, Keyboard.KEY_O,
+		0x50, Keyboard.KEY_P, 0x51, Keyboard.KEY_Q, 0x52, Keyboard.KEY_R, 0x53, Keyboard.KEY_S,
+		0x54, Keyboard.KEY_T, 0x55, Keyboard.KEY_U, 0x56, Keyboard.KEY_V, 0x57, Keyboard.KEY_W,
+		0x58, Keyboard.KEY_X, 0x59, Keyboard.KEY_Y, 0x5a, Keyboard.KEY_Z, 0x5b, Keyboard.KEY_LBRACKET,
+		0x5d, Keyboard.KEY_RBRACKET, 0x5e, Keyboard.KEY_CIRCUMFLEX, 0x5f, Keyboard.KEY_UNDERLINE,
+		0x60, Keyboard.KEY_GRAVE, 0x61, Keyboard.KEY_A, 0x62, Keyboard.KEY_B, 0x63, Keyboard.KEY_C,
+		0x64, Keyboard.KEY_D, 0x65, Keyboard.KEY_E, 0x66, Keyboard.KEY_F, 0x67, Keyboard.KEY_G,
+		0x68, Keyboard.KEY_H, 0x69, Keyboard.KEY_I, 0x6a, Keyboard.KEY_J, 0x6b, Keyboard.KEY_K,
+		0x6c, Keyboard.KEY_L, 0x6d, Keyboard.KEY_M, 0x6e, Keyboard.KEY_N, 0x6f, Keyboard.KEY_O,
+		0x70, Keyboard.KEY_P, 0x71, Keyboard.KEY_Q, 0x72, Keyboard.KEY_R, 0x73, Keyboard.KEY_S,
+		0x74, Keyboard.KEY_T, 0x75, Keyboard.KEY_U, 0x76, Keyboard.KEY_V, 0x77, Keyboard.KEY_W,
+		0x78, Keyboard.KEY_X, 0x79, Keyboard.KEY_Y, 0x7a, Keyboard.KEY_Z, 0xfe03, Keyboard.KEY_RMENU,
+		0xfe20, Keyboard.KEY_TAB, 0xfe50, Keyboard.KEY_GRAVE, 0xfe52, Keyboard.KEY_CIRCUMFLEX,
+		0xff08, Keyboard.KEY_BACK, 0xff09, Keyboard.KEY_TAB, 0xff0d, Keyboard.KEY_RETURN,
+		0xff13, Keyboard.KEY_PAUSE, 0xff14, Keyboard.KEY_SCROLL, 0xff15, Keyboard.KEY_SYSRQ,
+		0xff1b, Keyboard.KEY_ESCAPE, 0xff21, Keyboard.KEY_KANJI, 0xff50, Keyboard.KEY_HOME,
+		0xff51, Keyboard.KEY_LEFT, 0xff52, Keyboard.KEY_UP, 0xff53, Keyboard.KEY_RIGHT, 0xff54, Keyboard.KEY_DOWN,
+		0xff55, Keyboard.KEY_PRIOR, 0xff56, Keyboard.KEY_NEXT, 0xff57, Keyboard.KEY_END,
+		0xff63, Keyboard.KEY_INSERT, 0xff6b, Keyboard.KEY_PAUSE, 0xff7f, Keyboard.KEY_NUMLOCK,
+		0xff80, Keyboard.KEY_SPACE, 0xff89, Keyboard.KEY_TAB, 0xff8d, Keyboard.KEY_NUMPADENTER,
+		0xff91, Keyboard.KEY_F1, 0xff92, Keyboard.KEY_F2, 0xff93, Keyboard.KEY_F3, 0xff94, Keyboard.KEY_F4,
+		0xff95, Keyboard.KEY_HOME, 0xff96, Keyboard.KEY_LEFT, 0xff97, Keyboard.KEY_UP, 0xff98, Keyboard.KEY_RIGHT,
+		0xff99, Keyboard.KEY_DOWN, 0xff9a, Keyboard.KEY_PRIOR, 0xff9b, Keyboard.KEY_NEXT, 0xff9c, Keyboard.KEY_END,
+		0xff9e, Keyboard.KEY_INSERT, 0xff9f, Keyboard.KEY_DELETE, 0xffaa, Keyboard.KEY_MULTIPLY,
+		0xffab, Keyboard.KEY_ADD, 0xffad, Keyboard.KEY_SUBTRACT, 0xffae, Keyboard.KEY_DECIMAL,
+		0xffaf, Keyboard.KEY_DIVIDE, 0xffb0, Keyboard.KEY_NUMPAD0, 0xffb1, Keyboard.KEY_NUMPAD1,
+		0xffb2, Keyboard.KEY_NUMPAD2, 0xffb3, Keyboard.KEY_NUMPAD3, 0xffb4, Keyboard.KEY_NUMPAD4,
+		0xffb5, Keyboard.KEY_NUMPAD5, 0xffb6, Keyboard.KEY_NUMPAD6, 0xffb7, Keyboard.KEY_NUMPAD7,
+		0xffb8, Keyboard.KEY_NUMPAD8, 0xffb9, Keyboard.KEY_NUMPAD9, 0xffbd, Keyboard.KEY_NUMPADEQUALS,
+		0xffbe, Keyboard.KEY_F1, 0xffbf, Keyboard.KEY_F2, 0xffc0, Keyboard.KEY_F3, 0xffc1, Keyboard.KEY_F4,
+		0xffc2, Keyboard.KEY_F5, 0xffc3, Keyboard.KEY_F6, 0xffc4, Keyboard.KEY_F7, 0xffc5, Keyboard.KEY_F8,
+		0xffc6, Keyboard.KEY_F9, 0xffc7, Keyboard.KEY_F10, 0xffc8, Keyboard.KEY_F11, 0xffc9, Keyboard.KEY_F12,
+		0xffca, Keyboard.KEY_F13, 0xffcb, Keyboard.KEY_F14, 0xffcc, Keyboard.KEY_F15, 0xffe1, Keyboard.KEY_LSHIFT,
+		0xffe2, Keyboard.KEY_RSHIFT, 0xffe3, Keyboard.KEY_LCONTROL, 0xffe4, Keyboard.KEY_RCONTROL,
+		0xffe5, Keyboard.KEY_CAPITAL, 0xffe7, Keyboard.KEY_LMENU, 0xffe8, Keyboard.KEY_RMENU,
+		0xffe9, Keyboard.KEY_LMENU, 0xffea, Keyboard.KEY_RMENU, 0xffff, Keyboard.KEY_DELETE
+	};
+
+	private static final int[] OUT_OF_RANGE = { -1, Integer.MIN_VALUE, Integer.MAX_VALUE, 0x10000, 0x1000041, 0xfffe41 };
+
+	private static int failures;
+
+	public static void main(String[] args) throws Exception {
+		final Method boat = getMethod("BoatKeycodes", "mapBoatKeyCodeToLWJGLKeyCode", int.class);
+		final Method boatReverse = getMethod("BoatKeycodes", "mapLWJGLKeyCodeToBoatKeyCode", int.class);
+		final Method linux = getMethod("LinuxKeycodes", "mapKeySymToLWJGLKeyCode", long.class);
+		final Method linuxReverse = getMethod("LinuxKeycodes", "mapLWJGLKeyCodeToKeySym", int.class);
+
+		checkForward("Boat key code", boat, BOAT, 0x200);
+		checkForward("Keysym", linux, LINUX, 0x10100);
+
+		// Keysyms are truncated to an int
+		for ( int i = 0; i < LINUX.length; i += 2 ) {
+			final long wide = LINUX[i] | (1L << 32);
+			check("Keysym " + Long.toHexString(wide), LINUX[i + 1], invoke(linux, wide));
+		}
+
+		checkReverse("Boat", boat, boatReverse, BOAT);
+		checkReverse("Linux", linux, linuxReverse, LINUX);
+
+		if ( failures != 0 ) {
+			System.err.println(failures + " failures");
+			System.exit(1);
+		}
+		System.out.println("All key codes match");
+	}
+
+	/** Checks the expected mappings, and that all other codes below limit and the out of range codes map to KEY_NONE. */
+	private static void checkForward(String what, Method forward, int[] mappings, int limit) throws Exception {
+		final int[] expected = new int[limit];
+		for ( int i = 0; i < mappings.length; i += 2 )
+			expected[mappings[i]] = mappings[i + 1];
+
+		for ( int code = 0; code < limit; code++ )
+			check(what + " " + Integer.toHexString(code), expected[code], invoke(forward, code));
+		for ( int i = 0; i < OUT_OF_RANGE.length; i++ ) {
+			final int code = OUT_OF_RANGE[i];
+			if ( code < 0 || limit <= code )
+				check(what + " " + Integer.toHexString(code), Keyboard.KEY_NONE, invoke(forward, code));
+		}
+	}
+
+	/** Checks that each mapped key has a reverse mapping that maps back to it, and that other keys have none. */
+	private static void checkReverse(String platform, Method forward, Method reverse, int[] mappings) throws Exception {
+		final boolean[] mapped = new boolean[Keyboard.KEYBOARD_SIZE];
+		for ( int i = 0; i < mappings.length; i += 2 )
+			mapped[mappings[i + 1]] = true;
+
+		for ( int key = 1; key < Keyboard.KEYBOARD_SIZE; key++ ) {
+			final int code = invoke(reverse, key);
+			if ( !mapped[key] )
+				check(platform + " reverse of unmapped key " + key, 0, code);
+			else if ( code == 0 ) {
+				System.err.println(platform + " reverse of key " + key + " is missing");
+				failures++;
+			} else
+				check(platform + " mapping of reverse " + Integer.toHexString(code) + " of key " + key, key, invoke(forward, code));
+		}
+	}
+
+	private static Method getMethod(String className, String name, Class<?> parameterType) throws Exception {
+		final Method method = Class.forName("org.lwjgl.opengl." + className).getDeclaredMethod(name, parameterType);
+		method.setAccessible(true);
+		return method;
+	}
+
+	private static int invoke(Method method, long code) throws Exception {
+		final Object arg = method.getParameterTypes()[0] == long.class ? (Object)code : (Object)(int)code;
+		return (Integer)method.invoke(null, arg);
+	}
+
+	private static void check(String what, int expected, int actual) {
+		if ( expected != actual ) {
+			System.err.println(what + ": expected " + expected + ", got " + actual);
+			failures++;
+		}
+	}
+
+}
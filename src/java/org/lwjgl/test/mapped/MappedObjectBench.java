@@ -234,4 +234,77 @@ public class MappedObjectBench {
 		System.out.println(bb);
 	}
 
+
+	static void benchmarkLayouts() {
+		final int runs = 64;
+		final int elements = 1024 * 1024;
+
+		MappedVec3 aos = MappedVec3.malloc(elements);
+		MappedVec3SOA soa = MappedVec3SOA.malloc(elements);
+
+		for ( int i = 0; i < elements; i++ ) {
+			aos.view = i;
+			aos.x = i;
+			aos.y = i * 2;
+			aos.z = i * 3;
+
+			soa.view = i;
+			soa.x = i;
+			soa.y = i * 2;
+			soa.z = i * 3;
+		}
+
+		long[] tookAOS = new long[runs];
+		long[] tookSOA = new long[runs];
+		for ( int run = 0; run < runs; run++ ) {
+			long t0 = System.nanoTime();
+			for ( int i = 0; i < elements; i++ ) {
+				aos.view = i;
+				aos.x += 0.5f;
+			}
+			long t1 = System.nanoTime();
+			tookAOS[run] = t1 - t0;
+
+			t0 = System.nanoTime();
+			for ( int i = 0; i < elements; i++ ) {
+				soa.view = i;
+				soa.x += 0.5f;
+			}
+			t1 = System.nanoTime();
+			tookSOA[run] = t1 - t0;
+		}
+
+		Arrays.sort(tookAOS);
+		Arrays.sort(tookSOA);
+		System.out.println("single field, AOS took: " + tookAOS[runs / 2] / 1024 + "us");
+		System.out.println("single field, SOA took: " + tookSOA[runs / 2] / 1024 + "us");
+
+		for ( int run = 0; run < runs; run++ ) {
+			long t0 = System.nanoTime();
+			for ( int i = 0; i < elements; i++ ) {
+				aos.view = i;
+				aos.x += aos.y * aos.z;
+			}
+			long t1 = System.nanoTime();
+			tookAOS[run] = t1 - t0;
+
+			t0 = System.nanoTime();
+			for ( int i = 0; i < elements; i++ ) {
+				soa.view = i;
+				soa.x += soa.y * soa.z;
+			}
+			t1 = System.nanoTime();
+			tookSOA[run] = t1 - t0;
+		}
+
+		Arrays.sort(tookAOS);
+		Arrays.sort(tookSOA);
+		System.out.println("all fields, AOS took: " + tookAOS[runs / 2] / 1024 + "us");
+		System.out.println("all fields, SOA took: " + tookSOA[runs / 2] / 1024 + "us");
+
+		aos.view = elements - 1;
+		soa.view = elements - 1;
+		System.out.println(aos);
+		System.out.println(soa);
+	}
 }
\ No newline at end of file
@@ -32,12 +32,17 @@
 package org.lwjgl.test.mapped;
 
 import org.lwjgl.MemoryUtil;
+import org.lwjgl.util.mapped.CacheUtil;
 import org.lwjgl.util.mapped.MappedObject;
+import org.lwjgl.util.mapped.MappedRangeTask;
 import org.lwjgl.util.mapped.MappedSet;
 import org.lwjgl.util.mapped.MappedSet2;
 
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.lwjgl.util.mapped.MappedObject.*;
 
@@ -97,6 +102,56 @@ public class MappedObjectTests3 {
 		assert (some.view == elementCount - 1);
 	}
 
+	static void testParallelForEach() {
+		final int elementCount = 1000;
+		final MappedVec3 vecs = MappedVec3.malloc(elementCount);
+		vecs.view = 7;
+
+		final ExecutorService executor = Executors.newFixedThreadPool(3);
+		try {
+			final AtomicInteger ranges = new AtomicInteger();
+			parallelForEach(vecs, elementCount, new MappedRangeTask<MappedVec3>() {
+				public void run(final MappedVec3 view, final int fromIndex, final int toIndex) {
+					assert (view != vecs);
+					assert (view.view == fromIndex);
+					// Every range, except the first one, starts on a cache line boundary
+					assert (fromIndex == 0 || view.viewAddress % CacheUtil.getCacheLineSize() == 0);
+
+					for ( int i = fromIndex; i < toIndex; i++ ) {
+						view.x = i;
+						view.y += 1.0f;
+						if ( i < toIndex - 1 )
+							view.next();
+					}
+					ranges.incrementAndGet();
+				}
+			}, executor, 4);
+			assert (ranges.get() == 4);
+		} finally {
+			executor.shutdown();
+		}
+
+		assert (vecs.view == 7);
+		for ( MappedVec3 vec : foreach(vecs) ) {
+			assert (vec.x == vec.view);
+			assert (vec.y == 1.0f);
+		}
+
+		final MappedVec3SOA soa = MappedVec3SOA.malloc(elementCount);
+		parallelForEach(soa, elementCount, new MappedRangeTask<MappedVec3SOA>() {
+			public void run(final MappedVec3SOA view, final int fromIndex, final int toIndex) {
+				for ( int i = fromIndex; i < toIndex; i++ ) {
+					view.view = i;
+					view.z = i * 2;
+				}
+			}
+		});
+
+		for ( MappedVec3SOA vec : foreach(soa) ) {
+			assert (vec.z == vec.view * 2);
+		}
+	}
+
 	public static class Xyz extends MappedObject {
 
 		int x, y, z;
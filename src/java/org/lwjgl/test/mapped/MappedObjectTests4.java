@@ -39,6 +39,7 @@ import org.lwjgl.util.mapped.*;
 import java.io.File;
 import java.lang.reflect.Field;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 
 /** @author Riven */
 @SuppressWarnings("static-access")
@@ -250,4 +251,52 @@ public class MappedObjectTests4 {
 		assert (fields.length == (1 + 7) + 1 + 1 + (15 + 1 + 15) + 1 + (1 + 63) + 1);
 	}
 
+
+	@MappedType(layout = MappedType.Layout.SOA)
+	public static class MappedSOA extends MappedObject {
+
+		long   bar;
+		double baz;
+		int    foo;
+
+	}
+
+	public static void testSOA() {
+		MappedSOA data = MappedSOA.malloc(10);
+
+		assert (data.capacity() == 10);
+
+		for ( int i = 0; i < 10; i++ ) {
+			data.view = i;
+
+			data.foo = i;
+			data.bar = i * 1000L;
+			data.baz = i * 0.5;
+		}
+
+		// Each field is stored in its own stream: bar @ 0, baz @ 8 * 10, foo @ 16 * 10
+		ByteBuffer buffer = data.backingByteBuffer().duplicate().order(ByteOrder.nativeOrder());
+		for ( int i = 0; i < 10; i++ ) {
+			assert (buffer.getLong(i * 8) == i * 1000L);
+			assert (buffer.getDouble(8 * 10 + i * 8) == i * 0.5);
+			assert (buffer.getInt(16 * 10 + i * 4) == i);
+		}
+
+		MappedSOA copy = data.dup();
+		copy.view = 0;
+		for ( int i = 0; i < 10; i++ ) {
+			assert (copy.view == i);
+			assert (copy.foo == i);
+			assert (copy.bar == i * 1000L);
+			assert (copy.baz == i * 0.5);
+			if ( i < 9 )
+				copy.next();
+		}
+
+		int i = 0;
+		for ( MappedSOA element : MappedObject.foreach(data) ) {
+			assert (element.bar == i++ * 1000L);
+		}
+		assert (i == 10);
+	}
 }
\ No newline at end of file
@@ -49,11 +49,13 @@ public class TestMappedObject {
 		MappedObjectTransformer.register(MappedFloat.class);
 		MappedObjectTransformer.register(MappedVec2.class);
 		MappedObjectTransformer.register(MappedVec3.class);
+		MappedObjectTransformer.register(MappedVec3SOA.class);
 		MappedObjectTransformer.register(MappedSomething.class);
 		MappedObjectTransformer.register(MappedObjectTests3.Xyz.class);
 		MappedObjectTransformer.register(MappedObjectTests4.MappedPointer.class);
 		MappedObjectTransformer.register(MappedObjectTests4.MappedCacheLinePadded.class);
 		MappedObjectTransformer.register(MappedObjectTests4.MappedFieldCacheLinePadded.class);
+		MappedObjectTransformer.register(MappedObjectTests4.MappedSOA.class);
 
 		if ( MappedObjectClassLoader.fork(TestMappedObject.class, args) ) {
 			return;
@@ -68,9 +70,11 @@ public class TestMappedObject {
 		// MappedObjectBench.benchmarkIndirectArray();
 		// MappedObjectBench.benchmarkDirectArray();
 		// MappedObjectBench.benchmarkUnsafe();
+		// MappedObjectBench.benchmarkLayouts();
 
 		MappedObjectTests3.testMappedBuffer();
 		MappedObjectTests3.testForeach();
+		MappedObjectTests3.testParallelForEach();
 		MappedObjectTests3.testConstructor();
 		MappedObjectTests3.testMappedSet();
 
@@ -80,6 +84,7 @@ public class TestMappedObject {
 		MappedObjectTests4.testCacheLineAlignment();
 		MappedObjectTests4.testCacheLinePadding();
 		MappedObjectTests4.testCacheLinePaddingPOJO();
+		MappedObjectTests4.testSOA();
 
 		System.out.println("done");
 	}
@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) 2002-2012 LWJGL Project
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'LWJGL' nor the names of
+ *   its contributors may be used to endorse or promote products derived
+ *   from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.lwjgl.test.opengl;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.lwjgl.opengl.HybridFramePacer;
+
+/**
+ * Headless test for HybridFramePacer. The pacer runs against a simulated clock,
+ * with random frame workloads and random park overshoots, and the frame start
+ * jitter relative to the ideal schedule is reported. With the simulated clock,
+ * the test fails if the p95 or p99 jitter or the spin time per frame exceed
+ * their bounds. Pass "real" as the first argument to run against the system
+ * clock instead, which only reports the results.
+ */
+public final class FramePacerTest {
+
+	private static final int FRAMES = 2000;
+
+	/** Bound for the p95 schedule jitter, well below the simulated park overshoot */
+	private static final long MAX_JITTER_P95 = 50L * 1000L;
+
+	/** Bound for the p99 schedule jitter, a single simulated overshoot spike */
+	private static final long MAX_JITTER_P99 = 1000L * 1000L;
+
+	/** Bound for the spin time per frame, above the largest regular simulated overshoot */
+	private static final long MAX_SPIN_PER_FRAME = 250L * 1000L;
+
+	private static int failures;
+
+	private FramePacerTest() {
+	}
+
+	public static void main(String[] args) {
+		boolean real = args.length > 0 && "real".equals(args[0]);
+
+		int[] rates = { 30, 60, 144 };
+		for ( int i = 0; i < rates.length; i++ ) {
+			run(real, rates[i], 0L);
+			run(real, rates[i], 300L * 1000L);
+		}
+
+		if ( failures != 0 )
+			throw new IllegalStateException(failures + " frame pacing check(s) failed");
+	}
+
+	private static void run(boolean real, int fps, long wakeupMargin) {
+		SimulatedClock simulated = new SimulatedClock(new Random(fps));
+		HybridFramePacer pacer = real ? new HybridFramePacer() : new HybridFramePacer(simulated);
+		pacer.setWakeupMargin(wakeupMargin);
+
+		Random work = new Random(fps * 31);
+		long period = 1000L * 1000L * 1000L / fps;
+		long[] jitter = new long[FRAMES];
+
+		long start = 0;
+		long cpuStart = simulated.spinTime;
+		for ( int i = 0; i < FRAMES; i++ ) {
+			// Render the frame, 25% to 75% of the frame budget
+			long frameWork = period / 4 + (long)(work.nextDouble() * period / 2);
+			if ( real )
+				busyWait(frameWork);
+			else
+				simulated.time += frameWork;
+
+			pacer.sync(fps);
+
+			// The first sync has no deadline to return early from, start the schedule at the second
+			long now = real ? System.nanoTime() : simulated.time;
+			if ( i == 1 )
+				start = now;
+			else if ( 1 < i )
+				jitter[i] = Math.abs(now - (start + (i - 1) * period));
+		}
+		Arrays.sort(jitter);
+
+		System.out.println((real ? "System" : "Simulated") + " clock, " + fps + " fps, wake-up margin " + wakeupMargin / 1000 + "us:");
+		System.out.println("\tframe time p50/p95/p99: " + us(pacer.getFrameTimeP50()) + " / " + us(pacer.getFrameTimeP95()) + " / " + us(pacer.getFrameTimeP99()));
+		System.out.println("\tschedule jitter p50/p95/p99/max: " + us(jitter[FRAMES / 2]) + " / " + us(jitter[FRAMES * 95 / 100]) + " / " + us(jitter[FRAMES * 99 / 100]) + " / " + us(jitter[FRAMES - 1]));
+		if ( real )
+			return;
+
+		long spin = (simulated.spinTime - cpuStart) / FRAMES;
+		System.out.println("\tspin time per frame: " + us(spin));
+
+		check("p95 schedule jitter", jitter[FRAMES * 95 / 100], MAX_JITTER_P95);
+		check("p99 schedule jitter", jitter[FRAMES * 99 / 100], MAX_JITTER_P99);
+		check("spin time per frame", spin, MAX_SPIN_PER_FRAME);
+	}
+
+	private static void check(String what, long nanos, long bound) {
+		if ( bound < nanos ) {
+			System.out.println("\tFAILED: " + what + " " + us(nanos) + " exceeds " + us(bound));
+			failures++;
+		}
+	}
+
+	private static String us(long nanos) {
+		return (nanos / 100L) / 10.0 + "us";
+	}
+
+	private static void busyWait(long nanos) {
+		long end = System.nanoTime() + nanos;
+		while ( System.nanoTime() < end ) ;
+	}
+
+	/** A clock where parking overshoots by a random amount, like a real scheduler. */
+	private static final class SimulatedClock implements HybridFramePacer.Clock {
+
+		private final Random random;
+
+		long time = 1000L * 1000L * 1000L;
+		long spinTime;
+
+		SimulatedClock(Random random) {
+			this.random = random;
+		}
+
+		public long nanoTime() {
+			return time;
+		}
+
+		public void park(long nanos) {
+			// 50us to 150us overshoot, with occasional 1ms spikes
+			long overshoot = 50L * 1000L + (long)(random.nextDouble() * 100L * 1000L);
+			if ( random.nextInt(100) == 0 )
+				overshoot += 1000L * 1000L;
+			time += nanos + overshoot;
+		}
+
+		public void spin() {
+			time += 1000L;
+			spinTime += 1000L;
+		}
+
+	}
+
+}
@@ -52,7 +52,7 @@ import javax.tools.Diagnostic;
  */
 @SupportedAnnotationTypes({ "*" })
 @SupportedSourceVersion(SourceVersion.RELEASE_6)
-@SupportedOptions({ "binpath", "typemap", "generatechecks", "contextspecific" })
+@SupportedOptions({ "binpath", "typemap", "generatechecks", "contextspecific", "lazystubs" })
 public class GeneratorProcessor extends AbstractProcessor {
 
 	private static boolean first_round = true;
@@ -68,6 +68,7 @@ public class GeneratorProcessor extends AbstractProcessor {
 		String bin_path = options.get("binpath");
 		boolean generate_error_checks = options.containsKey("generatechecks");
 		boolean context_specific = options.containsKey("contextspecific");
+		boolean lazy_stubs = options.containsKey("lazystubs");
 		if ( bin_path == null ) {
 			throw new RuntimeException("No path specified for the bin directory with -Abinpath=<path>");
 		}
@@ -82,7 +83,7 @@ public class GeneratorProcessor extends AbstractProcessor {
 			TypeMap type_map = (TypeMap)(Class.forName(typemap_classname).newInstance());
 			for ( Iterator<TypeElement> it = ElementFilter.typesIn(roundEnv.getRootElements()).iterator(); it.hasNext(); ) {
 				lastFile = it.next();
-				lastFile.accept(new GeneratorVisitor(processingEnv, type_map, generate_error_checks, context_specific, generatorLM), null);
+				lastFile.accept(new GeneratorVisitor(processingEnv, type_map, generate_error_checks, context_specific, lazy_stubs, generatorLM), null);
 			}
 			first_round = false;
 			return true;
@@ -63,13 +63,15 @@ public class GeneratorVisitor extends ElementKindVisitor6<Void, Void> {
 	private final TypeMap               type_map;
 	private final boolean               generate_error_checks;
 	private final boolean               context_specific;
+	private final boolean               lazy_stubs;
 	private final long                  generatorLM;
 
-	public GeneratorVisitor(ProcessingEnvironment env, TypeMap type_map, boolean generate_error_checks, boolean context_specific, long generatorLM) {
+	public GeneratorVisitor(ProcessingEnvironment env, TypeMap type_map, boolean generate_error_checks, boolean context_specific, boolean lazy_stubs, long generatorLM) {
 		this.env = env;
 		this.type_map = type_map;
 		this.generate_error_checks = generate_error_checks;
 		this.context_specific = context_specific;
+		this.lazy_stubs = lazy_stubs;
 		this.generatorLM = generatorLM;
 	}
 
@@ -235,6 +237,24 @@ public class GeneratorVisitor extends ElementKindVisitor6<Void, Void> {
 		if ( Utils.getMethods(d).size() > 0 && !context_specific ) {
 			java_writer.println();
 			java_writer.println("\tstatic native void " + Utils.STUB_INITIALIZER_NAME + "() throws LWJGLException;");
+			if ( lazy_stubs ) {
+				// The class is its own holder: the JVM runs the static initializer, exactly once, on the first use of the
+				// class. ContextCapabilities only reads the flag of the core class, extension classes stay untouched until
+				// the application calls them. If their stubs could not be registered, the failure is logged and the calls
+				// throw UnsatisfiedLinkError.
+				java_writer.println();
+				java_writer.println("\tstatic final boolean " + Utils.STUBS_INITIALIZED_NAME + " = " + Utils.LAZY_STUB_INITIALIZER_NAME + "();");
+				java_writer.println();
+				java_writer.println("\tprivate static boolean " + Utils.LAZY_STUB_INITIALIZER_NAME + "() {");
+				java_writer.println("\t\ttry {");
+				java_writer.println("\t\t\t" + Utils.STUB_INITIALIZER_NAME + "();");
+				java_writer.println("\t\t\treturn true;");
+				java_writer.println("\t\t} catch (LWJGLException e) {");
+				java_writer.println("\t\t\tLWJGLUtil.log(\"Failed to initialize " + Utils.getSimpleClassName(d) + " - exception: \" + e);");
+				java_writer.println("\t\t\treturn false;");
+				java_writer.println("\t\t}");
+				java_writer.println("\t}");
+			}
 		}
 		JavaMethodsGenerator.generateMethodsJava(env, type_map, java_writer, d, generate_error_checks, context_specific);
 		java_writer.println("}");
@@ -364,7 +364,8 @@ public class JavaMethodsGenerator {
 			writer.println(code_annotation.javaAfterNative());
 		}
 
-		final String tabs = code_annotation != null && code_annotation.tryBlock() ? "\t\t\t" : "\t\t";
+		final GLreturn return_annotation = method.getAnnotation(GLreturn.class);
+		final String tabs = (code_annotation != null && code_annotation.tryBlock()) || (return_annotation != null && Utils.isGLReturnOnStack(method, return_annotation)) ? "\t\t\t" : "\t\t";
 		if ( generate_error_checks && method.getAnnotation(NoErrorCheck.class) == null ) {
 			type_map.printErrorCheckMethod(writer, method, tabs);
 		}
@@ -578,7 +579,9 @@ public class JavaMethodsGenerator {
 						}
 
 						final Class buffer_type = Utils.getNIOBufferType(param.asType());
-						if ( buffer_type == null ) {
+						final GLreturn return_annotation = method.getAnnotation(GLreturn.class);
+						if ( buffer_type == null || (return_annotation != null && return_annotation.value().equals(param.getSimpleName().toString()) && Utils.isGLReturnOnStack(method, return_annotation)) ) {
+							// Stack allocated @GLreturn values are already addresses
 							writer.print(param.getSimpleName());
 						} else {
 							writer.print("MemoryUtil.getAddress");
@@ -65,12 +65,15 @@ public class Utils {
 	public static final  String CHECKS_CLASS_NAME               = "GLChecks";
 	public static final  String CONTEXT_CAPS_CLASS_NAME         = "ContextCapabilities";
 	public static final  String STUB_INITIALIZER_NAME           = "initNativeStubs";
+	public static final  String LAZY_STUB_INITIALIZER_NAME      = "initNativeStubsOnce";
+	public static final  String STUBS_INITIALIZED_NAME          = "stubs_initialized";
 	public static final  String BUFFER_OBJECT_METHOD_POSTFIX    = "BO";
 	public static final  String BUFFER_OBJECT_PARAMETER_POSTFIX = "_buffer_offset";
 	public static final  String RESULT_SIZE_NAME                = "result_size";
 	public static final  String RESULT_VAR_NAME                 = "__result";
 	public static final  String CACHED_BUFFER_LENGTH_NAME       = "length";
 	public static final  String CACHED_BUFFER_NAME              = "old_buffer";
+	public static final  String STACK_VAR_NAME                  = "__stack";
 	private static final String OVERLOADED_METHOD_PREFIX        = "n";
 
 	public static String getTypedefName(ExecutableElement method) {
@@ -453,12 +456,18 @@ public class Utils {
 			}
 			writer.println(");");
 		} else {
-			final String buffer_type = "Boolean".equals(return_type) ? "Byte" : return_type;
-			writer.print(buffer_type + "Buffer " + return_annotation.value() + " = APIUtil.getBuffer" + buffer_type + "(" + type_map.getAPIUtilParam(false));
-			if ( "Byte".equals(buffer_type) ) {
-				writer.print((type_map.getAPIUtilParam(false).length() > 0 ? ", " : "") + "1");
+			// Single values are returned through a MemoryStack frame, see isGLReturnOnStack.
+			final Code code_annotation = method.getAnnotation(Code.class);
+			if ( code_annotation != null && code_annotation.tryBlock() ) {
+				throw new RuntimeException("@Code(tryBlock = true) is not supported with a non-String @GLreturn in method: " + method);
 			}
-			writer.println(");");
+
+			final int size = getGLReturnSize(return_type);
+			writer.println("MemoryStack " + STACK_VAR_NAME + " = MemoryStack.stackPush();");
+			writer.println("\t\ttry {");
+			writer.println("\t\t\tlong " + return_annotation.value() + " = " + STACK_VAR_NAME + ".nmalloc(" + size + ", " + size + ");");
+			writer.print("\t\t\t");
+			return;
 		}
 
 		final Code code_annotation = method.getAnnotation(Code.class);
@@ -470,6 +479,23 @@ public class Utils {
 		}
 	}
 
+	/** Returns true if the specified @GLreturn value is allocated on the thread's MemoryStack (i.e. it is not a String). */
+	static boolean isGLReturnOnStack(ExecutableElement method, GLreturn return_annotation) {
+		return !"String".equals(getMethodReturnType(method, return_annotation, true));
+	}
+
+	private static int getGLReturnSize(final String return_type) {
+		if ( "Boolean".equals(return_type) || "Byte".equals(return_type) ) {
+			return 1;
+		} else if ( "Short".equals(return_type) || "Char".equals(return_type) ) {
+			return 2;
+		} else if ( "Int".equals(return_type) || "Float".equals(return_type) ) {
+			return 4;
+		} else {
+			return 8;
+		}
+	}
+
 	static void printGLReturnPost(PrintWriter writer, ExecutableElement method, GLreturn return_annotation, TypeMap type_map) {
 		final String return_type = getMethodReturnType(method, return_annotation, true);
 
@@ -487,11 +513,15 @@ public class Utils {
 			writer.println(");");
 			writer.println("\t\treturn APIUtil.getString(" + type_map.getAPIUtilParam(true) + return_annotation.value() + ");");
 		} else {
-			writer.print("\t\treturn " + return_annotation.value() + ".get(0)");
+			final String value_type = "Boolean".equals(return_type) ? "Byte" : return_type;
+			writer.print("\t\t\treturn " + STACK_VAR_NAME + ".get" + value_type + "(" + return_annotation.value() + ")");
 			if ( "Boolean".equals(return_type) ) {
 				writer.print(" == 1");
 			}
 			writer.println(";");
+			writer.println("\t\t} finally {");
+			writer.println("\t\t\t" + STACK_VAR_NAME + ".pop();");
+			writer.println("\t\t}");
 		}
 	}
 
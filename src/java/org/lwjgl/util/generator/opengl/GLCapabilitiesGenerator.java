@@ -36,9 +36,12 @@ import org.lwjgl.util.generator.*;
 
 import java.io.PrintWriter;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.EnumSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 import javax.annotation.processing.ProcessingEnvironment;
 import javax.lang.model.element.ExecutableElement;
 import javax.lang.model.element.TypeElement;
@@ -60,6 +63,7 @@ public class GLCapabilitiesGenerator {
 	private static final String PROFILE_MASK_VAR_NAME       = "profileMask";
 	private static final String EXTENSION_PREFIX            = "GL_";
 	private static final String CORE_PREFIX                 = "Open";
+	private static final String FUNCTION_NAMES_VAR_NAME     = "FUNCTION_NAMES";
 
 	public static void generateClassPrologue(PrintWriter writer, boolean context_specific, boolean generate_error_checks) {
 		writer.println("public class " + Utils.CONTEXT_CAPS_CLASS_NAME + " {");
@@ -124,7 +128,12 @@ public class GLCapabilitiesGenerator {
 		return class_name + POINTER_INITIALIZER_POSTFIX;
 	}
 
-	public static void generateInitStubsPrologue(PrintWriter writer, boolean context_specific) {
+	/**
+	 * Generates the start of the method that initializes the stubs. If lazy_stubs is true, the classes register
+	 * their own stubs from their static initializer (see GeneratorVisitor), which runs on their first use. Only
+	 * the core class is initialized here.
+	 */
+	public static void generateInitStubsPrologue(PrintWriter writer, boolean context_specific, boolean lazy_stubs) {
 		writer.println("\tprivate Set<String> " + ALL_INIT_METHOD_NAME + "(boolean forwardCompatible) throws LWJGLException {");
 
 		// Load the basic pointers we need to detect OpenGL version and supported extensions.
@@ -140,23 +149,30 @@ public class GLCapabilitiesGenerator {
 		writer.println("\t\tGLContext.setCapabilities(this);");
 		writer.println("\t\tSet<String> " + CACHED_EXTS_VAR_NAME + " = new HashSet<String>(256);");
 		writer.println("\t\tint " + PROFILE_MASK_VAR_NAME + " = GLContext.getSupportedExtensions(" + CACHED_EXTS_VAR_NAME + ");");
+		if ( context_specific )
+			writer.println("\t\tGLContext.resolveFunctionAddresses(" + FUNCTION_NAMES_VAR_NAME + ");");
 
 		// Force forward compatible mode when OpenGL version is 3.1 or higher and ARB_compatibility is not available.
 		writer.println("\t\tif ( supported_extensions.contains(\"OpenGL31\") && !(supported_extensions.contains(\"GL_ARB_compatibility\") || (profileMask & GL32.GL_CONTEXT_COMPATIBILITY_PROFILE_BIT) != 0) )");
 		writer.println("\t\t\tforwardCompatible = true;");
 
 		if ( !context_specific ) {
-			writer.println("\t\tif (" + STUBS_LOADED_NAME + ")");
-			writer.println("\t\t\treturn GLContext.getSupportedExtensions();");
-			writer.println("\t\torg.lwjgl.opengl.GL11." + Utils.STUB_INITIALIZER_NAME + "();");
+			if ( !lazy_stubs ) {
+				writer.println("\t\tif (" + STUBS_LOADED_NAME + ")");
+				writer.println("\t\t\treturn GLContext.getSupportedExtensions();");
+				writer.println("\t\torg.lwjgl.opengl.GL11." + Utils.STUB_INITIALIZER_NAME + "();");
+			} else {
+				writer.println("\t\tif (!org.lwjgl.opengl.GL11." + Utils.STUBS_INITIALIZED_NAME + ")");
+				writer.println("\t\t\tthrow new LWJGLException(\"GL11 not supported\");");
+			}
 		} else {
 			writer.println("\t\tif (!" + getAddressesInitializerName("GL11") + "(forwardCompatible))");
 			writer.println("\t\t\tthrow new LWJGLException(\"GL11 not supported\");");
 		}
 	}
 
-	public static void generateInitStubsEpilogue(PrintWriter writer, boolean context_specific) {
-		if ( !context_specific ) {
+	public static void generateInitStubsEpilogue(PrintWriter writer, boolean context_specific, boolean lazy_stubs) {
+		if ( !context_specific && !lazy_stubs ) {
 			writer.println("\t\t" + STUBS_LOADED_NAME + " = true;");
 		}
 		writer.println("\t\treturn " + CACHED_EXTS_VAR_NAME + ";");
@@ -170,7 +186,12 @@ public class GLCapabilitiesGenerator {
 		}
 	}
 
-	public static void generateInitStubs(ProcessingEnvironment env, PrintWriter writer, TypeElement d, boolean context_specific) {
+	public static void generateInitStubs(ProcessingEnvironment env, PrintWriter writer, TypeElement d, boolean context_specific, boolean lazy_stubs) {
+		if ( lazy_stubs ) {
+			// The class registers its stubs on its first use (see GeneratorVisitor), it must not be touched here.
+			// The extension flag only reflects the extension string.
+			return;
+		}
 		if ( Utils.getMethods(d).size() > 0 ) {
 			if ( context_specific ) {
 				final Alias alias_annotation = d.getAnnotation(Alias.class);
@@ -309,6 +330,31 @@ public class GLCapabilitiesGenerator {
 		writer.println();
 	}
 
+	/** Generates an array with the names of all functions that are resolved without platform-specific prefixes. */
+	public static void generateFunctionNames(PrintWriter writer, Collection<TypeElement> templates) {
+		final Set<String> names = new LinkedHashSet<String>();
+		for ( TypeElement d : templates ) {
+			if ( !d.getKind().isInterface() )
+				continue;
+
+			final Alias alias_annotation = d.getAnnotation(Alias.class);
+			final boolean aliased = alias_annotation != null && alias_annotation.postfix().length() > 0;
+			for ( ExecutableElement method : Utils.getMethods(d) ) {
+				if ( method.getAnnotation(Alternate.class) != null || method.getAnnotation(PlatformDependent.class) != null )
+					continue;
+
+				names.add(method.getSimpleName().toString());
+				if ( aliased )
+					names.add(method.getSimpleName() + alias_annotation.postfix());
+			}
+		}
+
+		writer.println("\tstatic final String[] " + FUNCTION_NAMES_VAR_NAME + " = {");
+		for ( String name : names )
+			writer.println("\t\t\"" + name + "\",");
+		writer.println("\t};");
+	}
+
 	public static void generateSymbolAddresses(ProcessingEnvironment env, PrintWriter writer, TypeElement d) {
 		boolean first = true;
 		for ( final ExecutableElement method : Utils.getMethods(d) ) {
@@ -121,7 +121,12 @@ public class GLESCapabilitiesGenerator {
 		return class_name + POINTER_INITIALIZER_POSTFIX;
 	}
 
-	public static void generateInitStubsPrologue(PrintWriter writer, boolean context_specific) {
+	/**
+	 * Generates the start of the method that initializes the stubs. If lazy_stubs is true, the classes register
+	 * their own stubs from their static initializer (see GeneratorVisitor), which runs on their first use. Only
+	 * the core class is initialized here.
+	 */
+	public static void generateInitStubsPrologue(PrintWriter writer, boolean context_specific, boolean lazy_stubs) {
 		writer.println("\tprivate Set<String> " + ALL_INIT_METHOD_NAME + "() throws LWJGLException {");
 
 		if ( context_specific ) {
@@ -133,21 +138,26 @@ public class GLESCapabilitiesGenerator {
 		// Get the supported extensions set.
 		writer.println("\t\tGLContext.setCapabilities(this);");
 		writer.println("\t\tSet<String> " + CACHED_EXTS_VAR_NAME + " = new HashSet<String>(256);");
-		if ( !context_specific )
+		if ( !context_specific && !lazy_stubs )
 			writer.println("\t\tGLContext.doInitNativeStubs(GLES20.class);");
 		writer.println("\t\tGLContext.getSupportedExtensions(" + CACHED_EXTS_VAR_NAME + ");");
 
 		if ( !context_specific ) {
-			writer.println("\t\tif (" + STUBS_LOADED_NAME + ")");
-			writer.println("\t\t\treturn " + CACHED_EXTS_VAR_NAME + ";");
+			if ( !lazy_stubs ) {
+				writer.println("\t\tif (" + STUBS_LOADED_NAME + ")");
+				writer.println("\t\t\treturn " + CACHED_EXTS_VAR_NAME + ";");
+			} else {
+				writer.println("\t\tif (!GLES20." + Utils.STUBS_INITIALIZED_NAME + ")");
+				writer.println("\t\t\tthrow new LWJGLException(\"GL ES 2.0 not supported\");");
+			}
 		} else {
 			writer.println("\t\tif (!" + getAddressesInitializerName("GLES20") + "())");
 			writer.println("\t\t\tthrow new LWJGLException(\"GL ES 2.0 not supported\");");
 		}
 	}
 
-	public static void generateInitStubsEpilogue(PrintWriter writer, boolean context_specific) {
-		if ( !context_specific )
+	public static void generateInitStubsEpilogue(PrintWriter writer, boolean context_specific, boolean lazy_stubs) {
+		if ( !context_specific && !lazy_stubs )
 			writer.println("\t\t" + STUBS_LOADED_NAME + " = true;");
 		writer.println("\t\treturn " + CACHED_EXTS_VAR_NAME + ";");
 		writer.println("\t}");
@@ -161,7 +171,12 @@ public class GLESCapabilitiesGenerator {
 		}
 	}
 
-	public static void generateInitStubs(ProcessingEnvironment env, PrintWriter writer, TypeElement d, boolean context_specific) {
+	public static void generateInitStubs(ProcessingEnvironment env, PrintWriter writer, TypeElement d, boolean context_specific, boolean lazy_stubs) {
+		if ( lazy_stubs ) {
+			// The class registers its stubs on its first use (see GeneratorVisitor), it must not be touched here.
+			// The extension flag only reflects the extension string.
+			return;
+		}
 		if ( Utils.getMethods(d).size() > 0 ) {
 			if ( context_specific ) {
 				final Alias alias_annotation = d.getAnnotation(Alias.class);
@@ -51,7 +51,7 @@ import javax.lang.model.util.ElementFilter;
  */
 @SupportedAnnotationTypes({ "*" })
 @SupportedSourceVersion(SourceVersion.RELEASE_6)
-@SupportedOptions({ "contextspecific", "generatechecks" })
+@SupportedOptions({ "contextspecific", "generatechecks", "lazystubs" })
 public class GLESGeneratorProcessor extends AbstractProcessor {
 
 	private static boolean first_round = true;
@@ -65,8 +65,9 @@ public class GLESGeneratorProcessor extends AbstractProcessor {
 		Map<String, String> options = processingEnv.getOptions();
 		boolean generate_error_checks = options.containsKey("generatechecks");
 		boolean context_specific = options.containsKey("contextspecific");
+		boolean lazy_stubs = !context_specific && options.containsKey("lazystubs");
 		try {
-			generateContextCapabilitiesSource(ElementFilter.typesIn(roundEnv.getRootElements()), context_specific, generate_error_checks);
+			generateContextCapabilitiesSource(ElementFilter.typesIn(roundEnv.getRootElements()), context_specific, lazy_stubs, generate_error_checks);
 			first_round = false;
 			return true;
 		} catch (IOException e) {
@@ -74,7 +75,7 @@ public class GLESGeneratorProcessor extends AbstractProcessor {
 		}
 	}
 
-	private void generateContextCapabilitiesSource(Set<TypeElement> templates, boolean context_specific, boolean generate_error_checks) throws IOException {
+	private void generateContextCapabilitiesSource(Set<TypeElement> templates, boolean context_specific, boolean lazy_stubs, boolean generate_error_checks) throws IOException {
 		PrintWriter writer = new PrintWriter(processingEnv.getFiler().createSourceFile("org.lwjgl.opengles." + Utils.CONTEXT_CAPS_CLASS_NAME, processingEnv.getElementUtils().getPackageElement("org.lwjgl.opengles")).openWriter());
 		writer.println("/* MACHINE GENERATED FILE, DO NOT EDIT */");
 		writer.println();
@@ -116,7 +117,7 @@ public class GLESGeneratorProcessor extends AbstractProcessor {
 			writer.println("\t}\n");
 		}
 
-		GLESCapabilitiesGenerator.generateInitStubsPrologue(writer, context_specific);
+		GLESCapabilitiesGenerator.generateInitStubsPrologue(writer, context_specific, lazy_stubs);
 		for ( TypeElement interface_decl : templates ) {
 			if ( interface_decl.getKind().isInterface() ) {
 				GLESCapabilitiesGenerator.generateSuperClassAdds(writer, interface_decl, processingEnv);
@@ -127,13 +128,13 @@ public class GLESGeneratorProcessor extends AbstractProcessor {
 				if ( "GLES20".equals(interface_decl.getSimpleName().toString()) ) {
 					continue;
 				}
-				GLESCapabilitiesGenerator.generateInitStubs(processingEnv, writer, interface_decl, context_specific);
+				GLESCapabilitiesGenerator.generateInitStubs(processingEnv, writer, interface_decl, context_specific, lazy_stubs);
 			}
 		}
-		GLESCapabilitiesGenerator.generateInitStubsEpilogue(writer, context_specific);
+		GLESCapabilitiesGenerator.generateInitStubsEpilogue(writer, context_specific, lazy_stubs);
 		writer.println();
 		writer.println("\tstatic void unloadAllStubs() {");
-		if ( !context_specific ) {
+		if ( !context_specific && !lazy_stubs ) {
 			writer.println("\t\tif (!loaded_stubs)");
 			writer.println("\t\t\treturn;");
 			for ( TypeElement interface_decl : templates ) {
@@ -190,4 +190,43 @@ public final class CacheUtil {
 		return new PointerBuffer(createByteBuffer(size * PointerBuffer.getPointerSize()));
 	}
 
+	/**
+	 * Allocates a native-ordered and cache-line-aligned bytebuffer with the specified size, outside
+	 * the Java heap. Like the buffers returned by createByteBuffer, it is over-allocated to align
+	 * it, by CACHE_LINE_SIZE - 1 bytes plus an 8 byte header that stores the original address.
+	 * Unlike them, it must be freed explicitly with {@link #memFree(Buffer)}.
+	 *
+	 * @param size The size, in bytes
+	 *
+	 * @return a ByteBuffer
+	 *
+	 * @see MemoryUtil#memAlignedAlloc(int, int)
+	 */
+	public static ByteBuffer memAlloc(int size) {
+		return MemoryUtil.memAlignedAlloc(CACHE_LINE_SIZE, size);
+	}
+
+	/**
+	 * Like {@link #memAlloc(int)}, but the buffer contents are initialized to zero.
+	 *
+	 * @param size The size, in bytes
+	 *
+	 * @return a ByteBuffer
+	 *
+	 * @see MemoryUtil#memAlignedCalloc(int, int)
+	 */
+	public static ByteBuffer memCalloc(int size) {
+		return MemoryUtil.memAlignedCalloc(CACHE_LINE_SIZE, size);
+	}
+
+	/**
+	 * Frees a buffer allocated with {@link #memAlloc(int)} or {@link #memCalloc(int)}, or any view of such a buffer
+	 * that starts at the same address.
+	 *
+	 * @param buffer the buffer to free
+	 */
+	public static void memFree(Buffer buffer) {
+		MemoryUtil.memAlignedFree(buffer);
+	}
+
 }
\ No newline at end of file
@@ -68,6 +68,27 @@ public class MappedHelper {
 		mo.baseAddress = mo.viewAddress = addr;
 	}
 
+	public static void setup_soa(MappedObject mo, int sizeof) {
+		final ByteBuffer buffer = mo.preventGC;
+		mo.streamLength = (buffer.capacity() - buffer.position()) / sizeof;
+		if ( LWJGLUtil.CHECKS && mo.streamLength == 0 )
+			throw new IllegalArgumentException("the buffer is too small for a single element");
+	}
+
+	public static int soa_capacity(MappedObject mo) {
+		return mo.streamLength;
+	}
+
+	/** Returns the address of a field of the current view, for mapped types with the SOA layout. */
+	public static long soa_address(MappedObject mapped, int fieldOffset, int fieldLength) {
+		return soa_address(mapped, mapped.viewAddress, fieldOffset, fieldLength);
+	}
+
+	/** Returns the address of a field of the specified view, for mapped types with the SOA layout. */
+	public static long soa_address(MappedObject mapped, long viewAddress, int fieldOffset, int fieldLength) {
+		return mapped.baseAddress + (long)fieldOffset * mapped.streamLength + (viewAddress - mapped.baseAddress) * fieldLength;
+	}
+
 	public static void checkAddress(long viewAddress, MappedObject mapped) {
 		mapped.checkAddress(viewAddress);
 	}
@@ -108,6 +129,7 @@ public class MappedHelper {
 		dst.baseAddress = src.baseAddress;
 		dst.viewAddress = src.viewAddress;
 		dst.preventGC = src.preventGC;
+		dst.streamLength = src.streamLength;
 		return dst;
 	}
 
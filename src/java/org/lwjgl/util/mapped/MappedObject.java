@@ -36,11 +36,13 @@ import org.lwjgl.MemoryUtil;
 
 import java.nio.BufferOverflowException;
 import java.nio.ByteBuffer;
+import java.util.concurrent.ExecutorService;
 
 /**
  * Base superclass of all mapped objects. Classes that require
  * data mapping should extend this class and registered with
- * {@link MappedObjectTransformer#register(Class)}.
+ * {@link MappedObjectTransformer#register(Class)}, or be transformed
+ * ahead of time with {@link MappedObjectCompiler}.
  * <p/>
  * Subclasses may only specify the default constructor. Any code
  * inside that constructor is optional, but will not run when the
@@ -67,6 +69,9 @@ public abstract class MappedObject {
 	/** The mapped buffer. */
 	ByteBuffer preventGC;
 
+	/** The number of elements in each field stream, if the mapped type uses the {@link MappedType.Layout#SOA} layout. 0 otherwise. */
+	int streamLength;
+
 	/**
 	 * Holds the value of sizeof of the sub-type of this MappedObject<br>
 	 * <br>
@@ -84,7 +89,7 @@ public abstract class MappedObject {
 	 */
 	public int view;
 
-	protected final long getViewAddress(final int view) {
+	protected long getViewAddress(final int view) {
 		// No call-site modification for this, we override in every subclass instead,
 		// so that we can use it in MappedForeach.
 		throw new InternalError("type not registered");
@@ -97,6 +102,14 @@ public abstract class MappedObject {
 	}
 
 	final void checkAddress(final long address) {
+		if ( streamLength != 0 ) {
+			// SOA, the view address is baseAddress + view
+			final long view = address - baseAddress;
+			if ( view < 0 || streamLength <= view )
+				throw new IndexOutOfBoundsException(Long.toString(view));
+			return;
+		}
+
 		final long base = MemoryUtil.getAddress0(preventGC);
 		final int offset = (int)(address - base);
 		if ( address < base || preventGC.capacity() < (offset + getSizeof()) )
@@ -117,7 +130,7 @@ public abstract class MappedObject {
 	 *
 	 * @return the memory alignment
 	 */
-	public final int getAlign() {
+	public int getAlign() {
 		// No call-site modification for this, we override in every subclass instead.
 		throw new InternalError("type not registered");
 	}
@@ -127,7 +140,7 @@ public abstract class MappedObject {
 	 *
 	 * @return the sizeof value
 	 */
-	public final int getSizeof() {
+	public int getSizeof() {
 		// No call-site modification for this, we override in every subclass instead.
 		throw new InternalError("type not registered");
 	}
@@ -137,7 +150,7 @@ public abstract class MappedObject {
 	 *
 	 * @return the mapped object capacity
 	 */
-	public final int capacity() {
+	public int capacity() {
 		// No call-site modification for this, we override in every subclass instead.
 		throw new InternalError("type not registered");
 	}
@@ -218,7 +231,7 @@ public abstract class MappedObject {
 	}
 
 	/** Moves the current view to the next element. */
-	public final void next() {
+	public void next() {
 		// No call-site modification for this, we override in every subclass instead,
 		// so that we can use it in MappedSetX.
 		throw new InternalError("type not registered");
@@ -269,6 +282,29 @@ public abstract class MappedObject {
 		return new MappedForeach<T>(mapped, elementCount);
 	}
 
+	/**
+	 * Processes <code>elementCount</code> views in parallel, using a shared pool with one daemon thread
+	 * per available processor. See {@link #parallelForEach(MappedObject, int, MappedRangeTask, ExecutorService, int)}.
+	 */
+	public static <T extends MappedObject> void parallelForEach(T mapped, int elementCount, MappedRangeTask<T> task) {
+		parallelForEach(mapped, elementCount, task, MappedParallelForEach.getExecutor(), Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Processes <code>elementCount</code> views in parallel. The elements are split in up to <code>parallelism</code>
+	 * ranges and <code>task</code> is invoked once per range, with its own {@link #dup()} of <code>mapped</code>.
+	 * Range boundaries are aligned to {@link CacheUtil#getCacheLineSize()}, so that tasks that only write to their
+	 * own elements do not suffer from false sharing. The first range runs on the calling thread, the others on
+	 * <code>executor</code>. This method returns when all ranges have been processed. The view of
+	 * <code>mapped</code> is not modified.
+	 * <p/>
+	 * If a task throws, the first exception is rethrown after all ranges have completed. This method must not
+	 * be called from a task running on the same executor, it may deadlock.
+	 */
+	public static <T extends MappedObject> void parallelForEach(T mapped, int elementCount, MappedRangeTask<T> task, ExecutorService executor, int parallelism) {
+		MappedParallelForEach.run(mapped, elementCount, task, executor, parallelism);
+	}
+
 	@SuppressWarnings("unused")
 	public final <T extends MappedObject> T[] asArray() {
 		// any method that calls this method will have its call-site modified
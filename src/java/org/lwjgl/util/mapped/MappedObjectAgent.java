@@ -0,0 +1,247 @@
+/*
+ * Copyright (c) 2002-2011 LWJGL Project
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'LWJGL' nor the names of
+ *   its contributors may be used to endorse or promote products derived
+ *   from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.lwjgl.util.mapped;
+
+import org.objectweb.asm.ClassReader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.instrument.ClassFileTransformer;
+import java.lang.instrument.Instrumentation;
+import java.lang.ref.WeakReference;
+import java.util.HashSet;
+import java.security.ProtectionDomain;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * A Java agent that applies the mapped object transformation while classes are being loaded, as an alternative
+ * to {@link MappedObjectClassLoader#fork}. Classes are transformed in the class loader that defines them, so the
+ * application is not re-launched and no class is defined twice.
+ * <p/>
+ * Usage: <code>java -javaagent:lwjgl_util.jar=&lt;mapped types&gt; ...</code>, where the optional agent arguments
+ * are the binary names of the mapped object types, separated by commas. ASM must be on the classpath.
+ * <p/>
+ * A mapped type must be registered before any class that uses it is transformed. The types listed in the agent
+ * arguments are registered before the main class is loaded. Other mapped types are registered when a class that
+ * references them is transformed, or when they are loaded themselves, whichever happens first.
+ * The {@link MappedObjectTransformer#register} and {@link MappedObjectClassLoader#fork} calls of the application
+ * detect the transformed types and do nothing.
+ * <p/>
+ * The transformation time is available through {@link MappedObjectTransformer#getTransformationTime()}.
+ */
+public final class MappedObjectAgent implements ClassFileTransformer {
+
+	private static final String MAPPEDOBJECT_PACKAGE_JVM = MappedObjectClassLoader.MAPPEDOBJECT_PACKAGE_PREFIX.replace('.', '/');
+
+	/** The class loader of the platform classes, these are never transformed. */
+	private final ClassLoader platform_loader = ClassLoader.getSystemClassLoader().getParent();
+
+	/** The constant pool tag of class references. */
+	private static final int CONSTANT_CLASS = 7;
+
+	/**
+	 * The AnalysisClassLoader of each instrumented class loader. The analysis loaders only reference the instrumented
+	 * loaders weakly, so they live exactly as long as these.
+	 */
+	private final Map<ClassLoader, AnalysisClassLoader> analysis_loaders = new WeakHashMap<ClassLoader, AnalysisClassLoader>();
+
+	private MappedObjectAgent() {
+	}
+
+	public static void premain(final String agentArgs, final Instrumentation inst) throws ClassNotFoundException {
+		final MappedObjectAgent agent = new MappedObjectAgent();
+
+		if ( agentArgs != null ) {
+			for ( String type : agentArgs.split(",") ) {
+				type = type.trim();
+				if ( type.length() != 0 )
+					agent.register(ClassLoader.getSystemClassLoader(), type);
+			}
+		}
+
+		inst.addTransformer(agent);
+	}
+
+	private void register(final ClassLoader loader, final String type) throws ClassNotFoundException {
+		MappedObjectTransformer.registerType(Class.forName(type, false, getAnalysisLoader(loader)).asSubclass(MappedObject.class));
+	}
+
+	private AnalysisClassLoader getAnalysisLoader(final ClassLoader loader) {
+		AnalysisClassLoader analysisLoader = analysis_loaders.get(loader);
+		if ( analysisLoader == null ) {
+			analysisLoader = new AnalysisClassLoader(platform_loader, loader);
+			analysis_loaders.put(loader, analysisLoader);
+		}
+
+		return analysisLoader;
+	}
+
+	private static boolean isExcluded(final String className) {
+		return className.startsWith("java/")
+		       || className.startsWith("javax/")
+		       || className.startsWith("sun/")
+		       || className.startsWith("sunw/")
+		       || className.startsWith("org/objectweb/asm/")
+		       || (className.startsWith(MAPPEDOBJECT_PACKAGE_JVM) && className.indexOf('/', MAPPEDOBJECT_PACKAGE_JVM.length()) == -1);
+	}
+
+	/**
+	 * Registers the mapped types referenced by the specified class, which has not been transformed yet. A class that
+	 * uses a mapped type is usually loaded before the type itself, so waiting for the type to be loaded is too late.
+	 */
+	private void registerReferencedTypes(final ClassLoader loader, final ClassReader cr) throws ClassNotFoundException {
+		final AnalysisClassLoader analysisLoader = getAnalysisLoader(loader);
+
+		char[] buf = new char[64];
+		final int itemCount = cr.readUnsignedShort(8);
+		for ( int i = 1; i < itemCount; i++ ) {
+			final int offset = cr.getItem(i);
+			// The second slot of long and double constants has no item
+			if ( offset == 0 || cr.b[offset - 1] != CONSTANT_CLASS )
+				continue;
+
+			final int length = cr.readUnsignedShort(cr.getItem(cr.readUnsignedShort(offset)));
+			if ( buf.length < length )
+				buf = new char[length];
+
+			final String className = cr.readUTF8(offset, buf);
+			if ( className.charAt(0) == '[' || isExcluded(className) || MappedObjectTransformer.className_to_subtype.containsKey(className) )
+				continue;
+
+			if ( analysisLoader.isMappedType(className) )
+				register(loader, className.replace('/', '.'));
+		}
+	}
+
+	public byte[] transform(final ClassLoader loader, final String className, final Class<?> classBeingRedefined, final ProtectionDomain protectionDomain, final byte[] classfileBuffer) {
+		// Same as MappedObjectClassLoader, with the platform classes and our own analysis classes excluded.
+		if ( loader == null || loader == platform_loader || loader instanceof AnalysisClassLoader || className == null || classBeingRedefined != null )
+			return null;
+
+		if ( isExcluded(className) )
+			return null;
+
+		try {
+			// The transformer is not thread-safe
+			synchronized ( this ) {
+				final ClassReader cr = new ClassReader(classfileBuffer);
+				if ( !MappedObjectTransformer.className_to_subtype.containsKey(className)
+				     && MappedObjectTransformer.MAPPED_OBJECT_JVM.equals(cr.getSuperName()) )
+					register(loader, className.replace('/', '.'));
+				registerReferencedTypes(loader, cr);
+
+				final long t0 = System.nanoTime();
+				final byte[] bytecode = MappedObjectTransformer.transformMappedAPI(className, classfileBuffer, getAnalysisLoader(loader));
+				final long t1 = System.nanoTime();
+
+				MappedObjectTransformer.recordTransformation(MappedObjectAgent.class.getSimpleName(), className, t0, t1, bytecode != classfileBuffer);
+
+				return bytecode == classfileBuffer ? null : bytecode;
+			}
+		} catch (Throwable t) {
+			// The JVM silently ignores exceptions thrown by transformers, the class would fail later with "type not registered".
+			System.err.println(MappedObjectAgent.class.getSimpleName() + ": failed to transform " + className);
+			t.printStackTrace();
+			return null;
+		}
+	}
+
+	/**
+	 * Defines untransformed copies of the classes visible to an instrumented class loader. These are used to
+	 * register mapped types and to answer the type queries of the transformation, which must not load classes
+	 * in the instrumented class loader itself: the class being queried might be the one being transformed.
+	 */
+	private static final class AnalysisClassLoader extends ClassLoader {
+
+		/** Weak, the instrumented loader strongly reaches its AnalysisClassLoader through analysis_loaders. */
+		private final WeakReference<ClassLoader> loader;
+
+		/** The referenced classes known not to be mapped types. */
+		private final Set<String> unmapped = new HashSet<String>();
+
+		AnalysisClassLoader(final ClassLoader parent, final ClassLoader loader) {
+			super(parent);
+			this.loader = new WeakReference<ClassLoader>(loader);
+		}
+
+		/** Returns true if the specified class extends MappedObject, without loading it. */
+		boolean isMappedType(final String className) {
+			if ( unmapped.contains(className) )
+				return false;
+
+			final InputStream in = getLoader().getResourceAsStream(className.concat(".class"));
+			try {
+				if ( in != null && MappedObjectTransformer.MAPPED_OBJECT_JVM.equals(new ClassReader(in).getSuperName()) )
+					return true;
+			} catch (IOException e) {
+				// Not a class we can transform anyway
+			} finally {
+				if ( in != null ) {
+					try {
+						in.close();
+					} catch (IOException e) {
+						// ignore
+					}
+				}
+			}
+
+			unmapped.add(className);
+			return false;
+		}
+
+		private ClassLoader getLoader() {
+			final ClassLoader loader = this.loader.get();
+			if ( loader == null )
+				throw new IllegalStateException("The instrumented class loader has been collected");
+			return loader;
+		}
+
+		protected synchronized Class<?> loadClass(final String name, final boolean resolve) throws ClassNotFoundException {
+			// The mapped object API is shared, so that the registered types extend the real MappedObject
+			if ( name.startsWith(MappedObjectClassLoader.MAPPEDOBJECT_PACKAGE_PREFIX) && name.indexOf('.', MappedObjectClassLoader.MAPPEDOBJECT_PACKAGE_PREFIX.length()) == -1 )
+				return MappedObjectAgent.class.getClassLoader().loadClass(name);
+
+			return super.loadClass(name, resolve);
+		}
+
+		protected Class<?> findClass(final String name) throws ClassNotFoundException {
+			final InputStream in = getLoader().getResourceAsStream(name.replace('.', '/').concat(".class"));
+			if ( in == null )
+				throw new ClassNotFoundException(name);
+
+			final byte[] bytecode = MappedObjectClassLoader.readStream(in);
+			return defineClass(name, bytecode, 0, bytecode.length);
+		}
+	}
+}
@@ -31,8 +31,6 @@
  */
 package org.lwjgl.util.mapped;
 
-import org.lwjgl.LWJGLUtil;
-
 import java.io.IOException;
 import java.io.InputStream;
 import java.lang.reflect.InvocationTargetException;
@@ -42,6 +40,11 @@ import java.net.URLClassLoader;
 /**
  * This classloader is responsible for applying the bytecode transformation to mapped objects.
  * The transformation can either be applied using a Java agent, or with the convenient {@link #fork} method.
+ * <p/>
+ * Alternatively, the transformation can be applied ahead of time with {@link MappedObjectCompiler}, or
+ * at class-load time with {@link MappedObjectAgent}. The fork is then skipped: {@link MappedObjectTransformer#register} detects the transformed types and
+ * {@link #fork} returns false. The register and fork calls may also be removed entirely, in which case
+ * ASM is not required at runtime.
  *
  * @author Riven
  */
@@ -54,6 +57,9 @@ public class MappedObjectClassLoader extends URLClassLoader {
 	/**
 	 * Forks the specified class containing a main method, passing the specified arguments. See
 	 * {@link org.lwjgl.test.mapped.TestMappedObject} for example usage.
+	 * <p/>
+	 * If the registered mapped object types have been transformed ahead of time, this method
+	 * does nothing and returns false.
 	 *
 	 * @param mainClass the class containing the main method
 	 * @param args      the arguments to pass
@@ -65,6 +71,12 @@ public class MappedObjectClassLoader extends URLClassLoader {
 			return false;
 		}
 
+		if ( MappedObjectTransformer.pretransformed_types != 0 ) {
+			if ( MappedObjectTransformer.runtime_types != 0 )
+				throw new IllegalStateException("Mapped object types transformed ahead of time cannot be mixed with types transformed at runtime.");
+			return false;
+		}
+
 		FORKED = true;
 
 		try {
@@ -91,23 +103,13 @@ public class MappedObjectClassLoader extends URLClassLoader {
 		final String name = MappedObject.class.getName();
 		String className = name.replace('.', '/');
 
-		byte[] bytecode = readStream(this.getResourceAsStream(className.concat(".class")));
-
-		long t0 = System.nanoTime();
-		bytecode = MappedObjectTransformer.transformMappedObject(bytecode);
-		long t1 = System.nanoTime();
-		total_time_transforming += (t1 - t0);
-
-		if ( MappedObjectTransformer.PRINT_ACTIVITY )
-			printActivity(className, t0, t1);
+		final byte[] bytecode = readStream(this.getResourceAsStream(className.concat(".class")));
 
 		Class<?> clazz = super.defineClass(name, bytecode, 0, bytecode.length);
 		resolveClass(clazz);
 		return clazz;
 	}
 
-	private static long total_time_transforming;
-
 	@Override
 	protected synchronized Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
 		if ( name.startsWith("java.")
@@ -136,13 +138,8 @@ public class MappedObjectClassLoader extends URLClassLoader {
 			final byte[] newBytecode = MappedObjectTransformer.transformMappedAPI(className, bytecode);
 			long t1 = System.nanoTime();
 
-			total_time_transforming += (t1 - t0);
-
-			if ( bytecode != newBytecode ) {
-				bytecode = newBytecode;
-				if ( MappedObjectTransformer.PRINT_ACTIVITY )
-					printActivity(className, t0, t1);
-			}
+			MappedObjectTransformer.recordTransformation(MappedObjectClassLoader.class.getSimpleName(), className, t0, t1, bytecode != newBytecode);
+			bytecode = newBytecode;
 		}
 
 		Class<?> clazz = super.defineClass(name, bytecode, 0, bytecode.length);
@@ -151,16 +148,7 @@ public class MappedObjectClassLoader extends URLClassLoader {
 		return clazz;
 	}
 
-	private static void printActivity(final String className, final long t0, final long t1) {
-		final StringBuilder msg = new StringBuilder(MappedObjectClassLoader.class.getSimpleName() + ": " + className);
-
-		if ( MappedObjectTransformer.PRINT_TIMING )
-			msg.append("\n\ttransforming took " + (t1 - t0) / 1000 + " micros (total: " + (total_time_transforming / 1000 / 1000) + "ms)");
-
-		LWJGLUtil.log(msg);
-	}
-
-	private static byte[] readStream(InputStream in) {
+	static byte[] readStream(InputStream in) {
 		byte[] bytecode = new byte[256];
 		int len = 0;
 		try {
@@ -0,0 +1,213 @@
+/*
+ * Copyright (c) 2002-2011 LWJGL Project
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'LWJGL' nor the names of
+ *   its contributors may be used to endorse or promote products derived
+ *   from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.lwjgl.util.mapped;
+
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.tree.ClassNode;
+
+import java.io.*;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.*;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+import static org.objectweb.asm.ClassReader.*;
+
+/**
+ * Applies the mapped object transformation ahead of time, to a directory or jar of compiled classes.
+ * Classes that do not use mapped objects and other resources are copied unchanged.
+ * <p/>
+ * Usage: <code>java -cp lwjgl.jar:asm-debug-all.jar:&lt;dependencies&gt; org.lwjgl.util.mapped.MappedObjectCompiler
+ * &lt;input&gt; &lt;output&gt; [mapped types]</code>
+ * <p/>
+ * The input and output may each be a directory or a jar/zip file. Every class in the input that extends
+ * {@link MappedObject} is registered automatically. Mapped types declared outside the input, e.g. in a
+ * library, must be on the classpath and listed by their binary names after the output.
+ * <p/>
+ * The transformed classes do not need {@link MappedObjectClassLoader#fork}, see {@link MappedObjectClassLoader}.
+ */
+public final class MappedObjectCompiler {
+
+	private MappedObjectCompiler() {
+	}
+
+	public static void main(String[] args) throws Exception {
+		if ( args.length < 2 ) {
+			System.err.println("Usage: " + MappedObjectCompiler.class.getName() + " <input> <output> [mapped types]");
+			System.exit(1);
+		}
+
+		final File input = new File(args[0]);
+		final File output = new File(args[1]);
+
+		final long start = System.nanoTime();
+
+		final Map<String, byte[]> entries = read(input);
+
+		// Find the mapped types
+		final List<String> mappedTypes = new ArrayList<String>();
+		for ( String name : entries.keySet() ) {
+			if ( !name.endsWith(".class") )
+				continue;
+
+			final ClassNode node = new ClassNode();
+			new ClassReader(entries.get(name)).accept(node, SKIP_CODE | SKIP_DEBUG | SKIP_FRAMES);
+			if ( MappedObjectTransformer.MAPPED_OBJECT_JVM.equals(node.superName) )
+				mappedTypes.add(node.name.replace('/', '.'));
+		}
+		for ( int i = 2; i < args.length; i++ )
+			mappedTypes.add(args[i]);
+
+		final ClassLoader loader = new URLClassLoader(new URL[] { input.toURI().toURL() }, MappedObjectCompiler.class.getClassLoader());
+		for ( String type : mappedTypes ) {
+			final Class<? extends MappedObject> clazz = Class.forName(type, false, loader).asSubclass(MappedObject.class);
+			if ( MappedObjectTransformer.isTransformed(clazz) )
+				throw new IllegalStateException("The mapped object type has already been transformed: " + type);
+			MappedObjectTransformer.registerType(clazz);
+		}
+
+		// Transform
+		final String mappedPackage = MappedObjectClassLoader.MAPPEDOBJECT_PACKAGE_PREFIX.replace('.', '/');
+
+		int transformed = 0;
+		for ( Map.Entry<String, byte[]> entry : entries.entrySet() ) {
+			final String name = entry.getKey();
+			if ( !name.endsWith(".class") )
+				continue;
+
+			final String className = name.substring(0, name.length() - ".class".length());
+			// Same as MappedObjectClassLoader, classes in this package are never transformed
+			if ( className.startsWith(mappedPackage) && className.indexOf('/', mappedPackage.length()) == -1 )
+				continue;
+
+			final long t0 = System.nanoTime();
+			final byte[] bytecode = MappedObjectTransformer.transformMappedAPI(className, entry.getValue(), loader);
+			final long t1 = System.nanoTime();
+
+			MappedObjectTransformer.recordTransformation(MappedObjectCompiler.class.getSimpleName(), className, t0, t1, bytecode != entry.getValue());
+			if ( bytecode != entry.getValue() ) {
+				entry.setValue(bytecode);
+				transformed++;
+			}
+		}
+
+		write(output, entries);
+
+		final long end = System.nanoTime();
+		System.out.println(MappedObjectCompiler.class.getSimpleName() + ": " + mappedTypes.size() + " mapped types, transformed " + transformed + " classes in " + (end - start) / 1000 / 1000 + "ms");
+	}
+
+	/** Reads the entries of a directory or zip file, keyed by their path relative to the root. */
+	private static Map<String, byte[]> read(final File input) throws IOException {
+		final Map<String, byte[]> entries = new LinkedHashMap<String, byte[]>();
+
+		if ( input.isDirectory() )
+			readDirectory(input, "", entries);
+		else {
+			final ZipFile zip = new ZipFile(input);
+			try {
+				for ( Enumeration<? extends ZipEntry> e = zip.entries(); e.hasMoreElements(); ) {
+					final ZipEntry entry = e.nextElement();
+					if ( !entry.isDirectory() )
+						entries.put(entry.getName(), readStream(zip.getInputStream(entry)));
+				}
+			} finally {
+				zip.close();
+			}
+		}
+
+		return entries;
+	}
+
+	private static void readDirectory(final File dir, final String path, final Map<String, byte[]> entries) throws IOException {
+		final File[] files = dir.listFiles();
+		if ( files == null )
+			throw new IOException("Failed to list directory: " + dir);
+
+		Arrays.sort(files);
+		for ( File file : files ) {
+			if ( file.isDirectory() )
+				readDirectory(file, path + file.getName() + "/", entries);
+			else
+				entries.put(path + file.getName(), readStream(new FileInputStream(file)));
+		}
+	}
+
+	/** Writes the entries to a directory, or to a zip file if the output name ends with .jar or .zip. */
+	private static void write(final File output, final Map<String, byte[]> entries) throws IOException {
+		final String name = output.getName().toLowerCase();
+		if ( name.endsWith(".jar") || name.endsWith(".zip") ) {
+			final File parent = output.getAbsoluteFile().getParentFile();
+			if ( parent != null && !parent.isDirectory() && !parent.mkdirs() )
+				throw new IOException("Failed to create directory: " + parent);
+
+			final ZipOutputStream zip = new ZipOutputStream(new BufferedOutputStream(new FileOutputStream(output)));
+			try {
+				for ( Map.Entry<String, byte[]> entry : entries.entrySet() ) {
+					zip.putNextEntry(new ZipEntry(entry.getKey()));
+					zip.write(entry.getValue());
+					zip.closeEntry();
+				}
+			} finally {
+				zip.close();
+			}
+		} else {
+			for ( Map.Entry<String, byte[]> entry : entries.entrySet() ) {
+				final File file = new File(output, entry.getKey());
+				final File parent = file.getParentFile();
+				if ( !parent.isDirectory() && !parent.mkdirs() )
+					throw new IOException("Failed to create directory: " + parent);
+
+				final OutputStream out = new FileOutputStream(file);
+				try {
+					out.write(entry.getValue());
+				} finally {
+					out.close();
+				}
+			}
+		}
+	}
+
+	private static byte[] readStream(final InputStream in) throws IOException {
+		try {
+			final ByteArrayOutputStream bytes = new ByteArrayOutputStream(4096);
+			final byte[] buffer = new byte[4096];
+			for ( int len; (len = in.read(buffer)) != -1; )
+				bytes.write(buffer, 0, len);
+			return bytes.toByteArray();
+		} finally {
+			in.close();
+		}
+	}
+}
@@ -48,6 +48,8 @@ import java.nio.Buffer;
 import java.nio.ByteBuffer;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.objectweb.asm.ClassWriter.*;
 import static org.objectweb.asm.Opcodes.*;
@@ -57,7 +59,8 @@ import static org.objectweb.asm.Opcodes.*;
  * Mapped object classes need to first be registered with the transformer, see {@link #register(Class)}.
  * <p/>
  * The transformer supports some debugging tools, enabled through JVM system properties:<br/>
- * org.lwjgl.util.mapped.PrintTiming=true, prints timing information for the transformation step.<br/>
+ * org.lwjgl.util.mapped.PrintTiming=true, prints timing information for the transformation step. The same information
+ * is always available through {@link #getTransformationTime()} and {@link #getTransformedClassCount()}.<br/>
  * org.lwjgl.util.mapped.PrintActivity=true, prints activity information.<br/>
  * org.lwjgl.util.mapped.PrintBytecode=true, prints the transformed bytecode.<br/>
  * org.lwjgl.util.Debug must also be set to true for the above to work.
@@ -97,6 +100,16 @@ public class MappedObjectTransformer {
 
 	static boolean is_currently_computing_frames;
 
+	/** The number of registered types that had already been transformed ahead of time, see {@link MappedObjectCompiler}. */
+	static int pretransformed_types;
+	/** The number of registered types that require a transformation at runtime. */
+	static int runtime_types;
+
+	/** The total time spent in the transformation step, in nanoseconds. */
+	private static final AtomicLong    transformation_time = new AtomicLong();
+	/** The number of classes changed by the transformation step. */
+	private static final AtomicInteger transformed_classes = new AtomicInteger();
+
 	static {
 		getClassEnums(Opcodes.class, OPCODE_TO_NAME, "V1_", "ACC_", "T_", "F_", "MH_");
 		getClassEnums(AbstractInsnNode.class, INSNTYPE_TO_NAME);
@@ -118,7 +131,7 @@ public class MappedObjectTransformer {
 			// => IADD
 			// => PUTFIELD MyMappedType.view
 			//
-			className_to_subtype.put(MAPPED_OBJECT_JVM, new MappedSubtypeInfo(MAPPED_OBJECT_JVM, null, -1, -1, -1, false));
+			className_to_subtype.put(MAPPED_OBJECT_JVM, new MappedSubtypeInfo(MAPPED_OBJECT_JVM, null, -1, -1, -1, false, false));
 		}
 
 		final String vmName = System.getProperty("java.vm.name");
@@ -127,6 +140,51 @@ public class MappedObjectTransformer {
 		}
 	}
 
+	/**
+	 * Returns the total time spent transforming classes so far, in nanoseconds. This includes the time
+	 * spent on classes that were inspected but did not need a transformation.
+	 *
+	 * @return the transformation time, in nanoseconds
+	 */
+	public static long getTransformationTime() {
+		return transformation_time.get();
+	}
+
+	/**
+	 * Returns the number of classes transformed so far.
+	 *
+	 * @return the transformed class count
+	 */
+	public static int getTransformedClassCount() {
+		return transformed_classes.get();
+	}
+
+	/**
+	 * Records the timing of a transformation step, started at t0 and finished at t1.
+	 *
+	 * @param source      the name of the class applying the transformation, for the activity log
+	 * @param className   the class name, in internal form
+	 * @param t0          the start time, as returned by System.nanoTime()
+	 * @param t1          the end time, as returned by System.nanoTime()
+	 * @param transformed true if the class was changed
+	 */
+	static void recordTransformation(final String source, final String className, final long t0, final long t1, final boolean transformed) {
+		final long total = transformation_time.addAndGet(t1 - t0);
+		if ( !transformed )
+			return;
+
+		transformed_classes.incrementAndGet();
+
+		if ( PRINT_ACTIVITY ) {
+			final StringBuilder msg = new StringBuilder(source + ": " + className);
+
+			if ( PRINT_TIMING )
+				msg.append("\n\ttransforming took " + (t1 - t0) / 1000 + " micros (total: " + (total / 1000 / 1000) + "ms)");
+
+			LWJGLUtil.log(msg);
+		}
+	}
+
 	/**
 	 * Registers a class as a mapped object.
 	 * The class must extend {@link org.lwjgl.util.mapped.MappedObject} and be annotated with {@link org.lwjgl.util.mapped.MappedField}.
@@ -137,6 +195,18 @@ public class MappedObjectTransformer {
 		if ( MappedObjectClassLoader.FORKED )
 			return;
 
+		if ( isTransformed(type) ) {
+			// Transformed ahead of time, or by MappedObjectAgent. The layout is already part of the bytecode.
+			pretransformed_types++;
+			return;
+		}
+		runtime_types++;
+
+		registerType(type);
+	}
+
+	/** Registers the layout of the specified mapped object class with the transformer. */
+	static void registerType(final Class<? extends MappedObject> type) {
 		final MappedType mapped = type.getAnnotation(MappedType.class);
 
 		if ( mapped != null && mapped.padding() < 0 )
@@ -180,11 +250,23 @@ public class MappedObjectTransformer {
 
 		sizeof += padding;
 
-		final MappedSubtypeInfo mappedType = new MappedSubtypeInfo(className, fields, (int)sizeof, align, padding, cacheLinePadded);
+		final boolean soa = mapped != null && mapped.layout() == MappedType.Layout.SOA;
+
+		final MappedSubtypeInfo mappedType = new MappedSubtypeInfo(className, fields, (int)sizeof, align, padding, cacheLinePadded, soa);
 		if ( className_to_subtype.put(className, mappedType) != null )
 			throw new InternalError("duplicate mapped type: " + mappedType.className);
 	}
 
+	/** Returns true if the specified mapped object class has already gone through the transformation. */
+	static boolean isTransformed(final Class<? extends MappedObject> type) {
+		try {
+			type.getDeclaredMethod(VIEWADDRESS_METHOD_NAME, int.class);
+			return true;
+		} catch (NoSuchMethodException e) {
+			return false;
+		}
+	}
+
 	private static FieldInfo registerField(final boolean autoGenerateOffsets, final String className, long advancingOffset, final Field field) {
 		if ( Modifier.isStatic(field.getModifiers()) ) // static fields are never mapped
 			return null;
@@ -261,36 +343,21 @@ public class MappedObjectTransformer {
 		return new FieldInfo(byteOffset, byteLength, byteLengthPadded, Type.getType(field.getType()), Modifier.isVolatile(field.getModifiers()), pointer != null);
 	}
 
-	/** Removes final from methods that will be overriden by subclasses. */
-	static byte[] transformMappedObject(byte[] bytecode) {
-		final ClassWriter cw = new ClassWriter(0);
-
-		ClassVisitor cv = new ClassAdapter(cw) {
-
-			private final String[] DEFINALIZE_LIST = {
-				VIEWADDRESS_METHOD_NAME,
-				NEXT_METHOD_NAME,
-				ALIGN_METHOD_NAME,
-				SIZEOF_METHOD_NAME,
-				CAPACITY_METHOD_NAME,
-			};
-
-			public MethodVisitor visitMethod(int access, final String name, final String desc, final String signature, final String[] exceptions) {
-				for ( String method : DEFINALIZE_LIST ) {
-					if ( name.equals(method) ) {
-						access &= ~ACC_FINAL;
-						break;
-					}
-				}
-				return super.visitMethod(access, name, desc, signature, exceptions);
-			}
-		};
-
-		new ClassReader(bytecode).accept(cv, 0);
-		return cw.toByteArray();
+	static byte[] transformMappedAPI(final String className, byte[] bytecode) {
+		return transformMappedAPI(className, bytecode, null);
 	}
 
-	static byte[] transformMappedAPI(final String className, byte[] bytecode) {
+	/**
+	 * Transforms the specified class.
+	 *
+	 * @param className the class name, in internal form
+	 * @param bytecode  the class bytecode
+	 * @param loader    the ClassLoader used to resolve the types referenced by the class, during frame analysis.
+	 *                  If null, the ClassLoader of the transformer is used.
+	 *
+	 * @return the transformed bytecode, or the same bytecode array if the class does not use mapped objects
+	 */
+	static byte[] transformMappedAPI(final String className, byte[] bytecode, final ClassLoader loader) {
 		final ClassWriter cw = new ClassWriter(COMPUTE_FRAMES) {
 
 			@Override
@@ -304,7 +371,7 @@ public class MappedObjectTransformer {
 
 		};
 
-		final TransformationAdapter ta = new TransformationAdapter(cw, className);
+		final TransformationAdapter ta = new TransformationAdapter(cw, className, loader);
 
 		ClassVisitor cv = ta;
 		if ( className_to_subtype.containsKey(className) ) // Do a first pass to generate address getters
@@ -329,34 +396,36 @@ public class MappedObjectTransformer {
 			public void visitEnd() {
 				final MappedSubtypeInfo mappedSubtype = className_to_subtype.get(className);
 
-				generateViewAddressGetter();
-				generateCapacity();
+				generateViewAddressGetter(mappedSubtype);
+				generateCapacity(mappedSubtype);
 				generateAlignGetter(mappedSubtype);
 				generateSizeofGetter();
-				generateNext();
+				generateNext(mappedSubtype);
 
 				for ( String fieldName : mappedSubtype.fields.keySet() ) {
 					final FieldInfo field = mappedSubtype.fields.get(fieldName);
 
 					if ( field.type.getDescriptor().length() > 1 ) {  // ByteBuffer, getter only
-						generateByteBufferGetter(fieldName, field);
+						generateByteBufferGetter(mappedSubtype, fieldName, field);
 					} else {
-						generateFieldGetter(fieldName, field);
-						generateFieldSetter(fieldName, field);
+						generateFieldGetter(mappedSubtype, fieldName, field);
+						generateFieldSetter(mappedSubtype, fieldName, field);
 					}
 				}
 
 				super.visitEnd();
 			}
 
-			private void generateViewAddressGetter() {
+			private void generateViewAddressGetter(final MappedSubtypeInfo mappedSubtype) {
 				MethodVisitor mv = super.visitMethod(ACC_PUBLIC, VIEWADDRESS_METHOD_NAME, "(I)J", null, null);
 				mv.visitCode();
 				mv.visitVarInsn(ALOAD, 0);
 				mv.visitFieldInsn(GETFIELD, MAPPED_OBJECT_JVM, "baseAddress", "J");
 				mv.visitVarInsn(ILOAD, 1);
-				mv.visitFieldInsn(GETSTATIC, className, "SIZEOF", "I");
-				mv.visitInsn(IMUL);
+				if ( !mappedSubtype.soa ) { // With SOA, the view address is baseAddress + view
+					mv.visitFieldInsn(GETSTATIC, className, "SIZEOF", "I");
+					mv.visitInsn(IMUL);
+				}
 				mv.visitInsn(I2L);
 				mv.visitInsn(LADD);
 				if ( MappedObject.CHECKS ) {
@@ -369,10 +438,19 @@ public class MappedObjectTransformer {
 				mv.visitEnd();
 			}
 
-			private void generateCapacity() {
+			private void generateCapacity(final MappedSubtypeInfo mappedSubtype) {
 				// return (backingByteBuffer().capacity() + (int)(MemoryUtil.getAddress0(backingByteBuffer()) - baseAddress)) / SIZEOF;
 				MethodVisitor mv = super.visitMethod(ACC_PUBLIC, CAPACITY_METHOD_NAME, "()I", null, null);
 				mv.visitCode();
+				if ( mappedSubtype.soa ) {
+					// return MappedHelper.soa_capacity(this);
+					mv.visitVarInsn(ALOAD, 0);
+					mv.visitMethodInsn(INVOKESTATIC, MAPPED_HELPER_JVM, "soa_capacity", "(L" + MAPPED_OBJECT_JVM + ";)I");
+					mv.visitInsn(IRETURN);
+					mv.visitMaxs(1, 1);
+					mv.visitEnd();
+					return;
+				}
 				mv.visitVarInsn(ALOAD, 0);
 				mv.visitMethodInsn(INVOKEVIRTUAL, MAPPED_OBJECT_JVM, "backingByteBuffer", "()L" + jvmClassName(ByteBuffer.class) + ";");
 				mv.visitInsn(DUP);
@@ -409,13 +487,16 @@ public class MappedObjectTransformer {
 				mv.visitEnd();
 			}
 
-			private void generateNext() {
+			private void generateNext(final MappedSubtypeInfo mappedSubtype) {
 				MethodVisitor mv = super.visitMethod(ACC_PUBLIC, NEXT_METHOD_NAME, "()V", null, null);
 				mv.visitCode();
 				mv.visitVarInsn(ALOAD, 0);
 				mv.visitInsn(DUP);
 				mv.visitFieldInsn(GETFIELD, MAPPED_OBJECT_JVM, "viewAddress", "J");
-				mv.visitFieldInsn(GETSTATIC, className, "SIZEOF", "I");
+				if ( mappedSubtype.soa )
+					mv.visitInsn(ICONST_1);
+				else
+					mv.visitFieldInsn(GETSTATIC, className, "SIZEOF", "I");
 				mv.visitInsn(I2L);
 				mv.visitInsn(LADD);
 				mv.visitMethodInsn(INVOKEVIRTUAL, className, "setViewAddress", "(J)V");
@@ -424,38 +505,28 @@ public class MappedObjectTransformer {
 				mv.visitEnd();
 			}
 
-			private void generateByteBufferGetter(final String fieldName, final FieldInfo field) {
+			private void generateByteBufferGetter(final MappedSubtypeInfo mappedSubtype, final String fieldName, final FieldInfo field) {
 				MethodVisitor mv = super.visitMethod(ACC_PUBLIC | ACC_STATIC, getterName(fieldName), "(L" + className + ";I)" + field.type.getDescriptor(), null, null);
 				mv.visitCode();
-				mv.visitVarInsn(ALOAD, 0);
-				mv.visitVarInsn(ILOAD, 1);
-				mv.visitMethodInsn(INVOKEVIRTUAL, className, VIEWADDRESS_METHOD_NAME, "(I)J");
-				visitIntNode(mv, (int)field.offset);
-				mv.visitInsn(I2L);
-				mv.visitInsn(LADD);
+				visitFieldAddress(mv, mappedSubtype, field);
 				visitIntNode(mv, (int)field.length);
 				mv.visitMethodInsn(INVOKESTATIC, MAPPED_HELPER_JVM, "newBuffer", "(JI)L" + jvmClassName(ByteBuffer.class) + ";");
 				mv.visitInsn(ARETURN);
-				mv.visitMaxs(3, 2);
+				mv.visitMaxs(5, 2);
 				mv.visitEnd();
 			}
 
-			private void generateFieldGetter(final String fieldName, final FieldInfo field) {
+			private void generateFieldGetter(final MappedSubtypeInfo mappedSubtype, final String fieldName, final FieldInfo field) {
 				MethodVisitor mv = super.visitMethod(ACC_PUBLIC | ACC_STATIC, getterName(fieldName), "(L" + className + ";I)" + field.type.getDescriptor(), null, null);
 				mv.visitCode();
-				mv.visitVarInsn(ALOAD, 0);
-				mv.visitVarInsn(ILOAD, 1);
-				mv.visitMethodInsn(INVOKEVIRTUAL, className, VIEWADDRESS_METHOD_NAME, "(I)J");
-				visitIntNode(mv, (int)field.offset);
-				mv.visitInsn(I2L);
-				mv.visitInsn(LADD);
+				visitFieldAddress(mv, mappedSubtype, field);
 				mv.visitMethodInsn(INVOKESTATIC, MAPPED_HELPER_JVM, field.getAccessType() + "get", "(J)" + field.type.getDescriptor());
 				mv.visitInsn(field.type.getOpcode(IRETURN));
-				mv.visitMaxs(3, 2);
+				mv.visitMaxs(5, 2);
 				mv.visitEnd();
 			}
 
-			private void generateFieldSetter(final String fieldName, final FieldInfo field) {
+			private void generateFieldSetter(final MappedSubtypeInfo mappedSubtype, final String fieldName, final FieldInfo field) {
 				MethodVisitor mv = super.visitMethod(ACC_PUBLIC | ACC_STATIC, setterName(fieldName), "(L" + className + ";I" + field.type.getDescriptor() + ")V", null, null);
 				mv.visitCode();
 				int load = 0;
@@ -478,30 +549,47 @@ public class MappedObjectTransformer {
 						break;
 				}
 				mv.visitVarInsn(load, 2);
-				mv.visitVarInsn(ALOAD, 0);
-				mv.visitVarInsn(ILOAD, 1);
-				mv.visitMethodInsn(INVOKEVIRTUAL, className, VIEWADDRESS_METHOD_NAME, "(I)J");
-				visitIntNode(mv, (int)field.offset);
-				mv.visitInsn(I2L);
-				mv.visitInsn(LADD);
+				visitFieldAddress(mv, mappedSubtype, field);
 				mv.visitMethodInsn(INVOKESTATIC, MAPPED_HELPER_JVM, field.getAccessType() + "put", "(" + field.type.getDescriptor() + "J)V");
 				mv.visitInsn(RETURN);
-				mv.visitMaxs(4, 4);
+				mv.visitMaxs(7, 4);
 				mv.visitEnd();
 			}
 
+			/** Pushes the address of the specified field of view #1 of instance #0. */
+			private void visitFieldAddress(final MethodVisitor mv, final MappedSubtypeInfo mappedSubtype, final FieldInfo field) {
+				if ( mappedSubtype.soa ) {
+					mv.visitVarInsn(ALOAD, 0);
+					mv.visitVarInsn(ALOAD, 0);
+					mv.visitVarInsn(ILOAD, 1);
+					mv.visitMethodInsn(INVOKEVIRTUAL, className, VIEWADDRESS_METHOD_NAME, "(I)J");
+					visitIntNode(mv, (int)field.offset);
+					visitIntNode(mv, (int)field.length);
+					mv.visitMethodInsn(INVOKESTATIC, MAPPED_HELPER_JVM, "soa_address", "(L" + MAPPED_OBJECT_JVM + ";JII)J");
+				} else {
+					mv.visitVarInsn(ALOAD, 0);
+					mv.visitVarInsn(ILOAD, 1);
+					mv.visitMethodInsn(INVOKEVIRTUAL, className, VIEWADDRESS_METHOD_NAME, "(I)J");
+					visitIntNode(mv, (int)field.offset);
+					mv.visitInsn(I2L);
+					mv.visitInsn(LADD);
+				}
+			}
+
 		};
 	}
 
 	private static class TransformationAdapter extends ClassAdapter {
 
 		final String className;
+		final ClassLoader loader;
 
 		boolean transformed;
 
-		TransformationAdapter(final ClassVisitor cv, final String className) {
+		TransformationAdapter(final ClassVisitor cv, final String className, final ClassLoader loader) {
 			super(cv);
 			this.className = className;
+			this.loader = loader;
 		}
 
 		@Override
@@ -651,7 +739,11 @@ public class MappedObjectTransformer {
 				}
 
 				private Frame<BasicValue>[] analyse() throws AnalyzerException {
-					final Analyzer<BasicValue> a = new Analyzer<BasicValue>(new SimpleVerifier());
+					final SimpleVerifier verifier = new SimpleVerifier();
+					if ( loader != null )
+						verifier.setClassLoader(loader);
+
+					final Analyzer<BasicValue> a = new Analyzer<BasicValue>(verifier);
 					a.analyze(className, this);
 					return a.getFrames();
 				}
@@ -742,6 +834,7 @@ public class MappedObjectTransformer {
 				}
 
 				if ( "slice".equals(methodInsn.name) && methodInsn.desc.equals("()L" + MAPPED_OBJECT_JVM + ";") ) {
+					checkNotSOA(mappedType, methodInsn);
 					i = replace(instructions, i, methodInsn, generateSliceInstructions(methodInsn));
 					break;
 				}
@@ -752,11 +845,13 @@ public class MappedObjectTransformer {
 				}
 
 				if ( "copyTo".equals(methodInsn.name) && methodInsn.desc.equals("(L" + MAPPED_OBJECT_JVM + ";)V") ) {
+					checkNotSOA(mappedType, methodInsn);
 					i = replace(instructions, i, methodInsn, generateCopyToInstructions(mappedType));
 					break;
 				}
 
 				if ( "copyRange".equals(methodInsn.name) && methodInsn.desc.equals("(L" + MAPPED_OBJECT_JVM + ";I)V") ) {
+					checkNotSOA(mappedType, methodInsn);
 					i = replace(instructions, i, methodInsn, generateCopyRangeInstructions(mappedType));
 					break;
 				}
@@ -784,6 +879,11 @@ public class MappedObjectTransformer {
 		return i;
 	}
 
+	private static void checkNotSOA(final MappedSubtypeInfo mappedType, final MethodInsnNode methodInsn) {
+		if ( mappedType.soa )
+			throw new ClassFormatError("The " + methodInsn.name + " method is not supported by mapped types with the SOA layout: " + mappedType.className);
+	}
+
 	private static InsnList generateCopyRangeInstructions(final MappedSubtypeInfo mappedType) {
 		final InsnList list = new InsnList();
 
@@ -889,6 +989,15 @@ public class MappedObjectTransformer {
 		trg.add(new MethodInsnNode(INVOKESTATIC, MAPPED_HELPER_JVM, "setup", "(L" + MAPPED_OBJECT_JVM + ";Ljava/nio/ByteBuffer;II)V"));
 		// stack: new
 
+		if ( mappedType.soa ) {
+			trg.add(new InsnNode(DUP));
+			// stack: new, new
+			trg.add(getIntNode(mappedType.sizeof));
+			// stack: int, new, new
+			trg.add(new MethodInsnNode(INVOKESTATIC, MAPPED_HELPER_JVM, "setup_soa", "(L" + MAPPED_OBJECT_JVM + ";I)V"));
+			// stack: new
+		}
+
 		return trg;
 	}
 
@@ -923,6 +1032,9 @@ public class MappedObjectTransformer {
 			return generateByteBufferInstructions(fieldInsn, mappedSubtype, field.offset);
 
 		// we're now going to transform the field access
+		if ( mappedSubtype.soa )
+			return generateSOAFieldInstructions(fieldInsn, field);
+
 		return generateFieldInstructions(fieldInsn, field);
 	}
 
@@ -972,7 +1084,13 @@ public class MappedObjectTransformer {
 		final InsnList list = new InsnList();
 
 		if ( fieldInsn.getOpcode() == GETFIELD ) {
-			if ( mappedSubtype.sizeof_shift != 0 ) {
+			if ( mappedSubtype.soa ) {
+				// stack: instance
+				list.add(getIntNode(0));
+				// stack: 0, instance
+				list.add(new MethodInsnNode(INVOKESTATIC, MAPPED_HELPER_JVM, "get_view_shift", "(L" + MAPPED_OBJECT_JVM + ";I)I"));
+				// stack: view
+			} else if ( mappedSubtype.sizeof_shift != 0 ) {
 				// stack: instance
 				list.add(getIntNode(mappedSubtype.sizeof_shift));
 				// stack: sizeof, instance
@@ -989,7 +1107,13 @@ public class MappedObjectTransformer {
 		}
 
 		if ( fieldInsn.getOpcode() == PUTFIELD ) {
-			if ( mappedSubtype.sizeof_shift != 0 ) {
+			if ( mappedSubtype.soa ) {
+				// stack: view, instance
+				list.add(getIntNode(0));
+				// stack: 0, view, instance
+				list.add(new MethodInsnNode(INVOKESTATIC, MAPPED_HELPER_JVM, "put_view_shift", "(L" + MAPPED_OBJECT_JVM + ";II)V"));
+				// stack: -
+			} else if ( mappedSubtype.sizeof_shift != 0 ) {
 				// stack: view, instance
 				list.add(getIntNode(mappedSubtype.sizeof_shift));
 				// stack: sizeof, view, instance
@@ -1028,13 +1152,23 @@ public class MappedObjectTransformer {
 		if ( fieldInsn.getOpcode() == GETFIELD ) {
 			final InsnList list = new InsnList();
 
-			// stack: ref
-			list.add(new FieldInsnNode(GETFIELD, mappedSubtype.className, "viewAddress", "J"));
-			// stack: long
-			list.add(new LdcInsnNode(fieldOffset));
-			// stack: long, long
-			list.add(new InsnNode(LADD));
-			// stack: long
+			if ( mappedSubtype.soa ) {
+				// stack: ref
+				list.add(getIntNode((int)fieldOffset));
+				// stack: fieldOffset, ref
+				list.add(getIntNode((int)mappedSubtype.fields.get(fieldInsn.name).length));
+				// stack: fieldLength, fieldOffset, ref
+				list.add(new MethodInsnNode(INVOKESTATIC, MAPPED_HELPER_JVM, "soa_address", "(L" + MAPPED_OBJECT_JVM + ";II)J"));
+				// stack: long
+			} else {
+				// stack: ref
+				list.add(new FieldInsnNode(GETFIELD, mappedSubtype.className, "viewAddress", "J"));
+				// stack: long
+				list.add(new LdcInsnNode(fieldOffset));
+				// stack: long, long
+				list.add(new InsnNode(LADD));
+				// stack: long
+			}
 			list.add(new LdcInsnNode(mappedSubtype.fields.get(fieldInsn.name).length));
 			// stack: long, long
 			list.add(new InsnNode(L2I));
@@ -1072,6 +1206,49 @@ public class MappedObjectTransformer {
 		throw new InternalError();
 	}
 
+	private static InsnList generateSOAFieldInstructions(final FieldInsnNode fieldInsn, final FieldInfo field) {
+		final InsnList list = new InsnList();
+
+		if ( fieldInsn.getOpcode() == PUTFIELD ) {
+			// Move the value below the reference, so that the address can be computed
+			if ( field.type.getSize() == 2 ) {
+				// stack: value2, ref
+				list.add(new InsnNode(DUP2_X1));
+				// stack: value2, ref, value2
+				list.add(new InsnNode(POP2));
+				// stack: ref, value2
+			} else {
+				// stack: value, ref
+				list.add(new InsnNode(SWAP));
+				// stack: ref, value
+			}
+			list.add(getIntNode((int)field.offset));
+			// stack: fieldOffset, ref, value
+			list.add(getIntNode((int)field.length));
+			// stack: fieldLength, fieldOffset, ref, value
+			list.add(new MethodInsnNode(INVOKESTATIC, MAPPED_HELPER_JVM, "soa_address", "(L" + MAPPED_OBJECT_JVM + ";II)J"));
+			// stack: address, value
+			list.add(new MethodInsnNode(INVOKESTATIC, MAPPED_HELPER_JVM, field.getAccessType() + "put", "(" + fieldInsn.desc + "J)V"));
+			// stack: -
+			return list;
+		}
+
+		if ( fieldInsn.getOpcode() == GETFIELD ) {
+			// stack: ref
+			list.add(getIntNode((int)field.offset));
+			// stack: fieldOffset, ref
+			list.add(getIntNode((int)field.length));
+			// stack: fieldLength, fieldOffset, ref
+			list.add(new MethodInsnNode(INVOKESTATIC, MAPPED_HELPER_JVM, "soa_address", "(L" + MAPPED_OBJECT_JVM + ";II)J"));
+			// stack: address
+			list.add(new MethodInsnNode(INVOKESTATIC, MAPPED_HELPER_JVM, field.getAccessType() + "get", "(J)" + fieldInsn.desc));
+			// stack: value
+			return list;
+		}
+
+		throw new InternalError();
+	}
+
 	static int transformArrayAccess(final InsnList instructions, int i, final Map<AbstractInsnNode, Frame<BasicValue>> frameMap, final VarInsnNode loadInsn, final MappedSubtypeInfo mappedSubtype, final int var) {
 		// We need to go forward in time to find how we use the array var
 		final int loadStackSize = frameMap.get(loadInsn).getStackSize() + 1;
@@ -1191,10 +1368,11 @@ public class MappedObjectTransformer {
 		final int     align;
 		final int     padding;
 		final boolean cacheLinePadded;
+		final boolean soa;
 
 		final Map<String, FieldInfo> fields;
 
-		MappedSubtypeInfo(String className, Map<String, FieldInfo> fields, int sizeof, int align, int padding, final boolean cacheLinePadded) {
+		MappedSubtypeInfo(String className, Map<String, FieldInfo> fields, int sizeof, int align, int padding, final boolean cacheLinePadded, final boolean soa) {
 			this.className = className;
 
 			this.sizeof = sizeof;
@@ -1205,6 +1383,7 @@ public class MappedObjectTransformer {
 			this.align = align;
 			this.padding = padding;
 			this.cacheLinePadded = cacheLinePadded;
+			this.soa = soa;
 
 			this.fields = fields;
 		}
@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2002-2011 LWJGL Project
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'LWJGL' nor the names of
+ *   its contributors may be used to endorse or promote products derived
+ *   from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.lwjgl.util.mapped;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.lwjgl.util.mapped.MappedObjectUnsafe.*;
+
+/**
+ * Parallel range iteration for {@link MappedObject}. The elements are split in one range per worker thread. Range
+ * boundaries are aligned to the cache line size, so that no two workers write to the same cache line. Each worker
+ * creates its own view of the mapped data, on its own thread, so the views do not share cache lines either.
+ */
+final class MappedParallelForEach {
+
+	private static ExecutorService executor;
+
+	private MappedParallelForEach() {
+	}
+
+	/** Returns the shared executor, with one daemon thread per available processor. */
+	static synchronized ExecutorService getExecutor() {
+		if ( executor == null ) {
+			executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), new ThreadFactory() {
+				private int count;
+
+				public Thread newThread(final Runnable r) {
+					final Thread thread = new Thread(r, "MappedObject worker #" + ++count);
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+		}
+		return executor;
+	}
+
+	static <T extends MappedObject> void run(final T mapped, final int elementCount, final MappedRangeTask<T> task, final ExecutorService executor, final int parallelism) {
+		if ( elementCount < 0 )
+			throw new IllegalArgumentException("Invalid element count: " + elementCount);
+		if ( parallelism < 1 )
+			throw new IllegalArgumentException("Invalid parallelism: " + parallelism);
+
+		if ( elementCount == 0 )
+			return;
+
+		final int granularity = getGranularity(mapped);
+		final int first = getFirstAlignedElement(mapped, granularity);
+
+		// Round the range length up to the granularity, so that every boundary after the first element is aligned.
+		int rangeLength = (elementCount - first + parallelism - 1) / parallelism;
+		rangeLength = (rangeLength + granularity - 1) / granularity * granularity;
+
+		if ( parallelism == 1 || elementCount <= first + rangeLength ) {
+			runRange(mapped, 0, elementCount, task);
+			return;
+		}
+
+		final List<Future<?>> futures = new ArrayList<Future<?>>(parallelism);
+
+		// The first range also includes the unaligned elements before the first aligned element.
+		int fromIndex = first + rangeLength;
+		while ( fromIndex < elementCount ) {
+			final int from = fromIndex;
+			final int to = (int)Math.min((long)from + rangeLength, elementCount);
+
+			futures.add(executor.submit(new Runnable() {
+				public void run() {
+					runRange(mapped, from, to, task);
+				}
+			}));
+
+			fromIndex = to;
+		}
+
+		Throwable failure = null;
+		try {
+			runRange(mapped, 0, first + rangeLength, task);
+		} catch (Throwable t) {
+			failure = t;
+		}
+
+		for ( Future<?> future : futures ) {
+			try {
+				future.get();
+			} catch (ExecutionException e) {
+				if ( failure == null )
+					failure = e.getCause();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				if ( failure == null )
+					failure = e;
+			}
+		}
+
+		if ( failure instanceof RuntimeException )
+			throw (RuntimeException)failure;
+		if ( failure instanceof Error )
+			throw (Error)failure;
+		if ( failure != null )
+			throw new RuntimeException(failure);
+	}
+
+	private static <T extends MappedObject> void runRange(final T mapped, final int fromIndex, final int toIndex, final MappedRangeTask<T> task) {
+		final T view = dup(mapped);
+		view.setViewAddress(view.getViewAddress(fromIndex));
+		task.run(view, fromIndex, toIndex);
+	}
+
+	/** Equivalent to the transformed <code>mapped.dup()</code>. Transformed mapped types do not run constructor code, so none is run here either. */
+	@SuppressWarnings("unchecked")
+	private static <T extends MappedObject> T dup(final T mapped) {
+		try {
+			return (T)MappedHelper.dup(mapped, (MappedObject)INSTANCE.allocateInstance(mapped.getClass()));
+		} catch (InstantiationException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	/** Returns the number of elements that span a whole number of cache lines. */
+	private static int getGranularity(final MappedObject mapped) {
+		final int lineSize = CacheUtil.getCacheLineSize();
+
+		// With the SOA layout, a range of lineSize elements spans a whole number of cache lines in every field stream.
+		if ( mapped.streamLength != 0 )
+			return lineSize;
+
+		final int sizeof = mapped.getSizeof();
+
+		int a = lineSize;
+		int b = sizeof;
+		while ( b != 0 ) {
+			final int t = a % b;
+			a = b;
+			b = t;
+		}
+
+		return lineSize / a;
+	}
+
+	/** Returns the index of the first element that starts on a cache line boundary, or 0 if there is no such element. */
+	private static int getFirstAlignedElement(final MappedObject mapped, final int granularity) {
+		if ( mapped.streamLength != 0 )
+			return 0;
+
+		final int lineSize = CacheUtil.getCacheLineSize();
+		for ( int i = 0; i < granularity; i++ ) {
+			if ( mapped.getViewAddress(i) % lineSize == 0 )
+				return i;
+		}
+		return 0;
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2002-2011 LWJGL Project
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'LWJGL' nor the names of
+ *   its contributors may be used to endorse or promote products derived
+ *   from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.lwjgl.util.mapped;
+
+/**
+ * A task that processes a range of mapped elements, see {@link MappedObject#parallelForEach(MappedObject, int, MappedRangeTask)}.
+ * <p/>
+ * Implementations are transformed like any other class that uses mapped objects, so the <code>view</code> field,
+ * <code>next()</code> and the mapped fields of the view can be used as usual.
+ */
+public interface MappedRangeTask<T extends MappedObject> {
+
+	/**
+	 * Processes the elements from <code>fromIndex</code> (inclusive) to <code>toIndex</code> (exclusive). The view
+	 * is private to this invocation and is positioned at <code>fromIndex</code>. Calls for different ranges run
+	 * concurrently, so the task must only write to the elements of its own range.
+	 *
+	 * @param view      a view of the mapped data, positioned at <code>fromIndex</code>
+	 * @param fromIndex the index of the first element
+	 * @param toIndex   the index after the last element
+	 */
+	void run(T view, int fromIndex, int toIndex);
+
+}
\ No newline at end of file
@@ -99,4 +99,27 @@ public @interface MappedType {
 	 */
 	boolean autoGenerateOffsets() default true;
 
+	/**
+	 * The memory layout of the mapped data. See {@link Layout}.
+	 *
+	 * @return the memory layout
+	 */
+	Layout layout() default Layout.AOS;
+
+	/** The memory layouts supported by mapped objects. */
+	enum Layout {
+		/** Array-of-structures, the fields of each element are stored together, every SIZEOF bytes. This is the default. */
+		AOS,
+		/**
+		 * Structure-of-arrays, each field is stored in its own contiguous stream. For a mapped buffer of N elements, the stream of
+		 * a field starts at <code>baseAddress + fieldOffset * N</code> and the field of the current view is at
+		 * <code>stream + view * fieldLength</code>. Loops that access only some of the fields then stream linearly through memory
+		 * and do not waste cache bandwidth on the fields they skip.
+		 * <p/>
+		 * The buffer size is the same as with AOS, <code>SIZEOF * N</code>. With this layout, viewAddress is
+		 * <code>baseAddress + view</code> instead of an element address, and slice(), copyTo() and copyRange() are not supported.
+		 */
+		SOA
+	}
+
 }
\ No newline at end of file
@@ -0,0 +1,332 @@
+/*
+ * Copyright (c) 2002-2008 LWJGL Project
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'LWJGL' nor the names of
+ *   its contributors may be used to endorse or promote products derived
+ *   from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.lwjgl.util.vector;
+
+import java.nio.FloatBuffer;
+
+/**
+ * Batch operations on packed matrices, vectors and quaternions stored in float buffers.
+ * <p/>
+ * Matrices are stored in column major (OpenGL) order, 16 floats each, the same layout as
+ * {@link Matrix4f#store(FloatBuffer)}. Vectors and quaternions are stored as consecutive
+ * x, y, z(, w) floats. Elements are read starting at the buffer position and the buffer
+ * positions are not modified when the method returns. The source and destination buffers
+ * may be the same, as long as they start at the same position. This includes
+ * {@link #toMatrix}, which writes more than it reads and processes the data backwards.
+ * <p/>
+ * The data is processed in chunks that are bulk copied to and from a per-thread float array,
+ * so that the inner loops run on plain arrays, without per-element buffer access overhead.
+ * Unlike the per-object methods, these methods do not allocate and keep the shared operand
+ * in locals for the whole batch.
+ */
+public final class BatchMath {
+
+	/** The size of each chunk, in floats. A multiple of 3, 4 and 16. */
+	private static final int CHUNK_SIZE = 48 * 32;
+
+	private static final ThreadLocal<float[][]> chunks = new ThreadLocal<float[][]>() {
+		protected float[][] initialValue() {
+			return new float[][] { new float[CHUNK_SIZE], new float[CHUNK_SIZE * 4] };
+		}
+	};
+
+	private BatchMath() {
+	}
+
+	/**
+	 * Transforms <code>count</code> 4-component vectors by a matrix.
+	 *
+	 * @param matrix the matrix, 16 floats
+	 * @param src    the source vectors, 4 floats each
+	 * @param dest   the destination vectors, 4 floats each
+	 * @param count  the number of vectors
+	 */
+	public static void transform4(FloatBuffer matrix, FloatBuffer src, FloatBuffer dest, int count) {
+		checkSize(matrix, 16, 1);
+		checkSize(src, 4, count);
+		checkSize(dest, 4, count);
+
+		final int m = matrix.position();
+		final float m00 = matrix.get(m + 0), m01 = matrix.get(m + 1), m02 = matrix.get(m + 2), m03 = matrix.get(m + 3);
+		final float m10 = matrix.get(m + 4), m11 = matrix.get(m + 5), m12 = matrix.get(m + 6), m13 = matrix.get(m + 7);
+		final float m20 = matrix.get(m + 8), m21 = matrix.get(m + 9), m22 = matrix.get(m + 10), m23 = matrix.get(m + 11);
+		final float m30 = matrix.get(m + 12), m31 = matrix.get(m + 13), m32 = matrix.get(m + 14), m33 = matrix.get(m + 15);
+
+		final int srcPosition = src.position();
+		final int destPosition = dest.position();
+
+		final float[] chunk = chunks.get()[0];
+		for (int i = 0, length = count * 4; i < length; i += CHUNK_SIZE) {
+			final int n = Math.min(CHUNK_SIZE, length - i);
+
+			read(src, srcPosition + i, chunk, n);
+			for (int j = 0; j < n; j += 4) {
+				final float x = chunk[j + 0];
+				final float y = chunk[j + 1];
+				final float z = chunk[j + 2];
+				final float w = chunk[j + 3];
+
+				chunk[j + 0] = m00 * x + m10 * y + m20 * z + m30 * w;
+				chunk[j + 1] = m01 * x + m11 * y + m21 * z + m31 * w;
+				chunk[j + 2] = m02 * x + m12 * y + m22 * z + m32 * w;
+				chunk[j + 3] = m03 * x + m13 * y + m23 * z + m33 * w;
+			}
+			write(dest, destPosition + i, chunk, n);
+		}
+
+		src.position(srcPosition);
+		dest.position(destPosition);
+	}
+
+	/**
+	 * Transforms <code>count</code> 3-component points by a matrix. The points are treated as having
+	 * w = 1 and the resulting w is discarded, so this is meant for affine matrices.
+	 *
+	 * @param matrix the matrix, 16 floats
+	 * @param src    the source points, 3 floats each
+	 * @param dest   the destination points, 3 floats each
+	 * @param count  the number of points
+	 */
+	public static void transform3(FloatBuffer matrix, FloatBuffer src, FloatBuffer dest, int count) {
+		checkSize(matrix, 16, 1);
+		checkSize(src, 3, count);
+		checkSize(dest, 3, count);
+
+		final int m = matrix.position();
+		final float m00 = matrix.get(m + 0), m01 = matrix.get(m + 1), m02 = matrix.get(m + 2);
+		final float m10 = matrix.get(m + 4), m11 = matrix.get(m + 5), m12 = matrix.get(m + 6);
+		final float m20 = matrix.get(m + 8), m21 = matrix.get(m + 9), m22 = matrix.get(m + 10);
+		final float m30 = matrix.get(m + 12), m31 = matrix.get(m + 13), m32 = matrix.get(m + 14);
+
+		final int srcPosition = src.position();
+		final int destPosition = dest.position();
+
+		final float[] chunk = chunks.get()[0];
+		for (int i = 0, length = count * 3; i < length; i += CHUNK_SIZE) {
+			final int n = Math.min(CHUNK_SIZE, length - i);
+
+			read(src, srcPosition + i, chunk, n);
+			for (int j = 0; j < n; j += 3) {
+				final float x = chunk[j + 0];
+				final float y = chunk[j + 1];
+				final float z = chunk[j + 2];
+
+				chunk[j + 0] = m00 * x + m10 * y + m20 * z + m30;
+				chunk[j + 1] = m01 * x + m11 * y + m21 * z + m31;
+				chunk[j + 2] = m02 * x + m12 * y + m22 * z + m32;
+			}
+			write(dest, destPosition + i, chunk, n);
+		}
+
+		src.position(srcPosition);
+		dest.position(destPosition);
+	}
+
+	/**
+	 * Multiplies <code>count</code> pairs of matrices, <code>dest[i] = left[i] * right[i]</code>. This is
+	 * the batch equivalent of {@link Matrix4f#mul(Matrix4f, Matrix4f, Matrix4f)}.
+	 *
+	 * @param left  the left matrices, 16 floats each
+	 * @param right the right matrices, 16 floats each
+	 * @param dest  the destination matrices, 16 floats each
+	 * @param count the number of matrices
+	 */
+	public static void mul(FloatBuffer left, FloatBuffer right, FloatBuffer dest, int count) {
+		checkSize(left, 16, count);
+		checkSize(right, 16, count);
+		checkSize(dest, 16, count);
+
+		final int leftPosition = left.position();
+		final int rightPosition = right.position();
+		final int destPosition = dest.position();
+
+		final float[][] chunks = BatchMath.chunks.get();
+		final float[] l = chunks[1];
+		final float[] r = chunks[0];
+		for (int i = 0, length = count * 16; i < length; i += CHUNK_SIZE) {
+			final int n = Math.min(CHUNK_SIZE, length - i);
+
+			read(left, leftPosition + i, l, n);
+			read(right, rightPosition + i, r, n);
+			for (int j = 0; j < n; j += 16) {
+				final float l00 = l[j + 0], l01 = l[j + 1], l02 = l[j + 2], l03 = l[j + 3];
+				final float l10 = l[j + 4], l11 = l[j + 5], l12 = l[j + 6], l13 = l[j + 7];
+				final float l20 = l[j + 8], l21 = l[j + 9], l22 = l[j + 10], l23 = l[j + 11];
+				final float l30 = l[j + 12], l31 = l[j + 13], l32 = l[j + 14], l33 = l[j + 15];
+
+				// Each column of the result only depends on the same column of right, so it can be written in place.
+				for (int c = j; c < j + 16; c += 4) {
+					final float r0 = r[c + 0];
+					final float r1 = r[c + 1];
+					final float r2 = r[c + 2];
+					final float r3 = r[c + 3];
+
+					r[c + 0] = l00 * r0 + l10 * r1 + l20 * r2 + l30 * r3;
+					r[c + 1] = l01 * r0 + l11 * r1 + l21 * r2 + l31 * r3;
+					r[c + 2] = l02 * r0 + l12 * r1 + l22 * r2 + l32 * r3;
+					r[c + 3] = l03 * r0 + l13 * r1 + l23 * r2 + l33 * r3;
+				}
+			}
+			write(dest, destPosition + i, r, n);
+		}
+
+		left.position(leftPosition);
+		right.position(rightPosition);
+		dest.position(destPosition);
+	}
+
+	/**
+	 * Multiplies one matrix by <code>count</code> matrices, <code>dest[i] = left * right[i]</code>. This is
+	 * the common case of concatenating a parent transform with many child transforms.
+	 *
+	 * @param left  the left matrix, 16 floats
+	 * @param right the right matrices, 16 floats each
+	 * @param dest  the destination matrices, 16 floats each
+	 * @param count the number of matrices
+	 */
+	public static void mulLeft(FloatBuffer left, FloatBuffer right, FloatBuffer dest, int count) {
+		checkSize(left, 16, 1);
+		checkSize(right, 16, count);
+		checkSize(dest, 16, count);
+
+		final int l = left.position();
+		final float l00 = left.get(l + 0), l01 = left.get(l + 1), l02 = left.get(l + 2), l03 = left.get(l + 3);
+		final float l10 = left.get(l + 4), l11 = left.get(l + 5), l12 = left.get(l + 6), l13 = left.get(l + 7);
+		final float l20 = left.get(l + 8), l21 = left.get(l + 9), l22 = left.get(l + 10), l23 = left.get(l + 11);
+		final float l30 = left.get(l + 12), l31 = left.get(l + 13), l32 = left.get(l + 14), l33 = left.get(l + 15);
+
+		final int rightPosition = right.position();
+		final int destPosition = dest.position();
+
+		final float[] r = chunks.get()[0];
+		for (int i = 0, length = count * 16; i < length; i += CHUNK_SIZE) {
+			final int n = Math.min(CHUNK_SIZE, length - i);
+
+			read(right, rightPosition + i, r, n);
+			for (int c = 0; c < n; c += 4) { // one column per iteration
+				final float r0 = r[c + 0];
+				final float r1 = r[c + 1];
+				final float r2 = r[c + 2];
+				final float r3 = r[c + 3];
+
+				r[c + 0] = l00 * r0 + l10 * r1 + l20 * r2 + l30 * r3;
+				r[c + 1] = l01 * r0 + l11 * r1 + l21 * r2 + l31 * r3;
+				r[c + 2] = l02 * r0 + l12 * r1 + l22 * r2 + l32 * r3;
+				r[c + 3] = l03 * r0 + l13 * r1 + l23 * r2 + l33 * r3;
+			}
+			write(dest, destPosition + i, r, n);
+		}
+
+		right.position(rightPosition);
+		dest.position(destPosition);
+	}
+
+	/**
+	 * Converts <code>count</code> unit quaternions to rotation matrices.
+	 * The result is the same matrix that {@link Matrix4f#rotate(float, Vector3f)} builds from the
+	 * identity for the quaternion's angle and axis.
+	 *
+	 * @param src   the source quaternions, 4 floats each (x, y, z, w)
+	 * @param dest  the destination matrices, 16 floats each
+	 * @param count the number of quaternions
+	 */
+	public static void toMatrix(FloatBuffer src, FloatBuffer dest, int count) {
+		checkSize(src, 4, count);
+		checkSize(dest, 16, count);
+
+		final int srcPosition = src.position();
+		final int destPosition = dest.position();
+
+		final float[][] chunks = BatchMath.chunks.get();
+		final float[] q = chunks[0];
+		final float[] m = chunks[1];
+		// Backwards, so that in place the matrices written never overlap quaternions not read yet.
+		final int length = count * 4;
+		for (int i = (length - 1) / CHUNK_SIZE * CHUNK_SIZE; i >= 0; i -= CHUNK_SIZE) {
+			final int n = Math.min(CHUNK_SIZE, length - i);
+
+			read(src, srcPosition + i, q, n);
+			for (int j = 0, d = 0; j < n; j += 4, d += 16) {
+				final float x = q[j + 0];
+				final float y = q[j + 1];
+				final float z = q[j + 2];
+				final float w = q[j + 3];
+
+				final float xx = x * x, yy = y * y, zz = z * z;
+				final float xy = x * y, xz = x * z, yz = y * z;
+				final float xw = x * w, yw = y * w, zw = z * w;
+
+				m[d + 0] = 1.0f - 2.0f * (yy + zz);
+				m[d + 1] = 2.0f * (xy + zw);
+				m[d + 2] = 2.0f * (xz - yw);
+				m[d + 3] = 0.0f;
+
+				m[d + 4] = 2.0f * (xy - zw);
+				m[d + 5] = 1.0f - 2.0f * (xx + zz);
+				m[d + 6] = 2.0f * (yz + xw);
+				m[d + 7] = 0.0f;
+
+				m[d + 8] = 2.0f * (xz + yw);
+				m[d + 9] = 2.0f * (yz - xw);
+				m[d + 10] = 1.0f - 2.0f * (xx + yy);
+				m[d + 11] = 0.0f;
+
+				m[d + 12] = 0.0f;
+				m[d + 13] = 0.0f;
+				m[d + 14] = 0.0f;
+				m[d + 15] = 1.0f;
+			}
+			write(dest, destPosition + i * 4, m, n * 4);
+		}
+
+		src.position(srcPosition);
+		dest.position(destPosition);
+	}
+
+	private static void read(FloatBuffer buf, int position, float[] chunk, int length) {
+		buf.position(position);
+		buf.get(chunk, 0, length);
+	}
+
+	private static void write(FloatBuffer buf, int position, float[] chunk, int length) {
+		buf.position(position);
+		buf.put(chunk, 0, length);
+	}
+
+	private static void checkSize(FloatBuffer buf, int stride, int count) {
+		if (count < 0)
+			throw new IllegalArgumentException("Invalid count: " + count);
+		if (buf.remaining() < (long)stride * count)
+			throw new IllegalArgumentException("Number of remaining buffer elements is " + buf.remaining() + ", must be at least " + (long)stride * count);
+	}
+
+}
@@ -94,24 +94,14 @@ static void destroyWindow(JNIEnv *env, EGLDisplay disp, ANativeWindow* window) {
 	}
 }
 
-JNIEXPORT jint JNICALL Java_org_lwjgl_opengl_BoatDisplay_nGetX(JNIEnv *env, jclass unused, jlong window_ptr) {
-	return 0;
-}
-
-JNIEXPORT jint JNICALL Java_org_lwjgl_opengl_BoatDisplay_nGetY(JNIEnv *env, jclass unused, jlong window_ptr) {
-	return 0;
-}
-
-JNIEXPORT jint JNICALL Java_org_lwjgl_opengl_BoatDisplay_nGetWidth(JNIEnv *env, jclass unused, jlong window_ptr) {
-	ANativeWindow* win = (ANativeWindow*)(intptr_t)window_ptr;
-
-	return ANativeWindow_getWidth(win);
-}
-
-JNIEXPORT jint JNICALL Java_org_lwjgl_opengl_BoatDisplay_nGetHeight(JNIEnv *env, jclass unused, jlong window_ptr) {
+JNIEXPORT void JNICALL Java_org_lwjgl_opengl_BoatDisplay_nGetGeometry(JNIEnv *env, jclass unused, jlong window_ptr, jobject geometry_buffer) {
 	ANativeWindow* win = (ANativeWindow*)(intptr_t)window_ptr;
+	jint *geometry = (jint *)(*env)->GetDirectBufferAddress(env, geometry_buffer);
 
-	return ANativeWindow_getHeight(win);
+	geometry[0] = 0;
+	geometry[1] = 0;
+	geometry[2] = ANativeWindow_getWidth(win);
+	geometry[3] = ANativeWindow_getHeight(win);
 }
 
 static ANativeWindow* createWindow(JNIEnv* env, EGLDisplay disp, jint window_mode, BoatPeerInfo *peer_info, int x, int y, int width, int height, jboolean resizable) {
@@ -40,80 +40,45 @@
 #include "common_tools.h"
 #include "org_lwjgl_opengl_BoatEvent.h"
 
-JNIEXPORT jobject JNICALL Java_org_lwjgl_opengl_BoatEvent_createEventBuffer(JNIEnv *env, jclass unused) {
-	return newJavaManagedByteBuffer(env, sizeof(BoatEvent));
-}
-
-JNIEXPORT jint JNICALL Java_org_lwjgl_opengl_BoatEvent_getPending(JNIEnv *env, jclass unused) {
-	return boatWaitForEvent(0);
-}
-
-JNIEXPORT jint JNICALL Java_org_lwjgl_opengl_BoatEvent_nNextEvent(JNIEnv *env, jclass unused, jobject event_buffer) {
-	BoatEvent *event = (BoatEvent *)(*env)->GetDirectBufferAddress(env, event_buffer);
-	return boatPollEvent(event);
-}
-
-JNIEXPORT jint JNICALL Java_org_lwjgl_opengl_BoatEvent_nGetType(JNIEnv *env, jclass unused, jobject event_buffer) {
-	BoatEvent *event = (BoatEvent *)(*env)->GetDirectBufferAddress(env, event_buffer);
-	return event->type;
-}
-
-JNIEXPORT jint JNICALL Java_org_lwjgl_opengl_BoatEvent_nGetBoatMessageMessage(JNIEnv *env, jclass unused, jobject event_buffer) {
-	BoatEvent *event = (BoatEvent *)(*env)->GetDirectBufferAddress(env, event_buffer);
-	return event->message;
-}
-
-JNIEXPORT jlong JNICALL Java_org_lwjgl_opengl_BoatEvent_nGetButtonTime(JNIEnv *env, jclass unused, jobject event_buffer) {
-	BoatEvent *event = (BoatEvent *)(*env)->GetDirectBufferAddress(env, event_buffer);
-	return event->time;
-}
-
-JNIEXPORT jint JNICALL Java_org_lwjgl_opengl_BoatEvent_nGetButtonState(JNIEnv *env, jclass unused, jobject event_buffer) {
-	BoatEvent *event = (BoatEvent *)(*env)->GetDirectBufferAddress(env, event_buffer);
-	return event->state;
-}
-
-JNIEXPORT jint JNICALL Java_org_lwjgl_opengl_BoatEvent_nGetButtonType(JNIEnv *env, jclass unused, jobject event_buffer) {
-	BoatEvent *event = (BoatEvent *)(*env)->GetDirectBufferAddress(env, event_buffer);
-	return event->type;
-}
-
-JNIEXPORT jint JNICALL Java_org_lwjgl_opengl_BoatEvent_nGetButtonButton(JNIEnv *env, jclass unused, jobject event_buffer) {
-	BoatEvent *event = (BoatEvent *)(*env)->GetDirectBufferAddress(env, event_buffer);
-	return event->button;
-}
-
-JNIEXPORT jint JNICALL Java_org_lwjgl_opengl_BoatEvent_nGetButtonX(JNIEnv *env, jclass unused, jobject event_buffer) {
-	BoatEvent *event = (BoatEvent *)(*env)->GetDirectBufferAddress(env, event_buffer);
-	return event->x;
-}
-
-JNIEXPORT jint JNICALL Java_org_lwjgl_opengl_BoatEvent_nGetButtonY(JNIEnv *env, jclass unused, jobject event_buffer) {
-	BoatEvent *event = (BoatEvent *)(*env)->GetDirectBufferAddress(env, event_buffer);
-	return event->y;
-}
-
-JNIEXPORT jint JNICALL Java_org_lwjgl_opengl_BoatEvent_nGetKeyTime(JNIEnv *env, jclass unused, jobject event_buffer) {
-	BoatEvent *event = (BoatEvent *)(*env)->GetDirectBufferAddress(env, event_buffer);
-	return event->time;
-}
-
-JNIEXPORT jint JNICALL Java_org_lwjgl_opengl_BoatEvent_nGetKeyType(JNIEnv *env, jclass unused, jobject event_buffer) {
-	BoatEvent *event = (BoatEvent *)(*env)->GetDirectBufferAddress(env, event_buffer);
-	return event->type;
-}
-
-JNIEXPORT jint JNICALL Java_org_lwjgl_opengl_BoatEvent_nGetKeyKeyCode(JNIEnv *env, jclass unused, jobject event_buffer) {
-	BoatEvent *event = (BoatEvent *)(*env)->GetDirectBufferAddress(env, event_buffer);
-	return event->keycode;
-}
-
-JNIEXPORT jint JNICALL Java_org_lwjgl_opengl_BoatEvent_nGetKeyState(JNIEnv *env, jclass unused, jobject event_buffer) {
-	BoatEvent *event = (BoatEvent *)(*env)->GetDirectBufferAddress(env, event_buffer);
-	return event->state;
-}
-
-JNIEXPORT jint JNICALL Java_org_lwjgl_opengl_BoatEvent_nGetKeyKeyChar(JNIEnv *env, jclass unused, jobject event_buffer) {
-	BoatEvent *event = (BoatEvent *)(*env)->GetDirectBufferAddress(env, event_buffer);
-	return event->keychar;
+/*
+ * Packed event record, decoded on the Java side by BoatEvent. The field
+ * offsets must match the *_OFFSET constants in BoatEvent.java.
+ */
+typedef struct {
+	jint type;
+	jint message;
+	jlong time;
+	jint state;
+	jint button;
+	jint x;
+	jint y;
+	jint keycode;
+	jint keychar;
+} BoatEventRecord;
+
+JNIEXPORT jint JNICALL Java_org_lwjgl_opengl_BoatEvent_nDrainEvents(JNIEnv *env, jclass unused, jobject event_buffer, jint max_events, jint timeout) {
+	BoatEventRecord *records = (BoatEventRecord *)(*env)->GetDirectBufferAddress(env, event_buffer);
+	BoatEvent event;
+	jint count = 0;
+	if (sizeof(BoatEventRecord) != org_lwjgl_opengl_BoatEvent_EVENT_SIZE) {
+		throwException(env, "Unexpected BoatEventRecord size");
+		return 0;
+	}
+	/* Only the first event may be waited for, the rest of the batch must already be pending */
+	while (count < max_events && boatWaitForEvent(count == 0 ? timeout : 0) > 0) {
+		BoatEventRecord *record = records + count;
+		if (boatPollEvent(&event) == 0)
+			break;
+		record->type = event.type;
+		record->message = event.message;
+		record->time = event.time;
+		record->state = event.state;
+		record->button = event.button;
+		record->x = event.x;
+		record->y = event.y;
+		record->keycode = event.keycode;
+		record->keychar = event.keychar;
+		count++;
+	}
+	return count;
 }
@@ -41,16 +41,6 @@
 #include "common_tools.h"
 #include "org_lwjgl_opengl_BoatMouse.h"
 
-JNIEXPORT jint JNICALL Java_org_lwjgl_opengl_BoatMouse_nGetWindowHeight(JNIEnv *env, jclass unused, jlong window_ptr) {
-	ANativeWindow *win = (ANativeWindow *)(intptr_t)window_ptr;
-	return ANativeWindow_getHeight(win);
-}
-
-JNIEXPORT jint JNICALL Java_org_lwjgl_opengl_BoatMouse_nGetWindowWidth(JNIEnv *env, jclass unused, jlong window_ptr) {
-	ANativeWindow *win = (ANativeWindow *)(intptr_t)window_ptr;
-	return ANativeWindow_getWidth(win);
-}
-
 JNIEXPORT jint JNICALL Java_org_lwjgl_opengl_BoatMouse_nGetButtonCount(JNIEnv *env, jclass unused) {
 	int count = 16;
 
@@ -31,6 +31,7 @@
  */
 
 #include <jni.h>
+#include <string.h>
 #include "common_tools.h"
 #include "org_lwjgl_opengl_GLContext.h"
 #include "extgl.h"
@@ -39,6 +40,18 @@ JNIEXPORT jlong JNICALL Java_org_lwjgl_opengl_GLContext_ngetFunctionAddress(JNIE
 	return (jlong)(intptr_t)extgl_GetProcAddress((char *)(intptr_t)function_name);
 }
 
+JNIEXPORT void JNICALL Java_org_lwjgl_opengl_GLContext_ngetFunctionAddresses(JNIEnv *env, jclass clazz, jlong names, jint count, jlong addresses) {
+	const char *name = (const char *)(intptr_t)names;
+	jlong *address = (jlong *)(intptr_t)addresses;
+	int i;
+
+	for ( i = 0; i < count; i++ ) {
+		// Empty names are known to be missing
+		address[i] = *name == '\0' ? 0 : (jlong)(intptr_t)extgl_GetProcAddress(name);
+		name += strlen(name) + 1;
+	}
+}
+
 JNIEXPORT void JNICALL Java_org_lwjgl_opengl_GLContext_nLoadOpenGLLibrary(JNIEnv * env, jclass clazz) {
 	extgl_Open(env);
 }
@@ -8,3 +8,23 @@ JNIEXPORT void JNICALL Java_org_lwjgl_BufferUtils_zeroBuffer0(JNIEnv *env, jclas
 JNIEXPORT jlong JNICALL Java_org_lwjgl_BufferUtils_getBufferAddress(JNIEnv *env, jclass clazz, jobject buffer) {
     return (intptr_t)(*env)->GetDirectBufferAddress(env, buffer);
 }
+
+JNIEXPORT jlong JNICALL Java_org_lwjgl_BufferUtils_nmalloc(JNIEnv *env, jclass clazz, jlong size) {
+	return (intptr_t)malloc((size_t)size);
+}
+
+JNIEXPORT jlong JNICALL Java_org_lwjgl_BufferUtils_ncalloc(JNIEnv *env, jclass clazz, jlong num, jlong size) {
+	return (intptr_t)calloc((size_t)num, (size_t)size);
+}
+
+JNIEXPORT jlong JNICALL Java_org_lwjgl_BufferUtils_nrealloc(JNIEnv *env, jclass clazz, jlong address, jlong size) {
+	return (intptr_t)realloc((void *)(intptr_t)address, (size_t)size);
+}
+
+JNIEXPORT void JNICALL Java_org_lwjgl_BufferUtils_nfree(JNIEnv *env, jclass clazz, jlong address) {
+	free((void *)(intptr_t)address);
+}
+
+JNIEXPORT jobject JNICALL Java_org_lwjgl_BufferUtils_newBuffer(JNIEnv *env, jclass clazz, jlong address, jlong capacity) {
+	return (*env)->NewDirectByteBuffer(env, (void *)(intptr_t)address, capacity);
+}
@@ -66,8 +66,12 @@ public interface APPLE_gl_sharing {
 	int CL_INVALID_GL_CONTEXT_APPLE = -1000;
 
 	@Code(
-		javaBeforeNative = "\t\tif ( param_value_size_ret == null && APIUtil.isDevicesParam(param_name) ) param_value_size_ret = APIUtil.getBufferPointer();",
-		javaAfterNative = "\t\tif ( __result == CL10.CL_SUCCESS && param_value != null && APIUtil.isDevicesParam(param_name) ) context.getParent().registerCLDevices(param_value, param_value_size_ret);"
+		tryBlock = true,
+		javaBeforeNative = "\t\tMemoryStack __stack = MemoryStack.stackGet();\n" +
+		                   "\t\tint __stack_pointer = __stack.getPointer();\n" +
+		                   "\t\tif ( param_value_size_ret == null && APIUtil.isDevicesParam(param_name) ) param_value_size_ret = __stack.mallocPointer(1);",
+		javaAfterNative = "\t\t\tif ( __result == CL10.CL_SUCCESS && param_value != null && APIUtil.isDevicesParam(param_name) ) context.getParent().registerCLDevices(param_value, param_value_size_ret);",
+		javaFinally = "\t\t\t__stack.setPointer(__stack_pointer);"
 	)
 	@cl_int
 	int clGetGLContextInfoAPPLE(@PointerWrapper("cl_context") CLContext context,
@@ -359,8 +359,12 @@ public interface CL10 {
 	/* Platform API */
 
 	@Code(
-		javaBeforeNative = "\t\tif ( num_platforms == null ) num_platforms = APIUtil.getBufferInt();",
-		javaAfterNative = "\t\tif ( __result == CL_SUCCESS && platforms != null ) CLPlatform.registerCLPlatforms(platforms, num_platforms);"
+		tryBlock = true,
+		javaBeforeNative = "\t\tMemoryStack __stack = MemoryStack.stackGet();\n" +
+		                   "\t\tint __stack_pointer = __stack.getPointer();\n" +
+		                   "\t\tif ( num_platforms == null ) num_platforms = __stack.mallocInt(1);",
+		javaAfterNative = "\t\t\tif ( __result == CL_SUCCESS && platforms != null ) CLPlatform.registerCLPlatforms(platforms, num_platforms);",
+		javaFinally = "\t\t\t__stack.setPointer(__stack_pointer);"
 	)
 	@cl_int
 	int clGetPlatformIDs(@AutoSize(value = "platforms", canBeNull = true) @cl_uint int num_entries,
@@ -375,9 +379,12 @@ public interface CL10 {
 	                      @OutParameter @Check(value = "1", canBeNull = true) @NativeType("size_t") PointerBuffer param_value_size_ret);
 
 	@Code(
-		javaBeforeNative = "\t\telse\n" +
-		                   "\t\t\tnum_devices = APIUtil.getBufferInt();",
-		javaAfterNative = "\t\tif ( __result == CL_SUCCESS && devices != null ) platform.registerCLDevices(devices, num_devices);"
+		tryBlock = true,
+		javaBeforeNative = "\t\tMemoryStack __stack = MemoryStack.stackGet();\n" +
+		                   "\t\tint __stack_pointer = __stack.getPointer();\n" +
+		                   "\t\tif ( num_devices == null ) num_devices = __stack.mallocInt(1);",
+		javaAfterNative = "\t\t\tif ( __result == CL_SUCCESS && devices != null ) platform.registerCLDevices(devices, num_devices);",
+		javaFinally = "\t\t\t__stack.setPointer(__stack_pointer);"
 	)
 	@cl_int
 	int clGetDeviceIDs(@PointerWrapper("cl_platform_id") CLPlatform platform,
@@ -456,8 +463,12 @@ public interface CL10 {
 	int clReleaseContext(@PointerWrapper("cl_context") CLContext context);
 
 	@Code(
-		javaBeforeNative = "\t\tif ( param_value_size_ret == null && APIUtil.isDevicesParam(param_name) ) param_value_size_ret = APIUtil.getBufferPointer();",
-		javaAfterNative = "\t\tif ( __result == CL_SUCCESS && param_value != null && APIUtil.isDevicesParam(param_name) ) context.getParent().registerCLDevices(param_value, param_value_size_ret);"
+		tryBlock = true,
+		javaBeforeNative = "\t\tMemoryStack __stack = MemoryStack.stackGet();\n" +
+		                   "\t\tint __stack_pointer = __stack.getPointer();\n" +
+		                   "\t\tif ( param_value_size_ret == null && APIUtil.isDevicesParam(param_name) ) param_value_size_ret = __stack.mallocPointer(1);",
+		javaAfterNative = "\t\t\tif ( __result == CL_SUCCESS && param_value != null && APIUtil.isDevicesParam(param_name) ) context.getParent().registerCLDevices(param_value, param_value_size_ret);",
+		javaFinally = "\t\t\t__stack.setPointer(__stack_pointer);"
 	)
 	@cl_int
 	int clGetContextInfo(@PointerWrapper("cl_context") CLContext context,
@@ -64,8 +64,12 @@ public interface KHR_gl_sharing {
 		CL_CGL_SHAREGROUP_KHR = 0x200C;
 
 	@Code(
-		javaBeforeNative = "\t\tif ( param_value_size_ret == null && APIUtil.isDevicesParam(param_name) ) param_value_size_ret = APIUtil.getBufferPointer();",
-		javaAfterNative = "\t\tif ( __result == CL10.CL_SUCCESS && param_value != null && APIUtil.isDevicesParam(param_name) ) APIUtil.getCLPlatform(properties).registerCLDevices(param_value, param_value_size_ret);"
+		tryBlock = true,
+		javaBeforeNative = "\t\tMemoryStack __stack = MemoryStack.stackGet();\n" +
+		                   "\t\tint __stack_pointer = __stack.getPointer();\n" +
+		                   "\t\tif ( param_value_size_ret == null && APIUtil.isDevicesParam(param_name) ) param_value_size_ret = __stack.mallocPointer(1);",
+		javaAfterNative = "\t\t\tif ( __result == CL10.CL_SUCCESS && param_value != null && APIUtil.isDevicesParam(param_name) ) APIUtil.getCLPlatform(properties).registerCLDevices(param_value, param_value_size_ret);",
+		javaFinally = "\t\t\t__stack.setPointer(__stack_pointer);"
 	)
 	@cl_int
 	int clGetGLContextInfoKHR(@NullTerminated @Const @NativeType("cl_context_properties") PointerBuffer properties,
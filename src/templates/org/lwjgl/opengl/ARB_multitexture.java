@@ -74,6 +74,7 @@ public interface ARB_multitexture {
 
 	void glClientActiveTextureARB(@GLenum int texture);
 
+	@Code("		if ( StateTracker.elideActiveTexture(caps, texture) ) return;")
 	void glActiveTextureARB(@GLenum int texture);
 
 	@NoErrorCheck
@@ -83,6 +83,7 @@ public interface ARB_shader_objects {
 	int GL_SAMPLER_2D_RECT_ARB = 0x8B63;
 	int GL_SAMPLER_2D_RECT_SHADOW_ARB = 0x8B64;
 
+	@Code("		StateTracker.invalidateLocations(caps, obj);")
 	void glDeleteObjectARB(@GLhandleARB int obj);
 
 	@GLhandleARB
@@ -117,8 +118,10 @@ public interface ARB_shader_objects {
 
 	void glAttachObjectARB(@GLhandleARB int containerObj, @GLhandleARB int obj);
 
+	@Code("		StateTracker.invalidateLocations(caps, programObj);")
 	void glLinkProgramARB(@GLhandleARB int programObj);
 
+	@Code("		if ( StateTracker.elideUseProgram(caps, programObj) ) return;")
 	void glUseProgramObjectARB(@GLhandleARB int programObj);
 
 	void glValidateProgramARB(@GLhandleARB int programObj);
@@ -211,6 +214,8 @@ public interface ARB_shader_objects {
 	int glGetUniformLocationARB(@GLhandleARB int programObj, @NullTerminated @Const @GLcharARB ByteBuffer name);
 
 	@Alternate("glGetUniformLocationARB")
+	@Code(value = "\t\tint __location = StateTracker.getUniformLocation(caps, programObj, name);\n\t\tif ( __location != LocationCache.MISS ) return __location;",
+	      javaAfterNative = "\t\tStateTracker.putUniformLocation(caps, programObj, name, __result);")
 	int glGetUniformLocationARB(@GLhandleARB int programObj, @NullTerminated CharSequence name);
 
 	void glGetActiveUniformARB(@GLhandleARB int programObj, @GLuint int index, @AutoSize("name") @GLsizei int maxLength,
@@ -241,7 +246,7 @@ public interface ARB_shader_objects {
 	void glGetActiveUniformSizeARB(@GLhandleARB int programObj, @GLuint int index, @Constant("0") @GLsizei int maxLength,
 	                               @OutParameter @GLsizei @Constant("0L") IntBuffer length,
 	                               @OutParameter IntBuffer size,
-	                               @OutParameter @GLenum @Constant("MemoryUtil.getAddress(size, 1)") IntBuffer type, // Reuse size buffer and ignore
+	                               @OutParameter @GLenum @Constant("__stack.nmalloc(4, 4)") IntBuffer type, // Ignored
 	                               @OutParameter @GLcharARB @Constant("APIUtil.getBufferByte0(caps)") ByteBuffer name);
 
 	/** Overloads glGetActiveUniformARB. This version returns only the uniform type. */
@@ -249,7 +254,7 @@ public interface ARB_shader_objects {
 	@GLreturn(value = "type")
 	void glGetActiveUniformTypeARB(@GLhandleARB int programObj, @GLuint int index, @Constant("0") @GLsizei int maxLength,
 	                               @OutParameter @GLsizei @Constant("0L") IntBuffer length,
-	                               @OutParameter @Constant("MemoryUtil.getAddress(type, 1)") IntBuffer size, // Reuse type buffer and ignore
+	                               @OutParameter @Constant("__stack.nmalloc(4, 4)") IntBuffer size, // Ignored
 	                               @OutParameter @GLenum IntBuffer type,
 	                               @OutParameter @GLcharARB @Constant("APIUtil.getBufferByte0(caps)") ByteBuffer name);
 
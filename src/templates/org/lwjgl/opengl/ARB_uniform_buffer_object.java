@@ -125,7 +125,7 @@ public interface ARB_uniform_buffer_object {
 	@Reuse(value = "GL31", method = "glGetActiveUniformsi")
 	@Deprecated
 	void glGetActiveUniformsiv(@GLuint int program, @Constant("1") @GLsizei int uniformCount,
-	                           @Constant(value = "params.put(1, uniformIndex), 1", keepParam = true) int uniformIndex, // Reuse params buffer
+	                           @Constant(value = "__stack.nint(uniformIndex)", keepParam = true) int uniformIndex, // Allocated in the same stack frame
 	                           @GLenum int pname,
 	                           @OutParameter @GLint IntBuffer params);
 
@@ -134,7 +134,7 @@ public interface ARB_uniform_buffer_object {
 	@GLreturn("params")
 	@StripPostfix(value = "params", hasPostfix = false)
 	void glGetActiveUniformsiv2(@GLuint int program, @Constant("1") @GLsizei int uniformCount,
-	                            @Constant(value = "params.put(1, uniformIndex), 1", keepParam = true) int uniformIndex, // Reuse params buffer
+	                            @Constant(value = "__stack.nint(uniformIndex)", keepParam = true) int uniformIndex, // Allocated in the same stack frame
 	                            @GLenum int pname,
 	                            @OutParameter @GLint IntBuffer params);
 
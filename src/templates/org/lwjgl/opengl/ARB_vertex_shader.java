@@ -184,7 +184,7 @@ public interface ARB_vertex_shader {
 	void glGetActiveAttribSizeARB(@GLhandleARB int programObj, @GLuint int index, @Constant("0") @GLsizei int maxLength,
 	                              @OutParameter @GLsizei @Constant("0L") IntBuffer length,
 	                              @OutParameter IntBuffer size,
-	                              @OutParameter @GLenum @Constant("MemoryUtil.getAddress(size, 1)") IntBuffer type, // Reuse size buffer and ignore
+	                              @OutParameter @GLenum @Constant("__stack.nmalloc(4, 4)") IntBuffer type, // Ignored
 	                              @OutParameter @GLcharARB @Constant("APIUtil.getBufferByte0(caps)") ByteBuffer name);
 
 	/** Overloads glGetActiveAttribARB. This version returns only the attrib type. */
@@ -192,13 +192,15 @@ public interface ARB_vertex_shader {
 	@GLreturn(value = "type")
 	void glGetActiveAttribTypeARB(@GLhandleARB int programObj, @GLuint int index, @Constant("0") @GLsizei int maxLength,
 	                              @OutParameter @GLsizei @Constant("0L") IntBuffer length,
-	                              @OutParameter @Constant("MemoryUtil.getAddress(type, 1)") IntBuffer size, // Reuse type buffer and ignore
+	                              @OutParameter @Constant("__stack.nmalloc(4, 4)") IntBuffer size, // Ignored
 	                              @OutParameter @GLenum IntBuffer type,
 	                              @OutParameter @GLcharARB @Constant("APIUtil.getBufferByte0(caps)") ByteBuffer name);
 
 	int glGetAttribLocationARB(@GLhandleARB int programObj, @NullTerminated @Const @GLcharARB ByteBuffer name);
 
 	@Alternate("glGetAttribLocationARB")
+	@Code(value = "\t\tint __location = StateTracker.getAttribLocation(caps, programObj, name);\n\t\tif ( __location != LocationCache.MISS ) return __location;",
+	      javaAfterNative = "\t\tStateTracker.putAttribLocation(caps, programObj, name, __result);")
 	int glGetAttribLocationARB(@GLhandleARB int programObj, @NullTerminated CharSequence name);
 
 	@StripPostfix("params")
@@ -265,6 +265,7 @@ public interface EXT_direct_state_access {
 	 */
 
 	@Dependent("OpenGL13")
+	@Code("		StateTracker.invalidateTextures(caps);")
 	void glBindMultiTextureEXT(@GLenum int texunit, @GLenum int target, @GLuint int texture);
 
 	@Dependent("OpenGL13")
@@ -61,8 +61,10 @@ public interface EXT_draw_buffers2 {
 	@StripPostfix("data")
 	void glGetIntegerIndexedvEXT2(@GLenum int value, @GLuint int index, @OutParameter IntBuffer data);
 
+    @Code("		StateTracker.invalidateCap(caps, target);")
     void glEnableIndexedEXT(@GLenum int target, @GLuint int index);
 
+    @Code("		StateTracker.invalidateCap(caps, target);")
     void glDisableIndexedEXT(@GLenum int target, @GLuint int index);
 
     boolean glIsEnabledIndexedEXT(@GLenum int target, @GLuint int index);
@@ -164,11 +164,14 @@ public interface EXT_framebuffer_object {
 
 	boolean glIsFramebufferEXT(@GLuint int framebuffer);
 
+	@Code("		if ( StateTracker.elideBindFramebuffer(caps, target, framebuffer) ) return;")
 	void glBindFramebufferEXT(@GLenum int target, @GLuint int framebuffer);
 
+	@Code("		StateTracker.deleteFramebuffers(caps, framebuffers);")
 	void glDeleteFramebuffersEXT(@AutoSize("framebuffers") int n, @Const @GLuint IntBuffer framebuffers);
 
 	@Alternate("glDeleteFramebuffersEXT")
+	@Code("		StateTracker.deleteFramebuffer(caps, framebuffer);")
 	void glDeleteFramebuffersEXT(@Constant("1") int n, @Constant(value = "APIUtil.getInt(caps, framebuffer)", keepParam = true) int framebuffer);
 
 	void glGenFramebuffersEXT(@AutoSize("framebuffers") int n, @OutParameter @GLuint IntBuffer framebuffers);
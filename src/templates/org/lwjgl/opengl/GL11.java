@@ -727,6 +727,7 @@ public interface GL11 {
 
 	void glClear(@GLbitfield int mask);
 
+	@Code("		StateTracker.invalidateCache(caps);")
 	@DeprecatedGL
 	void glCallLists(@AutoSize("lists") @GLsizei int n, @AutoType("lists") @GLenum int type,
 	                 @Const
@@ -734,6 +735,7 @@ public interface GL11 {
 	                 @GLushort
 	                 @GLuint Buffer lists);
 
+	@Code("		StateTracker.invalidateCache(caps);")
 	@DeprecatedGL
 	void glCallList(@GLuint int list);
 
@@ -746,6 +748,7 @@ public interface GL11 {
 	              @Const
 	              @GLubyte ByteBuffer bitmap);
 
+	@Code("		if ( StateTracker.elideBindTexture(caps, target, texture) ) return;")
 	void glBindTexture(@GLenum int target, @GLuint int texture);
 
 	@DeprecatedGL
@@ -780,9 +783,11 @@ public interface GL11 {
 	@DeprecatedGL
 	void glDeleteLists(@GLuint int list, @GLsizei int range);
 
+	@Code("		StateTracker.deleteTextures(caps, textures);")
 	void glDeleteTextures(@AutoSize("textures") @GLsizei int n, @Const @GLuint IntBuffer textures);
 
 	@Alternate("glDeleteTextures")
+	@Code("		StateTracker.deleteTexture(caps, texture);")
 	void glDeleteTextures(@Constant("1") @GLsizei int n, @Constant(value = "APIUtil.getInt(caps, texture)", keepParam = true) int texture);
 
 	void glCullFace(@GLenum int mode);
@@ -890,8 +895,10 @@ public interface GL11 {
 	@DeprecatedGL
 	void glDisableClientState(@GLenum int cap);
 
+	@Code("		if ( StateTracker.elideEnable(caps, cap) ) return;")
 	void glEnable(@GLenum int cap);
 
+	@Code("		if ( StateTracker.elideDisable(caps, cap) ) return;")
 	void glDisable(@GLenum int cap);
 
 	@DeprecatedGL
@@ -1338,9 +1345,11 @@ public interface GL11 {
 	@DeprecatedGL
 	void glNormal3i(int nx, int ny, int nz);
 
+	@Code("		StateTracker.beginList(caps);")
 	@DeprecatedGL
 	void glNewList(@GLuint int list, @GLenum int mode);
 
+	@Code("		StateTracker.endList(caps);")
 	@DeprecatedGL
 	void glEndList();
 
@@ -1445,6 +1454,7 @@ public interface GL11 {
 	@DeprecatedGL
 	void glPushAttrib(@GLbitfield int mask);
 
+	@Code("		StateTracker.invalidateCache(caps);")
 	@DeprecatedGL
 	void glPopAttrib();
 
@@ -1647,5 +1657,6 @@ public interface GL11 {
 
 	void glStencilMask(@GLuint int mask);
 
+	@Code("		if ( StateTracker.elideViewport(caps, x, y, width, height) ) return;")
 	void glViewport(int x, int y, @GLsizei int width, @GLsizei int height);
 }
@@ -148,6 +148,7 @@ public interface GL13 {
 	int GL_DOT3_RGBA = 0x86AF;
 	int GL_CLAMP_TO_BORDER = 0x812D;
 
+	@Code("		if ( StateTracker.elideActiveTexture(caps, texture) ) return;")
 	void glActiveTexture(@GLenum int texture);
 
     @Code("\t\tStateTracker.getReferences(caps).glClientActiveTexture = texture - GL_TEXTURE0;")
@@ -126,12 +126,15 @@ public interface GL20 {
 
 	void glDetachShader(@GLuint int program, @GLuint int shader);
 
+	@Code("		StateTracker.invalidateLocations(caps, program);")
 	void glLinkProgram(@GLuint int program);
 
+	@Code("		if ( StateTracker.elideUseProgram(caps, program) ) return;")
 	void glUseProgram(@GLuint int program);
 
 	void glValidateProgram(@GLuint int program);
 
+	@Code("		StateTracker.invalidateLocations(caps, program);")
 	void glDeleteProgram(@GLuint int program);
 
 	void glUniform1f(int location, float v0);
@@ -252,6 +255,8 @@ public interface GL20 {
 	int glGetUniformLocation(@GLuint int program, @NullTerminated @Check("1") @Const @GLchar ByteBuffer name);
 
 	@Alternate("glGetUniformLocation")
+	@Code(value = "\t\tint __location = StateTracker.getUniformLocation(caps, program, name);\n\t\tif ( __location != LocationCache.MISS ) return __location;",
+	      javaAfterNative = "\t\tStateTracker.putUniformLocation(caps, program, name, __result);")
 	int glGetUniformLocation(@GLuint int program, @NullTerminated CharSequence name);
 
 	void glGetActiveUniform(@GLuint int program, @GLuint int index, @AutoSize("name") @GLsizei int maxLength,
@@ -282,7 +287,7 @@ public interface GL20 {
 	void glGetActiveUniformSize(@GLuint int program, @GLuint int index, @Constant("1") @GLsizei int maxLength,
 	                            @OutParameter @GLsizei @Constant("0L") IntBuffer length,
 	                            @OutParameter IntBuffer size,
-	                            @OutParameter @GLenum @Constant("MemoryUtil.getAddress(size, 1)") IntBuffer type, // Reuse size buffer and ignore
+	                            @OutParameter @GLenum @Constant("__stack.nmalloc(4, 4)") IntBuffer type, // Ignored
 	                            @OutParameter @GLchar @Constant("APIUtil.getBufferByte0(caps)") ByteBuffer name);
 
 	/** Overloads glGetActiveUniform. This version returns only the uniform type. */
@@ -290,7 +295,7 @@ public interface GL20 {
 	@GLreturn(value = "type")
 	void glGetActiveUniformType(@GLuint int program, @GLuint int index, @Constant("0") @GLsizei int maxLength,
 	                            @OutParameter @GLsizei @Constant("0L") IntBuffer length,
-	                            @OutParameter @Constant("MemoryUtil.getAddress(type, 1)") IntBuffer size, // Reuse type buffer and ignore
+	                            @OutParameter @Constant("__stack.nmalloc(4, 4)") IntBuffer size, // Ignored
 	                            @OutParameter @GLenum IntBuffer type,
 	                            @OutParameter @GLchar @Constant("APIUtil.getBufferByte0(caps)") ByteBuffer name);
 
@@ -468,7 +473,7 @@ public interface GL20 {
 	void glGetActiveAttribSize(@GLuint int program, @GLuint int index, @Constant("0") @GLsizei int maxLength,
 	                           @OutParameter @GLsizei @Constant("0L") IntBuffer length,
 	                           @OutParameter IntBuffer size,
-	                           @OutParameter @GLenum @Constant("MemoryUtil.getAddress(size, 1)") IntBuffer type, // Reuse size buffer and ignore
+	                           @OutParameter @GLenum @Constant("__stack.nmalloc(4, 4)") IntBuffer type, // Ignored
 	                           @OutParameter @GLchar @Constant("APIUtil.getBufferByte0(caps)") ByteBuffer name);
 
 	/** Overloads glGetActiveAttrib. This version returns only the attrib type. */
@@ -476,13 +481,15 @@ public interface GL20 {
 	@GLreturn(value = "type")
 	void glGetActiveAttribType(@GLuint int program, @GLuint int index, @Constant("0") @GLsizei int maxLength,
 	                           @OutParameter @GLsizei @Constant("0L") IntBuffer length,
-	                           @OutParameter @Constant("MemoryUtil.getAddress(type, 1)") IntBuffer size, // Reuse type buffer and ignore
+	                           @OutParameter @Constant("__stack.nmalloc(4, 4)") IntBuffer size, // Ignored
 	                           @OutParameter @GLenum IntBuffer type,
 	                           @OutParameter @GLchar @Constant("APIUtil.getBufferByte0(caps)") ByteBuffer name);
 
 	int glGetAttribLocation(@GLuint int program, @NullTerminated @Const @GLchar ByteBuffer name);
 
 	@Alternate("glGetAttribLocation")
+	@Code(value = "\t\tint __location = StateTracker.getAttribLocation(caps, program, name);\n\t\tif ( __location != LocationCache.MISS ) return __location;",
+	      javaAfterNative = "\t\tStateTracker.putAttribLocation(caps, program, name, __result);")
 	int glGetAttribLocation(@GLuint int program, @NullTerminated CharSequence name);
 
 	// -------------------------------------------------------------------
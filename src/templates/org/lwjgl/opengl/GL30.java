@@ -556,11 +556,14 @@ public interface GL30 {
 
 	boolean glIsFramebuffer(@GLuint int framebuffer);
 
+	@Code("		if ( StateTracker.elideBindFramebuffer(caps, target, framebuffer) ) return;")
 	void glBindFramebuffer(@GLenum int target, @GLuint int framebuffer);
 
+	@Code("		StateTracker.deleteFramebuffers(caps, framebuffers);")
 	void glDeleteFramebuffers(@AutoSize("framebuffers") int n, @Const @GLuint IntBuffer framebuffers);
 
 	@Alternate("glDeleteFramebuffers")
+	@Code("		StateTracker.deleteFramebuffer(caps, framebuffer);")
 	void glDeleteFramebuffers(@Constant("1") int n, @Constant(value = "APIUtil.getInt(caps, framebuffer)", keepParam = true) int framebuffer);
 
 	void glGenFramebuffers(@AutoSize("framebuffers") int n, @OutParameter @GLuint IntBuffer framebuffers);
@@ -861,8 +864,10 @@ public interface GL30 {
 	@StripPostfix("data")
 	void glGetIntegeri_v2(@GLenum int value, @GLuint int index, @OutParameter IntBuffer data);
 
+	@Code("		StateTracker.invalidateCap(caps, target);")
 	void glEnablei(@GLenum int target, @GLuint int index);
 
+	@Code("		StateTracker.invalidateCap(caps, target);")
 	void glDisablei(@GLenum int target, @GLuint int index);
 
 	boolean glIsEnabledi(@GLenum int target, @GLuint int index);
@@ -109,6 +109,7 @@ public interface GL41 {
 	                        @Check("1") @GLenum IntBuffer binaryFormat,
 	                        @OutParameter @GLvoid ByteBuffer binary);
 
+	@Code("		StateTracker.invalidateLocations(caps, program);")
 	void glProgramBinary(@GLuint int program, @GLenum int binaryFormat, @Const @GLvoid ByteBuffer binary, @AutoSize("binary") @GLsizei int length);
 
 	void glProgramParameteri(@GLuint int program, @GLenum int pname, int value);
@@ -405,11 +406,14 @@ public interface GL41 {
 	int GL_UNDEFINED_VERTEX = 0x8260;
 
 	@StripPostfix("v")
+	@Code("		StateTracker.invalidateViewport(caps);")
 	void glViewportArrayv(@GLuint int first, @AutoSize(value = "v", expression = " >> 2") @GLsizei int count, @Const FloatBuffer v);
 
+	@Code("		StateTracker.invalidateViewport(caps);")
 	void glViewportIndexedf(@GLuint int index, float x, float y, float w, float h);
 
 	@StripPostfix("v")
+	@Code("		StateTracker.invalidateViewport(caps);")
 	void glViewportIndexedfv(@GLuint int index, @Check("4") @Const FloatBuffer v);
 
 	@StripPostfix("v")
@@ -135,6 +135,7 @@ public interface GL44 {
 	                        @Check(value = "count", canBeNull = true) @Const @GLintptr PointerBuffer offsets,
 	                        @Check(value = "count", canBeNull = true) @Const @GLsizeiptr PointerBuffer sizes);
 
+	@Code("		StateTracker.invalidateTextures(caps);")
 	void glBindTextures(@GLuint int first, @GLsizei int count, @Check(value = "count", canBeNull = true) @Const @GLuint IntBuffer textures);
 
 	void glBindSamplers(@GLuint int first, @GLsizei int count, @Check(value = "count", canBeNull = true) @Const @GLuint IntBuffer samplers);
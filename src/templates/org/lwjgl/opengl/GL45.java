@@ -407,6 +407,7 @@ public interface GL45 {
 
 	void glGenerateTextureMipmap(@GLuint int texture);
 
+	@Code("		StateTracker.invalidateTextures(caps);")
 	void glBindTextureUnit(@GLuint int unit, @GLuint int texture);
 
 	void glGetTextureImage(@GLuint int texture, int level, @GLenum int format, @GLenum int type, @AutoSize("pixels") @GLsizei int bufSize,
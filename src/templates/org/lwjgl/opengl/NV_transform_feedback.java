@@ -161,7 +161,7 @@ public interface NV_transform_feedback {
 	void glGetActiveVaryingSizeNV(@GLuint int program, @GLuint int index, @Constant("0") @GLsizei int bufSize,
 	                              @OutParameter @GLsizei @Constant("0L") IntBuffer length,
 	                              @OutParameter IntBuffer size,
-	                              @OutParameter @GLenum @Constant("MemoryUtil.getAddress(size, 1)") IntBuffer type, // Reuse size buffer and ignore
+	                              @OutParameter @GLenum @Constant("__stack.nmalloc(4, 4)") IntBuffer type, // Ignored
 	                              @OutParameter @GLchar @Constant("APIUtil.getBufferByte0(caps)") ByteBuffer name);
 
 	/** Overloads glGetActiveVaryingNV. This version returns only the varying type. */
@@ -169,7 +169,7 @@ public interface NV_transform_feedback {
 	@GLreturn(value = "type")
 	void glGetActiveVaryingTypeNV(@GLuint int program, @GLuint int index, @Constant("0") @GLsizei int bufSize,
 	                              @OutParameter @GLsizei @Constant("0L") IntBuffer length,
-	                              @OutParameter @Constant("MemoryUtil.getAddress(type, 1)") IntBuffer size, // Reuse type buffer and ignore
+	                              @OutParameter @Constant("__stack.nmalloc(4, 4)") IntBuffer size, // Ignored
 	                              @OutParameter @GLenum IntBuffer type,
 	                              @OutParameter @GLchar @Constant("APIUtil.getBufferByte0(caps)") ByteBuffer name);
 
@@ -450,6 +450,7 @@ public interface GLES20 {
 		GL_MAX_RENDERBUFFER_SIZE                        = 0x84E8,
 		GL_INVALID_FRAMEBUFFER_OPERATION                = 0x0506;
 
+	@Code("		if ( StateTracker.elideActiveTexture(texture) ) return;")
 	void glActiveTexture(@GLenum int texture);
 
 	void glAttachShader(@GLuint int program, @GLuint int shader);
@@ -462,10 +463,12 @@ public interface GLES20 {
 	@Code("		StateTracker.bindBuffer(target, buffer);")
 	void glBindBuffer(@GLenum int target, @GLuint int buffer);
 
+	@Code("		if ( StateTracker.elideBindFramebuffer(target, framebuffer) ) return;")
 	void glBindFramebuffer(@GLenum int target, @GLuint int framebuffer);
 
 	void glBindRenderbuffer(@GLenum int target, @GLuint int renderbuffer);
 
+	@Code("		if ( StateTracker.elideBindTexture(target, texture) ) return;")
 	void glBindTexture(@GLenum int target, @GLuint int texture);
 
 	void glBlendColor(@GLclampf float red, @GLclampf float green, @GLclampf float blue, @GLclampf float alpha);
@@ -523,9 +526,11 @@ public interface GLES20 {
 	@Alternate("glDeleteBuffers")
 	void glDeleteBuffers(@Constant("1") @GLsizei int n, @Constant(value = "APIUtil.getInt(buffer)", keepParam = true) int buffer);
 
+	@Code("		StateTracker.deleteFramebuffers(framebuffers);")
 	void glDeleteFramebuffers(@AutoSize("framebuffers") int n, @Const @GLuint IntBuffer framebuffers);
 
 	@Alternate("glDeleteFramebuffers")
+	@Code("		StateTracker.deleteFramebuffer(framebuffer);")
 	void glDeleteFramebuffers(@Constant("1") int n, @Constant(value = "APIUtil.getInt(framebuffer)", keepParam = true) int framebuffer);
 
 	void glDeleteProgram(@GLuint int program);
@@ -537,9 +542,11 @@ public interface GLES20 {
 
 	void glDeleteShader(@GLuint int shader);
 
+	@Code("		StateTracker.deleteTextures(textures);")
 	void glDeleteTextures(@AutoSize("textures") @GLsizei int n, @Const @GLuint IntBuffer textures);
 
 	@Alternate("glDeleteTextures")
+	@Code("		StateTracker.deleteTexture(texture);")
 	void glDeleteTextures(@Constant("1") @GLsizei int n, @Constant(value = "APIUtil.getInt(texture)", keepParam = true) int texture);
 
 	void glDepthFunc(@GLenum int func);
@@ -550,6 +557,7 @@ public interface GLES20 {
 
 	void glDetachShader(@GLuint int program, @GLuint int shader);
 
+	@Code("		if ( StateTracker.elideDisable(cap) ) return;")
 	void glDisable(@GLenum int cap);
 
 	void glDisableVertexAttribArray(@GLuint int index);
@@ -559,6 +567,7 @@ public interface GLES20 {
 	void glDrawElements(@GLenum int mode, @AutoSize("indices") @GLsizei int count, @AutoType("indices") @GLenum int type,
 	                    @BufferObject(BufferKind.ElementVBO) @Const @GLubyte @GLushort @GLuint Buffer indices);
 
+	@Code("		if ( StateTracker.elideEnable(cap) ) return;")
 	void glEnable(@GLenum int cap);
 
 	void glEnableVertexAttribArray(@GLuint int index);
@@ -627,7 +636,7 @@ public interface GLES20 {
 	void glGetActiveAttribSize(@GLuint int program, @GLuint int index, @Constant("0") @GLsizei int bufsize,
 	                           @OutParameter @GLsizei @Constant("0L") IntBuffer length,
 	                           @OutParameter IntBuffer size,
-	                           @OutParameter @GLenum @Constant("MemoryUtil.getAddress(size, 1)") IntBuffer type, // Reuse size buffer and ignore
+	                           @OutParameter @GLenum @Constant("__stack.nmalloc(4, 4)") IntBuffer type, // Ignored
 	                           @OutParameter @GLchar @Constant("APIUtil.getBufferByte0()") ByteBuffer name);
 
 	/** Overloads glGetActiveAttrib. This version returns only the attrib type. */
@@ -635,7 +644,7 @@ public interface GLES20 {
 	@GLreturn(value = "type")
 	void glGetActiveAttribType(@GLuint int program, @GLuint int index, @Constant("0") @GLsizei int bufsize,
 	                           @OutParameter @GLsizei @Constant("0L") IntBuffer length,
-	                           @OutParameter @Constant("MemoryUtil.getAddress(type, 1)") IntBuffer size, // Reuse type buffer and ignore
+	                           @OutParameter @Constant("__stack.nmalloc(4, 4)") IntBuffer size, // Ignored
 	                           @OutParameter @GLenum IntBuffer type,
 	                           @OutParameter @GLchar @Constant("APIUtil.getBufferByte0()") ByteBuffer name);
 
@@ -667,7 +676,7 @@ public interface GLES20 {
 	void glGetActiveUniformSize(@GLuint int program, @GLuint int index, @Constant("0") @GLsizei int bufsize,
 	                            @OutParameter @GLsizei @Constant("0L") IntBuffer length,
 	                            @OutParameter IntBuffer size,
-	                            @OutParameter @GLenum @Constant("MemoryUtil.getAddress(size, 1)") IntBuffer type, // Reuse size buffer and ignore
+	                            @OutParameter @GLenum @Constant("__stack.nmalloc(4, 4)") IntBuffer type, // Ignored
 	                            @OutParameter @GLchar @Constant("APIUtil.getBufferByte0()") ByteBuffer name);
 
 	/** Overloads glGetActiveUniform. This version returns only the uniform type. */
@@ -675,7 +684,7 @@ public interface GLES20 {
 	@GLreturn(value = "type")
 	void glGetActiveUniformType(@GLuint int program, @GLuint int index, @Constant("0") @GLsizei int bufsize,
 	                            @OutParameter @GLsizei @Constant("0L") IntBuffer length,
-	                            @OutParameter @Constant("MemoryUtil.getAddress(type, 1)") IntBuffer size, // Reuse type buffer and ignore
+	                            @OutParameter @Constant("__stack.nmalloc(4, 4)") IntBuffer size, // Ignored
 	                            @OutParameter @GLenum IntBuffer type,
 	                            @OutParameter @GLchar @Constant("APIUtil.getBufferByte0()") ByteBuffer name);
 
@@ -1018,6 +1027,7 @@ public interface GLES20 {
 	@StripPostfix("matrices")
 	void glUniformMatrix4fv(int location, @AutoSize(value = "matrices", expression = " >> 4") @GLsizei int count, @GLboolean boolean transpose, @Const FloatBuffer matrices);
 
+	@Code("		if ( StateTracker.elideUseProgram(program) ) return;")
 	void glUseProgram(@GLuint int program);
 
 	void glValidateProgram(@GLuint int program);
@@ -1046,5 +1056,6 @@ public interface GLES20 {
 	                           @CachedReference(index = "index", name = "glVertexAttribPointer_buffer")
 	                           @BufferObject(BufferKind.ArrayVBO) @Check @Const @GLubyte @GLbyte @GLshort @GLushort @GLint @GLuint @GLfloat Buffer buffer);
 
+	@Code("		if ( StateTracker.elideViewport(x, y, width, height) ) return;")
 	void glViewport(@GLint int x, @GLint int y, @GLsizei int width, @GLsizei int height);
 }
\ No newline at end of file
@@ -664,7 +664,7 @@ public interface GLES30 {
 	@GLreturn("params")
 	@StripPostfix(value = "params", hasPostfix = false)
 	void glGetActiveUniformsiv(@GLuint int program, @Constant("1") @GLsizei int uniformCount,
-	                           @Constant(value = "MemoryUtil.getAddress(params.put(1, uniformIndex), 1)", keepParam = true) int uniformIndex, // Reuse params buffer
+	                           @Constant(value = "__stack.nint(uniformIndex)", keepParam = true) int uniformIndex, // Allocated in the same stack frame
 	                           @GLenum int pname,
 	                           @OutParameter @GLint IntBuffer params);
 
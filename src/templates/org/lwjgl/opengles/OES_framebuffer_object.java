@@ -157,11 +157,14 @@ public interface OES_framebuffer_object {
 
 	boolean glIsFramebufferOES(@GLuint int framebuffer);
 
+	@Code("		if ( StateTracker.elideBindFramebuffer(target, framebuffer) ) return;")
 	void glBindFramebufferOES(@GLenum int target, @GLuint int framebuffer);
 
+	@Code("		StateTracker.deleteFramebuffers(framebuffers);")
 	void glDeleteFramebuffersOES(@AutoSize("framebuffers") int n, @Const @GLuint IntBuffer framebuffers);
 
 	@Alternate("glDeleteFramebuffersOES")
+	@Code("		StateTracker.deleteFramebuffer(framebuffer);")
 	void glDeleteFramebuffersOES(@Constant("1") int n, @Constant(value = "APIUtil.getInt(framebuffer)", keepParam = true) int framebuffer);
 
 	void glGenFramebuffersOES(@AutoSize("framebuffers") int n, @OutParameter @GLuint IntBuffer framebuffers);